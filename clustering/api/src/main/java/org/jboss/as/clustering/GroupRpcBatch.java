@@ -0,0 +1,62 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * A set of RPC calls to the same target nodes, sent in a single message. Created via
+ * {@link GroupRpcDispatcher#createBatch(boolean, long)} or {@link GroupRpcDispatcher#createBatch(ClusterNode, long)}.
+ * <p>
+ * Each call is invoked on a target node in the order in which it was added to the batch. A call failing on a node does
+ * not prevent the subsequent calls of the batch from being invoked on that node.
+ */
+public interface GroupRpcBatch {
+    /**
+     * Adds an RPC call to this batch.
+     *
+     * @param <T> the expected type of the return values
+     * @param serviceName name of the target service name on which the call is invoked
+     * @param methodName name of the Java method to be called on remote services
+     * @param args array of Java Object representing the set of parameters to be given to the remote method
+     * @param types types of the parameters
+     * @return <code>Future</code> whose {@link Future#get() get()} method will return the responses of the target nodes
+     *         once the batch is {@link #send() sent}. For a batch targeting a single node, the future throws an
+     *         {@link java.util.concurrent.ExecutionException} if the call failed on that node. Since the responses would
+     *         never arrive, {@link Future#get() get()} throws an {@link IllegalStateException} if the batch was not sent
+     *         yet, and the future is cancelled if the batch is {@link #close() closed} before being sent.
+     * @throws IllegalStateException if this batch was closed
+     */
+    <T> Future<List<T>> add(String serviceName, String methodName, Object[] args, Class<?>[] types);
+
+    /**
+     * Sends the calls added to this batch so far, in a single message, and waits for the responses of the target nodes.
+     */
+    void send() throws Exception;
+
+    /**
+     * Discards the calls added to this batch since it was last sent, cancelling their futures. No calls can be added to a
+     * closed batch.
+     */
+    void close();
+}
@@ -22,6 +22,7 @@
 package org.jboss.as.clustering;
 
 import java.util.List;
+import java.util.concurrent.Future;
 
 /**
  * Provide Remote Procedure Call services to a set of nodes that share a common group communication infrastructure.
@@ -288,4 +289,60 @@ public interface GroupRpcDispatcher extends GroupCommunicationService {
      * @return the value returned by the target method
      */
     void callAsyncMethodOnCoordinatorNode(String serviceName, String methodName, Object[] args, Class<?>[] types, boolean excludeSelf, boolean unordered) throws Exception;
-}
\ No newline at end of file
+
+    /**
+     * Invokes an RPC call on all nodes of the partition/cluster without blocking until their responses are received.
+     *
+     * @param <T> the expected type of the return values
+     * @param serviceName name of the target service name on which calls are invoked
+     * @param methodName name of the Java method to be called on remote services
+     * @param args array of Java Object representing the set of parameters to be given to the remote method
+     * @param types types of the parameters
+     * @param excludeSelf <code>false</code> if the RPC must also be made on the current node of the partition,
+     *        <code>true</code> if only on remote nodes
+     * @param filter response filter instance which allows for early termination of the RPC call once acceptable responses are
+     *        received. Can be <code>null</code>.
+     * @param methodTimeout max number of ms to wait for response to arrive
+     * @param unordered <code>true</code> if the HAPartition isn't required to ensure that this RPC is invoked on all nodes in a
+     *        consistent order with respect to other RPCs originated by the same node
+     * @return <code>Future</code> whose {@link Future#get() get()} method will return the list of responses, as
+     *         {@link #callMethodOnCluster(String, String, Object[], Class[], boolean, ResponseFilter, long, boolean)} does
+     */
+    <T> Future<List<T>> callMethodOnClusterWithFuture(String serviceName, String methodName, Object[] args, Class<?>[] types, boolean excludeSelf, ResponseFilter filter, long methodTimeout, boolean unordered) throws InterruptedException;
+
+    /**
+     * Calls method on target node only, without blocking until its response is received.
+     *
+     * @param <T> the expected type of the return value
+     * @param serviceName name of the target service name on which calls are invoked
+     * @param methodName name of the Java method to be called on remote services
+     * @param args array of Java Object representing the set of parameters to be given to the remote method
+     * @param types types of the parameters
+     * @param methodTimeout max number of ms to wait for response to arrive
+     * @param targetNode is the target of the call
+     * @param unordered <code>true</code> if the HAPartition isn't required to ensure that this RPC is invoked on all nodes in a
+     *        consistent order with respect to other RPCs originated by the same node
+     * @return <code>Future</code> whose {@link Future#get() get()} method will return the value returned by the target
+     *         method, or throw an {@link java.util.concurrent.ExecutionException} wrapping the exception it threw
+     */
+    <T> Future<T> callMethodOnNodeWithFuture(String serviceName, String methodName, Object[] args, Class<?>[] types, long methodTimeout, ClusterNode targetNode, boolean unordered) throws Exception;
+
+    /**
+     * Creates a batch of RPC calls which will be sent in a single message to all nodes of the partition/cluster.
+     *
+     * @param excludeSelf <code>false</code> if the RPCs must also be made on the current node of the partition,
+     *        <code>true</code> if only on remote nodes
+     * @param methodTimeout max number of ms to wait for the responses to arrive
+     * @return a new batch
+     */
+    GroupRpcBatch createBatch(boolean excludeSelf, long methodTimeout);
+
+    /**
+     * Creates a batch of RPC calls which will be sent in a single message to the target node only.
+     *
+     * @param targetNode is the target of the calls
+     * @param methodTimeout max number of ms to wait for the response to arrive
+     * @return a new batch
+     */
+    GroupRpcBatch createBatch(ClusterNode targetNode, long methodTimeout);
+}
@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering;
+
+import java.util.Set;
+
+/**
+ * Statistics of the RPCs sent to the services of the members of a group.
+ */
+public interface GroupRpcStatistics {
+    /**
+     * @return the names of the services to which RPCs were sent
+     */
+    Set<String> getRpcServiceNames();
+
+    /**
+     * @return the number of RPCs sent to any service
+     */
+    long getRpcCallCount();
+
+    /**
+     * @return the number of RPCs sent to the specified service
+     */
+    long getRpcCallCount(String serviceName);
+
+    /**
+     * @return the number of messages carrying RPCs to any service, which is less than the number of RPCs if some were
+     *         batched
+     */
+    long getRpcMessageCount();
+
+    /**
+     * @return the number of messages carrying RPCs to the specified service, which is less than the number of RPCs if
+     *         some were batched
+     */
+    long getRpcMessageCount(String serviceName);
+
+    /**
+     * @return the average time, in milliseconds, until the responses to a synchronous RPC to any service were received
+     */
+    long getAverageRpcLatency();
+
+    /**
+     * @return the average time, in milliseconds, until the responses to a synchronous RPC to the specified service were
+     *         received
+     */
+    long getAverageRpcLatency(String serviceName);
+}
@@ -0,0 +1,159 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of the byte buffers into which objects are marshalled.
+ * <p/>
+ * Buffers come in power of two size classes, from {@link #MIN_BUFFER_SIZE} up to the maximum retained size. Each size
+ * class retains a bounded number of buffers; larger buffers, and buffers released to a full size class, are left to
+ * the garbage collector. The pool counts the buffers it had to allocate, so that the allocation rate of marshalling
+ * can be monitored.
+ */
+public class MarshallingBufferPool {
+    public static final int MIN_BUFFER_SIZE = 512;
+    public static final int DEFAULT_MAX_RETAINED_SIZE = 256 * 1024;
+    public static final int DEFAULT_BUFFERS_PER_SIZE = 16;
+
+    private static final int MIN_SIZE_SHIFT = Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE);
+    private static final MarshallingBufferPool SHARED_POOL = new MarshallingBufferPool(DEFAULT_MAX_RETAINED_SIZE, DEFAULT_BUFFERS_PER_SIZE);
+
+    private final int buffersPerSize;
+    private final Queue<byte[]>[] buffers;
+    private final AtomicInteger[] sizes;
+
+    private final AtomicLong reuses = new AtomicLong();
+    private final AtomicLong allocations = new AtomicLong();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private final AtomicLong discards = new AtomicLong();
+
+    /**
+     * Returns the pool shared by the marshalling contexts which were not given one.
+     * @return a buffer pool
+     */
+    public static MarshallingBufferPool getSharedPool() {
+        return SHARED_POOL;
+    }
+
+    /**
+     * @param maxRetainedSize the size of the largest buffer to retain, rounded up to a power of two
+     * @param buffersPerSize the number of buffers retained per size class
+     */
+    @SuppressWarnings("unchecked")
+    public MarshallingBufferPool(int maxRetainedSize, int buffersPerSize) {
+        int classes = sizeClass(Math.max(maxRetainedSize, MIN_BUFFER_SIZE)) + 1;
+        this.buffersPerSize = buffersPerSize;
+        this.buffers = new Queue[classes];
+        this.sizes = new AtomicInteger[classes];
+        for (int i = 0; i < classes; ++i) {
+            this.buffers[i] = new ConcurrentLinkedQueue<byte[]>();
+            this.sizes[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Returns a buffer of at least the specified size, reusing a pooled one if possible.
+     * @param size the minimum buffer size
+     * @return a buffer
+     */
+    public byte[] acquire(int size) {
+        int sizeClass = sizeClass(size);
+        int length = size;
+        if (sizeClass < this.buffers.length) {
+            byte[] buffer = this.buffers[sizeClass].poll();
+            if (buffer != null) {
+                this.sizes[sizeClass].decrementAndGet();
+                this.reuses.incrementAndGet();
+                return buffer;
+            }
+            length = MIN_BUFFER_SIZE << sizeClass;
+        }
+        this.allocations.incrementAndGet();
+        this.allocatedBytes.addAndGet(length);
+        return new byte[length];
+    }
+
+    /**
+     * Returns a buffer to the pool. The buffer must no longer be used by the caller.
+     * @param buffer a buffer obtained from {@link #acquire(int)}
+     */
+    public void release(byte[] buffer) {
+        int sizeClass = sizeClass(buffer.length);
+        if ((sizeClass < this.buffers.length) && (buffer.length == (MIN_BUFFER_SIZE << sizeClass))) {
+            if (this.sizes[sizeClass].incrementAndGet() <= this.buffersPerSize) {
+                this.buffers[sizeClass].offer(buffer);
+                return;
+            }
+            this.sizes[sizeClass].decrementAndGet();
+        }
+        this.discards.incrementAndGet();
+    }
+
+    /**
+     * @return the number of buffers served from the pool
+     */
+    public long getReuses() {
+        return this.reuses.get();
+    }
+
+    /**
+     * @return the number of buffers the pool had to allocate
+     */
+    public long getAllocations() {
+        return this.allocations.get();
+    }
+
+    /**
+     * @return the total size, in bytes, of the buffers the pool had to allocate
+     */
+    public long getAllocatedBytes() {
+        return this.allocatedBytes.get();
+    }
+
+    /**
+     * @return the number of released buffers which were not retained, either because they were too large or because
+     *         their size class was full
+     */
+    public long getDiscards() {
+        return this.discards.get();
+    }
+
+    /**
+     * Clears the statistics of this pool, but not the buffers it retains.
+     */
+    public void resetStatistics() {
+        this.reuses.set(0);
+        this.allocations.set(0);
+        this.allocatedBytes.set(0);
+        this.discards.set(0);
+    }
+
+    private static int sizeClass(int size) {
+        if (size <= MIN_BUFFER_SIZE) return 0;
+        return (Integer.SIZE - Integer.numberOfLeadingZeros(size - 1)) - MIN_SIZE_SHIFT;
+    }
+}
@@ -23,6 +23,9 @@
 package org.jboss.as.clustering;
 
 import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.marshalling.ClassResolver;
 import org.jboss.marshalling.Marshaller;
@@ -31,15 +34,36 @@ import org.jboss.marshalling.MarshallingConfiguration;
 import org.jboss.marshalling.Unmarshaller;
 
 /**
+ * Creates the marshallers and unmarshallers of a marshalling configuration.
+ * <p/>
+ * Marshallers and unmarshallers of the current marshalling version can be borrowed from, and returned to, a bounded
+ * pool of reusable instances, and the bytes they write go to buffers of a {@link MarshallingBufferPool}.
+ *
  * @author Paul Ferraro
  */
 public class MarshallingContext {
+    private static final int MAX_POOLED = Runtime.getRuntime().availableProcessors() * 2;
+
     private final MarshallerFactory factory;
     private final VersionedMarshallingConfiguration configuration;
+    private final MarshallingBufferPool bufferPool;
+    private final Queue<Marshaller> marshallers = new ConcurrentLinkedQueue<Marshaller>();
+    private final AtomicInteger pooledMarshallers = new AtomicInteger();
+    private final Queue<Unmarshaller> unmarshallers = new ConcurrentLinkedQueue<Unmarshaller>();
+    private final AtomicInteger pooledUnmarshallers = new AtomicInteger();
 
     public MarshallingContext(MarshallerFactory factory, VersionedMarshallingConfiguration configuration) {
+        this(factory, configuration, MarshallingBufferPool.getSharedPool());
+    }
+
+    public MarshallingContext(MarshallerFactory factory, VersionedMarshallingConfiguration configuration, MarshallingBufferPool bufferPool) {
         this.factory = factory;
         this.configuration = configuration;
+        this.bufferPool = bufferPool;
+    }
+
+    public MarshallingBufferPool getBufferPool() {
+        return this.bufferPool;
     }
 
     public int getCurrentVersion() {
@@ -54,6 +78,72 @@ public class MarshallingContext {
         return this.factory.createMarshaller(this.getMarshallingConfiguration(version));
     }
 
+    /**
+     * Borrows a marshaller for the specified version, which must be given back via
+     * {@link #releaseMarshaller(int, Marshaller, boolean)} once finished.
+     */
+    public Marshaller acquireMarshaller(int version) throws IOException {
+        if (version == this.getCurrentVersion()) {
+            Marshaller marshaller = this.marshallers.poll();
+            if (marshaller != null) {
+                this.pooledMarshallers.decrementAndGet();
+                return marshaller;
+            }
+        }
+        return this.createMarshaller(version);
+    }
+
+    /**
+     * Gives back a borrowed marshaller. A marshaller is only reused if it was finished cleanly; otherwise, or if the
+     * pool is full, it is closed.
+     * @param version the version for which the marshaller was borrowed
+     * @param marshaller a borrowed marshaller
+     * @param reusable whether the marshaller was finished cleanly
+     */
+    public void releaseMarshaller(int version, Marshaller marshaller, boolean reusable) throws IOException {
+        if (reusable && (version == this.getCurrentVersion())) {
+            if (this.pooledMarshallers.incrementAndGet() <= MAX_POOLED) {
+                this.marshallers.offer(marshaller);
+                return;
+            }
+            this.pooledMarshallers.decrementAndGet();
+        }
+        marshaller.close();
+    }
+
+    /**
+     * Borrows an unmarshaller for the specified version, which must be given back via
+     * {@link #releaseUnmarshaller(int, Unmarshaller, boolean)} once finished.
+     */
+    public Unmarshaller acquireUnmarshaller(int version) throws IOException {
+        if (version == this.getCurrentVersion()) {
+            Unmarshaller unmarshaller = this.unmarshallers.poll();
+            if (unmarshaller != null) {
+                this.pooledUnmarshallers.decrementAndGet();
+                return unmarshaller;
+            }
+        }
+        return this.createUnmarshaller(version);
+    }
+
+    /**
+     * Gives back a borrowed unmarshaller. An unmarshaller is only reused if it was finished cleanly; otherwise, or if
+     * the pool is full, it is closed.
+     * @param version the version for which the unmarshaller was borrowed
+     * @param unmarshaller a borrowed unmarshaller
+     * @param reusable whether the unmarshaller was finished cleanly
+     */
+    public void releaseUnmarshaller(int version, Unmarshaller unmarshaller, boolean reusable) throws IOException {
+        if (reusable && (version == this.getCurrentVersion())) {
+            if (this.pooledUnmarshallers.incrementAndGet() <= MAX_POOLED) {
+                this.unmarshallers.offer(unmarshaller);
+                return;
+            }
+            this.pooledUnmarshallers.decrementAndGet();
+        }
+        unmarshaller.close();
+    }
+
     // AS7-2496 Workaround
     public ClassLoader getContextClassLoader(int version) {
         final ClassResolver resolver = this.getMarshallingConfiguration(version).getClassResolver();
@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering;
+
+import java.util.Arrays;
+
+import org.jboss.marshalling.ByteOutput;
+
+/**
+ * A {@link ByteOutput} which writes into buffers of a {@link MarshallingBufferPool}, trading a buffer for a larger one
+ * as it fills up. Its buffer is returned to the pool once closed.
+ */
+class PooledByteOutput implements ByteOutput {
+    private final MarshallingBufferPool pool;
+    private byte[] buffer;
+    private int count = 0;
+
+    PooledByteOutput(MarshallingBufferPool pool) {
+        this.pool = pool;
+        this.buffer = pool.acquire(MarshallingBufferPool.MIN_BUFFER_SIZE);
+    }
+
+    @Override
+    public void write(int b) {
+        this.ensureCapacity(this.count + 1);
+        this.buffer[this.count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b) {
+        this.write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        this.ensureCapacity(this.count + len);
+        System.arraycopy(b, off, this.buffer, this.count, len);
+        this.count += len;
+    }
+
+    /**
+     * Writes an int, high byte first, as {@link java.io.DataOutput#writeInt(int)} does.
+     */
+    void writeInt(int value) {
+        this.ensureCapacity(this.count + 4);
+        this.buffer[this.count++] = (byte) (value >>> 24);
+        this.buffer[this.count++] = (byte) (value >>> 16);
+        this.buffer[this.count++] = (byte) (value >>> 8);
+        this.buffer[this.count++] = (byte) value;
+    }
+
+    /**
+     * @return a copy of the bytes written so far
+     */
+    byte[] toByteArray() {
+        return Arrays.copyOf(this.buffer, this.count);
+    }
+
+    @Override
+    public void flush() {
+        // Nothing to flush
+    }
+
+    @Override
+    public void close() {
+        byte[] buffer = this.buffer;
+        if (buffer != null) {
+            this.buffer = null;
+            this.pool.release(buffer);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > this.buffer.length) {
+            byte[] buffer = this.pool.acquire(Math.max(capacity, this.buffer.length << 1));
+            System.arraycopy(this.buffer, 0, buffer, 0, this.count);
+            this.pool.release(this.buffer);
+            this.buffer = buffer;
+        }
+    }
+}
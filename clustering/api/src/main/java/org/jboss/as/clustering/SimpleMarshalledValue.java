@@ -23,7 +23,6 @@
 package org.jboss.as.clustering;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
@@ -34,8 +33,6 @@ import java.util.Arrays;
 
 import org.jboss.marshalling.Marshaller;
 import org.jboss.marshalling.Marshalling;
-import org.jboss.marshalling.SimpleDataInput;
-import org.jboss.marshalling.SimpleDataOutput;
 import org.jboss.marshalling.Unmarshaller;
 
 /**
@@ -62,55 +59,83 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
         return this.object;
     }
 
-    byte[] getBytes() throws IOException {
+    /**
+     * Returns the serialized form of this marshalled value, marshalling its object if it was not yet serialized.
+     * @return the serialized bytes, or null if this marshalled value holds neither an object nor bytes
+     * @throws IOException if the object could not be marshalled
+     */
+    public byte[] getBytes() throws IOException {
         byte[] bytes = this.bytes;
         if (bytes != null) return bytes;
         if (this.object == null) return null;
         int version = this.context.getCurrentVersion();
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
-        SimpleDataOutput data = new SimpleDataOutput(Marshalling.createByteOutput(output));
-        data.writeInt(version);
-        Marshaller marshaller = this.context.createMarshaller(version);
+        PooledByteOutput output = new PooledByteOutput(this.context.getBufferPool());
         try {
-            marshaller.start(data);
-
-            // Workaround for AS7-2496
-            ClassLoader currentLoader = null;
-            ClassLoader contextLoader = context.getContextClassLoader(version);
-            if (contextLoader != null) {
-                currentLoader = getCurrentThreadContextClassLoader();
-                setCurrentThreadContextClassLoader(contextLoader);
-            }
+            output.writeInt(version);
+            Marshaller marshaller = this.context.acquireMarshaller(version);
+            boolean finished = false;
             try {
-                marshaller.writeObject(this.object);
-            } finally {
+                marshaller.start(output);
+
+                // Workaround for AS7-2496
+                ClassLoader currentLoader = null;
+                ClassLoader contextLoader = context.getContextClassLoader(version);
                 if (contextLoader != null) {
-                    setCurrentThreadContextClassLoader(currentLoader);
+                    currentLoader = getCurrentThreadContextClassLoader();
+                    setCurrentThreadContextClassLoader(contextLoader);
                 }
+                try {
+                    marshaller.writeObject(this.object);
+                } finally {
+                    if (contextLoader != null) {
+                        setCurrentThreadContextClassLoader(currentLoader);
+                    }
+                }
+                marshaller.finish();
+                finished = true;
+                return output.toByteArray();
+            } finally {
+                this.context.releaseMarshaller(version, marshaller, finished);
             }
-            marshaller.finish();
-            return output.toByteArray();
         } finally {
-            marshaller.close();
+            output.close();
         }
     }
 
+    /**
+     * Marshals the object of this marshalled value, unless done already, and retains its serialized form, which is then
+     * used by {@link #getBytes()} and {@link #writeExternal(ObjectOutput)} rather than marshalling the object again.
+     * Changes made to the object afterwards are thus not reflected in the serialized form.
+     * @return the serialized bytes, or null if this marshalled value holds neither an object nor bytes
+     * @throws IOException if the object could not be marshalled
+     */
+    public byte[] marshal() throws IOException {
+        byte[] bytes = this.getBytes();
+        this.bytes = bytes;
+        return bytes;
+    }
+
     /**
      * {@inheritDoc}
      * @see org.jboss.as.clustering.MarshalledValue#get(java.lang.Object)
      */
-    @SuppressWarnings("unchecked")
     @Override
-    public synchronized T get(MarshallingContext context) throws IOException, ClassNotFoundException {
+    public T get(MarshallingContext context) throws IOException, ClassNotFoundException {
+        T object = this.object;
+        return (object != null) ? object : this.rehydrate(context);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized T rehydrate(MarshallingContext context) throws IOException, ClassNotFoundException {
         if (this.object == null) {
             this.context = context;
-            if (this.bytes != null) {
-                ByteArrayInputStream input = new ByteArrayInputStream(this.bytes);
-                SimpleDataInput data = new SimpleDataInput(Marshalling.createByteInput(input));
-                int version = data.readInt();
-                Unmarshaller unmarshaller = context.createUnmarshaller(version);
+            byte[] bytes = this.bytes;
+            if (bytes != null) {
+                int version = ((bytes[0] & 0xFF) << 24) | ((bytes[1] & 0xFF) << 16) | ((bytes[2] & 0xFF) << 8) | (bytes[3] & 0xFF);
+                Unmarshaller unmarshaller = context.acquireUnmarshaller(version);
+                boolean finished = false;
                 try {
-                    unmarshaller.start(data);
+                    unmarshaller.start(Marshalling.createByteInput(new ByteArrayInputStream(bytes, 4, bytes.length - 4)));
                     // Workaround for AS7-2496
                     ClassLoader currentLoader = null;
                     ClassLoader contextLoader = context.getContextClassLoader(version);
@@ -126,9 +151,10 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
                         }
                     }
                     unmarshaller.finish();
+                    finished = true;
                     this.bytes = null; // Free up memory
                 } finally {
-                    unmarshaller.close();
+                    context.releaseUnmarshaller(version, unmarshaller, finished);
                 }
             }
         }
@@ -187,7 +213,7 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
         byte[] bytes = null;
         if (size > 0) {
             bytes = new byte[size];
-            in.read(bytes);
+            in.readFully(bytes);
         }
         this.bytes = bytes;
     }
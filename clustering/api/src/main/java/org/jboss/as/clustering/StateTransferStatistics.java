@@ -0,0 +1,47 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering;
+
+/**
+ * Statistics of the state transfers requested by the newly joined member of a group.
+ */
+public interface StateTransferStatistics {
+    /**
+     * @return the number of service states received from other members of the group
+     */
+    long getStateTransferCount();
+
+    /**
+     * @return the total size, in bytes, of the service states received from other members of the group
+     */
+    long getStateTransferBytes();
+
+    /**
+     * @return the average time, in milliseconds, spent transferring the state of a service
+     */
+    long getAverageStateTransferDuration();
+
+    /**
+     * @return the average number of bytes per second at which the state of a service was transferred
+     */
+    long getStateTransferThroughput();
+}
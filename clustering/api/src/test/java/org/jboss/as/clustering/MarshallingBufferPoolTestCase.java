@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for MarshallingBufferPool.
+ */
+public class MarshallingBufferPoolTestCase {
+
+    @Test
+    public void sizeClasses() {
+        MarshallingBufferPool pool = new MarshallingBufferPool(4096, 1);
+
+        assertEquals(MarshallingBufferPool.MIN_BUFFER_SIZE, pool.acquire(1).length);
+        assertEquals(MarshallingBufferPool.MIN_BUFFER_SIZE, pool.acquire(MarshallingBufferPool.MIN_BUFFER_SIZE).length);
+        assertEquals(1024, pool.acquire(MarshallingBufferPool.MIN_BUFFER_SIZE + 1).length);
+        assertEquals(4096, pool.acquire(4096).length);
+        // Beyond the maximum retained size, buffers have the exact size requested
+        assertEquals(5000, pool.acquire(5000).length);
+    }
+
+    @Test
+    public void reuse() {
+        MarshallingBufferPool pool = new MarshallingBufferPool(4096, 1);
+
+        byte[] buffer = pool.acquire(1000);
+        byte[] other = pool.acquire(1000);
+        assertEquals(2, pool.getAllocations());
+        assertEquals(2048, pool.getAllocatedBytes());
+
+        pool.release(buffer);
+        // Size class is full
+        pool.release(other);
+        assertEquals(1, pool.getDiscards());
+
+        assertSame(buffer, pool.acquire(1024));
+        assertEquals(1, pool.getReuses());
+        assertEquals(2, pool.getAllocations());
+
+        // Too large to be retained
+        pool.release(pool.acquire(8192));
+        assertEquals(2, pool.getDiscards());
+
+        pool.resetStatistics();
+        assertEquals(0, pool.getReuses());
+        assertEquals(0, pool.getAllocations());
+        assertEquals(0, pool.getAllocatedBytes());
+        assertEquals(0, pool.getDiscards());
+    }
+
+    @Test
+    public void output() {
+        MarshallingBufferPool pool = new MarshallingBufferPool(4096, 4);
+        PooledByteOutput output = new PooledByteOutput(pool);
+        output.writeInt(0x01020304);
+        byte[] data = new byte[2000];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = (byte) i;
+        }
+        output.write(data);
+        output.write(42);
+
+        byte[] bytes = output.toByteArray();
+        assertEquals(4 + data.length + 1, bytes.length);
+        assertEquals(1, bytes[0]);
+        assertEquals(4, bytes[3]);
+        assertEquals(data[1999], bytes[2003]);
+        assertEquals(42, bytes[2004]);
+
+        output.close();
+        output.close();
+        // The grown buffer went back to the pool
+        long allocations = pool.getAllocations();
+        assertEquals(2048, pool.acquire(2048).length);
+        assertEquals(allocations, pool.getAllocations());
+    }
+}
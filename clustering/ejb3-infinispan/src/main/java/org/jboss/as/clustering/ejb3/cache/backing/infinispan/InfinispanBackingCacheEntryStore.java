@@ -24,6 +24,7 @@ package org.jboss.as.clustering.ejb3.cache.backing.infinispan;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -300,6 +301,20 @@ public class InfinispanBackingCacheEntryStore<K extends Serializable, V extends
         this.invoker.invoke(this.cache, operation, Flag.FAIL_SILENTLY);
     }
 
+    @Override
+    public void passivateAll(final Collection<E> entries) {
+        Operation<Void> operation = new Operation<Void>() {
+            @Override
+            public Void invoke(Cache<K, MarshalledValue<E, C>> cache) {
+                for (E entry : entries) {
+                    cache.evict(entry.getId());
+                }
+                return null;
+            }
+        };
+        this.invoker.invoke(this.cache, operation, Flag.FAIL_SILENTLY);
+    }
+
     @Override
     public boolean isClustered() {
         return this.clustered;
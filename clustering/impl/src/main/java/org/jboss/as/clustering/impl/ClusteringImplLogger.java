@@ -247,4 +247,16 @@ public interface ClusteringImplLogger extends BasicLogger {
     @LogMessage(level = INFO)
     @Message(id = 10238, value = "Number of cluster members: %d")
     void numberOfClusterMembers(int size);
+
+    /**
+     * Logs a warning message indicating the chunked transfer of the state of a service from a member of the group failed,
+     * and will be attempted from another member.
+     *
+     * @param cause       the cause of the error.
+     * @param serviceName the service name.
+     * @param node        the member from which the state was transferred.
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 10239, value = "Failed to transfer state of service %s from %s")
+    void stateTransferFailed(@Cause Throwable cause, String serviceName, ClusterNode node);
 }
@@ -30,6 +30,7 @@ import org.jboss.logging.annotations.Message;
 import org.jboss.logging.annotations.MessageBundle;
 import org.jboss.logging.Messages;
 import org.jgroups.Address;
+import org.jgroups.StateTransferException;
 
 /**
  * ClusteringImplMessages
@@ -127,4 +128,54 @@ public interface ClusteringImplMessages extends ClusteringApiMessages {
      */
     @Message(id = 10248, value = "New view: %s with viewId: %d (old view: %s)")
     String viewCreated(Collection<ClusterNode> allMembers, long id, CoreGroupCommunicationService.GroupView oldView);
+
+    /**
+     * Creates an exception indicating no member of the group provides state for a service.
+     *
+     * @param serviceName the service name.
+     *
+     * @return a {@link StateTransferException} for the error.
+     */
+    @Message(id = 10249, value = "No member of the group provides state for service %s")
+    StateTransferException noStateTransferProvider(String serviceName);
+
+    /**
+     * Creates an exception indicating a member discarded the snapshot of the state of a service while it was being
+     * transferred.
+     *
+     * @param serviceName the service name.
+     * @param node        the member from which the state was transferred.
+     *
+     * @return a {@link StateTransferException} for the error.
+     */
+    @Message(id = 10250, value = "State of service %s changed on %s while being transferred")
+    StateTransferException stateSnapshotDiscarded(String serviceName, ClusterNode node);
+
+    /**
+     * Creates an exception indicating a chunk of the state of a service does not lie within the state.
+     *
+     * @param index       the index of the chunk.
+     * @param serviceName the service name.
+     * @param node        the member providing the state.
+     *
+     * @return a {@link StateTransferException} for the error.
+     */
+    @Message(id = 10251, value = "Chunk %d of the state of service %s provided by %s lies outside of the state")
+    StateTransferException invalidStateChunk(int index, String serviceName, ClusterNode node);
+
+    /**
+     * Creates an exception indicating the responses to a call of a batch were awaited before the batch was sent.
+     *
+     * @return an {@link IllegalStateException} for the error.
+     */
+    @Message(id = 10252, value = "Batch was not sent, so the responses to its calls would never be received")
+    IllegalStateException rpcBatchNotSent();
+
+    /**
+     * Creates an exception indicating a call was added to a closed batch.
+     *
+     * @return an {@link IllegalStateException} for the error.
+     */
+    @Message(id = 10253, value = "Batch is closed")
+    IllegalStateException rpcBatchClosed();
 }
@@ -56,6 +56,7 @@ class CoreGroupClassTable implements ClassTable {
             ClusterNode.class,
             RemoteLockResponse.class,
             RemoteLockResponse.Flag.class,
+            CoreGroupCommunicationService.StateChunk.class,
     };
 
     private static final Map<Class<?>, Writer> writers = createWriters();
@@ -34,33 +34,47 @@ import java.lang.ref.WeakReference;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Vector;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.AbstractQueuedSynchronizer;
 
 import org.jboss.as.clustering.ClusterNode;
 import org.jboss.as.clustering.GroupCommunicationService;
 import org.jboss.as.clustering.GroupMembershipListener;
 import org.jboss.as.clustering.GroupMembershipNotifier;
+import org.jboss.as.clustering.GroupRpcBatch;
+import org.jboss.as.clustering.GroupRpcStatistics;
 import org.jboss.as.clustering.GroupRpcDispatcher;
 import org.jboss.as.clustering.GroupStateTransferService;
 import org.jboss.as.clustering.ResponseFilter;
 import org.jboss.as.clustering.SerializableStateTransferResult;
 import org.jboss.as.clustering.StateTransferProvider;
 import org.jboss.as.clustering.StateTransferResult;
+import org.jboss.as.clustering.StateTransferStatistics;
 import org.jboss.as.clustering.StreamStateTransferResult;
 import org.jboss.marshalling.Marshaller;
 import org.jboss.marshalling.MarshallerFactory;
@@ -96,6 +110,8 @@ import org.jgroups.blocks.RspFilter;
 import org.jgroups.blocks.mux.MuxRpcDispatcher;
 import org.jgroups.stack.IpAddress;
 import org.jgroups.util.Buffer;
+import org.jgroups.util.FutureListener;
+import org.jgroups.util.NotifyingFuture;
 import org.jgroups.util.Rsp;
 import org.jgroups.util.RspList;
 
@@ -117,10 +133,13 @@ import static org.jboss.as.clustering.impl.ClusteringImplMessages.MESSAGES;
  * @author <a href="mailto:galder.zamarreno@jboss.com">Galder Zamarreno</a>
  * @author Paul Ferraro
  */
-public class CoreGroupCommunicationService implements Service<CoreGroupCommunicationService>, GroupRpcDispatcher, GroupMembershipNotifier, GroupStateTransferService {
+public class CoreGroupCommunicationService implements Service<CoreGroupCommunicationService>, GroupRpcDispatcher, GroupMembershipNotifier, GroupStateTransferService, StateTransferStatistics, GroupRpcStatistics {
     private static final byte NULL_VALUE = 0;
     private static final byte SERIALIZABLE_VALUE = 1;
 
+    /** Number of chunks of the state of a service requested at once */
+    static final int STATE_TRANSFER_WINDOW = 4;
+
     public static ServiceName getServiceName(String name) {
         return ServiceName.JBOSS.append("cluster").append(name);
     }
@@ -187,6 +206,9 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
     final short scopeId;
     private volatile RpcDispatcher dispatcher = null;
     final Map<String, Object> rpcHandlers = new ConcurrentHashMap<String, Object>();
+    private final ConcurrentMap<String, RpcStatistics> rpcStatistics = new ConcurrentHashMap<String, RpcStatistics>();
+    private final RpcStatistics totalRpcStatistics = new RpcStatistics();
+    private volatile String rpcBatchHandlerName;
     private boolean directlyInvokeLocal;
 
     /** Do we send any membership change notifications synchronously? */
@@ -199,9 +221,19 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
     private final AsynchEventHandler asynchHandler = new AsynchEventHandler(new ViewChangeEventProcessor(), "AsynchViewChangeHandler");
 
     private long state_transfer_timeout = 60000;
+    private volatile int state_transfer_chunk_size;
     volatile String stateIdPrefix;
     final Map<String, StateTransferProvider> stateProviders = new ConcurrentHashMap<String, StateTransferProvider>();
     final Map<String, StateTransferTask<?, ?>> stateTransferTasks = new ConcurrentHashMap<String, StateTransferTask<?, ?>>();
+    /** Snapshots of the service states being transferred in chunks to other members, by snapshot id */
+    final ConcurrentMap<Long, StateSnapshot> stateSnapshots = new ConcurrentHashMap<Long, StateSnapshot>();
+    private final AtomicLong stateSnapshotIds = new AtomicLong();
+    /** Discards the snapshots of service states abandoned by the members transferring them */
+    volatile ScheduledExecutorService stateSnapshotExpirationExecutor;
+    private volatile String stateTransferHandlerName;
+    private final AtomicLong stateTransferCount = new AtomicLong();
+    private final AtomicLong stateTransferBytes = new AtomicLong();
+    private final AtomicLong stateTransferDuration = new AtomicLong();
 
     private final List<String> history = new LinkedList<String>();
     private int maxHistoryLength = 100;
@@ -325,7 +357,9 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
             ClusteringImplLogger.ROOT_LOGGER.tracef("calling synchronous method on cluster, serviceName=%s, methodName=%s, members=%s, excludeSelf=%s", serviceName, methodName, this.groupView, excludeSelf);
         }
         try {
+            long start = this.rpcSent(serviceName, 1);
             RspList<T> rsp = this.dispatcher.callRemoteMethods(null, m, options);
+            this.rpcResponded(serviceName, start);
             List<T> result = this.processResponseList(rsp, serviceName, methodName, args, trace);
 
             if (!excludeSelf && this.directlyInvokeLocal && (filter == null || filter.needMoreResponses())) {
@@ -411,7 +445,10 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
             opt.setFlags(Message.OOB);
         }
         try {
-            return this.dispatcher.<T>callRemoteMethod(coord, m, opt);
+            long start = this.rpcSent(serviceName, 1);
+            T result = this.dispatcher.<T>callRemoteMethod(coord, m, opt);
+            this.rpcResponded(serviceName, start);
+            return result;
         } catch (Exception e) {
             throw e;
         } catch (Error e) {
@@ -462,7 +499,10 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
             opt.setFlags(Message.OOB);
         }
         try {
-            return this.dispatcher.<T>callRemoteMethod(((ClusterNodeImpl) targetNode).getOriginalJGAddress(), m, opt);
+            long start = this.rpcSent(serviceName, 1);
+            T result = this.dispatcher.<T>callRemoteMethod(((ClusterNodeImpl) targetNode).getOriginalJGAddress(), m, opt);
+            this.rpcResponded(serviceName, start);
+            return result;
         } catch (Exception e) {
             throw e;
         } catch (Error e) {
@@ -508,6 +548,7 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
             opt.setFlags(Message.OOB);
         }
         try {
+            this.rpcSent(serviceName, 1);
             this.dispatcher.callRemoteMethod(((ClusterNodeImpl) targetNode).getOriginalJGAddress(), m, opt);
         } catch (Exception e) {
             throw e;
@@ -545,6 +586,7 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
                     serviceName, methodName, this.groupView, excludeSelf);
         }
         try {
+            this.rpcSent(serviceName, 1);
             this.dispatcher.callRemoteMethods(null, m, options);
         } catch (RuntimeException e) {
             throw e;
@@ -598,6 +640,7 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
             opt.setFlags(Message.OOB);
         }
         try {
+            this.rpcSent(serviceName, 1);
             this.dispatcher.callRemoteMethod(coord, m, opt);
         } catch (Exception e) {
             throw e;
@@ -641,6 +684,228 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
         unregisterGroupMembershipListener(listener, false);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> Future<List<T>> callMethodOnClusterWithFuture(final String serviceName, final String methodName, final Object[] args, Class<?>[] types, boolean excludeSelf, ResponseFilter filter, long methodTimeout, boolean unordered) throws InterruptedException {
+        MethodCall m = new MethodCall(serviceName + "." + methodName, args, types);
+        RequestOptions options = new RequestOptions(ResponseMode.GET_ALL, methodTimeout, false, new NoHandlerForRPCRspFilter(filter));
+        if (excludeSelf) {
+            options.setExclusionList(this.channel.getAddress());
+        }
+        if (unordered) {
+            options.setFlags(Message.OOB);
+        }
+
+        if (this.channel.flushSupported()) {
+            this.flushBlockGate.await(this.getMethodCallTimeout());
+        }
+
+        final boolean trace = ClusteringImplLogger.ROOT_LOGGER.isTraceEnabled();
+        if (trace) {
+            ClusteringImplLogger.ROOT_LOGGER.tracef("calling method with future on cluster, serviceName=%s, methodName=%s, members=%s, excludeSelf=%s", serviceName, methodName, this.groupView, excludeSelf);
+        }
+        NotifyingFuture<RspList<T>> future = null;
+        try {
+            long start = this.rpcSent(serviceName, 1);
+            future = this.dispatcher.<T>callRemoteMethodsWithFuture(null, m, options);
+            future.setListener(new RpcResponseListener<RspList<T>>(serviceName, start));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+
+        // Invoke locally while the other nodes process the call
+        final List<T> localResponses = new ArrayList<T>(1);
+        if (!excludeSelf && this.directlyInvokeLocal) {
+            try {
+                this.invokeDirectly(serviceName, methodName, args, types, localResponses, filter);
+            } catch (Exception e) {
+                // Don't log if exception response would be filtered
+                if ((filter == null) || filter.isAcceptable(e, this.me)) {
+                    ClusteringImplLogger.ROOT_LOGGER.debugf(e, "%s local invocation failure: %s(%s)", serviceName, methodName, (args != null) ? Arrays.asList(args) : "");
+                }
+            }
+        }
+        return new ResponseFuture<RspList<T>, List<T>>(future) {
+            @Override
+            protected List<T> convert(RspList<T> rsp) {
+                List<T> result = CoreGroupCommunicationService.this.processResponseList(rsp, serviceName, methodName, args, trace);
+                result.addAll(localResponses);
+                return result;
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> Future<T> callMethodOnNodeWithFuture(final String serviceName, final String methodName, final Object[] args, final Class<?>[] types, long methodTimeout, ClusterNode targetNode, boolean unordered) throws Exception {
+        if (!(targetNode instanceof ClusterNodeImpl)) {
+            throw MESSAGES.invalidTargetNodeInstance(targetNode, ClusterNodeImpl.class);
+        }
+        if (ClusteringImplLogger.ROOT_LOGGER.isTraceEnabled()) {
+            ClusteringImplLogger.ROOT_LOGGER.tracef("callMethodOnNodeWithFuture( objName=%s, methodName=%s )", serviceName, methodName);
+        }
+        if (this.directlyInvokeLocal && this.me.equals(targetNode)) {
+            RunnableFuture<T> task = new FutureTask<T>(new Callable<T>() {
+                @Override
+                public T call() throws Exception {
+                    return CoreGroupCommunicationService.this.<T>invokeDirectly(serviceName, methodName, args, types, null, null);
+                }
+            });
+            task.run();
+            return task;
+        }
+
+        MethodCall m = new MethodCall(serviceName + "." + methodName, args, types);
+        RequestOptions opt = new RequestOptions(ResponseMode.GET_FIRST, methodTimeout, false, new NoHandlerForRPCRspFilter());
+        if (unordered) {
+            opt.setFlags(Message.OOB);
+        }
+        long start = this.rpcSent(serviceName, 1);
+        NotifyingFuture<Object> future = this.dispatcher.<Object>callRemoteMethodWithFuture(((ClusterNodeImpl) targetNode).getOriginalJGAddress(), m, opt);
+        future.setListener(new RpcResponseListener<Object>(serviceName, start));
+        return new ResponseFuture<Object, T>(future) {
+            @SuppressWarnings("unchecked")
+            @Override
+            protected T convert(Object response) throws ExecutionException {
+                if (response instanceof NoHandlerForRPC) {
+                    return null;
+                }
+                if (response instanceof Throwable) {
+                    throw new ExecutionException((Throwable) response);
+                }
+                return (T) response;
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public GroupRpcBatch createBatch(boolean excludeSelf, long methodTimeout) {
+        return new RpcBatch(null, excludeSelf, methodTimeout);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public GroupRpcBatch createBatch(ClusterNode targetNode, long methodTimeout) {
+        if (!(targetNode instanceof ClusterNodeImpl)) {
+            throw MESSAGES.invalidTargetNodeInstance(targetNode, ClusterNodeImpl.class);
+        }
+        return new RpcBatch(targetNode, false, methodTimeout);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @see org.jboss.as.clustering.GroupRpcStatistics#getRpcServiceNames()
+     */
+    @Override
+    public Set<String> getRpcServiceNames() {
+        return Collections.unmodifiableSet(this.rpcStatistics.keySet());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @see org.jboss.as.clustering.GroupRpcStatistics#getRpcCallCount()
+     */
+    @Override
+    public long getRpcCallCount() {
+        return this.totalRpcStatistics.getCallCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @see org.jboss.as.clustering.GroupRpcStatistics#getRpcCallCount(java.lang.String)
+     */
+    @Override
+    public long getRpcCallCount(String serviceName) {
+        RpcStatistics statistics = this.rpcStatistics.get(serviceName);
+        return (statistics != null) ? statistics.getCallCount() : 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @see org.jboss.as.clustering.GroupRpcStatistics#getRpcMessageCount()
+     */
+    @Override
+    public long getRpcMessageCount() {
+        return this.totalRpcStatistics.getMessageCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @see org.jboss.as.clustering.GroupRpcStatistics#getRpcMessageCount(java.lang.String)
+     */
+    @Override
+    public long getRpcMessageCount(String serviceName) {
+        RpcStatistics statistics = this.rpcStatistics.get(serviceName);
+        return (statistics != null) ? statistics.getMessageCount() : 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @see org.jboss.as.clustering.GroupRpcStatistics#getAverageRpcLatency()
+     */
+    @Override
+    public long getAverageRpcLatency() {
+        return this.totalRpcStatistics.getAverageLatency();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @see org.jboss.as.clustering.GroupRpcStatistics#getAverageRpcLatency(java.lang.String)
+     */
+    @Override
+    public long getAverageRpcLatency(String serviceName) {
+        RpcStatistics statistics = this.rpcStatistics.get(serviceName);
+        return (statistics != null) ? statistics.getAverageLatency() : 0;
+    }
+
+    /**
+     * Records a message carrying the specified number of calls to a service.
+     *
+     * @return the time at which the message was sent
+     */
+    long rpcSent(String serviceName, int calls) {
+        RpcStatistics statistics = this.getRpcStatistics(serviceName);
+        if (statistics != null) {
+            statistics.sent(calls);
+            this.totalRpcStatistics.sent(calls);
+        }
+        return System.currentTimeMillis();
+    }
+
+    void rpcResponded(String serviceName, long start) {
+        RpcStatistics statistics = this.getRpcStatistics(serviceName);
+        if (statistics != null) {
+            statistics.responded(start);
+            this.totalRpcStatistics.responded(start);
+        }
+    }
+
+    private RpcStatistics getRpcStatistics(String serviceName) {
+        // Calls to the internal handlers are not of interest
+        String prefix = this.stateIdPrefix;
+        if ((prefix != null) && serviceName.startsWith(prefix)) return null;
+        RpcStatistics statistics = this.rpcStatistics.get(serviceName);
+        if (statistics == null) {
+            RpcStatistics newStatistics = new RpcStatistics();
+            statistics = this.rpcStatistics.putIfAbsent(serviceName, newStatistics);
+            if (statistics == null) {
+                statistics = newStatistics;
+            }
+        }
+        return statistics;
+    }
+
     // *************************
     // *************************
     // State transfer management
@@ -655,6 +920,46 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
         this.state_transfer_timeout = timeout;
     }
 
+    /**
+     * @return the size, in bytes, of the chunks in which the state of a service is transferred, or 0 if the states of all
+     *         services are transferred at once via the channel
+     */
+    public int getStateTransferChunkSize() {
+        return this.state_transfer_chunk_size;
+    }
+
+    public void setStateTransferChunkSize(int size) {
+        this.state_transfer_chunk_size = size;
+    }
+
+    @Override
+    public long getStateTransferCount() {
+        return this.stateTransferCount.get();
+    }
+
+    @Override
+    public long getStateTransferBytes() {
+        return this.stateTransferBytes.get();
+    }
+
+    @Override
+    public long getAverageStateTransferDuration() {
+        long count = this.stateTransferCount.get();
+        return (count > 0) ? this.stateTransferDuration.get() / count : 0;
+    }
+
+    @Override
+    public long getStateTransferThroughput() {
+        long duration = this.stateTransferDuration.get();
+        return (duration > 0) ? this.stateTransferBytes.get() * 1000 / duration : 0;
+    }
+
+    void recordStateTransfer(int bytes, long duration) {
+        this.stateTransferCount.incrementAndGet();
+        this.stateTransferBytes.addAndGet(bytes);
+        this.stateTransferDuration.addAndGet(duration);
+    }
+
     @Override
     public Future<SerializableStateTransferResult> getServiceState(String serviceName, ClassLoader classloader) {
         RunnableFuture<SerializableStateTransferResult> future = null;
@@ -784,6 +1089,19 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
         }
 
         this.stateIdPrefix = this.getClass().getName() + "." + this.scopeId + ".";
+        this.stateTransferHandlerName = this.stateIdPrefix + "state";
+        this.rpcHandlers.put(this.stateTransferHandlerName, new StateTransferRpcHandler());
+        this.rpcBatchHandlerName = this.stateIdPrefix + "batch";
+        this.rpcHandlers.put(this.rpcBatchHandlerName, new RpcBatchHandler());
+        final String threadName = "StateSnapshotExpiration-" + this.scopeId;
+        this.stateSnapshotExpirationExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread thread = new Thread(task, threadName);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
 
         // Subscribe to events generated by the channel
         MembershipListener meml = new MembershipListenerImpl();
@@ -811,6 +1129,16 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
         if (this.dispatcher != null) {
             this.dispatcher.stop();
         }
+        if (this.stateTransferHandlerName != null) {
+            this.rpcHandlers.remove(this.stateTransferHandlerName);
+        }
+        if (this.rpcBatchHandlerName != null) {
+            this.rpcHandlers.remove(this.rpcBatchHandlerName);
+        }
+        if (this.stateSnapshotExpirationExecutor != null) {
+            this.stateSnapshotExpirationExecutor.shutdownNow();
+        }
+        this.stateSnapshots.clear();
     }
 
     protected void registerGroupMembershipListener(GroupMembershipListener listener, boolean sync) {
@@ -922,6 +1250,179 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
         return output.toByteArray();
     }
 
+    /**
+     * Marshals the current state of a service.
+     */
+    static byte[] marshalServiceState(StateTransferProvider provider) throws IOException {
+        Marshaller marshaller = marshallerFactory.createMarshaller(new MarshallingConfiguration());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        marshaller.start(Marshalling.createByteOutput(output));
+        marshaller.writeObject(provider.getCurrentState());
+        marshaller.close();
+        return output.toByteArray();
+    }
+
+    /**
+     * Transfers the state of a service from another member of the group in chunks of the given size, several of which are
+     * requested at once. The chunks whose request failed are requested again, so a partial transfer resumes where it
+     * stopped. The transfer only starts over, from the next member, if the member providing the state leaves the group or
+     * discards its snapshot of the state.
+     *
+     * @return the marshalled state of the service, or null if no other member provides it
+     */
+    byte[] transferStateInChunks(String serviceName, int chunkSize) throws Exception {
+        long deadline = System.currentTimeMillis() + this.getStateTransferTimeout();
+        Exception failure = null;
+        for (ClusterNode node : this.getClusterNodes()) {
+            if (node.equals(this.me)) continue;
+            if ((failure != null) && (System.currentTimeMillis() >= deadline)) break;
+            try {
+                byte[] state = this.transferStateInChunks(serviceName, chunkSize, node, deadline);
+                if (state != null) {
+                    return state;
+                }
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                ClusteringImplLogger.ROOT_LOGGER.stateTransferFailed(e, serviceName, node);
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return null;
+    }
+
+    private byte[] transferStateInChunks(String serviceName, int chunkSize, ClusterNode node, long deadline) throws Exception {
+        Object result = this.awaitStateChunk(this.requestStateChunk(serviceName, 0, 0, chunkSize, node), deadline);
+        if (!(result instanceof StateChunk)) {
+            // The member does not provide state for this service
+            return null;
+        }
+        StateChunk chunk = (StateChunk) result;
+        long snapshot = chunk.getSnapshot();
+        byte[] state = new byte[chunk.getLength()];
+        int chunks = (int) (((long) state.length + chunkSize - 1) / chunkSize);
+        BitSet pending = new BitSet(chunks);
+        pending.set(0, chunks);
+        copyStateChunk(chunk.getBytes(), state, 0, chunkSize, serviceName, node);
+        pending.clear(0);
+        try {
+            while (!pending.isEmpty()) {
+                Map<Integer, Future<Object>> requests = new LinkedHashMap<Integer, Future<Object>>();
+                for (int index = pending.nextSetBit(0); (index >= 0) && (requests.size() < STATE_TRANSFER_WINDOW); index = pending.nextSetBit(index + 1)) {
+                    requests.put(index, this.requestStateChunk(serviceName, snapshot, index, chunkSize, node));
+                }
+                Exception failure = null;
+                for (Map.Entry<Integer, Future<Object>> request : requests.entrySet()) {
+                    try {
+                        result = this.awaitStateChunk(request.getValue(), deadline);
+                    } catch (TimeoutException e) {
+                        // Leave the chunk pending, so it is requested again
+                        failure = e;
+                        continue;
+                    } catch (ExecutionException e) {
+                        failure = e;
+                        continue;
+                    }
+                    if (!(result instanceof StateChunk) || (((StateChunk) result).getSnapshot() != snapshot)) {
+                        throw MESSAGES.stateSnapshotDiscarded(serviceName, node);
+                    }
+                    int index = request.getKey();
+                    copyStateChunk(((StateChunk) result).getBytes(), state, index, chunkSize, serviceName, node);
+                    pending.clear(index);
+                }
+                if (failure != null) {
+                    if ((System.currentTimeMillis() >= deadline) || !this.getClusterNodes().contains(node)) {
+                        throw failure;
+                    }
+                    ClusteringImplLogger.ROOT_LOGGER.debugf(failure, "Resuming transfer of state of service %s from %s with %d of %d chunks pending", serviceName, node, pending.cardinality(), chunks);
+                }
+            }
+            return state;
+        } finally {
+            try {
+                this.callAsyncMethodOnNode(this.stateTransferHandlerName, "releaseStateSnapshot", new Object[] { snapshot }, new Class<?>[] { long.class }, node, true);
+            } catch (Exception e) {
+                ClusteringImplLogger.ROOT_LOGGER.debugf(e, "Failed to release snapshot of state of service %s on %s", serviceName, node);
+            }
+        }
+    }
+
+    /**
+     * Copies a chunk into the state, at an offset computed as a long, since the offsets of the chunks of a state of more
+     * than 2GB exceed the range of an int.
+     */
+    private static void copyStateChunk(byte[] bytes, byte[] state, int index, int chunkSize, String serviceName, ClusterNode node) throws StateTransferException {
+        long offset = (long) index * chunkSize;
+        if ((bytes.length > chunkSize) || (offset + bytes.length > state.length)) {
+            throw MESSAGES.invalidStateChunk(index, serviceName, node);
+        }
+        System.arraycopy(bytes, 0, state, (int) offset, bytes.length);
+    }
+
+    Future<Object> requestStateChunk(String serviceName, long snapshot, int index, int chunkSize, ClusterNode node) throws Exception {
+        Address address = ((ClusterNodeImpl) node).getOriginalJGAddress();
+        MethodCall m = new MethodCall(this.stateTransferHandlerName + ".getStateChunk", new Object[] { serviceName, snapshot, index, chunkSize }, new Class<?>[] { String.class, long.class, int.class, int.class });
+        RequestOptions opt = new RequestOptions(ResponseMode.GET_FIRST, this.getMethodCallTimeout());
+        // Let the provider serve the chunks concurrently
+        opt.setFlags(Message.OOB);
+        return this.dispatcher.<Object>callRemoteMethodWithFuture(address, m, opt);
+    }
+
+    private Object awaitStateChunk(Future<Object> future, long deadline) throws Exception {
+        long timeout = Math.min(this.getMethodCallTimeout(), deadline - System.currentTimeMillis());
+        try {
+            Object result = future.get(Math.max(timeout, 0), TimeUnit.MILLISECONDS);
+            if (result instanceof Throwable) {
+                throw new ExecutionException((Throwable) result);
+            }
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Schedules the given task to discard a snapshot of a service state once no member requested a chunk of it for longer
+     * than the state transfer timeout, so that the snapshots of members which stopped transferring them, e.g. since they
+     * crashed, do not linger.
+     */
+    void scheduleStateSnapshotExpiration(StateSnapshotExpiration expiration, long delay) {
+        ScheduledExecutorService executor = this.stateSnapshotExpirationExecutor;
+        if (executor == null) return;
+        try {
+            executor.schedule(expiration, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // This service is stopping, and discards all snapshots
+        }
+    }
+
+    /**
+     * Discards a snapshot of a service state no member requested a chunk of for longer than the state transfer timeout,
+     * or checks again once it would be.
+     */
+    class StateSnapshotExpiration implements Runnable {
+        private final StateSnapshot snapshot;
+
+        StateSnapshotExpiration(StateSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public void run() {
+            if (CoreGroupCommunicationService.this.stateSnapshots.get(this.snapshot.getId()) != this.snapshot) return;
+            long remaining = this.snapshot.getLastAccessed() + CoreGroupCommunicationService.this.getStateTransferTimeout() - System.currentTimeMillis();
+            if (remaining > 0) {
+                CoreGroupCommunicationService.this.scheduleStateSnapshotExpiration(this, remaining);
+            } else {
+                CoreGroupCommunicationService.this.stateSnapshots.remove(this.snapshot.getId(), this.snapshot);
+            }
+        }
+    }
+
     private <T> List<T> processResponseList(RspList<T> rspList, String serviceName, String methodName, Object[] args, boolean trace) {
         List<T> result = new ArrayList<T>(rspList.size());
         if (rspList != null) {
@@ -1426,14 +1927,7 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
                 for (Map.Entry<String, StateTransferProvider> entry: stateProviders.entrySet()) {
                     String serviceName = entry.getKey();
                     out.writeUTF(serviceName);
-                    StateTransferProvider provider = entry.getValue();
-
-                    Marshaller marshaller = marshallerFactory.createMarshaller(new MarshallingConfiguration());
-                    ByteArrayOutputStream output = new ByteArrayOutputStream();
-                    marshaller.start(Marshalling.createByteOutput(output));
-                    marshaller.writeObject(provider.getCurrentState());
-                    marshaller.close();
-                    byte[] bytes = output.toByteArray();
+                    byte[] bytes = marshalServiceState(entry.getValue());
                     out.writeInt(bytes.length);
                     out.write(bytes);
                 }
@@ -1464,12 +1958,289 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
         }
     }
 
+    /**
+     * Records the latency of an RPC once its responses are received.
+     */
+    private class RpcResponseListener<R> implements FutureListener<R> {
+        private final String serviceName;
+        private final long start;
+
+        RpcResponseListener(String serviceName, long start) {
+            this.serviceName = serviceName;
+            this.start = start;
+        }
+
+        @Override
+        public void futureDone(Future<R> future) {
+            if (!future.isCancelled()) {
+                CoreGroupCommunicationService.this.rpcResponded(this.serviceName, this.start);
+            }
+        }
+    }
+
+    /**
+     * Collects RPCs to be sent in a single message to the {@link RpcBatchHandler} of the target nodes.
+     */
+    private class RpcBatch implements GroupRpcBatch {
+        private final ClusterNode targetNode;
+        private final boolean excludeSelf;
+        private final long methodTimeout;
+        private final List<MethodCall> calls = new ArrayList<MethodCall>();
+        private final List<BatchedCallFuture<?>> futures = new ArrayList<BatchedCallFuture<?>>();
+        private boolean closed = false;
+        volatile List<Object[]> responses = Collections.emptyList();
+        volatile Exception failure;
+
+        RpcBatch(ClusterNode targetNode, boolean excludeSelf, long methodTimeout) {
+            this.targetNode = targetNode;
+            this.excludeSelf = excludeSelf;
+            this.methodTimeout = methodTimeout;
+        }
+
+        @Override
+        public synchronized <T> Future<List<T>> add(final String serviceName, final String methodName, final Object[] args, Class<?>[] types) {
+            if (this.closed) {
+                throw MESSAGES.rpcBatchClosed();
+            }
+            final int index = this.calls.size();
+            this.calls.add(new MethodCall(serviceName + "." + methodName, args, types));
+            BatchedCallFuture<List<T>> future = new BatchedCallFuture<List<T>>(new Callable<List<T>>() {
+                @SuppressWarnings("unchecked")
+                @Override
+                public List<T> call() throws Exception {
+                    if (RpcBatch.this.failure != null) {
+                        throw RpcBatch.this.failure;
+                    }
+                    List<T> result = new ArrayList<T>(RpcBatch.this.responses.size());
+                    for (Object[] response : RpcBatch.this.responses) {
+                        Object value = response[index];
+                        if (value instanceof NoHandlerForRPC) continue;
+                        if (value instanceof Throwable) {
+                            if (RpcBatch.this.targetNode != null) {
+                                if (value instanceof Exception) {
+                                    throw (Exception) value;
+                                }
+                                throw MESSAGES.caughtRemoteInvocationThrowable((Throwable) value);
+                            }
+                            ClusteringImplLogger.ROOT_LOGGER.debugf((Throwable) value, "%s batched invocation failure: %s(%s)", serviceName, methodName, (args != null) ? Arrays.asList(args) : "");
+                            continue;
+                        }
+                        result.add((T) value);
+                    }
+                    return result;
+                }
+            });
+            this.futures.add(future);
+            return future;
+        }
+
+        @Override
+        public synchronized void send() throws Exception {
+            if (this.calls.isEmpty()) return;
+            CoreGroupCommunicationService service = CoreGroupCommunicationService.this;
+            Object[] args = new Object[] { this.calls.toArray(new MethodCall[this.calls.size()]) };
+            Class<?>[] types = new Class<?>[] { MethodCall[].class };
+            // Each service of the batch is sent a single message
+            Map<String, Integer> services = new HashMap<String, Integer>();
+            for (MethodCall call : this.calls) {
+                String serviceName = call.getName().substring(0, call.getName().lastIndexOf('.'));
+                Integer count = services.get(serviceName);
+                services.put(serviceName, (count != null) ? count + 1 : 1);
+            }
+            long start = System.currentTimeMillis();
+            for (Map.Entry<String, Integer> entry : services.entrySet()) {
+                service.rpcSent(entry.getKey(), entry.getValue());
+            }
+            for (BatchedCallFuture<?> future : this.futures) {
+                future.sent = true;
+            }
+            try {
+                if (this.targetNode == null) {
+                    this.responses = service.<Object[]>callMethodOnCluster(service.rpcBatchHandlerName, "invoke", args, types, this.excludeSelf, null, this.methodTimeout, false);
+                } else {
+                    Object[] response = service.<Object[]>callMethodOnNode(service.rpcBatchHandlerName, "invoke", args, types, this.methodTimeout, this.targetNode, false);
+                    this.responses = (response != null) ? Collections.singletonList(response) : Collections.<Object[]>emptyList();
+                }
+                for (String serviceName : services.keySet()) {
+                    service.rpcResponded(serviceName, start);
+                }
+            } catch (Exception e) {
+                this.failure = e;
+                throw e;
+            } finally {
+                for (RunnableFuture<?> future : this.futures) {
+                    future.run();
+                }
+                this.calls.clear();
+                this.futures.clear();
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            this.closed = true;
+            for (Future<?> future : this.futures) {
+                future.cancel(false);
+            }
+            this.calls.clear();
+            this.futures.clear();
+        }
+    }
+
+    /**
+     * The future responses to a call of a batch, which fails to wait for them if the batch was not sent, since they would
+     * never arrive.
+     */
+    private static class BatchedCallFuture<T> extends FutureTask<T> {
+        volatile boolean sent = false;
+
+        BatchedCallFuture(Callable<T> task) {
+            super(task);
+        }
+
+        @Override
+        public T get() throws InterruptedException, ExecutionException {
+            if (!this.sent && !this.isDone()) {
+                throw MESSAGES.rpcBatchNotSent();
+            }
+            return super.get();
+        }
+    }
+
+    /**
+     * Invokes the RPCs of a batch, each on the handler registered for its service.
+     */
+    public class RpcBatchHandler {
+        /**
+         * @return the value returned, or the exception thrown, by each call, or a {@link NoHandlerForRPC} for the calls to
+         *         services this node does not handle
+         */
+        public Object[] invoke(MethodCall[] calls) {
+            Object[] results = new Object[calls.length];
+            for (int i = 0; i < calls.length; ++i) {
+                String name = calls[i].getName();
+                int idx = name.lastIndexOf('.');
+                Object handler = CoreGroupCommunicationService.this.rpcHandlers.get(name.substring(0, idx));
+                if (handler == null) {
+                    results[i] = new NoHandlerForRPC();
+                    continue;
+                }
+                // Leave the call untouched, since it is shared with the caller if invoked locally
+                MethodCall call = new MethodCall(name.substring(idx + 1), calls[i].getArgs(), calls[i].getTypes());
+                try {
+                    results[i] = call.invoke(handler);
+                } catch (Throwable t) {
+                    results[i] = t;
+                }
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Provides other members of the group with the state of services in chunks.
+     */
+    public class StateTransferRpcHandler {
+        /**
+         * Returns a chunk of a snapshot of the state of a service. The snapshot is taken upon the request of its first
+         * chunk, i.e. when the snapshot id is 0.
+         *
+         * @return the chunk, or null if this member does not provide state for the service or discarded the snapshot
+         */
+        public StateChunk getStateChunk(String serviceName, long snapshotId, int index, int chunkSize) throws IOException, StateTransferException {
+            if ((index < 0) || (chunkSize <= 0)) {
+                throw MESSAGES.invalidStateChunk(index, serviceName, CoreGroupCommunicationService.this.me);
+            }
+            StateSnapshot snapshot = null;
+            if (snapshotId == 0) {
+                StateTransferProvider provider = CoreGroupCommunicationService.this.stateProviders.get(serviceName);
+                if (provider == null) return null;
+                snapshot = new StateSnapshot(CoreGroupCommunicationService.this.stateSnapshotIds.incrementAndGet(), marshalServiceState(provider));
+                CoreGroupCommunicationService.this.stateSnapshots.put(snapshot.getId(), snapshot);
+                CoreGroupCommunicationService.this.scheduleStateSnapshotExpiration(new StateSnapshotExpiration(snapshot), CoreGroupCommunicationService.this.getStateTransferTimeout());
+            } else {
+                snapshot = CoreGroupCommunicationService.this.stateSnapshots.get(snapshotId);
+                if (snapshot == null) return null;
+            }
+            return snapshot.getChunk(index, chunkSize);
+        }
+
+        public void releaseStateSnapshot(long snapshotId) {
+            CoreGroupCommunicationService.this.stateSnapshots.remove(snapshotId);
+        }
+    }
+
+    /**
+     * The marshalled state of a service, as of the request of its first chunk.
+     */
+    static class StateSnapshot {
+        private final long id;
+        private final byte[] state;
+        private volatile long lastAccessed = System.currentTimeMillis();
+
+        StateSnapshot(long id, byte[] state) {
+            this.id = id;
+            this.state = state;
+        }
+
+        long getId() {
+            return this.id;
+        }
+
+        long getLastAccessed() {
+            return this.lastAccessed;
+        }
+
+        StateChunk getChunk(int index, int chunkSize) {
+            this.lastAccessed = System.currentTimeMillis();
+            long offset = Math.min((long) index * chunkSize, this.state.length);
+            long end = Math.min(offset + chunkSize, this.state.length);
+            return new StateChunk(this.id, this.state.length, Arrays.copyOfRange(this.state, (int) offset, (int) end));
+        }
+    }
+
+    /**
+     * A chunk of a snapshot of the state of a service.
+     */
+    public static class StateChunk implements Serializable {
+        private static final long serialVersionUID = 4883107427069373581L;
+
+        private final long snapshot;
+        private final int length;
+        private final byte[] bytes;
+
+        public StateChunk(long snapshot, int length, byte[] bytes) {
+            this.snapshot = snapshot;
+            this.length = length;
+            this.bytes = bytes;
+        }
+
+        /**
+         * @return the id of the snapshot this chunk belongs to
+         */
+        public long getSnapshot() {
+            return this.snapshot;
+        }
+
+        /**
+         * @return the length of the whole snapshot
+         */
+        public int getLength() {
+            return this.length;
+        }
+
+        public byte[] getBytes() {
+            return this.bytes;
+        }
+    }
+
     /**
      * Allows a state transfer request to be executed asynchronously.
      */
     private abstract class StateTransferTask<T extends StateTransferResult, V> implements Callable<T> {
         private final String serviceName;
         V state;
+        private int stateSize;
         private boolean isStateSet;
         private Exception setStateException;
         T result;
@@ -1489,7 +2260,7 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
                     this.isStateSet = false;
                     start = System.currentTimeMillis();
                     try {
-                        CoreGroupCommunicationService.this.channel.getState(null, CoreGroupCommunicationService.this.getStateTransferTimeout());
+                        this.requestState();
                         synchronized (this) {
                             while (!this.isStateSet) {
                                 if (this.setStateException != null) {
@@ -1505,6 +2276,7 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
                         }
                         stop = System.currentTimeMillis();
                         ClusteringImplLogger.ROOT_LOGGER.debugf("serviceState was retrieved successfully (in %d milliseconds)", stop - start);
+                        CoreGroupCommunicationService.this.recordStateTransfer(this.stateSize, stop - start);
                         return createStateTransferResult(true, state, null);
                     } catch (StateTransferException e) {
                         // No one provided us with serviceState.
@@ -1522,6 +2294,25 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
             }
         }
 
+        /**
+         * Requests the state of the service, which is then passed to {@link #setState(byte[])}, either by the channel, or,
+         * if the state is transferred in chunks, by this method itself.
+         */
+        private void requestState() throws Exception {
+            CoreGroupCommunicationService service = CoreGroupCommunicationService.this;
+            int chunkSize = service.getStateTransferChunkSize();
+            if (chunkSize > 0) {
+                service.stateTransferTasks.remove(this.serviceName);
+                byte[] state = service.transferStateInChunks(this.serviceName, chunkSize);
+                if (state == null) {
+                    throw MESSAGES.noStateTransferProvider(this.serviceName);
+                }
+                this.setState(state);
+            } else {
+                service.channel.getState(null, service.getStateTransferTimeout());
+            }
+        }
+
         protected abstract T createStateTransferResult(boolean gotState, V state, Exception exception);
 
         void setState(byte[] state) {
@@ -1529,6 +2320,7 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
                 if (state == null) {
                     ClusteringImplLogger.ROOT_LOGGER.debugf("transferred state for service %s is null (may be first member in cluster)", serviceName);
                 } else {
+                    this.stateSize = state.length;
                     ByteArrayInputStream bais = new ByteArrayInputStream(state);
                     setState(bais);
                     bais.close();
@@ -27,7 +27,6 @@ import org.jboss.as.clustering.infinispan.subsystem.ChannelDependentServiceProvi
 import org.jboss.as.clustering.jgroups.subsystem.ChannelService;
 import org.jboss.as.server.Services;
 import org.jboss.modules.ModuleLoader;
-import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
@@ -47,10 +46,11 @@ public class CoreGroupCommunicationServiceProvider implements ChannelDependentSe
     }
 
     @Override
-    public ServiceController<?> install(ServiceTarget target, String cluster) {
+    public ServiceController<?> install(ServiceTarget target, String cluster, Configuration configuration) {
         final InjectedValue<Channel> channel = new InjectedValue<Channel>();
         final InjectedValue<ModuleLoader> loader = new InjectedValue<ModuleLoader>();
-        final Service<CoreGroupCommunicationService> service = new CoreGroupCommunicationService(GROUP_COMMUNICATION_SERVICE_SCOPE, channel, loader);
+        final CoreGroupCommunicationService service = new CoreGroupCommunicationService(GROUP_COMMUNICATION_SERVICE_SCOPE, channel, loader);
+        service.setStateTransferChunkSize(configuration.getStateTransferChunkSize());
         return target.addService(this.getServiceName(cluster), service)
                 // Make sure Infinispan starts its channel before we try to use it..
                 .addDependency(CacheService.getServiceName(cluster, null))
@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of the RPCs sent to a service of the members of a group.
+ */
+class RpcStatistics {
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong messages = new AtomicLong();
+    private final AtomicLong responses = new AtomicLong();
+    private final AtomicLong latency = new AtomicLong();
+
+    /**
+     * Records a message carrying the specified number of calls to the service.
+     */
+    void sent(int calls) {
+        this.calls.addAndGet(calls);
+        this.messages.incrementAndGet();
+    }
+
+    /**
+     * Records the receipt of the responses to a call sent at the specified time.
+     */
+    void responded(long sent) {
+        this.responses.incrementAndGet();
+        this.latency.addAndGet(System.currentTimeMillis() - sent);
+    }
+
+    long getCallCount() {
+        return this.calls.get();
+    }
+
+    long getMessageCount() {
+        return this.messages.get();
+    }
+
+    long getAverageLatency() {
+        long responses = this.responses.get();
+        return (responses > 0) ? this.latency.get() / responses : 0;
+    }
+}
@@ -40,7 +40,7 @@ public class SharedLocalYieldingClusterLockManagerServiceProvider implements Cha
     }
 
     @Override
-    public ServiceController<?> install(ServiceTarget target, String cluster) {
+    public ServiceController<?> install(ServiceTarget target, String cluster, Configuration configuration) {
         final InjectedValue<CoreGroupCommunicationService> groupService = new InjectedValue<CoreGroupCommunicationService>();
         return target.addService(this.getServiceName(cluster), new SharedLocalYieldingClusterLockManagerService(cluster, groupService))
                 .addDependency(CoreGroupCommunicationService.getServiceName(cluster), CoreGroupCommunicationService.class, groupService)
@@ -0,0 +1,297 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.impl;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.jboss.as.clustering.ClusterNode;
+import org.jboss.as.clustering.GroupRpcBatch;
+import org.jboss.as.clustering.ResponseFilter;
+import org.jboss.as.clustering.StateTransferProvider;
+import org.jboss.as.clustering.impl.CoreGroupCommunicationService.StateChunk;
+import org.jboss.as.clustering.impl.CoreGroupCommunicationService.StateSnapshot;
+import org.junit.Before;
+import org.jgroups.blocks.MethodCall;
+import org.jgroups.util.UUID;
+import org.junit.Test;
+
+public class CoreGroupCommunicationServiceTestCase {
+    private static final String SERVICE_NAME = "service";
+    private static final int CHUNK_SIZE = 1000;
+
+    private final StateTransferProvider provider = mock(StateTransferProvider.class);
+    private final ChunkTransferService service = new ChunkTransferService();
+    private byte[] state;
+
+    @Before
+    public void init() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; ++i) {
+            builder.append("state-").append(i);
+        }
+        String state = builder.toString();
+        when(this.provider.getCurrentState()).thenReturn(state);
+        this.service.registerStateTransferProvider(SERVICE_NAME, this.provider);
+        StateTransferProvider copy = mock(StateTransferProvider.class);
+        when(copy.getCurrentState()).thenReturn(state);
+        this.state = CoreGroupCommunicationService.marshalServiceState(copy);
+    }
+
+    @Test
+    public void transferInChunks() throws Exception {
+        assertArrayEquals(this.state, this.service.transferStateInChunks(SERVICE_NAME, CHUNK_SIZE));
+
+        int chunks = (this.state.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        assertEquals(chunks, this.service.requests.size());
+        for (int requests : this.service.requests.values()) {
+            assertEquals(1, requests);
+        }
+        // The snapshot was released
+        assertTrue(this.service.stateSnapshots.isEmpty());
+    }
+
+    @Test
+    public void resumeTransfer() throws Exception {
+        this.service.failures.add(2);
+        this.service.failures.add(5);
+
+        assertArrayEquals(this.state, this.service.transferStateInChunks(SERVICE_NAME, CHUNK_SIZE));
+
+        assertEquals(2, this.service.requests.get(2).intValue());
+        assertEquals(2, this.service.requests.get(5).intValue());
+        assertEquals(1, this.service.requests.get(3).intValue());
+        // Resumed from the same snapshot
+        verify(this.provider, times(1)).getCurrentState();
+        assertTrue(this.service.stateSnapshots.isEmpty());
+    }
+
+    @Test
+    public void chunkBeyondIntOffset() {
+        StateSnapshot snapshot = new StateSnapshot(1, new byte[10]);
+
+        // index * chunkSize exceeds Integer.MAX_VALUE
+        StateChunk chunk = snapshot.getChunk(Integer.MAX_VALUE / 2, 16);
+
+        assertEquals(10, chunk.getLength());
+        assertEquals(0, chunk.getBytes().length);
+    }
+
+    @Test
+    public void abandonedSnapshotExpires() throws Exception {
+        this.service.setStateTransferTimeout(50);
+        this.service.stateSnapshotExpirationExecutor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            this.service.handler.getStateChunk(SERVICE_NAME, 0, 0, CHUNK_SIZE);
+            assertEquals(1, this.service.stateSnapshots.size());
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!this.service.stateSnapshots.isEmpty() && (System.currentTimeMillis() < deadline)) {
+                Thread.sleep(10);
+            }
+            assertTrue(this.service.stateSnapshots.isEmpty());
+        } finally {
+            this.service.stateSnapshotExpirationExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void batchToCluster() throws Exception {
+        LocalRpcService service = new LocalRpcService();
+        GroupRpcBatch batch = service.createBatch(false, 1000);
+        Future<List<String>> echo = batch.<String>add("a", "echo", new Object[] { "x" }, new Class<?>[] { String.class });
+        Future<List<String>> failure = batch.<String>add("a", "fail", new Object[0], new Class<?>[0]);
+        Future<List<String>> other = batch.<String>add("b", "echo", new Object[] { "y" }, new Class<?>[] { String.class });
+        Future<List<String>> unhandled = batch.<String>add("c", "echo", new Object[] { "z" }, new Class<?>[] { String.class });
+
+        batch.send();
+
+        assertEquals(1, service.messages);
+        // Each of the two members responded
+        assertEquals(Arrays.asList("x", "x"), echo.get());
+        assertEquals(Arrays.asList("y", "y"), other.get());
+        // Failures of some members are skipped, like the responses of members not handling the service
+        assertEquals(Collections.emptyList(), failure.get());
+        assertEquals(Collections.emptyList(), unhandled.get());
+
+        // A batch is sent in a single message to each service
+        assertEquals(new HashSet<String>(Arrays.asList("a", "b", "c")), service.getRpcServiceNames());
+        assertEquals(2, service.getRpcCallCount("a"));
+        assertEquals(1, service.getRpcMessageCount("a"));
+        assertEquals(1, service.getRpcCallCount("b"));
+        assertEquals(1, service.getRpcMessageCount("b"));
+        assertEquals(4, service.getRpcCallCount());
+        assertEquals(3, service.getRpcMessageCount());
+        assertEquals(0, service.getRpcCallCount("d"));
+
+        // Sending again sends nothing
+        batch.send();
+        assertEquals(1, service.messages);
+    }
+
+    @Test
+    public void batchToNode() throws Exception {
+        LocalRpcService service = new LocalRpcService();
+        GroupRpcBatch batch = service.createBatch(new ClusterNodeImpl("node", UUID.randomUUID(), new InetSocketAddress(0)), 1000);
+        Future<List<String>> echo = batch.<String>add("a", "echo", new Object[] { "x" }, new Class<?>[] { String.class });
+        Future<List<String>> failure = batch.<String>add("a", "fail", new Object[0], new Class<?>[0]);
+
+        batch.send();
+
+        assertEquals(Collections.singletonList("x"), echo.get());
+        try {
+            failure.get();
+            fail("Failure of the target node not reported");
+        } catch (ExecutionException e) {
+            assertNotNull(e.getCause());
+        }
+    }
+
+    @Test
+    public void unsentBatch() throws Exception {
+        LocalRpcService service = new LocalRpcService();
+        GroupRpcBatch batch = service.createBatch(false, 1000);
+        Future<List<String>> echo = batch.<String>add("a", "echo", new Object[] { "x" }, new Class<?>[] { String.class });
+
+        try {
+            echo.get();
+            fail("Waited for the responses to an unsent batch");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+
+        batch.close();
+
+        assertTrue(echo.isCancelled());
+        batch.send();
+        assertEquals(0, service.messages);
+        try {
+            batch.add("a", "echo", new Object[] { "x" }, new Class<?>[] { String.class });
+            fail("Added a call to a closed batch");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void futureOfForeignNode() throws Exception {
+        new LocalRpcService().callMethodOnNodeWithFuture("a", "echo", new Object[] { "x" }, new Class<?>[] { String.class }, 1000, mock(ClusterNode.class), false);
+    }
+
+    public static class Handler {
+        public String echo(String value) {
+            return value;
+        }
+
+        public String fail() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Invokes the batches sent to the group on its own batch handler, on behalf of two members.
+     */
+    static class LocalRpcService extends CoreGroupCommunicationService {
+        final RpcBatchHandler batchHandler = new RpcBatchHandler();
+        int messages = 0;
+
+        LocalRpcService() {
+            super((short) 1, null, null);
+            this.registerRPCHandler("a", new Handler());
+            this.registerRPCHandler("b", new Handler());
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> List<T> callMethodOnCluster(String serviceName, String methodName, Object[] args, Class<?>[] types, boolean excludeSelf, ResponseFilter filter, long methodTimeout, boolean unordered) {
+            this.messages += 1;
+            Object[] response = this.batchHandler.invoke((MethodCall[]) args[0]);
+            return (List<T>) Arrays.asList(response, response);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> T callMethodOnNode(String serviceName, String methodName, Object[] args, Class<?>[] types, long methodTimeout, ClusterNode targetNode, boolean unordered) {
+            this.messages += 1;
+            return (T) this.batchHandler.invoke((MethodCall[]) args[0]);
+        }
+    }
+
+    /**
+     * Serves the chunks requested from another member from its own state transfer handler, failing the first request of
+     * the given chunks.
+     */
+    static class ChunkTransferService extends CoreGroupCommunicationService {
+        final ClusterNode member = mock(ClusterNode.class);
+        final StateTransferRpcHandler handler = new StateTransferRpcHandler();
+        final Map<Integer, Integer> requests = new HashMap<Integer, Integer>();
+        final Set<Integer> failures = new HashSet<Integer>();
+
+        ChunkTransferService() {
+            super((short) 1, null, null);
+        }
+
+        @Override
+        Future<Object> requestStateChunk(final String serviceName, final long snapshot, final int index, final int chunkSize, ClusterNode node) {
+            assertSame(this.member, node);
+            Integer requests = this.requests.get(index);
+            this.requests.put(index, (requests != null) ? requests + 1 : 1);
+            final boolean fail = this.failures.remove(index);
+            FutureTask<Object> future = new FutureTask<Object>(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    // Like the dispatcher, returns the exception as the response
+                    return fail ? new IOException() : ChunkTransferService.this.handler.getStateChunk(serviceName, snapshot, index, chunkSize);
+                }
+            });
+            future.run();
+            return future;
+        }
+
+        @Override
+        public List<ClusterNode> getClusterNodes() {
+            return Collections.singletonList(this.member);
+        }
+
+        @Override
+        public void callAsyncMethodOnNode(String serviceName, String methodName, Object[] args, Class<?>[] types, ClusterNode targetNode, boolean unordered) {
+            assertEquals("releaseStateSnapshot", methodName);
+            this.handler.releaseStateSnapshot((Long) args[0]);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.impl;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class RpcStatisticsTestCase {
+
+    @Test
+    public void averageLatency() {
+        RpcStatistics statistics = new RpcStatistics();
+        assertEquals(0, statistics.getAverageLatency());
+
+        statistics.sent(3);
+        statistics.sent(1);
+        long now = System.currentTimeMillis();
+        statistics.responded(now - 100);
+        statistics.responded(now - 300);
+
+        assertEquals(4, statistics.getCallCount());
+        assertEquals(2, statistics.getMessageCount());
+        long latency = statistics.getAverageLatency();
+        assertTrue(String.valueOf(latency), (latency >= 200) && (latency < 1200));
+    }
+}
@@ -156,14 +156,16 @@ public class CacheContainerAdd extends AbstractAddStepHandler {
             final String cluster = (resolvedValue = TransportResource.CLUSTER.resolveModelAttribute(context, transport)).isDefined() ? resolvedValue.asString() : name ;
             long lockTimeout = TransportResource.LOCK_TIMEOUT.resolveModelAttribute(context, transport).asLong();
             transportExecutor = (resolvedValue = TransportResource.EXECUTOR.resolveModelAttribute(context, transport)).isDefined() ? resolvedValue.asString() : null ;
+            int stateTransferChunkSize = (resolvedValue = TransportResource.STATE_TRANSFER_CHUNK_SIZE.resolveModelAttribute(context, transport)).isDefined() ? resolvedValue.asInt() : 0 ;
 
             // initialise the Transport
             transportConfig.setLockTimeout(lockTimeout);
+            transportConfig.setStateTransferChunkSize(stateTransferChunkSize);
 
             controllers.add(this.installChannelService(target, name, cluster, stack, verificationHandler));
 
             for (ChannelDependentServiceProvider provider: ServiceLoader.load(ChannelDependentServiceProvider.class, ChannelDependentServiceProvider.class.getClassLoader())) {
-                controllers.add(provider.install(target, name));
+                controllers.add(provider.install(target, name, transportConfig));
             }
         }
 
@@ -369,16 +371,21 @@ public class CacheContainerAdd extends AbstractAddStepHandler {
         }
     }
 
-    static class Transport implements EmbeddedCacheManagerConfigurationService.TransportConfiguration {
+    static class Transport implements EmbeddedCacheManagerConfigurationService.TransportConfiguration, ChannelDependentServiceProvider.Configuration {
         private final InjectedValue<ChannelFactory> channelFactory = new InjectedValue<ChannelFactory>();
         private final InjectedValue<Executor> executor = new InjectedValue<Executor>();
 
         private Long lockTimeout;
+        private int stateTransferChunkSize;
 
         void setLockTimeout(long lockTimeout) {
             this.lockTimeout = lockTimeout;
         }
 
+        void setStateTransferChunkSize(int stateTransferChunkSize) {
+            this.stateTransferChunkSize = stateTransferChunkSize;
+        }
+
         Injector<ChannelFactory> getChannelFactoryInjector() {
             return this.channelFactory;
         }
@@ -401,5 +408,10 @@ public class CacheContainerAdd extends AbstractAddStepHandler {
         public Long getLockTimeout() {
             return this.lockTimeout;
         }
+
+        @Override
+        public int getStateTransferChunkSize() {
+            return this.stateTransferChunkSize;
+        }
     }
 }
@@ -33,5 +33,12 @@ import org.jboss.msc.service.ServiceTarget;
 public interface ChannelDependentServiceProvider {
     ServiceName getServiceName(String cluster);
 
-    ServiceController<?> install(ServiceTarget target, String cluster);
+    ServiceController<?> install(ServiceTarget target, String cluster, Configuration configuration);
+
+    /**
+     * Transport configuration of the cache container that owns the channel.
+     */
+    interface Configuration {
+        int getStateTransferChunkSize();
+    }
 }
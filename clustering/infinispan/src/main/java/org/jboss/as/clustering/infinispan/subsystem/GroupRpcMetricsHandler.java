@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.infinispan.subsystem;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import org.jboss.as.clustering.GroupRpcStatistics;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Reads the statistics of the RPCs sent via the channel of a cache container, as recorded by the channel dependent
+ * service providing {@link GroupRpcStatistics}.
+ */
+public class GroupRpcMetricsHandler implements OperationStepHandler {
+
+    public static final GroupRpcMetricsHandler INSTANCE = new GroupRpcMetricsHandler();
+
+    static final SimpleAttributeDefinition RPC_CALL_COUNT =
+            new SimpleAttributeDefinitionBuilder(ModelKeys.RPC_CALL_COUNT, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition RPC_MESSAGE_COUNT =
+            new SimpleAttributeDefinitionBuilder(ModelKeys.RPC_MESSAGE_COUNT, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition AVERAGE_RPC_LATENCY =
+            new SimpleAttributeDefinitionBuilder(ModelKeys.AVERAGE_RPC_LATENCY, ModelType.LONG, true)
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition[] METRICS = { RPC_CALL_COUNT, RPC_MESSAGE_COUNT, AVERAGE_RPC_LATENCY };
+
+    private GroupRpcMetricsHandler() {
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        if (context.isNormalServer()) {
+            context.addStep(new OperationStepHandler() {
+                @Override
+                public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                    final PathAddress address = PathAddress.pathAddress(operation.require(OP_ADDR));
+                    final String attributeName = operation.require(NAME).asString();
+
+                    final String containerName = StateTransferMetricsHandler.getContainerName(address);
+                    final GroupRpcStatistics statistics = StateTransferMetricsHandler.findChannelDependentService(context, containerName, GroupRpcStatistics.class);
+                    if (statistics != null) {
+                        final ModelNode result = context.getResult();
+                        if (ModelKeys.RPC_CALL_COUNT.equals(attributeName)) {
+                            result.set(statistics.getRpcCallCount());
+                        } else if (ModelKeys.RPC_MESSAGE_COUNT.equals(attributeName)) {
+                            result.set(statistics.getRpcMessageCount());
+                        } else if (ModelKeys.AVERAGE_RPC_LATENCY.equals(attributeName)) {
+                            result.set(statistics.getAverageRpcLatency());
+                        }
+                    }
+                    context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+                }
+            }, OperationContext.Stage.RUNTIME);
+        }
+        context.stepCompleted();
+    }
+}
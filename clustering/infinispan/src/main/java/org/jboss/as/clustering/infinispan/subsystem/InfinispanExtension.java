@@ -118,7 +118,7 @@ public class InfinispanExtension implements Extension {
 
     /**
      * Register the transformers for transforming from 1.4.0 to 1.3.0 management api versions, in which:
-     * - attributes INDEXING_PROPERTIES, SEGMENTS were added in 1.4
+     * - attributes INDEXING_PROPERTIES, SEGMENTS, STATE_TRANSFER_CHUNK_SIZE were added in 1.4
      * - attribute VIRTUAL_NODES was deprecated in 1.4
      * - expression support was added to most attributes in 1.4, except for CLUSTER, DEFAULT_CACHE and MODE
      * for which it was already enabled in 1.3
@@ -138,8 +138,12 @@ public class InfinispanExtension implements Extension {
         TransformersSubRegistration containerRegistration =
                 registerTransformer(registration, CacheContainerResource.CONTAINER_PATH, cacheContainerReject, cacheContainerReject, cacheContainerReject.getWriteAttributeTransformer(), null);
 
+        final InfinispanDiscardAttributesTransformer removeSelectedTransportAttributes = new InfinispanDiscardAttributesTransformer(ModelKeys.STATE_TRANSFER_CHUNK_SIZE);
         final RejectExpressionValuesTransformer transportReject = new RejectExpressionValuesTransformer(InfinispanRejectedExpressions_1_3.REJECT_TRANSPORT_ATTRIBUTES);
-        registerTransformer(containerRegistration, TransportResource.TRANSPORT_PATH, transportReject, transportReject, transportReject.getWriteAttributeTransformer(), null);
+        final ChainedResourceTransformer chainedTransportResource = new ChainedResourceTransformer(removeSelectedTransportAttributes, transportReject.getChainedTransformer());
+        final ChainedOperationTransformer chainedTransportAdd = new ChainedOperationTransformer(removeSelectedTransportAttributes, transportReject);
+        final ChainedOperationTransformer chainedTransportWrite = new ChainedOperationTransformer(removeSelectedTransportAttributes.getWriteAttributeTransformer(), transportReject.getWriteAttributeTransformer());
+        registerTransformer(containerRegistration, TransportResource.TRANSPORT_PATH, chainedTransportResource, chainedTransportAdd, chainedTransportWrite, removeSelectedTransportAttributes.getUndefineAttributeTransformer());
 
         final InfinispanDiscardAttributesTransformer removeSelectedCacheAttributes = new InfinispanDiscardAttributesTransformer(ModelKeys.INDEXING_PROPERTIES, ModelKeys.SEGMENTS, ModelKeys.VIRTUAL_NODES);
         final RejectExpressionValuesTransformer cacheReject = new RejectExpressionValuesTransformer(InfinispanRejectedExpressions_1_3.REJECT_CACHE_ATTRIBUTES);
@@ -200,6 +200,10 @@ public final class InfinispanSubsystemXMLReader_1_4 implements XMLElementReader<
                     TransportResource.LOCK_TIMEOUT.parseAndSetParameter(value, transport, reader);
                     break;
                 }
+                case STATE_TRANSFER_CHUNK_SIZE: {
+                    TransportResource.STATE_TRANSFER_CHUNK_SIZE.parseAndSetParameter(value, transport, reader);
+                    break;
+                }
                 default: {
                     throw ParseUtils.unexpectedAttribute(reader, i);
                 }
@@ -31,6 +31,8 @@ public class ModelKeys {
     static final String ALIAS = "alias";
     static final String ALIASES = "aliases";
     static final String ASYNC_MARSHALLING = "async-marshalling";
+    static final String AVERAGE_RPC_LATENCY = "average-rpc-latency";
+    static final String AVERAGE_STATE_TRANSFER_DURATION = "average-state-transfer-duration";
     static final String BATCH_SIZE = "batch-size";
     static final String BATCHING = "batching";
     static final String BINARY_KEYED_TABLE = "binary-keyed-table";
@@ -112,6 +114,8 @@ public class ModelKeys {
     static final String REMOTE_TIMEOUT = "remote-timeout";
     static final String REPLICATED_CACHE = "replicated-cache";
     static final String REPLICATION_QUEUE_EXECUTOR = "replication-queue-executor";
+    static final String RPC_CALL_COUNT = "rpc-call-count";
+    static final String RPC_MESSAGE_COUNT = "rpc-message-count";
     static final String SEGMENTS = "segments";
     static final String SHARED = "shared";
     static final String SHUTDOWN_TIMEOUT = "shutdown-timeout";
@@ -122,6 +126,10 @@ public class ModelKeys {
     static final String START = "start";
     static final String STATE_TRANSFER = "state-transfer";
     static final String STATE_TRANSFER_NAME = "STATE_TRANSFER";
+    static final String STATE_TRANSFER_BYTES = "state-transfer-bytes";
+    static final String STATE_TRANSFER_CHUNK_SIZE = "state-transfer-chunk-size";
+    static final String STATE_TRANSFER_COUNT = "state-transfer-count";
+    static final String STATE_TRANSFER_THROUGHPUT = "state-transfer-throughput";
     static final String STOP_TIMEOUT = "stop-timeout";
     static final String STORE = "store";
     static final String STORE_NAME = "STORE";
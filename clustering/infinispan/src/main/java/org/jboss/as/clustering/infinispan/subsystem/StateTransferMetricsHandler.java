@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.infinispan.subsystem;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.util.ServiceLoader;
+
+import org.jboss.as.clustering.StateTransferStatistics;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the statistics of the state transfers requested via the channel of a cache container, as recorded by the
+ * channel dependent service providing {@link StateTransferStatistics}.
+ */
+public class StateTransferMetricsHandler implements OperationStepHandler {
+
+    public static final StateTransferMetricsHandler INSTANCE = new StateTransferMetricsHandler();
+
+    static final SimpleAttributeDefinition STATE_TRANSFER_COUNT =
+            new SimpleAttributeDefinitionBuilder(ModelKeys.STATE_TRANSFER_COUNT, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition STATE_TRANSFER_BYTES =
+            new SimpleAttributeDefinitionBuilder(ModelKeys.STATE_TRANSFER_BYTES, ModelType.LONG, true)
+                    .setMeasurementUnit(MeasurementUnit.BYTES)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition AVERAGE_STATE_TRANSFER_DURATION =
+            new SimpleAttributeDefinitionBuilder(ModelKeys.AVERAGE_STATE_TRANSFER_DURATION, ModelType.LONG, true)
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition STATE_TRANSFER_THROUGHPUT =
+            new SimpleAttributeDefinitionBuilder(ModelKeys.STATE_TRANSFER_THROUGHPUT, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition[] METRICS = { STATE_TRANSFER_COUNT, STATE_TRANSFER_BYTES, AVERAGE_STATE_TRANSFER_DURATION, STATE_TRANSFER_THROUGHPUT };
+
+    private StateTransferMetricsHandler() {
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        if (context.isNormalServer()) {
+            context.addStep(new OperationStepHandler() {
+                @Override
+                public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                    final PathAddress address = PathAddress.pathAddress(operation.require(OP_ADDR));
+                    final String attributeName = operation.require(NAME).asString();
+
+                    final StateTransferStatistics statistics = findChannelDependentService(context, getContainerName(address), StateTransferStatistics.class);
+                    if (statistics != null) {
+                        final ModelNode result = context.getResult();
+                        if (ModelKeys.STATE_TRANSFER_COUNT.equals(attributeName)) {
+                            result.set(statistics.getStateTransferCount());
+                        } else if (ModelKeys.STATE_TRANSFER_BYTES.equals(attributeName)) {
+                            result.set(statistics.getStateTransferBytes());
+                        } else if (ModelKeys.AVERAGE_STATE_TRANSFER_DURATION.equals(attributeName)) {
+                            result.set(statistics.getAverageStateTransferDuration());
+                        } else if (ModelKeys.STATE_TRANSFER_THROUGHPUT.equals(attributeName)) {
+                            result.set(statistics.getStateTransferThroughput());
+                        }
+                    }
+                    context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+                }
+            }, OperationContext.Stage.RUNTIME);
+        }
+        context.stepCompleted();
+    }
+
+    static String getContainerName(PathAddress address) {
+        for (PathElement element : address) {
+            if (element.getKey().equals(ModelKeys.CACHE_CONTAINER)) {
+                return element.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the started channel dependent service of the container which is of the specified type, if any.
+     */
+    static <T> T findChannelDependentService(OperationContext context, String containerName, Class<T> type) {
+        if (containerName == null) return null;
+        for (ChannelDependentServiceProvider provider: ServiceLoader.load(ChannelDependentServiceProvider.class, ChannelDependentServiceProvider.class.getClassLoader())) {
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(provider.getServiceName(containerName));
+            if ((controller != null) && (controller.getState() == ServiceController.State.UP)) {
+                Object value = controller.getValue();
+                if (type.isInstance(value)) {
+                    return type.cast(value);
+                }
+            }
+        }
+        return null;
+    }
+}
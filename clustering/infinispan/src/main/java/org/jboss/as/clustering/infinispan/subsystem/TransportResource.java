@@ -31,6 +31,7 @@ import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
@@ -77,7 +78,17 @@ public class TransportResource extends SimpleResourceDefinition {
                     .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
                     .build();
 
-    static final AttributeDefinition[] TRANSPORT_ATTRIBUTES = {STACK, CLUSTER, EXECUTOR, LOCK_TIMEOUT};
+    // if undefined, the states of all services are transferred at once via the channel
+    static final SimpleAttributeDefinition STATE_TRANSFER_CHUNK_SIZE =
+            new SimpleAttributeDefinitionBuilder(ModelKeys.STATE_TRANSFER_CHUNK_SIZE, ModelType.INT, true)
+                    .setXmlName(Attribute.STATE_TRANSFER_CHUNK_SIZE.getLocalName())
+                    .setMeasurementUnit(MeasurementUnit.BYTES)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
+    static final AttributeDefinition[] TRANSPORT_ATTRIBUTES = {STACK, CLUSTER, EXECUTOR, LOCK_TIMEOUT, STATE_TRANSFER_CHUNK_SIZE};
 
     public TransportResource() {
         super(TRANSPORT_PATH,
@@ -95,5 +106,12 @@ public class TransportResource extends SimpleResourceDefinition {
         for (AttributeDefinition attr : TRANSPORT_ATTRIBUTES) {
             resourceRegistration.registerReadWriteAttribute(attr, null, writeHandler);
         }
+
+        for (AttributeDefinition metric : StateTransferMetricsHandler.METRICS) {
+            resourceRegistration.registerMetric(metric, StateTransferMetricsHandler.INSTANCE);
+        }
+        for (AttributeDefinition metric : GroupRpcMetricsHandler.METRICS) {
+            resourceRegistration.registerMetric(metric, GroupRpcMetricsHandler.INSTANCE);
+        }
     }
 }
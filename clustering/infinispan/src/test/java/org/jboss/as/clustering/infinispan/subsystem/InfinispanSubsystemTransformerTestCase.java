@@ -124,7 +124,7 @@ public class InfinispanSubsystemTransformerTestCase extends OperationTestCaseBas
         config.addFailedAttribute(subsystemAddress.append(CacheContainerResource.CONTAINER_PATH).append(TransportResource.TRANSPORT_PATH),
                 // cluster allowed expressions in 1.3.0
                 new FailedOperationTransformationConfig.RejectExpressionsConfig(
-                        InfinispanRejectedExpressions_1_3.ACCEPT14_REJECT13_TRANSPORT_ATTRIBUTES)) ;
+                        InfinispanRejectedExpressions_1_3.ACCEPT14_REJECT13_TRANSPORT_ATTRIBUTES).setNotExpectedWriteFailure(ModelKeys.STATE_TRANSFER_CHUNK_SIZE));
 
         PathElement[] cachePaths = {
                 LocalCacheResource.LOCAL_CACHE_PATH,
@@ -30,6 +30,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.infinispan.Cache;
 import org.infinispan.context.Flag;
@@ -64,6 +65,9 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
     private final Value<Cache<Address, Map.Entry<K, V>>> cache;
     private final Value<RegistryEntryProvider<K, V>> provider;
     private final Set<Listener<K, V>> listeners = new CopyOnWriteArraySet<Listener<K, V>>();
+    // Incremented after every change of the cache, which invalidates the snapshot of its entries
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot<K, V> snapshot = null;
 
     public RegistryService(Value<Cache<Address, Map.Entry<K, V>>> cache, Value<RegistryEntryProvider<K, V>> provider) {
         this.cache = cache;
@@ -100,11 +104,23 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
      */
     @Override
     public Map<K, V> getEntries() {
+        long version = this.version.get();
+        Snapshot<K, V> snapshot = this.snapshot;
+        if ((snapshot != null) && (snapshot.version == version)) {
+            return snapshot.entries;
+        }
         Map<K, V> map = new HashMap<K, V>();
         for (Map.Entry<K, V> entry: this.cache.getValue().values()) {
             map.put(entry.getKey(), entry.getValue());
         }
-        return Collections.unmodifiableMap(map);
+        // A change made while we were reading the cache leaves this snapshot already stale
+        snapshot = new Snapshot<K, V>(version, Collections.unmodifiableMap(map));
+        this.snapshot = snapshot;
+        return snapshot.entries;
+    }
+
+    private void invalidateEntries() {
+        this.version.incrementAndGet();
     }
 
     @Override
@@ -138,6 +154,7 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
                 }
             };
             this.invoker.invoke(this.cache.getValue(), operation);
+            this.invalidateEntries();
         }
         return entry;
     }
@@ -168,6 +185,8 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
         };
         // Add SKIP_LOCKING flag to so that we aren't blocked by state transfer lock
         this.invoker.invoke(this.cache.getValue(), operation, Flag.SKIP_REMOTE_LOOKUP, Flag.SKIP_LOCKING);
+        this.invalidateEntries();
+        this.snapshot = null;
     }
 
     static Address getLocalAddress(Cache<?, ?> cache) {
@@ -201,6 +220,7 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
         };
 
         Set<K> removed = this.invoker.invoke(this.cache.getValue(), operation);
+        this.invalidateEntries();
         if (!removed.isEmpty()) {
             for (Listener<K, V> listener: this.listeners) {
                 listener.removedEntries(removed);
@@ -213,6 +233,9 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
 
     @CacheEntryModified
     public void modified(CacheEntryModifiedEvent<Address, Map.Entry<K, V>> event) {
+        if (!event.isPre()) {
+            this.invalidateEntries();
+        }
         if (event.isOriginLocal()) return;
         if (event.isPre()) {
             this.entry.set(event.getValue());
@@ -237,6 +260,9 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
 
     @CacheEntryRemoved
     public void removed(CacheEntryRemovedEvent<Address, Map.Entry<K, V>> event) {
+        if (!event.isPre()) {
+            this.invalidateEntries();
+        }
         if (event.isOriginLocal()) return;
         if (event.isPre()) {
             this.entry.set(event.getValue());
@@ -252,6 +278,19 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
         }
     }
 
+    /**
+     * The entries of the registry, as of a given version of the cache.
+     */
+    private static class Snapshot<K, V> {
+        final long version;
+        final Map<K, V> entries;
+
+        Snapshot(long version, Map<K, V> entries) {
+            this.version = version;
+            this.entries = entries;
+        }
+    }
+
     abstract class Operation<R> implements CacheInvoker.Operation<Address, Map.Entry<K, V>, R> {
     }
 }
@@ -0,0 +1,121 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.infinispan.Cache;
+import org.infinispan.notifications.cachelistener.event.CacheEntryModifiedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryRemovedEvent;
+import org.infinispan.remoting.transport.Address;
+import org.jboss.msc.value.ImmediateValue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the invalidation of the snapshot of the entries of a {@link RegistryService}.
+ */
+public class RegistryServiceTestCase {
+    private final List<Map.Entry<String, String>> values = new ArrayList<Map.Entry<String, String>>();
+    private Cache<Address, Map.Entry<String, String>> cache;
+    private RegistryService<String, String> registry;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void before() {
+        this.cache = mock(Cache.class);
+        when(this.cache.values()).thenReturn(this.values);
+        this.registry = new RegistryService<String, String>(new ImmediateValue<Cache<Address, Map.Entry<String, String>>>(this.cache), null);
+    }
+
+    @Test
+    public void testSnapshotIsReused() {
+        this.values.add(entry("a"));
+        Map<String, String> entries = this.registry.getEntries();
+        assertEquals(Collections.singletonMap("a", "a"), entries);
+
+        // The cache did not change, so it is not read again
+        this.values.add(entry("b"));
+        assertSame(entries, this.registry.getEntries());
+        verify(this.cache, times(1)).values();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testModificationInvalidatesSnapshot() {
+        this.values.add(entry("a"));
+        this.registry.getEntries();
+        this.values.add(entry("b"));
+
+        CacheEntryModifiedEvent<Address, Map.Entry<String, String>> event = mock(CacheEntryModifiedEvent.class);
+        when(event.isOriginLocal()).thenReturn(true);
+
+        // A pre-event does not invalidate the snapshot, since the cache has not changed yet
+        when(event.isPre()).thenReturn(true);
+        this.registry.modified(event);
+        assertEquals(1, this.registry.getEntries().size());
+
+        when(event.isPre()).thenReturn(false);
+        this.registry.modified(event);
+        Map<String, String> entries = this.registry.getEntries();
+        assertEquals(2, entries.size());
+        assertEquals("b", entries.get("b"));
+        verify(this.cache, times(2)).values();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testRemovalInvalidatesSnapshot() {
+        this.values.add(entry("a"));
+        this.values.add(entry("b"));
+        assertEquals(2, this.registry.getEntries().size());
+        this.values.remove(1);
+
+        CacheEntryRemovedEvent<Address, Map.Entry<String, String>> event = mock(CacheEntryRemovedEvent.class);
+        when(event.isOriginLocal()).thenReturn(true);
+
+        when(event.isPre()).thenReturn(true);
+        this.registry.removed(event);
+        assertEquals(2, this.registry.getEntries().size());
+
+        when(event.isPre()).thenReturn(false);
+        this.registry.removed(event);
+        assertEquals(Collections.singletonMap("a", "a"), this.registry.getEntries());
+        verify(this.cache, times(2)).values();
+    }
+
+    private static Map.Entry<String, String> entry(String key) {
+        return new AbstractMap.SimpleImmutableEntry<String, String>(key, key);
+    }
+}
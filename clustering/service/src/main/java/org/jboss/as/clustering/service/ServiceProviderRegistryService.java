@@ -29,6 +29,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.infinispan.Cache;
 import org.infinispan.context.Flag;
@@ -60,7 +62,6 @@ public class ServiceProviderRegistryService implements ServiceProviderRegistry,
     }
 
     final ServiceName name;
-    final ServiceProviderRegistryRpcHandler handler = new RpcDispatcher();
     @SuppressWarnings("rawtypes")
     private final Value<Cache> cacheRef;
     private final Value<GroupMembershipNotifier> notifierRef;
@@ -174,6 +175,8 @@ public class ServiceProviderRegistryService implements ServiceProviderRegistry,
 
     @Override
     public void membershipChangedDuringMerge(final List<ClusterNode> deadMembers, final List<ClusterNode> newMembers, List<ClusterNode> allMembers, final List<List<ClusterNode>> originatingGroups) {
+        // Request the services of all new members at once, rather than waiting for the response of each member in turn
+        final Map<ClusterNode, Future<List<String>>> futures = this.requestServices(newMembers);
         Operation<Map<String, Set<ClusterNode>>> operation = new Operation<Map<String, Set<ClusterNode>>>() {
             @Override
             public Map<String, Set<ClusterNode>> invoke(Cache<String, Map<ClusterNode, Void>> cache) {
@@ -186,7 +189,7 @@ public class ServiceProviderRegistryService implements ServiceProviderRegistry,
                 } else {
                     for (ClusterNode node: newMembers) {
                         // Re-assert services for new members following merge since these may have been lost following split
-                        List<String> services = ServiceProviderRegistryService.this.handler.getServices(node);
+                        List<String> services = awaitServices(futures.get(node));
                         for (String service: services) {
                             Map<ClusterNode, Void> nodes = cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL).putIfAbsent(service, null);
                             nodes.put(node, null);
@@ -233,14 +236,34 @@ public class ServiceProviderRegistryService implements ServiceProviderRegistry,
     interface Operation<R> extends CacheInvoker.Operation<String, Map<ClusterNode, Void>, R> {
     }
 
-    class RpcDispatcher implements ServiceProviderRegistryRpcHandler {
-        @Override
-        public List<String> getServices(ClusterNode node) {
+    /**
+     * Asynchronously requests the services provided by each of the specified nodes.
+     */
+    Map<ClusterNode, Future<List<String>>> requestServices(List<ClusterNode> nodes) {
+        Map<ClusterNode, Future<List<String>>> futures = new HashMap<ClusterNode, Future<List<String>>>();
+        for (ClusterNode node: nodes) {
             try {
-                return ServiceProviderRegistryService.this.dispatcher.callMethodOnNode(ServiceProviderRegistryService.this.name.getCanonicalName(), "getServices", new Object[] { node }, new Class[] { ClusterNode.class }, node);
+                futures.put(node, this.dispatcher.<List<String>>callMethodOnNodeWithFuture(this.name.getCanonicalName(), "getServices", new Object[] { node }, new Class[] { ClusterNode.class }, this.dispatcher.getMethodCallTimeout(), node, false));
             } catch (Exception e) {
-                return Collections.emptyList();
+                // Treat as if the node provides no services
             }
         }
+        return futures;
+    }
+
+    static List<String> awaitServices(Future<List<String>> future) {
+        if (future != null) {
+            try {
+                List<String> services = future.get();
+                if (services != null) {
+                    return services;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // Treat as if the node provides no services
+            }
+        }
+        return Collections.emptyList();
     }
 }
@@ -44,7 +44,7 @@ public class ServiceProviderRegistryServiceProvider implements ChannelDependentS
     }
 
     @Override
-    public ServiceController<?> install(ServiceTarget target, String cluster) {
+    public ServiceController<?> install(ServiceTarget target, String cluster, Configuration configuration) {
         final ServiceName name = this.getServiceName(cluster);
         @SuppressWarnings("rawtypes")
         final InjectedValue<Cache> cache = new InjectedValue<Cache>();
@@ -0,0 +1,169 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.web.infinispan;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.jboss.as.clustering.SimpleMarshalledValue;
+import org.jboss.as.clustering.web.OutgoingSessionGranularitySessionData;
+import org.jboss.as.clustering.web.SessionAttributeMarshaller;
+import org.jboss.metadata.web.jboss.ReplicationGranularity;
+
+/**
+ * Handles session attribute load/store operations for {@link ReplicationGranularity#FIELD} distributed session managers,
+ * i.e. session granularity sessions which replicate only the attributes that changed.
+ * <p/>
+ * Each attribute is stored under its own key of the session's atomic map, as for {@link ReplicationGranularity#ATTRIBUTE},
+ * so the session remains a single cache entry. Since session granularity sessions do not track which attributes were
+ * modified, every attribute is marshalled on store and the fingerprint of its serialized form is compared with the one
+ * of the last replicated value; only attributes whose fingerprint differs are written. The fingerprints are stored in the
+ * session map as well, so they always describe the replicated state, regardless of which node replicated it last.
+ * The serialized form computed for the fingerprint is retained by the marshalled value and replicated as is.
+ * <p/>
+ * Immutable attributes which the marshaller does not serialize are compared by value instead. Instances of other types
+ * known to be immutable, such as enums, are compared by value with the replicated attribute and not marshalled again
+ * while they are equal.
+ */
+public class DeltaSessionAttributeStorage implements SessionAttributeStorage<OutgoingSessionGranularitySessionData> {
+    private static final String FINGERPRINT_ALGORITHM = "SHA-1";
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(BigDecimal.class, BigInteger.class,
+            Currency.class, Locale.class, URI.class, UUID.class));
+
+    private final SessionAttributeMarshaller marshaller;
+
+    public DeltaSessionAttributeStorage(SessionAttributeMarshaller marshaller) {
+        this.marshaller = marshaller;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.as.clustering.web.infinispan.SessionAttributeStorage#store(java.util.Map, org.jboss.as.clustering.web.OutgoingDistributableSessionData)
+     */
+    @Override
+    public void store(Map<Object, Object> map, OutgoingSessionGranularitySessionData sessionData) throws IOException {
+        Map<String, Object> attributes = sessionData.getSessionAttributes();
+        if (attributes == null) return;
+
+        Map<String, Long> replicatedFingerprints = SessionMapEntry.FINGERPRINTS.get(map);
+        Map<String, Long> fingerprints = new HashMap<String, Long>(attributes.size());
+        MessageDigest digest = createDigest();
+
+        for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+            String name = attribute.getKey();
+            Long replicatedFingerprint = (replicatedFingerprints != null) ? replicatedFingerprints.get(name) : null;
+            if ((replicatedFingerprint != null) && this.isUnchangedImmutable(attribute.getValue(), map.get(name))) {
+                fingerprints.put(name, replicatedFingerprint);
+                continue;
+            }
+            Object value = this.marshaller.marshal(attribute.getValue());
+            if (value instanceof SimpleMarshalledValue) {
+                // marshalled once, for both the fingerprint and the replication
+                Long fingerprint = fingerprint(digest, ((SimpleMarshalledValue<?>) value).marshal());
+                fingerprints.put(name, fingerprint);
+                if (!fingerprint.equals(replicatedFingerprint) || !map.containsKey(name)) {
+                    map.put(name, value);
+                }
+            } else if ((value == null) || !value.equals(map.get(name))) {
+                map.put(name, value);
+            }
+        }
+
+        List<String> removed = new ArrayList<String>();
+        for (Object key : map.keySet()) {
+            if ((key instanceof String) && !attributes.containsKey(key)) {
+                removed.add((String) key);
+            }
+        }
+        for (String name : removed) {
+            map.remove(name);
+        }
+
+        if (!fingerprints.equals(replicatedFingerprints)) {
+            SessionMapEntry.FINGERPRINTS.put(map, fingerprints);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.as.clustering.web.infinispan.SessionAttributeStorage#load(java.util.Map)
+     */
+    @Override
+    public Map<String, Object> load(Map<Object, Object> map) throws IOException, ClassNotFoundException {
+        Map<String, Object> result = new HashMap<String, Object>();
+
+        for (Map.Entry<Object, Object> entry : map.entrySet()) {
+            Object key = entry.getKey();
+            if (key instanceof String) {
+                result.put((String) key, this.marshaller.unmarshal(entry.getValue()));
+            }
+        }
+
+        return result;
+    }
+
+    private boolean isUnchangedImmutable(Object value, Object replicated) throws IOException {
+        if ((value == null) || (replicated == null) || !((value instanceof Enum) || IMMUTABLE_TYPES.contains(value.getClass()))) {
+            return false;
+        }
+        try {
+            // only deserializes a value replicated by another node, and just once
+            return value.equals(this.marshaller.unmarshal(replicated));
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(FINGERPRINT_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Long fingerprint(MessageDigest digest, byte[] bytes) {
+        if (bytes == null) return Long.valueOf(0);
+        byte[] hash = digest.digest(bytes);
+        long fingerprint = 0;
+        for (int i = 0; i < 8; ++i) {
+            fingerprint = (fingerprint << 8) | (hash[i] & 0xFF);
+        }
+        return Long.valueOf(fingerprint);
+    }
+}
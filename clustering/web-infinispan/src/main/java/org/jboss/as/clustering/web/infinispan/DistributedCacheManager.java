@@ -34,14 +34,23 @@ import org.infinispan.affinity.KeyAffinityService;
 import org.infinispan.affinity.KeyGenerator;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.context.Flag;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.loaders.CacheLoaderManager;
+import org.infinispan.loaders.CacheStore;
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.notifications.Listener;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryActivated;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryRemoved;
+import org.infinispan.notifications.cachelistener.annotation.DataRehashed;
+import org.infinispan.notifications.cachelistener.annotation.TopologyChanged;
 import org.infinispan.notifications.cachelistener.event.CacheEntryActivatedEvent;
 import org.infinispan.notifications.cachelistener.event.CacheEntryModifiedEvent;
 import org.infinispan.notifications.cachelistener.event.CacheEntryRemovedEvent;
+import org.infinispan.notifications.cachelistener.event.DataRehashedEvent;
+import org.infinispan.notifications.cachelistener.event.TopologyChangedEvent;
+import org.infinispan.notifications.cachemanagerlistener.annotation.ViewChanged;
+import org.infinispan.notifications.cachemanagerlistener.event.ViewChangedEvent;
 import org.infinispan.remoting.transport.Address;
 import org.jboss.as.clustering.infinispan.affinity.KeyAffinityServiceFactory;
 import org.jboss.as.clustering.infinispan.invoker.CacheInvoker;
@@ -86,6 +95,7 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
     private final Registry<String, Void> registry;
     private final long lockTimeout;
     private final KeyAffinityService<String> affinity;
+    private final SessionLocationCache locations = new SessionLocationCache();
 
     public DistributedCacheManager(LocalDistributableSessionManager manager,
             Cache<String, Map<Object, Object>> cache, Registry<String, Void> registry,
@@ -113,6 +123,7 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
     @Override
     public void start() {
         this.cache.addListener(this);
+        this.cache.getCacheManager().addListener(this);
 
         this.registry.refreshLocalEntry();
         this.affinity.start();
@@ -126,7 +137,9 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
     @Override
     public void stop() {
         this.affinity.stop();
+        this.cache.getCacheManager().removeListener(this);
         this.cache.removeListener(this);
+        this.locations.invalidate();
     }
 
     /**
@@ -267,6 +280,7 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
     }
 
     private void removeSession(final String sessionId, final boolean local) {
+        this.locations.remove(sessionId);
         Operation<Void> operation = new Operation<Void>() {
             @Override
             public Void invoke(Cache<String, Map<Object, Object>> cache) {
@@ -299,6 +313,7 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
     @Override
     public void evictSession(final String sessionId) {
         this.trace("evictSession(%s)", sessionId);
+        this.locations.remove(sessionId);
         Operation<Void> operation = new Operation<Void>() {
             @Override
             public Void invoke(Cache<String, Map<Object, Object>> cache) {
@@ -413,27 +428,110 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
      */
     @Override
     public String locate(String sessionId) {
+        int version = this.locations.getTopologyVersion();
         Address location = this.locatePrimaryOwner(sessionId);
-        if (!location.equals(this.cache.getCacheManager().getAddress())) {
+        Address localAddress = this.cache.getCacheManager().getAddress();
+        if (!location.equals(localAddress)) {
             // We need to force synchronous invocations to guarantee session replicates before subsequent request.
             this.invoker.forceThreadSynchronous();
             // Lookup jvm route for address
+            String route = this.locations.getRoute(location);
+            if (route != null) {
+                return route;
+            }
             Map.Entry<String, Void> entry = this.registry.getRemoteEntry(location);
             if (entry != null) {
+                this.locations.putRoute(location, entry.getKey(), version);
                 return entry.getKey();
             }
         }
+        String route = this.locations.getRoute(localAddress);
+        if (route != null) {
+            return route;
+        }
         Map.Entry<String, Void> entry = this.registry.getLocalEntry();
         if (entry == null) {
             // Accommodate mod_cluster's lazy jvm route auto-generation
             entry = this.registry.refreshLocalEntry();
         }
-        return (entry != null) ? entry.getKey() : null;
+        if (entry == null) {
+            return null;
+        }
+        this.locations.putRoute(localAddress, entry.getKey(), version);
+        return entry.getKey();
     }
 
     private Address locatePrimaryOwner(String sessionId) {
-        DistributionManager dist = this.cache.getAdvancedCache().getDistributionManager();
-        return (dist != null) ? dist.getPrimaryLocation(sessionId) : this.cache.getCacheManager().getAddress();
+        // With sticky sessions, a session is almost always requested from the same node, so cache its owner until the
+        // topology changes
+        Address owner = this.locations.getOwner(sessionId);
+        if (owner == null) {
+            int version = this.locations.getTopologyVersion();
+            DistributionManager dist = this.cache.getAdvancedCache().getDistributionManager();
+            owner = (dist != null) ? dist.getPrimaryLocation(sessionId) : this.cache.getCacheManager().getAddress();
+            this.locations.putOwner(sessionId, owner, version);
+        }
+        return owner;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.as.clustering.web.DistributedCacheManager#getLocationCacheHits()
+     */
+    @Override
+    public long getLocationCacheHits() {
+        return this.locations.getHits();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.as.clustering.web.DistributedCacheManager#getLocationCacheMisses()
+     */
+    @Override
+    public long getLocationCacheMisses() {
+        return this.locations.getMisses();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.as.clustering.web.DistributedCacheManager#getOffHeapSessionCount()
+     */
+    @Override
+    public int getOffHeapSessionCount() {
+        OffHeapCacheStore store = this.findOffHeapStore();
+        return (store != null) ? store.getSessionCount() : 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.as.clustering.web.DistributedCacheManager#getOffHeapSessionSize()
+     */
+    @Override
+    public long getOffHeapSessionSize() {
+        OffHeapCacheStore store = this.findOffHeapStore();
+        return (store != null) ? store.getUsedSize() : 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.as.clustering.web.DistributedCacheManager#getOffHeapSessionEvictions()
+     */
+    @Override
+    public long getOffHeapSessionEvictions() {
+        OffHeapCacheStore store = this.findOffHeapStore();
+        return (store != null) ? store.getEvictions() : 0;
+    }
+
+    private OffHeapCacheStore findOffHeapStore() {
+        ComponentRegistry registry = this.cache.getAdvancedCache().getComponentRegistry();
+        CacheLoaderManager loaderManager = (registry != null) ? registry.getComponent(CacheLoaderManager.class) : null;
+        CacheStore store = (loaderManager != null) ? loaderManager.getCacheStore() : null;
+        return (store instanceof OffHeapCacheStore) ? (OffHeapCacheStore) store : null;
     }
 
     @Override
@@ -450,6 +548,8 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
     public void removed(CacheEntryRemovedEvent<String, Map<Object, Object>> event) {
         if (event.isPre() || event.isOriginLocal()) return;
 
+        this.locations.remove(event.getKey());
+
         try {
             this.manager.notifyRemoteInvalidation(event.getKey());
         } catch (Throwable e) {
@@ -494,6 +594,25 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
         }
     }
 
+    @TopologyChanged
+    public void topologyChanged(TopologyChangedEvent<String, Map<Object, Object>> event) {
+        if (event.isPre()) return;
+
+        this.locations.invalidate();
+    }
+
+    @DataRehashed
+    public void dataRehashed(DataRehashedEvent<String, Map<Object, Object>> event) {
+        if (event.isPre()) return;
+
+        this.locations.invalidate();
+    }
+
+    @ViewChanged
+    public void viewChanged(ViewChangedEvent event) {
+        this.locations.invalidate();
+    }
+
     private void trace(String message, Object... args) {
         ROOT_LOGGER.tracef(message, args);
     }
@@ -48,6 +48,7 @@ import org.jboss.as.clustering.registry.Registry;
 import org.jboss.as.clustering.registry.RegistryService;
 import org.jboss.as.clustering.web.BatchingManager;
 import org.jboss.as.clustering.web.ClusteringNotSupportedException;
+import org.jboss.as.clustering.web.DistributableSessionConfiguration;
 import org.jboss.as.clustering.web.DistributedCacheManagerFactoryService;
 import org.jboss.as.clustering.web.LocalDistributableSessionManager;
 import org.jboss.as.clustering.web.OutgoingDistributableSessionData;
@@ -98,13 +99,13 @@ public class DistributedCacheManagerFactory implements org.jboss.as.clustering.w
         }
 
         BatchingManager batchingManager = new TransactionBatchingManager(cache.getTransactionManager());
-        SessionAttributeStorage<T> storage = this.storageFactory.createStorage(manager.getReplicationConfig().getReplicationGranularity(), this.marshallerFactory.createMarshaller(manager));
+        SessionAttributeStorage<T> storage = this.storageFactory.createStorage(manager.getReplicationConfig().getReplicationGranularity(), manager.getDistributableSessionConfiguration().isLazyAttributes(), this.marshallerFactory.createMarshaller(manager));
 
         return new DistributedCacheManager<T>(manager, new AtomicMapCache<String, Object, Object>(cache), jvmRouteRegistry, this.lockManager.getOptionalValue(), storage, batchingManager, this.invoker, this.affinityFactory.getValue());
     }
 
     @Override
-    public boolean addDeploymentDependencies(ServiceName deploymentServiceName, ServiceRegistry registry, ServiceTarget target, ServiceBuilder<?> builder, JBossWebMetaData metaData) {
+    public boolean addDeploymentDependencies(ServiceName deploymentServiceName, ServiceRegistry registry, ServiceTarget target, ServiceBuilder<?> builder, JBossWebMetaData metaData, DistributableSessionConfiguration sessionConfig) {
         ServiceName templateCacheServiceName = this.getCacheServiceName(metaData.getReplicationConfig());
         if (registry.getService(templateCacheServiceName) == null) {
             return false;
@@ -125,7 +126,7 @@ public class DistributedCacheManagerFactory implements org.jboss.as.clustering.w
 
         final InjectedValue<EmbeddedCacheManager> container = new InjectedValue<EmbeddedCacheManager>();
         final InjectedValue<Configuration> config = new InjectedValue<Configuration>();
-        target.addService(cacheConfigurationServiceName, new WebSessionCacheConfigurationService(cacheName, container, config))
+        target.addService(cacheConfigurationServiceName, new WebSessionCacheConfigurationService(cacheName, container, config, sessionConfig.getOffHeapStoreMaxSize()))
                 .addDependency(containerServiceName, EmbeddedCacheManager.class, container)
                 .addDependency(templateCacheConfigurationServiceName, Configuration.class, config)
                 .setInitialMode(ServiceController.Mode.ON_DEMAND)
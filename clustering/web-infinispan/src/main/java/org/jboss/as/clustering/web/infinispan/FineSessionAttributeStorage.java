@@ -26,20 +26,31 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
+import org.jboss.as.clustering.SimpleMarshalledValue;
+import org.jboss.as.clustering.web.MarshalledSessionAttribute;
 import org.jboss.as.clustering.web.OutgoingAttributeGranularitySessionData;
 import org.jboss.as.clustering.web.SessionAttributeMarshaller;
 import org.jboss.metadata.web.jboss.ReplicationGranularity;
 
 /**
  * Handles session attribute load/store operations for {@link ReplicationGranularity#ATTRIBUTE} distributed session managers.
+ * <p/>
+ * If lazy, marshalled attributes are loaded as {@link MarshalledSessionAttribute}s, leaving it to the session to unmarshal
+ * them when they are read.
  *
  * @author Paul Ferraro
  */
 public class FineSessionAttributeStorage implements SessionAttributeStorage<OutgoingAttributeGranularitySessionData> {
     private final SessionAttributeMarshaller marshaller;
+    private final boolean lazy;
 
     public FineSessionAttributeStorage(SessionAttributeMarshaller marshaller) {
+        this(marshaller, false);
+    }
+
+    public FineSessionAttributeStorage(SessionAttributeMarshaller marshaller, boolean lazy) {
         this.marshaller = marshaller;
+        this.lazy = lazy;
     }
 
     /**
@@ -53,7 +64,9 @@ public class FineSessionAttributeStorage implements SessionAttributeStorage<Outg
 
         if (modified != null) {
             for (Map.Entry<String, Object> entry : modified.entrySet()) {
-                map.put(entry.getKey(), this.marshaller.marshal(entry.getValue()));
+                Object value = entry.getValue();
+                // An attribute that was never read is stored as is
+                map.put(entry.getKey(), (value instanceof LazySessionAttribute) ? ((LazySessionAttribute) value).marshalled : this.marshaller.marshal(value));
             }
         }
 
@@ -79,10 +92,35 @@ public class FineSessionAttributeStorage implements SessionAttributeStorage<Outg
             Object key = entry.getKey();
             if (key instanceof String) {
                 String attribute = (String) key;
-                result.put(attribute, this.marshaller.unmarshal(entry.getValue()));
+                Object value = entry.getValue();
+                result.put(attribute, (this.lazy && (value instanceof SimpleMarshalledValue)) ? new LazySessionAttribute((SimpleMarshalledValue<?>) value) : this.marshaller.unmarshal(value));
             }
         }
 
         return result;
     }
+
+    private class LazySessionAttribute implements MarshalledSessionAttribute {
+        final SimpleMarshalledValue<?> marshalled;
+
+        LazySessionAttribute(SimpleMarshalledValue<?> marshalled) {
+            this.marshalled = marshalled;
+        }
+
+        @Override
+        public Object getValue() throws IOException, ClassNotFoundException {
+            return FineSessionAttributeStorage.this.marshaller.unmarshal(this.marshalled);
+        }
+
+        @Override
+        public int getSize() {
+            try {
+                byte[] bytes = this.marshalled.getBytes();
+                return (bytes != null) ? bytes.length : 0;
+            } catch (IOException e) {
+                // Only possible if the value was never marshalled, which is not the case of a loaded value
+                return 0;
+            }
+        }
+    }
 }
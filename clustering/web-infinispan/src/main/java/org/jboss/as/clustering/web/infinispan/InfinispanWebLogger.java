@@ -56,17 +56,6 @@ interface InfinispanWebLogger extends BasicLogger {
     @Message(id = 10320, value = "Adding missing jvm route entry to web session cache")
     void addingJvmRouteEntry();
 
-    /**
-     * Logs a warning message indicating the granularity represented by the {@code deprecatedName} parameter is
-     * deprecated and failing back to the granularity represented by the {@code fallbackName} parameter.
-     *
-     * @param deprecatedName the name of the deprecated granularity.
-     * @param fallbackName   the name of the fallback granularity.
-     */
-    @LogMessage(level = WARN)
-    @Message(id = 10321, value = "%s replication granularity is deprecated.  Falling back to %s granularity instead.")
-    void deprecatedGranularity(String deprecatedName, String fallbackName);
-
     /**
      * Logs a warning message indicating there was a problem accessing the session.
      *
@@ -107,4 +96,26 @@ interface InfinispanWebLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 10325, value = "Possible concurrency problem: Replicated version id %d is less than or equal to in-memory version for session %s")
     void versionIdMismatch(int versionId, String sessionId);
+
+    /**
+     * Logs a warning message indicating that a passivated session could not be stored off-heap, since it is larger than
+     * the off-heap session store.
+     *
+     * @param sessionId the session id.
+     * @param maxSize the size of the off-heap store.
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 10326, value = "Session %s is larger than the %d bytes of the off-heap session store, and was discarded on passivation")
+    void sessionTooLargeForOffHeapStore(Object sessionId, long maxSize);
+
+    /**
+     * Logs a warning message indicating that a passivated session was evicted from the off-heap session store, and
+     * lost, to make room for another one.
+     *
+     * @param sessionId the session id.
+     * @param maxSize the size of the part of the off-heap store holding the session.
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 10327, value = "Passivated session %s was evicted from the %d bytes of the off-heap session store to make room for more recently passivated sessions")
+    void sessionEvictedFromOffHeapStore(Object sessionId, long maxSize);
 }
@@ -0,0 +1,392 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.web.infinispan;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.infinispan.Cache;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.loaders.AbstractCacheStore;
+import org.infinispan.loaders.AbstractCacheStoreConfig;
+import org.infinispan.loaders.CacheLoaderConfig;
+import org.infinispan.loaders.CacheLoaderException;
+import org.infinispan.loaders.CacheLoaderMetadata;
+import org.infinispan.loaders.CacheStore;
+import org.infinispan.marshall.StreamingMarshaller;
+
+/**
+ * Cache store which keeps passivated sessions, in their marshalled form, in direct memory instead of the java heap, so
+ * that idle sessions neither weigh on garbage collection nor need to be read from disk when accessed again.
+ * <p/>
+ * The store is split into stripes by key hash, each bounded by its share of the configured size, so that concurrent
+ * passivations and activations of different sessions seldom contend. Once a stripe is full, its least recently passivated
+ * or loaded sessions are evicted from it.
+ * <p/>
+ * The store is meant to be a tier in front of the passivation store the cache was configured with, its spill store:
+ * evicted sessions, sessions too large for the store, and the content of the store on stop, are passivated to the spill
+ * store, and sessions not found off-heap are loaded from it. Without a spill store, evicted sessions are lost, which is
+ * logged, and the content of the store does not survive a restart.
+ */
+@CacheLoaderMetadata(configurationClass = OffHeapCacheStore.OffHeapCacheStoreConfig.class)
+public class OffHeapCacheStore extends AbstractCacheStore {
+
+    // Stripes are no smaller than this, so that striping does not turn away sessions the store would fit
+    private static final long MIN_STRIPE_SIZE = 1024 * 1024;
+
+    private final CacheStore spillStore;
+    private final CacheLoaderConfig spillStoreConfig;
+    private volatile OffHeapCacheStoreConfig config;
+    private volatile OffHeapMemory<Object>[] stripes;
+
+    public OffHeapCacheStore() {
+        this(null, null);
+    }
+
+    /**
+     * @param spillStore the store to which sessions which do not fit off-heap are passivated, or null to discard them
+     * @param spillStoreConfig the configuration with which to initialize the spill store
+     */
+    public OffHeapCacheStore(CacheStore spillStore, CacheLoaderConfig spillStoreConfig) {
+        this.spillStore = spillStore;
+        this.spillStoreConfig = spillStoreConfig;
+    }
+
+    @Override
+    public void init(CacheLoaderConfig config, Cache<?, ?> cache, StreamingMarshaller marshaller) throws CacheLoaderException {
+        super.init(config, cache, marshaller);
+        this.config = (OffHeapCacheStoreConfig) config;
+        if (this.spillStore != null) {
+            this.spillStore.init(this.spillStoreConfig, cache, marshaller);
+        }
+    }
+
+    @Override
+    public void start() throws CacheLoaderException {
+        super.start();
+        if (this.spillStore != null) {
+            this.spillStore.start();
+        }
+        long maxSize = this.config.getMaxSize();
+        int count = (int) Math.max(Math.min(this.config.getStripes(), maxSize / MIN_STRIPE_SIZE), 1);
+        @SuppressWarnings("unchecked")
+        OffHeapMemory<Object>[] stripes = new OffHeapMemory[count];
+        for (int i = 0; i < count; ++i) {
+            stripes[i] = new OffHeapMemory<Object>(maxSize / count, this.config.getBlockSize());
+        }
+        this.stripes = stripes;
+    }
+
+    @Override
+    public void stop() throws CacheLoaderException {
+        try {
+            for (OffHeapMemory<Object> memory : this.stripes) {
+                synchronized (memory) {
+                    if (this.spillStore != null) {
+                        for (Object key : memory.keys()) {
+                            this.spill(key, memory.get(key));
+                        }
+                    }
+                    memory.clear();
+                }
+            }
+        } finally {
+            if (this.spillStore != null) {
+                this.spillStore.stop();
+            }
+            super.stop();
+        }
+    }
+
+    @Override
+    public void store(InternalCacheEntry entry) throws CacheLoaderException {
+        Object key = entry.getKey();
+        OffHeapMemory<Object> memory = this.stripe(key);
+        Map<Object, byte[]> evicted = new LinkedHashMap<Object, byte[]>();
+        // Spills under the lock of the stripe, so that loads and removals never miss a session on its way to the spill store
+        synchronized (memory) {
+            boolean stored = memory.put(key, this.marshal(entry), entry.getExpiryTime(), evicted);
+            for (Map.Entry<Object, byte[]> evictedEntry : evicted.entrySet()) {
+                if (this.spillStore != null) {
+                    this.spill(evictedEntry.getKey(), evictedEntry.getValue());
+                } else {
+                    InfinispanWebLogger.ROOT_LOGGER.sessionEvictedFromOffHeapStore(evictedEntry.getKey(), memory.getMaxSize());
+                }
+            }
+            if (!stored) {
+                if (this.spillStore != null) {
+                    InfinispanWebLogger.ROOT_LOGGER.tracef("Session %s is too large for the off-heap session store and is passivated to %s", key, this.spillStore);
+                    this.spillStore.store(entry);
+                } else {
+                    InfinispanWebLogger.ROOT_LOGGER.sessionTooLargeForOffHeapStore(key, memory.getMaxSize());
+                }
+            }
+        }
+    }
+
+    @Override
+    public InternalCacheEntry load(Object key) throws CacheLoaderException {
+        OffHeapMemory<Object> memory = this.stripe(key);
+        synchronized (memory) {
+            byte[] bytes = memory.get(key);
+            if (bytes == null) {
+                return (this.spillStore != null) ? this.spillStore.load(key) : null;
+            }
+            InternalCacheEntry entry = this.unmarshal(bytes);
+            if (entry.isExpired(System.currentTimeMillis())) {
+                memory.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) throws CacheLoaderException {
+        OffHeapMemory<Object> memory = this.stripe(key);
+        synchronized (memory) {
+            return memory.contains(key) || ((this.spillStore != null) && this.spillStore.containsKey(key));
+        }
+    }
+
+    @Override
+    public Set<InternalCacheEntry> loadAll() throws CacheLoaderException {
+        return this.load(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Set<InternalCacheEntry> load(int numEntries) throws CacheLoaderException {
+        Set<InternalCacheEntry> entries = new HashSet<InternalCacheEntry>();
+        for (Object key : this.loadAllKeys(null)) {
+            if (entries.size() >= numEntries) return entries;
+            InternalCacheEntry entry = this.load(key);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    @Override
+    public Set<Object> loadAllKeys(Set<Object> keysToExclude) throws CacheLoaderException {
+        Set<Object> keys = new HashSet<Object>();
+        for (OffHeapMemory<Object> memory : this.stripes) {
+            keys.addAll(memory.keys());
+        }
+        if (this.spillStore != null) {
+            keys.addAll(this.spillStore.loadAllKeys(null));
+        }
+        if (keysToExclude != null) {
+            keys.removeAll(keysToExclude);
+        }
+        return keys;
+    }
+
+    @Override
+    public boolean remove(Object key) throws CacheLoaderException {
+        OffHeapMemory<Object> memory = this.stripe(key);
+        synchronized (memory) {
+            boolean removed = memory.remove(key);
+            if (this.spillStore != null) {
+                removed |= this.spillStore.remove(key);
+            }
+            return removed;
+        }
+    }
+
+    @Override
+    public void clear() throws CacheLoaderException {
+        for (OffHeapMemory<Object> memory : this.stripes) {
+            memory.clear();
+        }
+        if (this.spillStore != null) {
+            this.spillStore.clear();
+        }
+    }
+
+    @Override
+    protected void purgeInternal() throws CacheLoaderException {
+        long time = System.currentTimeMillis();
+        for (OffHeapMemory<Object> memory : this.stripes) {
+            memory.removeExpired(time);
+        }
+        if (this.spillStore != null) {
+            this.spillStore.purgeExpired();
+        }
+    }
+
+    @Override
+    public void toStream(ObjectOutput output) throws CacheLoaderException {
+        Set<InternalCacheEntry> entries = this.loadAll();
+        try {
+            output.writeInt(entries.size());
+            for (InternalCacheEntry entry : entries) {
+                this.getMarshaller().objectToObjectStream(entry, output);
+            }
+        } catch (IOException e) {
+            throw new CacheLoaderException(e);
+        }
+    }
+
+    @Override
+    public void fromStream(ObjectInput input) throws CacheLoaderException {
+        try {
+            int size = input.readInt();
+            for (int i = 0; i < size; ++i) {
+                this.store((InternalCacheEntry) this.getMarshaller().objectFromObjectStream(input));
+            }
+        } catch (IOException e) {
+            throw new CacheLoaderException(e);
+        } catch (ClassNotFoundException e) {
+            throw new CacheLoaderException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheLoaderException(e);
+        }
+    }
+
+    @Override
+    public Class<? extends CacheLoaderConfig> getConfigurationClass() {
+        return OffHeapCacheStoreConfig.class;
+    }
+
+    /**
+     * @return the number of sessions stored off-heap
+     */
+    public int getSessionCount() {
+        int count = 0;
+        OffHeapMemory<Object>[] stripes = this.stripes;
+        if (stripes != null) {
+            for (OffHeapMemory<Object> memory : stripes) {
+                count += memory.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of bytes of direct memory occupied by sessions
+     */
+    public long getUsedSize() {
+        long size = 0;
+        OffHeapMemory<Object>[] stripes = this.stripes;
+        if (stripes != null) {
+            for (OffHeapMemory<Object> memory : stripes) {
+                size += memory.getUsedSize();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of sessions evicted from, or not admitted to, direct memory for lack of space
+     */
+    public long getEvictions() {
+        long evictions = 0;
+        OffHeapMemory<Object>[] stripes = this.stripes;
+        if (stripes != null) {
+            for (OffHeapMemory<Object> memory : stripes) {
+                evictions += memory.getEvictions();
+            }
+        }
+        return evictions;
+    }
+
+    private OffHeapMemory<Object> stripe(Object key) {
+        OffHeapMemory<Object>[] stripes = this.stripes;
+        int hash = key.hashCode();
+        // Spread the hash, since session ids only differ in a few characters
+        hash ^= (hash >>> 16);
+        return stripes[(hash & Integer.MAX_VALUE) % stripes.length];
+    }
+
+    // Passivates a session evicted from direct memory to the spill store, unless it expired in the meantime
+    private void spill(Object key, byte[] bytes) throws CacheLoaderException {
+        InternalCacheEntry entry = this.unmarshal(bytes);
+        if (!entry.isExpired(System.currentTimeMillis())) {
+            InfinispanWebLogger.ROOT_LOGGER.tracef("Passivating session %s evicted from the off-heap session store to %s", key, this.spillStore);
+            this.spillStore.store(entry);
+        }
+    }
+
+    private byte[] marshal(InternalCacheEntry entry) throws CacheLoaderException {
+        try {
+            return this.getMarshaller().objectToByteBuffer(entry);
+        } catch (IOException e) {
+            throw new CacheLoaderException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheLoaderException(e);
+        }
+    }
+
+    private InternalCacheEntry unmarshal(byte[] bytes) throws CacheLoaderException {
+        try {
+            return (InternalCacheEntry) this.getMarshaller().objectFromByteBuffer(bytes);
+        } catch (IOException e) {
+            throw new CacheLoaderException(e);
+        } catch (ClassNotFoundException e) {
+            throw new CacheLoaderException(e);
+        }
+    }
+
+    public static class OffHeapCacheStoreConfig extends AbstractCacheStoreConfig {
+        private static final long serialVersionUID = 2983620457314285390L;
+
+        private long maxSize = 0;
+        private int blockSize = OffHeapMemory.DEFAULT_BLOCK_SIZE;
+        private int stripes = 16;
+
+        public OffHeapCacheStoreConfig() {
+            this.setCacheLoaderClassName(OffHeapCacheStore.class.getName());
+        }
+
+        public long getMaxSize() {
+            return this.maxSize;
+        }
+
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getBlockSize() {
+            return this.blockSize;
+        }
+
+        public void setBlockSize(int blockSize) {
+            this.blockSize = blockSize;
+        }
+
+        public int getStripes() {
+            return this.stripes;
+        }
+
+        public void setStripes(int stripes) {
+            this.stripes = stripes;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.web.infinispan;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores byte arrays by key outside of the java heap, in fixed size blocks of direct memory.
+ * <p/>
+ * Direct memory is allocated in slabs as needed, up to the configured maximum size. Once full, the least recently used
+ * entries are evicted to make room for new ones. Freed blocks are reused, so the direct memory of this store, once
+ * allocated, is only released when the store is {@link #clear() cleared}.
+ *
+ * @param <K> the key type
+ */
+class OffHeapMemory<K> {
+    static final int DEFAULT_BLOCK_SIZE = 1024;
+    private static final int SLAB_SIZE = 16 * 1024 * 1024;
+
+    private final int blockSize;
+    private final int maxBlocks;
+    private final int blocksPerSlab;
+    // Accessed in access order, i.e. eldest is least recently used
+    private final LinkedHashMap<K, Allocation> allocations = new LinkedHashMap<K, Allocation>(16, 0.75f, true);
+    private final List<ByteBuffer> slabs = new ArrayList<ByteBuffer>();
+    private int[] freeBlocks = new int[16];
+    private int freeCount = 0;
+    // Number of blocks taken from slabs so far
+    private int allocatedBlocks = 0;
+    private int usedBlocks = 0;
+    private long evictions = 0;
+
+    /**
+     * @param maxSize the maximum number of bytes of direct memory to use
+     * @param blockSize the size of the blocks in which entries are stored
+     */
+    OffHeapMemory(long maxSize, int blockSize) {
+        this.blockSize = blockSize;
+        this.maxBlocks = (int) Math.min(maxSize / blockSize, Integer.MAX_VALUE);
+        this.blocksPerSlab = Math.max(SLAB_SIZE / blockSize, 1);
+    }
+
+    /**
+     * Stores the specified value, evicting least recently used entries if necessary.
+     *
+     * @param evicted collects the entries evicted to make room for the value
+     * @return true, if the value was stored, false if it is larger than this store
+     */
+    synchronized boolean put(K key, byte[] value, long expiryTime, Map<? super K, byte[]> evicted) {
+        this.remove(key);
+        int blocks = (value.length + this.blockSize - 1) / this.blockSize;
+        if (blocks > this.maxBlocks) {
+            this.evictions += 1;
+            return false;
+        }
+        Iterator<Map.Entry<K, Allocation>> eldest = this.allocations.entrySet().iterator();
+        while (this.maxBlocks - this.usedBlocks < blocks) {
+            Map.Entry<K, Allocation> entry = eldest.next();
+            evicted.put(entry.getKey(), this.read(entry.getValue()));
+            this.free(entry.getValue());
+            eldest.remove();
+            this.evictions += 1;
+        }
+        Allocation allocation = new Allocation(new int[blocks], value.length, expiryTime);
+        for (int i = 0; i < blocks; ++i) {
+            int block = this.allocateBlock();
+            int offset = i * this.blockSize;
+            this.slab(block).put(value, offset, Math.min(this.blockSize, value.length - offset));
+            allocation.blocks[i] = block;
+        }
+        this.usedBlocks += blocks;
+        this.allocations.put(key, allocation);
+        return true;
+    }
+
+    /**
+     * @return a copy of the stored value, or null if there is none
+     */
+    synchronized byte[] get(K key) {
+        Allocation allocation = this.allocations.get(key);
+        return (allocation != null) ? this.read(allocation) : null;
+    }
+
+    synchronized boolean contains(K key) {
+        // Unlike get(...), does not count as an access
+        return this.allocations.containsKey(key);
+    }
+
+    synchronized boolean remove(K key) {
+        Allocation allocation = this.allocations.remove(key);
+        if (allocation == null) return false;
+        this.free(allocation);
+        return true;
+    }
+
+    /**
+     * Removes the entries which expired as of the specified time.
+     */
+    synchronized void removeExpired(long time) {
+        Iterator<Allocation> allocations = this.allocations.values().iterator();
+        while (allocations.hasNext()) {
+            Allocation allocation = allocations.next();
+            if ((allocation.expiryTime >= 0) && (allocation.expiryTime <= time)) {
+                this.free(allocation);
+                allocations.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes all entries and releases the direct memory of this store.
+     */
+    synchronized void clear() {
+        this.allocations.clear();
+        this.slabs.clear();
+        this.freeBlocks = new int[16];
+        this.freeCount = 0;
+        this.allocatedBlocks = 0;
+        this.usedBlocks = 0;
+    }
+
+    /**
+     * @return a copy of the keys of this store, least recently used first
+     */
+    synchronized List<K> keys() {
+        return new ArrayList<K>(this.allocations.keySet());
+    }
+
+    synchronized int size() {
+        return this.allocations.size();
+    }
+
+    /**
+     * @return the number of bytes of the blocks occupied by entries
+     */
+    synchronized long getUsedSize() {
+        return (long) this.usedBlocks * this.blockSize;
+    }
+
+    long getMaxSize() {
+        return (long) this.maxBlocks * this.blockSize;
+    }
+
+    /**
+     * @return the number of entries evicted, or not stored, for lack of space
+     */
+    synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    private byte[] read(Allocation allocation) {
+        byte[] value = new byte[allocation.length];
+        for (int i = 0; i < allocation.blocks.length; ++i) {
+            int offset = i * this.blockSize;
+            this.slab(allocation.blocks[i]).get(value, offset, Math.min(this.blockSize, value.length - offset));
+        }
+        return value;
+    }
+
+    private void free(Allocation allocation) {
+        if (this.freeCount + allocation.blocks.length > this.freeBlocks.length) {
+            this.freeBlocks = Arrays.copyOf(this.freeBlocks, Math.max(this.freeCount + allocation.blocks.length, this.freeBlocks.length * 2));
+        }
+        for (int block : allocation.blocks) {
+            this.freeBlocks[this.freeCount++] = block;
+        }
+        this.usedBlocks -= allocation.blocks.length;
+    }
+
+    private int allocateBlock() {
+        if (this.freeCount > 0) {
+            return this.freeBlocks[--this.freeCount];
+        }
+        int block = this.allocatedBlocks++;
+        if (block / this.blocksPerSlab == this.slabs.size()) {
+            int blocks = Math.min(this.blocksPerSlab, this.maxBlocks - block);
+            this.slabs.add(ByteBuffer.allocateDirect(blocks * this.blockSize));
+        }
+        return block;
+    }
+
+    // Positions the slab of the specified block at the start of the block
+    private ByteBuffer slab(int block) {
+        ByteBuffer slab = this.slabs.get(block / this.blocksPerSlab);
+        slab.position((block % this.blocksPerSlab) * this.blockSize);
+        return slab;
+    }
+
+    private static class Allocation {
+        final int[] blocks;
+        final int length;
+        final long expiryTime;
+
+        Allocation(int[] blocks, int length, long expiryTime) {
+            this.blocks = blocks;
+            this.length = length;
+            this.expiryTime = expiryTime;
+        }
+    }
+}
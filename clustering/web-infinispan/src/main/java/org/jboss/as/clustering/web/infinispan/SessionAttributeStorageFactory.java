@@ -36,8 +36,9 @@ public interface SessionAttributeStorageFactory {
      *
      * @param <T> the type of session data appropriate for the specified granularity
      * @param granularity the replication granularity
+     * @param lazyAttributes whether session attributes are unmarshalled on first read, if the granularity allows it
      * @param marshaller a session attribute marshaller
      * @return a strategy for storing session attributes.
      */
-    <T extends OutgoingDistributableSessionData> SessionAttributeStorage<T> createStorage(ReplicationGranularity granularity, SessionAttributeMarshaller marshaller);
+    <T extends OutgoingDistributableSessionData> SessionAttributeStorage<T> createStorage(ReplicationGranularity granularity, boolean lazyAttributes, SessionAttributeMarshaller marshaller);
 }
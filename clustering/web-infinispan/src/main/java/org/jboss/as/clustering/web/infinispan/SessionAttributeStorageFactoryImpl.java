@@ -25,7 +25,6 @@ import org.jboss.as.clustering.web.OutgoingDistributableSessionData;
 import org.jboss.as.clustering.web.SessionAttributeMarshaller;
 import org.jboss.metadata.web.jboss.ReplicationGranularity;
 
-import static org.jboss.as.clustering.web.infinispan.InfinispanWebLogger.ROOT_LOGGER;
 import static org.jboss.as.clustering.web.infinispan.InfinispanWebMessages.MESSAGES;
 
 /**
@@ -34,25 +33,23 @@ import static org.jboss.as.clustering.web.infinispan.InfinispanWebMessages.MESSA
  * @author Paul Ferraro
  */
 public class SessionAttributeStorageFactoryImpl implements SessionAttributeStorageFactory {
-
     /**
      * {@inheritDoc}
      *
-     * @see org.jboss.as.clustering.web.infinispan.SessionAttributeStorageFactory#createStorage(org.jboss.metadata.web.jboss.ReplicationGranularity, org.jboss.as.clustering.web.SessionAttributeMarshaller)
+     * @see org.jboss.as.clustering.web.infinispan.SessionAttributeStorageFactory#createStorage(org.jboss.metadata.web.jboss.ReplicationGranularity, boolean, org.jboss.as.clustering.web.SessionAttributeMarshaller)
      */
     @SuppressWarnings("unchecked")
     @Override
-    public <T extends OutgoingDistributableSessionData> SessionAttributeStorage<T> createStorage(ReplicationGranularity granularity, SessionAttributeMarshaller marshaller) {
+    public <T extends OutgoingDistributableSessionData> SessionAttributeStorage<T> createStorage(ReplicationGranularity granularity, boolean lazyAttributes, SessionAttributeMarshaller marshaller) {
         switch ((granularity != null) ? granularity : ReplicationGranularity.SESSION) {
             case SESSION: {
                 return (SessionAttributeStorage<T>) new CoarseSessionAttributeStorage(marshaller);
             }
             case ATTRIBUTE: {
-                return (SessionAttributeStorage<T>) new FineSessionAttributeStorage(marshaller);
+                return (SessionAttributeStorage<T>) new FineSessionAttributeStorage(marshaller, lazyAttributes);
             }
             case FIELD: {
-                ROOT_LOGGER.deprecatedGranularity(ReplicationGranularity.FIELD.name(), ReplicationGranularity.SESSION.name());
-                return this.createStorage(ReplicationGranularity.SESSION, marshaller);
+                return (SessionAttributeStorage<T>) new DeltaSessionAttributeStorage(marshaller);
             }
             default: {
                 throw MESSAGES.unknownReplicationGranularity(granularity);
@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.web.infinispan;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.infinispan.remoting.transport.Address;
+
+/**
+ * Local cache of the primary owners of sessions and of the jvm routes of cluster members.
+ * <p/>
+ * Cached values are only valid for the topology under which they were computed. Values computed while the topology
+ * changes are tagged with the previous topology version, and are therefore never returned.
+ */
+class SessionLocationCache {
+    private final ConcurrentMap<String, Versioned<Address>> owners = new ConcurrentHashMap<String, Versioned<Address>>();
+    private final ConcurrentMap<Address, Versioned<String>> routes = new ConcurrentHashMap<Address, Versioned<String>>();
+    private final AtomicInteger topologyVersion = new AtomicInteger();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Returns the current topology version, to be passed along with any value computed from now on.
+     */
+    int getTopologyVersion() {
+        return this.topologyVersion.get();
+    }
+
+    /**
+     * Returns the cached primary owner of the specified session.
+     * @return an address, or null if the owner is not cached for the current topology
+     */
+    Address getOwner(String sessionId) {
+        Address owner = this.get(this.owners, sessionId);
+        if (owner != null) {
+            this.hits.incrementAndGet();
+        } else {
+            this.misses.incrementAndGet();
+        }
+        return owner;
+    }
+
+    void putOwner(String sessionId, Address owner, int version) {
+        this.put(this.owners, sessionId, owner, version);
+    }
+
+    /**
+     * Returns the cached jvm route of the specified member.
+     * @return a jvm route, or null if the route is not cached for the current topology
+     */
+    String getRoute(Address address) {
+        return this.get(this.routes, address);
+    }
+
+    void putRoute(Address address, String route, int version) {
+        this.put(this.routes, address, route, version);
+    }
+
+    void remove(String sessionId) {
+        this.owners.remove(sessionId);
+    }
+
+    /**
+     * Discards all cached values, following a change of topology.
+     */
+    void invalidate() {
+        this.topologyVersion.incrementAndGet();
+        this.owners.clear();
+        this.routes.clear();
+    }
+
+    long getHits() {
+        return this.hits.get();
+    }
+
+    long getMisses() {
+        return this.misses.get();
+    }
+
+    private <K, V> V get(ConcurrentMap<K, Versioned<V>> map, K key) {
+        if (key == null) return null;
+        Versioned<V> versioned = map.get(key);
+        return ((versioned != null) && (versioned.version == this.topologyVersion.get())) ? versioned.value : null;
+    }
+
+    private <K, V> void put(ConcurrentMap<K, Versioned<V>> map, K key, V value, int version) {
+        if ((key == null) || (value == null) || (version != this.topologyVersion.get())) return;
+        map.put(key, new Versioned<V>(value, version));
+    }
+
+    private static class Versioned<V> {
+        final V value;
+        final int version;
+
+        Versioned(V value, int version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+}
@@ -32,7 +32,7 @@ import org.jboss.as.clustering.web.DistributableSessionMetadata;
  * @author Paul Ferraro
  */
 public enum SessionMapEntry {
-    VERSION(Integer.class), TIMESTAMP(Long.class), METADATA(DistributableSessionMetadata.class), ATTRIBUTES(Object.class);
+    VERSION(Integer.class), TIMESTAMP(Long.class), METADATA(DistributableSessionMetadata.class), ATTRIBUTES(Object.class), FINGERPRINTS(Map.class);
 
     private Class<?> targetClass;
 
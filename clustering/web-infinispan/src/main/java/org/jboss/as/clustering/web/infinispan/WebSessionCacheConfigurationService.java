@@ -21,29 +21,67 @@
  */
 package org.jboss.as.clustering.web.infinispan;
 
+import org.infinispan.configuration.cache.CacheLoaderConfiguration;
+import org.infinispan.configuration.cache.CacheStoreConfiguration;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.LegacyConfigurationAdaptor;
+import org.infinispan.configuration.cache.LegacyStoreConfiguration;
+import org.infinispan.configuration.cache.LoadersConfiguration;
+import org.infinispan.loaders.CacheLoaderConfig;
+import org.infinispan.loaders.CacheStore;
 import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.util.Util;
 import org.jboss.as.clustering.infinispan.subsystem.AbstractCacheConfigurationService;
 import org.jboss.msc.value.Value;
 
 /**
+ * Configures the cache of a distributable web application.
+ * <p/>
+ * If an off-heap store size is configured, and the cache passivates sessions to a single non-shared store, passivated
+ * sessions are stored off-heap by an {@link OffHeapCacheStore} of that size in front of that store, to which the sessions
+ * which do not fit off-heap are passivated.
+ *
  * @author Paul Ferraro
  */
 public class WebSessionCacheConfigurationService extends AbstractCacheConfigurationService {
-
     private final Value<Configuration> configuration;
     private final Value<EmbeddedCacheManager> container;
+    private final long offHeapStoreMaxSize;
 
-    public WebSessionCacheConfigurationService(String name, Value<EmbeddedCacheManager> container, Value<Configuration> configuration) {
+    /**
+     * @param offHeapStoreMaxSize the number of bytes of direct memory in which to store passivated sessions, or 0 to
+     *        only use the passivation store of the cache
+     */
+    public WebSessionCacheConfigurationService(String name, Value<EmbeddedCacheManager> container, Value<Configuration> configuration, long offHeapStoreMaxSize) {
         super(name);
         this.configuration = configuration;
         this.container = container;
+        this.offHeapStoreMaxSize = offHeapStoreMaxSize;
     }
 
     @Override
     protected ConfigurationBuilder getConfigurationBuilder() {
-        return new ConfigurationBuilder().read(this.configuration.getValue());
+        Configuration configuration = this.configuration.getValue();
+        ConfigurationBuilder builder = new ConfigurationBuilder().read(configuration);
+        LoadersConfiguration loaders = configuration.loaders();
+        long maxSize = this.offHeapStoreMaxSize;
+        if ((maxSize > 0) && loaders.passivation() && !loaders.shared() && (loaders.cacheLoaders().size() == 1)) {
+            CacheLoaderConfiguration spillStoreConfiguration = loaders.cacheLoaders().get(0);
+            CacheLoaderConfig spillStoreConfig = LegacyConfigurationAdaptor.adapt(spillStoreConfiguration);
+            boolean purgeOnStartup = (spillStoreConfiguration instanceof CacheStoreConfiguration) && ((CacheStoreConfiguration) spillStoreConfiguration).purgeOnStartup();
+            builder.loaders().clearCacheLoaders().addStore().cacheStore(new OffHeapCacheStore(createCacheStore(spillStoreConfiguration, spillStoreConfig), spillStoreConfig))
+                    .addProperty("maxSize", String.valueOf(maxSize))
+                    .purgeOnStartup(purgeOnStartup);
+        }
+        return builder;
+    }
+
+    private static CacheStore createCacheStore(CacheLoaderConfiguration configuration, CacheLoaderConfig config) {
+        if (configuration instanceof LegacyStoreConfiguration) {
+            return ((LegacyStoreConfiguration) configuration).cacheStore();
+        }
+        return (CacheStore) Util.getInstance(config.getCacheLoaderClassName(), CacheStore.class.getClassLoader());
     }
 
     @Override
@@ -0,0 +1,186 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.web.infinispan;
+
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.as.clustering.SimpleMarshalledValue;
+import org.jboss.as.clustering.web.OutgoingSessionGranularitySessionData;
+import org.jboss.as.clustering.web.SessionAttributeMarshaller;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DeltaSessionAttributeStorageTest {
+    private SessionAttributeMarshaller marshaller = mock(SessionAttributeMarshaller.class);
+    private SessionAttributeStorage<OutgoingSessionGranularitySessionData> storage = new DeltaSessionAttributeStorage(this.marshaller);
+
+    @After
+    public void after() {
+        reset(this.marshaller);
+    }
+
+    @Test
+    public void storeNull() throws IOException {
+        @SuppressWarnings("unchecked")
+        Map<Object, Object> map = mock(Map.class);
+        OutgoingSessionGranularitySessionData data = mock(OutgoingSessionGranularitySessionData.class);
+
+        when(data.getSessionAttributes()).thenReturn(null);
+
+        this.storage.store(map, data);
+
+        verifyZeroInteractions(map);
+    }
+
+    @Test
+    public void storeChangedOnly() throws IOException {
+        Map<Object, Object> map = new HashMap<Object, Object>();
+        OutgoingSessionGranularitySessionData data = mock(OutgoingSessionGranularitySessionData.class);
+        Map<String, Object> attributes = new HashMap<String, Object>();
+        Object cart = new Object();
+        attributes.put("cart", cart);
+        attributes.put("user", "alice");
+
+        SimpleMarshalledValue<?> marshalledCart = marshalledValue(new byte[] { 1, 2, 3 });
+        when(data.getSessionAttributes()).thenReturn(attributes);
+        when(this.marshaller.marshal(cart)).thenReturn(marshalledCart);
+        when(this.marshaller.marshal("alice")).thenReturn("alice");
+
+        this.storage.store(map, data);
+
+        Assert.assertSame(marshalledCart, map.get("cart"));
+        Assert.assertEquals("alice", map.get("user"));
+        Map<String, Long> fingerprints = SessionMapEntry.FINGERPRINTS.get(map);
+        Assert.assertNotNull(fingerprints);
+        Assert.assertEquals(1, fingerprints.size());
+
+        // Same serialized form: nothing is written
+        @SuppressWarnings("unchecked")
+        Map<Object, Object> spy = spy(map);
+        SimpleMarshalledValue<?> unchangedCart = marshalledValue(new byte[] { 1, 2, 3 });
+        when(this.marshaller.marshal(cart)).thenReturn(unchangedCart);
+
+        this.storage.store(spy, data);
+
+        verify(spy, never()).put(any(), any());
+        verify(spy, never()).remove(any());
+
+        // Mutated cart: only the cart is written
+        SimpleMarshalledValue<?> changedCart = marshalledValue(new byte[] { 1, 2, 3, 4 });
+        when(this.marshaller.marshal(cart)).thenReturn(changedCart);
+
+        this.storage.store(map, data);
+
+        Assert.assertSame(changedCart, map.get("cart"));
+        Assert.assertFalse(fingerprints.equals(SessionMapEntry.FINGERPRINTS.get(map)));
+    }
+
+    @Test
+    public void storeUnchangedImmutable() throws Exception {
+        Map<Object, Object> map = new HashMap<Object, Object>();
+        OutgoingSessionGranularitySessionData data = mock(OutgoingSessionGranularitySessionData.class);
+        Map<String, Object> attributes = new HashMap<String, Object>();
+        attributes.put("total", new BigDecimal("9.99"));
+
+        SimpleMarshalledValue<?> marshalledTotal = marshalledValue(new byte[] { 9, 9, 9 });
+        when(data.getSessionAttributes()).thenReturn(attributes);
+        when(this.marshaller.marshal(new BigDecimal("9.99"))).thenReturn(marshalledTotal);
+        when(this.marshaller.unmarshal(same(marshalledTotal))).thenReturn(new BigDecimal("9.99"));
+
+        this.storage.store(map, data);
+
+        Assert.assertSame(marshalledTotal, map.get("total"));
+        Map<String, Long> fingerprints = SessionMapEntry.FINGERPRINTS.get(map);
+        Assert.assertEquals(1, fingerprints.size());
+
+        // An equal immutable value is neither marshalled nor written again
+        attributes.put("total", new BigDecimal("9.99"));
+        @SuppressWarnings("unchecked")
+        Map<Object, Object> spy = spy(map);
+
+        this.storage.store(spy, data);
+
+        verify(this.marshaller, times(1)).marshal(any());
+        verify(spy, never()).put(any(), any());
+
+        // A different one is
+        SimpleMarshalledValue<?> changedTotal = marshalledValue(new byte[] { 1, 9, 9, 9 });
+        attributes.put("total", new BigDecimal("19.99"));
+        when(this.marshaller.marshal(new BigDecimal("19.99"))).thenReturn(changedTotal);
+
+        this.storage.store(map, data);
+
+        Assert.assertSame(changedTotal, map.get("total"));
+        Assert.assertFalse(fingerprints.equals(SessionMapEntry.FINGERPRINTS.get(map)));
+    }
+
+    @Test
+    public void storeRemoved() throws IOException {
+        Map<Object, Object> map = new HashMap<Object, Object>();
+        OutgoingSessionGranularitySessionData data = mock(OutgoingSessionGranularitySessionData.class);
+        Map<String, Object> attributes = new HashMap<String, Object>();
+        attributes.put("a", "1");
+        attributes.put("b", "2");
+
+        when(data.getSessionAttributes()).thenReturn(attributes);
+        when(this.marshaller.marshal("1")).thenReturn("1");
+        when(this.marshaller.marshal("2")).thenReturn("2");
+
+        this.storage.store(map, data);
+
+        attributes.remove("b");
+
+        this.storage.store(map, data);
+
+        Assert.assertEquals("1", map.get("a"));
+        Assert.assertFalse(map.containsKey("b"));
+    }
+
+    @Test
+    public void load() throws Exception {
+        Map<Object, Object> map = new HashMap<Object, Object>();
+        Object marshalledValue = new Object();
+        Object value = new Object();
+        map.put("key", marshalledValue);
+        SessionMapEntry.FINGERPRINTS.put(map, new HashMap<String, Long>());
+        SessionMapEntry.VERSION.put(map, Integer.valueOf(1));
+
+        when(this.marshaller.unmarshal(same(marshalledValue))).thenReturn(value);
+
+        Map<String, Object> result = this.storage.load(map);
+
+        Assert.assertEquals(1, result.size());
+        Assert.assertSame(value, result.get("key"));
+    }
+
+    private static SimpleMarshalledValue<?> marshalledValue(byte[] bytes) throws IOException {
+        SimpleMarshalledValue<?> value = mock(SimpleMarshalledValue.class);
+        when(value.marshal()).thenReturn(bytes);
+        return value;
+    }
+}
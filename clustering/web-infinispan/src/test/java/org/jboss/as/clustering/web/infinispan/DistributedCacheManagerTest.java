@@ -31,6 +31,7 @@ import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.same;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -55,6 +56,8 @@ import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.notifications.cachelistener.event.CacheEntryActivatedEvent;
 import org.infinispan.notifications.cachelistener.event.CacheEntryModifiedEvent;
 import org.infinispan.notifications.cachelistener.event.CacheEntryRemovedEvent;
+import org.infinispan.notifications.cachelistener.event.TopologyChangedEvent;
+import org.infinispan.notifications.cachemanagerlistener.event.ViewChangedEvent;
 import org.infinispan.remoting.transport.Address;
 import org.jboss.as.clustering.infinispan.affinity.KeyAffinityServiceFactory;
 import org.jboss.as.clustering.infinispan.invoker.CacheInvoker;
@@ -143,6 +146,7 @@ public class DistributedCacheManagerTest {
         this.manager.start();
 
         verify(this.cache).addListener(same(this.manager));
+        verify(container).addListener(same(this.manager));
 
         reset(this.cache);
     }
@@ -156,6 +160,7 @@ public class DistributedCacheManagerTest {
         this.manager.stop();
 
         verify(this.cache).removeListener(same(this.manager));
+        verify(container).removeListener(same(this.manager));
     }
 
     @Test
@@ -641,9 +646,56 @@ public class DistributedCacheManagerTest {
         
         // Test non-DIST
         when(this.cache.getDistributionManager()).thenReturn(null);
-        
+        this.manager.viewChanged(mock(ViewChangedEvent.class));
+
         assertSame(localJvmRoute, this.manager.locate(localSessionId));
         assertSame(localJvmRoute, this.manager.locate(remoteSessionId));
         assertSame(localJvmRoute, this.manager.locate(remoteUnknownSessionId));
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void locateCached() {
+        EmbeddedCacheManager container = mock(EmbeddedCacheManager.class);
+        DistributionManager distManager = mock(DistributionManager.class);
+        Address localAddress = mock(Address.class);
+        Address remoteAddress = mock(Address.class);
+        String sessionId = "ABC123";
+        String localJvmRoute = "local";
+        String remoteJvmRoute = "remote";
+
+        when(this.cache.getAdvancedCache()).thenReturn(this.cache);
+        when(this.cache.getDistributionManager()).thenReturn(distManager);
+        when(this.cache.getCacheManager()).thenReturn(container);
+        when(container.getAddress()).thenReturn(localAddress);
+        when(distManager.getPrimaryLocation(sessionId)).thenReturn(localAddress);
+        when(this.registry.getLocalEntry()).thenReturn(new AbstractMap.SimpleImmutableEntry<String, Void>(localJvmRoute, null));
+        when(this.registry.getRemoteEntry(remoteAddress)).thenReturn(new AbstractMap.SimpleImmutableEntry<String, Void>(remoteJvmRoute, null));
+
+        assertSame(localJvmRoute, this.manager.locate(sessionId));
+        assertTrue(this.manager.isLocal(sessionId));
+        assertSame(localJvmRoute, this.manager.locate(sessionId));
+
+        verify(distManager, times(1)).getPrimaryLocation(sessionId);
+        verify(this.registry, times(1)).getLocalEntry();
+        assertEquals(1, this.manager.getLocationCacheMisses());
+        assertEquals(2, this.manager.getLocationCacheHits());
+
+        // Session moves to another node following a rehash
+        when(distManager.getPrimaryLocation(sessionId)).thenReturn(remoteAddress);
+        TopologyChangedEvent<String, Map<Object, Object>> event = mock(TopologyChangedEvent.class);
+        when(event.isPre()).thenReturn(true);
+        this.manager.topologyChanged(event);
+
+        assertTrue(this.manager.isLocal(sessionId));
+
+        when(event.isPre()).thenReturn(false);
+        this.manager.topologyChanged(event);
+
+        assertFalse(this.manager.isLocal(sessionId));
+        assertSame(remoteJvmRoute, this.manager.locate(sessionId));
+        verify(this.invoker).forceThreadSynchronous();
+        assertEquals(2, this.manager.getLocationCacheMisses());
+        assertEquals(4, this.manager.getLocationCacheHits());
+    }
 }
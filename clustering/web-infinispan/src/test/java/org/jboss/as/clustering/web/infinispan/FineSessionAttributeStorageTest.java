@@ -33,6 +33,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.jboss.as.clustering.SimpleMarshalledValue;
+import org.jboss.as.clustering.web.MarshalledSessionAttribute;
 import org.jboss.as.clustering.web.OutgoingAttributeGranularitySessionData;
 import org.jboss.as.clustering.web.SessionAttributeMarshaller;
 import org.junit.After;
@@ -106,4 +108,42 @@ public class FineSessionAttributeStorageTest {
         assertEquals("value", result.get("key"));
     }
 
+    @Test
+    public void lazyLoad() throws Exception {
+        SessionAttributeStorage<OutgoingAttributeGranularitySessionData> storage = new FineSessionAttributeStorage(this.marshaller, true);
+        @SuppressWarnings("unchecked")
+        Map<Object, Object> map = mock(Map.class);
+        SimpleMarshalledValue<?> marshalledAttribute = mock(SimpleMarshalledValue.class);
+        Object immutableAttribute = "immutable";
+
+        Map.Entry<Object, Object> marshalledEntry = new AbstractMap.SimpleImmutableEntry<Object, Object>("marshalled", marshalledAttribute);
+        Map.Entry<Object, Object> immutableEntry = new AbstractMap.SimpleImmutableEntry<Object, Object>("immutable", immutableAttribute);
+        @SuppressWarnings("unchecked")
+        List<Map.Entry<Object, Object>> entries = Arrays.asList(marshalledEntry, immutableEntry);
+
+        when(map.entrySet()).thenReturn(new HashSet<Map.Entry<Object, Object>>(entries));
+        when(this.marshaller.unmarshal(same(immutableAttribute))).thenReturn(immutableAttribute);
+        when(this.marshaller.unmarshal(same(marshalledAttribute))).thenReturn("value");
+        when(marshalledAttribute.getBytes()).thenReturn(new byte[10]);
+
+        Map<String, Object> result = storage.load(map);
+
+        assertEquals(2, result.size());
+        assertSame(immutableAttribute, result.get("immutable"));
+        verify(this.marshaller, never()).unmarshal(same(marshalledAttribute));
+
+        Object attribute = result.get("marshalled");
+        assertTrue(attribute instanceof MarshalledSessionAttribute);
+        assertEquals(10, ((MarshalledSessionAttribute) attribute).getSize());
+        assertEquals("value", ((MarshalledSessionAttribute) attribute).getValue());
+
+        // An attribute which was never read is stored in its marshalled form
+        OutgoingAttributeGranularitySessionData data = mock(OutgoingAttributeGranularitySessionData.class);
+        when(data.getModifiedSessionAttributes()).thenReturn(Collections.singletonMap("marshalled", attribute));
+
+        storage.store(map, data);
+
+        verify(map).put(eq("marshalled"), same(marshalledAttribute));
+        verify(this.marshaller, never()).marshal(any());
+    }
 }
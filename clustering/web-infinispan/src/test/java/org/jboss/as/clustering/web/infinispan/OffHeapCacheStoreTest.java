@@ -0,0 +1,167 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.web.infinispan;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.infinispan.Cache;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.loaders.CacheLoaderConfig;
+import org.infinispan.loaders.CacheStore;
+import org.infinispan.marshall.StreamingMarshaller;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class OffHeapCacheStoreTest {
+    private final CacheStore spillStore = mock(CacheStore.class);
+    private final CacheLoaderConfig spillStoreConfig = mock(CacheLoaderConfig.class);
+    private final StreamingMarshaller marshaller = mock(StreamingMarshaller.class);
+    private final Map<InternalCacheEntry, byte[]> marshalled = new HashMap<InternalCacheEntry, byte[]>();
+    private final OffHeapCacheStore store = new OffHeapCacheStore(this.spillStore, this.spillStoreConfig);
+
+    @Before
+    public void start() throws Exception {
+        when(this.marshaller.objectToByteBuffer(any())).thenAnswer(new Answer<byte[]>() {
+            @Override
+            public byte[] answer(InvocationOnMock invocation) {
+                return OffHeapCacheStoreTest.this.marshalled.get(invocation.getArguments()[0]);
+            }
+        });
+        when(this.marshaller.objectFromByteBuffer(any(byte[].class))).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+                byte[] bytes = (byte[]) invocation.getArguments()[0];
+                for (Map.Entry<InternalCacheEntry, byte[]> entry : OffHeapCacheStoreTest.this.marshalled.entrySet()) {
+                    if (Arrays.equals(entry.getValue(), bytes)) return entry.getKey();
+                }
+                return null;
+            }
+        });
+
+        // A single stripe of two blocks
+        OffHeapCacheStore.OffHeapCacheStoreConfig config = new OffHeapCacheStore.OffHeapCacheStoreConfig();
+        config.setMaxSize(2 * OffHeapMemory.DEFAULT_BLOCK_SIZE);
+        config.setPurgeSynchronously(true);
+        Cache<?, ?> cache = mock(Cache.class);
+        this.store.init(config, cache, this.marshaller);
+        this.store.start();
+
+        verify(this.spillStore).init(this.spillStoreConfig, cache, this.marshaller);
+        verify(this.spillStore).start();
+    }
+
+    @After
+    public void stop() throws Exception {
+        this.store.stop();
+    }
+
+    @Test
+    public void evictionsSpill() throws Exception {
+        InternalCacheEntry a = this.entry("a", 1000);
+        InternalCacheEntry b = this.entry("b", 1000);
+        InternalCacheEntry c = this.entry("c", 1000);
+
+        this.store.store(a);
+        this.store.store(b);
+        verify(this.spillStore, never()).store(any(InternalCacheEntry.class));
+
+        this.store.store(c);
+        verify(this.spillStore).store(a);
+        assertEquals(2, this.store.getSessionCount());
+        assertEquals(1, this.store.getEvictions());
+
+        // Loaded off-heap first, then from the spill store
+        assertSame(b, this.store.load("b"));
+        verify(this.spillStore, never()).load("b");
+        when(this.spillStore.load("a")).thenReturn(a);
+        assertSame(a, this.store.load("a"));
+
+        when(this.spillStore.containsKey("a")).thenReturn(true);
+        assertTrue(this.store.containsKey("a"));
+        assertTrue(this.store.containsKey("b"));
+        assertFalse(this.store.containsKey("d"));
+
+        when(this.spillStore.loadAllKeys(null)).thenReturn(Collections.<Object>singleton("a"));
+        assertEquals(new HashSet<Object>(Arrays.asList("a", "b", "c")), this.store.loadAllKeys(null));
+    }
+
+    @Test
+    public void tooLargeSpills() throws Exception {
+        InternalCacheEntry large = this.entry("large", 3000);
+
+        this.store.store(large);
+
+        verify(this.spillStore).store(large);
+        assertEquals(0, this.store.getSessionCount());
+    }
+
+    @Test
+    public void removeFromBothTiers() throws Exception {
+        this.store.store(this.entry("a", 10));
+        when(this.spillStore.remove("b")).thenReturn(true);
+
+        assertTrue(this.store.remove("a"));
+        assertTrue(this.store.remove("b"));
+        verify(this.spillStore).remove("a");
+        assertEquals(0, this.store.getSessionCount());
+
+        this.store.clear();
+        verify(this.spillStore).clear();
+    }
+
+    @Test
+    public void stopSpillsContent() throws Exception {
+        InternalCacheEntry a = this.entry("a", 10);
+        this.store.store(a);
+
+        this.store.stop();
+
+        verify(this.spillStore).store(a);
+        verify(this.spillStore).stop();
+        assertEquals(0, this.store.getSessionCount());
+
+        // Restart, for stop() after the test
+        this.store.start();
+    }
+
+    private InternalCacheEntry entry(String key, int size) {
+        InternalCacheEntry entry = mock(InternalCacheEntry.class);
+        when(entry.getKey()).thenReturn(key);
+        when(entry.getExpiryTime()).thenReturn(-1L);
+        byte[] bytes = new byte[size];
+        Arrays.fill(bytes, (byte) key.hashCode());
+        this.marshalled.put(entry, bytes);
+        return entry;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.web.infinispan;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class OffHeapMemoryTest {
+    private final Map<String, byte[]> evicted = new LinkedHashMap<String, byte[]>();
+
+    @Test
+    public void putGetRemove() {
+        OffHeapMemory<String> memory = new OffHeapMemory<String>(8192, 1024);
+        byte[] value = bytes(2500);
+
+        assertTrue(memory.put("a", value, -1, this.evicted));
+        assertArrayEquals(value, memory.get("a"));
+        assertEquals(1, memory.size());
+        assertEquals(3072, memory.getUsedSize());
+
+        // Replace with a smaller value
+        byte[] smaller = bytes(10);
+        assertTrue(memory.put("a", smaller, -1, this.evicted));
+        assertArrayEquals(smaller, memory.get("a"));
+        assertEquals(1024, memory.getUsedSize());
+
+        assertTrue(memory.remove("a"));
+        assertFalse(memory.remove("a"));
+        assertNull(memory.get("a"));
+        assertEquals(0, memory.getUsedSize());
+        assertEquals(0, memory.getEvictions());
+        assertTrue(this.evicted.isEmpty());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        OffHeapMemory<String> memory = new OffHeapMemory<String>(4096, 1024);
+
+        assertTrue(memory.put("a", bytes(2048), -1, this.evicted));
+        assertTrue(memory.put("b", bytes(1024), -1, this.evicted));
+        assertTrue(memory.put("c", bytes(1024), -1, this.evicted));
+        // Makes b the least recently used
+        assertNotNull(memory.get("a"));
+
+        assertTrue(memory.put("d", bytes(1500), -1, this.evicted));
+
+        assertFalse(memory.contains("b"));
+        assertFalse(memory.contains("c"));
+        assertArrayEquals(bytes(2048), memory.get("a"));
+        assertArrayEquals(bytes(1500), memory.get("d"));
+        assertEquals(2, memory.getEvictions());
+        assertEquals(Arrays.asList("b", "c"), new ArrayList<String>(this.evicted.keySet()));
+        assertArrayEquals(bytes(1024), this.evicted.get("b"));
+        assertArrayEquals(bytes(1024), this.evicted.get("c"));
+        assertEquals(4096, memory.getUsedSize());
+
+        // Larger than the store
+        assertFalse(memory.put("e", bytes(5000), -1, this.evicted));
+        assertEquals(3, memory.getEvictions());
+        assertEquals(Arrays.asList("b", "c"), new ArrayList<String>(this.evicted.keySet()));
+        assertEquals(Arrays.asList("a", "d"), memory.keys());
+    }
+
+    @Test
+    public void removeExpired() {
+        OffHeapMemory<String> memory = new OffHeapMemory<String>(4096, 1024);
+
+        memory.put("immortal", bytes(10), -1, this.evicted);
+        memory.put("expired", bytes(10), 100, this.evicted);
+        memory.put("live", bytes(10), 200, this.evicted);
+
+        memory.removeExpired(150);
+
+        assertEquals(2, memory.size());
+        assertFalse(memory.contains("expired"));
+
+        memory.clear();
+
+        assertEquals(Collections.emptyList(), memory.keys());
+        assertEquals(0, memory.getUsedSize());
+        assertTrue(memory.put("a", bytes(4096), -1, this.evicted));
+    }
+
+    private static byte[] bytes(int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; ++i) {
+            bytes[i] = (byte) (i * 31 + length);
+        }
+        return bytes;
+    }
+}
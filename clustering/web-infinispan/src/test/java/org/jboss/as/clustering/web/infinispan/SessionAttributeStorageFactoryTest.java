@@ -45,7 +45,7 @@ public class SessionAttributeStorageFactoryTest {
 
     @Test
     public void testField() {
-        this.test(ReplicationGranularity.FIELD, CoarseSessionAttributeStorage.class);
+        this.test(ReplicationGranularity.FIELD, DeltaSessionAttributeStorage.class);
     }
 
     private void test(ReplicationGranularity granularity, Class<? extends SessionAttributeStorage<?>> expectedClass) {
@@ -54,7 +54,7 @@ public class SessionAttributeStorageFactoryTest {
         SessionAttributeStorageFactory factory = new SessionAttributeStorageFactoryImpl();
 
         try {
-            SessionAttributeStorage<?> storage = factory.createStorage(granularity, marshaller);
+            SessionAttributeStorage<?> storage = factory.createStorage(granularity, false, marshaller);
 
             assertNotNull(expectedClass);
             assertTrue(storage.getClass().getName(), expectedClass.isInstance(storage));
@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.web;
+
+/**
+ * Server wide configuration of the distributable session managers, complementing the per webapp replication config.
+ */
+public class DistributableSessionConfiguration {
+    private int snapshotThreads = 1;
+    private int snapshotMaxQueued = Integer.MAX_VALUE;
+    private boolean lazyAttributes = false;
+    private long offHeapStoreMaxSize = 0;
+
+    /**
+     * Gets the number of threads distributing the sessions of a webapp using the interval snapshot mode.
+     * @return a number of threads
+     */
+    public int getSnapshotThreads() {
+        return this.snapshotThreads;
+    }
+
+    public void setSnapshotThreads(int snapshotThreads) {
+        this.snapshotThreads = snapshotThreads;
+    }
+
+    /**
+     * Gets the number of sessions queued for distribution beyond which modified sessions are distributed by the request thread.
+     * @return a number of sessions
+     */
+    public int getSnapshotMaxQueued() {
+        return this.snapshotMaxQueued;
+    }
+
+    public void setSnapshotMaxQueued(int snapshotMaxQueued) {
+        this.snapshotMaxQueued = snapshotMaxQueued;
+    }
+
+    /**
+     * Gets whether the sessions of webapps using attribute replication granularity unmarshal their attributes on first
+     * read, instead of when the session is loaded.
+     * @return <code>true</code> if session attributes are unmarshalled lazily
+     */
+    public boolean isLazyAttributes() {
+        return this.lazyAttributes;
+    }
+
+    public void setLazyAttributes(boolean lazyAttributes) {
+        this.lazyAttributes = lazyAttributes;
+    }
+
+    /**
+     * Gets the number of bytes of direct memory in which each webapp passivating to a non-shared store stores its
+     * passivated sessions instead.
+     * @return a number of bytes, or 0 if passivated sessions are not stored off-heap
+     */
+    public long getOffHeapStoreMaxSize() {
+        return this.offHeapStoreMaxSize;
+    }
+
+    public void setOffHeapStoreMaxSize(long offHeapStoreMaxSize) {
+        this.offHeapStoreMaxSize = offHeapStoreMaxSize;
+    }
+}
@@ -146,4 +146,36 @@ public interface DistributedCacheManager<T extends OutgoingDistributableSessionD
      * @return the jvm route of a node
      */
     String locate(String sessionId);
+
+    /**
+     * Returns the number of session location lookups, i.e. {@link #isLocal(String)} and {@link #locate(String)}, served
+     * from the local cache of session locations.
+     * @return a number of lookups
+     */
+    long getLocationCacheHits();
+
+    /**
+     * Returns the number of session location lookups, i.e. {@link #isLocal(String)} and {@link #locate(String)}, which had
+     * to consult the distributed cache topology.
+     * @return a number of lookups
+     */
+    long getLocationCacheMisses();
+
+    /**
+     * Returns the number of passivated sessions stored off-heap.
+     * @return a number of sessions, or 0 if passivated sessions are not stored off-heap
+     */
+    int getOffHeapSessionCount();
+
+    /**
+     * Returns the amount of off-heap memory occupied by passivated sessions.
+     * @return a number of bytes, or 0 if passivated sessions are not stored off-heap
+     */
+    long getOffHeapSessionSize();
+
+    /**
+     * Returns the number of passivated sessions evicted from off-heap storage for lack of space.
+     * @return a number of sessions, or 0 if passivated sessions are not stored off-heap
+     */
+    long getOffHeapSessionEvictions();
 }
@@ -38,7 +38,7 @@ import org.jboss.msc.service.ServiceTarget;
 public interface DistributedCacheManagerFactory {
     <T extends OutgoingDistributableSessionData> DistributedCacheManager<T> getDistributedCacheManager(LocalDistributableSessionManager localManager) throws ClusteringNotSupportedException;
 
-    boolean addDeploymentDependencies(ServiceName deploymentServiceName, ServiceRegistry registry, ServiceTarget target, ServiceBuilder<?> builder, JBossWebMetaData metaData);
+    boolean addDeploymentDependencies(ServiceName deploymentServiceName, ServiceRegistry registry, ServiceTarget target, ServiceBuilder<?> builder, JBossWebMetaData metaData, DistributableSessionConfiguration sessionConfig);
 
     Collection<ServiceController<?>> installServices(ServiceTarget target);
 }
@@ -47,6 +47,12 @@ public interface LocalDistributableSessionManager extends SessionIdFactory {
      */
     ReplicationConfig getReplicationConfig();
 
+    /**
+     * Gets the server wide configuration of distributable session managers.
+     * @return the configuration. Will not return <code>null</code>
+     */
+    DistributableSessionConfiguration getDistributableSessionConfiguration();
+
     /**
      * Notifies the manager that a session in the distributed cache has been invalidated
      * @param realId the session id excluding any jvmRoute
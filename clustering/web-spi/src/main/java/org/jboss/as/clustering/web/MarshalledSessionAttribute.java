@@ -0,0 +1,44 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.web;
+
+import java.io.IOException;
+
+/**
+ * A session attribute loaded from the distributed cache in its marshalled form. The attribute value is only unmarshalled
+ * when the attribute is first read.
+ */
+public interface MarshalledSessionAttribute {
+    /**
+     * Unmarshals the value of this attribute.
+     * @return the attribute value
+     * @throws IOException if the value could not be unmarshalled
+     * @throws ClassNotFoundException if the class of the value could not be loaded
+     */
+    Object getValue() throws IOException, ClassNotFoundException;
+
+    /**
+     * Returns the size of the marshalled form of this attribute.
+     * @return a number of bytes
+     */
+    int getSize();
+}
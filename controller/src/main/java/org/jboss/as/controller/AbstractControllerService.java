@@ -25,12 +25,16 @@ package org.jboss.as.controller;
 import static org.jboss.as.controller.ControllerLogger.ROOT_LOGGER;
 import static org.jboss.as.controller.ControllerMessages.MESSAGES;
 
+import java.security.AccessController;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
 
 import org.jboss.as.controller.client.OperationAttachments;
 import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.persistence.AbstractConfigurationPersister;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -44,6 +48,7 @@ import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.jboss.threads.JBossThreadFactory;
 
 /**
  * A base class for controller services.
@@ -176,6 +181,8 @@ public abstract class AbstractControllerService implements Service<ModelControll
                 configurationPersister, processType, runningModeControl, prepareStep,
                 processState, executorService, expressionResolver);
         initModel(controller.getRootResource(), controller.getRootRegistration());
+        controller.getRootRegistration().registerOperationHandler(ReadLockStatisticsHandler.DEFINITION,
+                new ReadLockStatisticsHandler(controller.getLockStatistics()));
         this.controller = controller;
 
         final long bootStackSize = getBootStackSize();
@@ -238,6 +245,40 @@ public abstract class AbstractControllerService implements Service<ModelControll
 
     public void stop(final StopContext context) {
         controller = null;
+        context.asynchronous();
+        final Runnable stopTask = new Runnable() {
+            public void run() {
+                try {
+                    stopAsynchronous(context);
+                } finally {
+                    context.complete();
+                }
+            }
+        };
+        final ExecutorService executorService = injectedExecutorService.getOptionalValue();
+        if (executorService != null) {
+            try {
+                executorService.execute(stopTask);
+                return;
+            } catch (RejectedExecutionException e) {
+                // the executor is already shutting down, fall back to a thread of our own
+            }
+        }
+        final ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("Controller Stop Thread"), Boolean.FALSE, null, "%G", null, null, AccessController.getContext());
+        threadFactory.newThread(stopTask).start();
+    }
+
+    /**
+     * Performs the part of stopping this service which may block, e.g. on file I/O, from a thread other than the MSC
+     * thread which stops the service. Subclasses overriding this method must call the super implementation.
+     *
+     * @param context the stop context
+     */
+    protected void stopAsynchronous(final StopContext context) {
+        if (configurationPersister instanceof AbstractConfigurationPersister) {
+            // Write any deferred change before the configuration gets loaded again, e.g. on reload
+            ((AbstractConfigurationPersister) configurationPersister).stop();
+        }
     }
 
     /**
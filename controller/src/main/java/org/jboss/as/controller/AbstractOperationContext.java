@@ -87,6 +87,8 @@ abstract class AbstractOperationContext implements OperationContext {
 
     enum ContextFlag {
         ROLLBACK_ON_FAIL, ALLOW_RESOURCE_SERVICE_RESTART,
+        /** The operation is read-only and runs against a snapshot of the model */
+        READ_ONLY,
     }
 
     AbstractOperationContext(final ProcessType processType, final RunningMode runningMode,
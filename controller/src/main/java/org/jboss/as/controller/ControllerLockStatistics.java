@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Statistics on the use of the controller write lock, per name of the operation which took the lock.
+ */
+final class ControllerLockStatistics {
+
+    static final String COUNT = "count";
+    static final String TOTAL_WAIT_TIME = "total-wait-time";
+    static final String MAX_WAIT_TIME = "max-wait-time";
+    static final String TOTAL_HOLD_TIME = "total-hold-time";
+    static final String MAX_HOLD_TIME = "max-hold-time";
+
+    private final ConcurrentMap<String, OperationStatistics> operations = new ConcurrentHashMap<String, OperationStatistics>();
+
+    /**
+     * Records the time an operation waited for the lock.
+     *
+     * @param operationName the name of the operation which took the lock
+     * @param waitTime the time waited, in nanoseconds
+     */
+    void lockAcquired(final String operationName, final long waitTime) {
+        getStatistics(operationName).lockAcquired(waitTime);
+    }
+
+    /**
+     * Records the time an operation held the lock.
+     *
+     * @param operationName the name of the operation which took the lock
+     * @param holdTime the time held, in nanoseconds
+     */
+    void lockReleased(final String operationName, final long holdTime) {
+        getStatistics(operationName).lockReleased(holdTime);
+    }
+
+    /**
+     * Gets the statistics, with times in milliseconds, keyed by operation name.
+     *
+     * @return the statistics
+     */
+    ModelNode toModelNode() {
+        final ModelNode result = new ModelNode();
+        result.setEmptyObject();
+        final Map<String, OperationStatistics> sorted = new TreeMap<String, OperationStatistics>(operations);
+        for (Map.Entry<String, OperationStatistics> entry : sorted.entrySet()) {
+            entry.getValue().toModelNode(result.get(entry.getKey()));
+        }
+        return result;
+    }
+
+    private OperationStatistics getStatistics(final String operationName) {
+        final String name = operationName == null ? "undefined" : operationName;
+        OperationStatistics statistics = operations.get(name);
+        if (statistics == null) {
+            statistics = new OperationStatistics();
+            final OperationStatistics existing = operations.putIfAbsent(name, statistics);
+            if (existing != null) {
+                statistics = existing;
+            }
+        }
+        return statistics;
+    }
+
+    private static void updateMax(final AtomicLong max, final long value) {
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    private static final class OperationStatistics {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalWaitTime = new AtomicLong();
+        private final AtomicLong maxWaitTime = new AtomicLong();
+        private final AtomicLong totalHoldTime = new AtomicLong();
+        private final AtomicLong maxHoldTime = new AtomicLong();
+
+        void lockAcquired(final long waitTime) {
+            count.incrementAndGet();
+            totalWaitTime.addAndGet(waitTime);
+            updateMax(maxWaitTime, waitTime);
+        }
+
+        void lockReleased(final long holdTime) {
+            totalHoldTime.addAndGet(holdTime);
+            updateMax(maxHoldTime, holdTime);
+        }
+
+        void toModelNode(final ModelNode node) {
+            node.get(COUNT).set(count.get());
+            node.get(TOTAL_WAIT_TIME).set(TimeUnit.NANOSECONDS.toMillis(totalWaitTime.get()));
+            node.get(MAX_WAIT_TIME).set(TimeUnit.NANOSECONDS.toMillis(maxWaitTime.get()));
+            node.get(TOTAL_HOLD_TIME).set(TimeUnit.NANOSECONDS.toMillis(totalHoldTime.get()));
+            node.get(MAX_HOLD_TIME).set(TimeUnit.NANOSECONDS.toMillis(maxHoldTime.get()));
+        }
+    }
+}
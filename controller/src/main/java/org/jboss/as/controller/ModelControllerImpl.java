@@ -58,6 +58,7 @@ import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceListener;
@@ -77,6 +78,7 @@ class ModelControllerImpl implements ModelController {
     private final ServiceTarget serviceTarget;
     private final ManagementResourceRegistration rootRegistration;
     private final Lock writeLock = new ReentrantLock();
+    private final ControllerLockStatistics lockStatistics = new ControllerLockStatistics();
     private final ContainerStateMonitor stateMonitor;
     private final RootResource model = new RootResource();
     private final ConfigurationPersister persister;
@@ -137,7 +139,17 @@ class ModelControllerImpl implements ModelController {
             }
         };
 
-        OperationContextImpl context = new OperationContextImpl(this, processType, runningModeControl.getRunningMode(), contextFlags, handler, attachments, model, originalResultTxControl, processState, bootingFlag.get());
+        final boolean booting = bootingFlag.get();
+        final Resource rootResource;
+        if (!booting && isReadOnly(operation)) {
+            // Read-only operations run against the current model, which is never modified in place once published,
+            // so that they neither wait for nor hold up the operations holding the write lock
+            contextFlags.add(OperationContextImpl.ContextFlag.READ_ONLY);
+            rootResource = getCurrentModel();
+        } else {
+            rootResource = model;
+        }
+        OperationContextImpl context = new OperationContextImpl(this, processType, runningModeControl.getRunningMode(), contextFlags, handler, attachments, rootResource, originalResultTxControl, processState, booting);
         context.addStep(response, operation, prepareStep, OperationContext.Stage.MODEL);
         context.executeOperation();
 
@@ -300,6 +312,14 @@ class ModelControllerImpl implements ModelController {
         return model;
     }
 
+    /**
+     * @return the current model, which the root resource delegates to, and which is replaced, never modified, by each
+     *         update of the model
+     */
+    Resource getCurrentModel() {
+        return model.getDelegate();
+    }
+
     ManagementResourceRegistration getRootRegistration() {
         return rootRegistration;
     }
@@ -430,7 +450,16 @@ class ModelControllerImpl implements ModelController {
         };
     }
 
-    void acquireLock(final boolean interruptibly) throws InterruptedException {
+    /**
+     * Acquires the write lock.
+     *
+     * @param interruptibly whether the wait for the lock can be interrupted
+     * @param operationName the name of the operation taking the lock
+     * @return the {@link System#nanoTime() time} at which the lock was acquired
+     * @throws InterruptedException if interrupted while waiting for the lock
+     */
+    long acquireLock(final boolean interruptibly, final String operationName) throws InterruptedException {
+        final long start = System.nanoTime();
         if (interruptibly) {
             //noinspection LockAcquiredButNotSafelyReleased
             writeLock.lockInterruptibly();
@@ -438,10 +467,42 @@ class ModelControllerImpl implements ModelController {
             //noinspection LockAcquiredButNotSafelyReleased
             writeLock.lock();
         }
+        final long acquired = System.nanoTime();
+        lockStatistics.lockAcquired(operationName, acquired - start);
+        return acquired;
     }
 
-    void releaseLock() {
-        writeLock.unlock();
+    /**
+     * Releases the write lock.
+     *
+     * @param operationName the name of the operation which took the lock
+     * @param acquired the time at which the lock was acquired, as returned by {@link #acquireLock(boolean, String)}
+     */
+    void releaseLock(final String operationName, final long acquired) {
+        try {
+            lockStatistics.lockReleased(operationName, System.nanoTime() - acquired);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    ControllerLockStatistics getLockStatistics() {
+        return lockStatistics;
+    }
+
+    private boolean isReadOnly(final ModelNode operation) {
+        if (!operation.hasDefined(OP)) {
+            return false;
+        }
+        final PathAddress address;
+        try {
+            address = operation.has(OP_ADDR) ? PathAddress.pathAddress(operation.get(OP_ADDR)) : PathAddress.EMPTY_ADDRESS;
+        } catch (RuntimeException e) {
+            // Let the prepare step report the invalid address
+            return false;
+        }
+        final Set<OperationEntry.Flag> flags = rootRegistration.getOperationFlags(address, operation.get(OP).asString());
+        return flags != null && flags.contains(OperationEntry.Flag.READ_ONLY);
     }
 
     void acquireContainerMonitor() {
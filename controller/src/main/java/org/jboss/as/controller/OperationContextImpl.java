@@ -48,6 +48,7 @@ import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
+import org.jboss.as.controller.registry.CopyOnWriteResourceTree;
 import org.jboss.as.controller.registry.DelegatingImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -102,11 +103,16 @@ final class OperationContextImpl extends AbstractOperationContext {
     private volatile Resource model;
 
     private volatile Resource originalModel;
+    /** The copy of the model being updated, if the model is affected */
+    private volatile CopyOnWriteResourceTree modelUpdate;
 
     /** Tracks whether any steps have gotten write access to the runtime */
     private volatile boolean affectsRuntime;
     /** The step that acquired the write lock */
     private Step lockStep;
+    /** The name of the operation that acquired the write lock, and the time at which it did */
+    private String lockOperationName;
+    private long lockAcquired;
     /** The step that acquired the container monitor  */
     private Step containerMonitorStep;
     private volatile Boolean requiresModelUpdateAuthorization;
@@ -358,8 +364,14 @@ final class OperationContextImpl extends AbstractOperationContext {
                 throw MESSAGES.invalidModificationAfterCompletedStep();
             }
             try {
-                modelController.acquireLock(respectInterruption);
+                final String operationName = activeStep.operation.hasDefined(OP) ? activeStep.operation.get(OP).asString() : null;
+                lockAcquired = modelController.acquireLock(respectInterruption, operationName);
+                lockOperationName = operationName;
                 lockStep = activeStep;
+                if (contextFlags.contains(ContextFlag.READ_ONLY)) {
+                    // The snapshot may be stale by now, so anything done under the lock has to use the current model
+                    model = originalModel = modelController.getRootResource();
+                }
             } catch (InterruptedException e) {
                 cancelled = true;
                 Thread.currentThread().interrupt();
@@ -419,7 +431,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         authorizeModelUpdate();
         if (!isModelAffected()) {
             takeWriteLock();
-            model = model.clone();
+            copyModelForUpdate();
         }
         affectsModel.put(address, NULL);
         Resource model = this.model;
@@ -438,13 +450,13 @@ final class OperationContextImpl extends AbstractOperationContext {
                         throw MESSAGES.noChildType(key);
                     }
                     final Resource newModel = Resource.Factory.create();
-                    model.registerChild(element, newModel);
+                    modelUpdate.registerChild(model, element, newModel);
                     model = newModel;
                 } else {
-                    model = requireChild(model, element, address);
+                    model = requireChildForUpdate(model, element, address);
                 }
             } else {
-                model = requireChild(model, element, address);
+                model = requireChildForUpdate(model, element, address);
             }
         }
         if(model == null) {
@@ -523,7 +535,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         authorizeModelUpdate();
         if (!isModelAffected()) {
             takeWriteLock();
-            model = model.clone();
+            copyModelForUpdate();
         }
         affectsModel.put(address, NULL);
         Resource resource = this.model;
@@ -531,9 +543,9 @@ final class OperationContextImpl extends AbstractOperationContext {
             if (element.isMultiTarget()) {
                 throw MESSAGES.cannotWriteTo("*");
             }
-            resource = requireChild(resource, element, address);
+            resource = requireChildForUpdate(resource, element, address);
         }
-        return resource;
+        return modelUpdate.getSubtreeForUpdate(resource);
     }
 
     @Override
@@ -563,7 +575,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         authorizeModelUpdate();
         if (!isModelAffected()) {
             takeWriteLock();
-            model = model.clone();
+            copyModelForUpdate();
         }
         affectsModel.put(absoluteAddress, NULL);
         Resource model = this.model;
@@ -583,11 +595,11 @@ final class OperationContextImpl extends AbstractOperationContext {
                     if(!childrenNames.contains(key)) {
                         throw MESSAGES.noChildType(key);
                     }
-                    model.registerChild(element, toAdd);
+                    modelUpdate.registerChild(model, element, toAdd);
                     model = toAdd;
                 }
             } else {
-                model = model.getChild(element);
+                model = modelUpdate.getChildForUpdate(model, element);
                 if (model == null) {
                     PathAddress ancestor = PathAddress.EMPTY_ADDRESS;
                     for (PathElement pe : absoluteAddress) {
@@ -615,7 +627,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         authorizeModelUpdate();
         if (!isModelAffected()) {
             takeWriteLock();
-            model = model.clone();
+            copyModelForUpdate();
         }
         affectsModel.put(address, NULL);
         Resource model = this.model;
@@ -626,9 +638,9 @@ final class OperationContextImpl extends AbstractOperationContext {
                 throw MESSAGES.cannotRemove("*");
             }
             if (! i.hasNext()) {
-                model = model.removeChild(element);
+                model = modelUpdate.removeChild(model, element);
             } else {
-                model = requireChild(model, element, address);
+                model = requireChildForUpdate(model, element, address);
             }
         }
         return model;
@@ -673,8 +685,9 @@ final class OperationContextImpl extends AbstractOperationContext {
     void releaseStepLocks(AbstractOperationContext.Step step) {
         try {
             if (this.lockStep == step) {
-                modelController.releaseLock();
+                modelController.releaseLock(lockOperationName, lockAcquired);
                 lockStep = null;
+                lockOperationName = null;
             }
             if (this.containerMonitorStep == step) {
                 // Note: If we allow this thread to be interrupted, an op that has been cancelled
@@ -699,6 +712,24 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
     }
 
+    /**
+     * Copies the model on the first update of the operation. Only the resources along the paths to the updated
+     * resources are copied, so that updates don't pay for cloning the whole model.
+     */
+    private void copyModelForUpdate() {
+        // The root resource of the controller only delegates to the current model, which the write lock keeps from being
+        // replaced meanwhile, so the copy is made of that model, whose resources can then be shared
+        final Resource root = (model == modelController.getRootResource()) ? modelController.getCurrentModel() : model;
+        // Boot updates an almost empty model from several threads at once, so it simply gets a copy of its own
+        modelUpdate = new CopyOnWriteResourceTree(root, !isBooting());
+        model = modelUpdate.getRoot();
+    }
+
+    private Resource requireChildForUpdate(final Resource resource, final PathElement childPath, final PathAddress fullAddress) {
+        requireChild(resource, childPath, fullAddress);
+        return modelUpdate.getChildForUpdate(resource, childPath);
+    }
+
     private static Resource requireChild(final Resource resource, final PathElement childPath, final PathAddress fullAddress) {
         if (resource.hasChild(childPath)) {
             return resource.requireChild(childPath);
@@ -142,6 +142,32 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
     public void deleteSnapshot(String name) {
     }
 
+    /**
+     * Gets the number of committed changes which have not been written to permanent storage yet.
+     *
+     * @return the number of pending changes
+     */
+    public int getPendingChanges() {
+        return 0;
+    }
+
+    /**
+     * Gets the number of deferred writes of committed changes to permanent storage which failed. Such failures cannot
+     * be reported to the operation which committed the changes.
+     *
+     * @return the number of failed writes
+     */
+    public long getFailedWrites() {
+        return 0;
+    }
+
+    /**
+     * Called when the controller using this persister stops. Writes any committed change which has not been written to
+     * permanent storage yet.
+     */
+    public void stop() {
+    }
+
     private static void safeClose(final XMLStreamWriter streamWriter) {
         if (streamWriter != null) try {
             streamWriter.close();
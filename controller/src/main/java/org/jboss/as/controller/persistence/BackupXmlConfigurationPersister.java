@@ -22,9 +22,17 @@
 
 package org.jboss.as.controller.persistence;
 
+import static org.jboss.as.controller.ControllerLogger.MGMT_OP_LOGGER;
+
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.xml.namespace.QName;
 
@@ -35,13 +43,42 @@ import org.jboss.staxmapper.XMLElementWriter;
 
 /**
  * An XML configuration persister which backs up the old file before overwriting it.
+ * <p/>
+ * By default the file is written as part of each commit. If a {@link #setPersistDelay(long, TimeUnit) delay} is set,
+ * commits are instead coalesced and written from a background thread once the delay has elapsed since the first
+ * commit not yet written, or as soon as {@link #MAX_PENDING_CHANGES} commits are pending. Each write stores the model
+ * of the latest commit, and writes never overlap, so the file always holds the configuration of some commit, and never
+ * goes back to that of an earlier one.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
 
+    /**
+     * The number of pending commits beyond which the file is written without waiting for the delay to elapse.
+     */
+    public static final int MAX_PENDING_CHANGES = 100;
+
     ConfigurationFile configurationFile;
     private final AtomicBoolean successfulBoot = new AtomicBoolean();
+
+    /** Guards the pending model, the number of pending changes and the executor */
+    private final Object pendingLock = new Object();
+    /** Serializes the writes of the file */
+    private final Object writeLock = new Object();
+    private volatile long persistDelay;
+    private ModelNode pendingModel;
+    private int pendingChanges;
+    private final AtomicLong failedWrites = new AtomicLong();
+    private boolean flushScheduled;
+    private ScheduledExecutorService executor;
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
     /**
      * Construct a new instance.
      *
@@ -62,6 +99,7 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
     @Override
     public void successfulBoot() throws ConfigurationPersistenceException {
         if(successfulBoot.compareAndSet(false, true)) {
+            flush();
             configurationFile.successfulBoot();
         }
     }
@@ -77,11 +115,128 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
                 }
             };
         }
-        return new ConfigurationFilePersistenceResource(model, configurationFile, this);
+        if (persistDelay <= 0) {
+            return new ConfigurationFilePersistenceResource(model, configurationFile, this);
+        }
+        return new PersistenceResource() {
+            public void commit() {
+                deferWrite(model);
+            }
+
+            public void rollback() {
+            }
+        };
+    }
+
+    /**
+     * Sets the delay after which committed changes are written, coalescing the changes committed in the meantime. This
+     * is meant to be set before boot.
+     *
+     * @param delay the delay, or {@code 0} to write the changes as part of each commit
+     * @param unit the unit of the delay
+     */
+    public void setPersistDelay(final long delay, final TimeUnit unit) {
+        synchronized (pendingLock) {
+            if (delay > 0 && executor == null) {
+                final String name = "Configuration Persister [" + configurationFile.getMainFile().getName() + "]";
+                executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable task) {
+                        Thread thread = new Thread(task, name);
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+            persistDelay = unit.toMillis(delay);
+        }
+    }
+
+    @Override
+    public int getPendingChanges() {
+        synchronized (pendingLock) {
+            return pendingChanges;
+        }
+    }
+
+    @Override
+    public long getFailedWrites() {
+        return failedWrites.get();
+    }
+
+    /**
+     * Writes the changes still pending, and writes any later change as part of its commit.
+     */
+    @Override
+    public void stop() {
+        final ScheduledExecutorService executor;
+        synchronized (pendingLock) {
+            persistDelay = 0;
+            executor = this.executor;
+            this.executor = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        flush();
+    }
+
+    private void deferWrite(final ModelNode model) {
+        synchronized (pendingLock) {
+            pendingModel = model;
+            pendingChanges++;
+            if (executor != null) {
+                try {
+                    if (!flushScheduled) {
+                        executor.schedule(flushTask, persistDelay, TimeUnit.MILLISECONDS);
+                        flushScheduled = true;
+                    } else if (pendingChanges == MAX_PENDING_CHANGES) {
+                        // Don't wait for the delay to elapse
+                        executor.execute(flushTask);
+                    }
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // The persister is stopping, so write it ourselves
+                }
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Writes the model of the latest commit, if it has not been written yet.
+     */
+    private void flush() {
+        synchronized (writeLock) {
+            final ModelNode model;
+            final int changes;
+            synchronized (pendingLock) {
+                model = pendingModel;
+                changes = pendingChanges;
+                pendingModel = null;
+                // Any later commit needs a write of its own
+                flushScheduled = false;
+            }
+            if (model == null) {
+                return;
+            }
+            try {
+                new ConfigurationFilePersistenceResource(model, configurationFile, this).commit();
+            } catch (ConfigurationPersistenceException e) {
+                failedWrites.incrementAndGet();
+                MGMT_OP_LOGGER.failedToStoreConfiguration(e, configurationFile.getMainFile().getName());
+            } finally {
+                synchronized (pendingLock) {
+                    pendingChanges -= changes;
+                }
+            }
+        }
     }
 
     @Override
     public String snapshot() throws ConfigurationPersistenceException {
+        // The snapshot must include the changes committed so far
+        flush();
         return configurationFile.snapshot();
     }
 
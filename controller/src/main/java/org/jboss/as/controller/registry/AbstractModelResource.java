@@ -234,6 +234,21 @@ public abstract class AbstractModelResource implements Resource {
                 return children.remove(name);
             }
         }
+
+        /**
+         * Replaces an existing child, which keeps its position among its siblings.
+         *
+         * @return whether the child existed
+         */
+        boolean replace(String name, Resource resource) {
+            synchronized (children) {
+                if (!children.containsKey(name)) {
+                    return false;
+                }
+                children.put(name, resource);
+                return true;
+            }
+        }
     }
 
     abstract static class DelegateResource implements ResourceEntry {
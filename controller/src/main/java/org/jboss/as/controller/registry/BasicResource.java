@@ -22,6 +22,7 @@
 
 package org.jboss.as.controller.registry;
 
+import org.jboss.as.controller.PathElement;
 import org.jboss.dmr.ModelNode;
 
 import java.util.ConcurrentModificationException;
@@ -76,4 +77,36 @@ class BasicResource extends AbstractModelResource implements Resource {
         return clone;
     }
 
+    /**
+     * Creates a copy of this resource which shares its children with this resource, rather than cloning them.
+     *
+     * @return the copy
+     */
+    BasicResource shallowCopy() {
+        final BasicResource copy = new BasicResource();
+        copy.writeModel(model);
+        for (final String childType : getChildTypes()) {
+            final ResourceProvider provider = getProvider(childType);
+            for (final String name : provider.children()) {
+                final Resource child = provider.get(name);
+                if (child != null) {
+                    copy.registerChild(PathElement.pathElement(childType, name), child);
+                }
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Replaces an existing child of this resource, keeping its position among its siblings.
+     *
+     * @param address the address of the child
+     * @param resource the new child
+     */
+    void replaceChild(final PathElement address, final Resource resource) {
+        final DefaultResourceProvider provider = (DefaultResourceProvider) getProvider(address.getKey());
+        if ((provider == null) || !provider.replace(address.getValue(), resource)) {
+            throw new NoSuchResourceException(address);
+        }
+    }
 }
@@ -0,0 +1,162 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.registry;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.jboss.as.controller.PathElement;
+
+/**
+ * An updatable copy of a resource tree, which shares with the original tree the resources that were not updated.
+ * <p/>
+ * Only the resources along the path to an updated resource are copied, and only once: each copy owns its model and the
+ * list of its children, but shares the children themselves with the original resource until they are updated in turn.
+ * A resource which may be updated along with its whole subtree, e.g. a resource handed out for update, is cloned
+ * entirely instead. The original tree is never modified, so it remains a consistent snapshot for concurrent readers.
+ * <p/>
+ * Resources other than those created by {@link Resource.Factory#create()} can't share their children and are always
+ * cloned entirely.
+ *
+ * <p>Concurrency note: this class is *not* thread safe, unless it was created without sharing resources, in which case
+ * resources may be read and updated by several threads, as they would be in a clone of the original tree.</p>
+ */
+public final class CopyOnWriteResourceTree {
+
+    // The copies made by this tree: TRUE for copies sharing their children, FALSE for copies owning their whole subtree
+    private final Map<Resource, Boolean> copies = new IdentityHashMap<Resource, Boolean>();
+    private final Resource root;
+
+    /**
+     * @param root the root of the original tree
+     * @param shareResources whether the copy may share resources with the original tree, or should clone it entirely
+     */
+    public CopyOnWriteResourceTree(final Resource root, final boolean shareResources) {
+        this.root = shareResources ? this.copy(root) : this.privateCopy(root);
+    }
+
+    /**
+     * @return the root of the copy, which may be updated
+     */
+    public Resource getRoot() {
+        return this.root;
+    }
+
+    /**
+     * Returns a child of an updatable resource of this tree, copying it first if it is still shared with the original
+     * tree. The model of the returned child, and which children it has, may then be updated.
+     *
+     * @param parent an updatable resource of this tree
+     * @param address the address of the child, relative to its parent
+     * @return the updatable child, or {@code null} if the parent has no such child
+     */
+    public Resource getChildForUpdate(final Resource parent, final PathElement address) {
+        final Resource child = parent.getChild(address);
+        if ((child == null) || !this.isSharingChildren(parent) || this.copies.containsKey(child)) {
+            // The children of a resource which owns its subtree are owned as well
+            return child;
+        }
+        final Resource copy = this.copy(child);
+        ((BasicResource) parent).replaceChild(address, copy);
+        return copy;
+    }
+
+    /**
+     * Returns an updatable resource of this tree after making it own its whole subtree, so that any of its descendants
+     * may be updated through it. The resource itself remains the same instance.
+     *
+     * @param resource an updatable resource of this tree
+     * @return the resource
+     */
+    public Resource getSubtreeForUpdate(final Resource resource) {
+        if (this.isSharingChildren(resource)) {
+            final BasicResource copy = (BasicResource) resource;
+            for (final String childType : copy.getChildTypes()) {
+                for (final String name : copy.getChildrenNames(childType)) {
+                    final PathElement address = PathElement.pathElement(childType, name);
+                    final Resource child = copy.getChild(address);
+                    final Boolean sharing = this.copies.get(child);
+                    if (sharing == null) {
+                        copy.replaceChild(address, child.clone());
+                    } else if (sharing) {
+                        this.getSubtreeForUpdate(child);
+                    }
+                }
+            }
+            this.copies.put(resource, Boolean.FALSE);
+        }
+        return resource;
+    }
+
+    /**
+     * Registers a new child of an updatable resource of this tree.
+     *
+     * @param parent an updatable resource of this tree
+     * @param address the address of the child, relative to its parent
+     * @param child the new child, which will be updatable
+     */
+    public void registerChild(final Resource parent, final PathElement address, final Resource child) {
+        parent.registerChild(address, child);
+        if (this.isSharingChildren(parent)) {
+            this.copies.put(child, Boolean.FALSE);
+        }
+    }
+
+    /**
+     * Removes a child of an updatable resource of this tree.
+     *
+     * @param parent an updatable resource of this tree
+     * @param address the address of the child, relative to its parent
+     * @return the removed child, which the caller may update as it pleases, or {@code null} if there was no such child
+     */
+    public Resource removeChild(final Resource parent, final PathElement address) {
+        final Resource child = parent.removeChild(address);
+        if ((child == null) || !this.isSharingChildren(parent)) {
+            return child;
+        }
+        final Boolean sharing = this.copies.get(child);
+        if (sharing == null) {
+            // Still part of the original tree
+            return child.clone();
+        }
+        return sharing ? this.getSubtreeForUpdate(child) : child;
+    }
+
+    private boolean isSharingChildren(final Resource resource) {
+        return this.copies.get(resource) == Boolean.TRUE;
+    }
+
+    private Resource copy(final Resource resource) {
+        if (resource.getClass() != BasicResource.class) {
+            return this.privateCopy(resource);
+        }
+        final Resource copy = ((BasicResource) resource).shallowCopy();
+        this.copies.put(copy, Boolean.TRUE);
+        return copy;
+    }
+
+    private Resource privateCopy(final Resource resource) {
+        final Resource copy = resource.clone();
+        this.copies.put(copy, Boolean.FALSE);
+        return copy;
+    }
+}
@@ -52,9 +52,12 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VAL
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -147,6 +150,23 @@ public class ModelControllerImplUnitTestCase {
         assertEquals(5, result.get(RESULT).asInt());
     }
 
+    @Test
+    public void testModelUpdateSharesUntouchedResources() throws Exception {
+        final ModelControllerImpl modelController = (ModelControllerImpl) controller;
+        final Resource before = modelController.getCurrentModel();
+        ModelNode result = controller.execute(getOperation("good", "attr1", 5), null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        final Resource after = modelController.getCurrentModel();
+
+        // The updated root was copied, and the published model left alone
+        assertNotSame(before, after);
+        assertEquals(1, before.getModel().get("attr1").asInt());
+        assertEquals(5, after.getModel().get("attr1").asInt());
+        // The children were not updated, so the new model shares them
+        assertSame(before.getChild(CHILD_ONE.getLastElement()), after.getChild(CHILD_ONE.getLastElement()));
+        assertSame(before.getChild(CHILD_TWO.getLastElement()), after.getChild(CHILD_TWO.getLastElement()));
+    }
+
     @Test
     public void testGoodModelExecutionNonRecursive() throws Exception {
         useNonRecursive = true;
@@ -471,6 +491,51 @@ public class ModelControllerImplUnitTestCase {
         operation.get(CHILD_TYPE).set("child");
     }
 
+    @Test
+    public void testReadOnlyDoesNotWaitForWriteLock() throws Exception {
+        final CountDownLatch lockTaken = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        BlockingHandler.lockTaken = lockTaken;
+        BlockingHandler.release = release;
+
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                controller.execute(getOperation("blocking", "attr1", 5), null, null, null);
+            }
+        });
+        writer.start();
+        try {
+            assertTrue(lockTaken.await(30, TimeUnit.SECONDS));
+
+            ModelNode operation = new ModelNode();
+            operation.get(OP).set(READ_RESOURCE_OPERATION);
+            operation.get(OP_ADDR).setEmptyList();
+
+            // The write lock is held, yet the read completes against the last committed model
+            ModelNode result = controller.execute(operation, null, null, null);
+            assertEquals(SUCCESS, result.get(OUTCOME).asString());
+            assertEquals(1, result.get(RESULT, "attr1").asInt());
+        } finally {
+            release.countDown();
+            writer.join(30000);
+        }
+
+        ModelNode operation = new ModelNode();
+        operation.get(OP).set(READ_RESOURCE_OPERATION);
+        operation.get(OP_ADDR).setEmptyList();
+        ModelNode result = controller.execute(operation, null, null, null);
+        assertEquals(5, result.get(RESULT, "attr1").asInt());
+
+        operation = new ModelNode();
+        operation.get(OP).set(ReadLockStatisticsHandler.OPERATION_NAME);
+        operation.get(OP_ADDR).setEmptyList();
+        result = controller.execute(operation, null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertEquals(1, result.get(RESULT, "blocking", ControllerLockStatistics.COUNT).asInt());
+        assertFalse(result.get(RESULT).has(READ_RESOURCE_OPERATION));
+    }
+
     @Test
     public void testReloadRequired() throws Exception {
         ModelNode result = controller.execute(getOperation("reload-required", "attr1", 5), null, null, null);
@@ -737,6 +802,7 @@ public class ModelControllerImplUnitTestCase {
             rootRegistration.registerOperationHandler("dependent-service", new ModelControllerImplUnitTestCase.DependentServiceHandler(), ModelControllerImplUnitTestCase.DESC_PROVIDER, false);
             rootRegistration.registerOperationHandler("remove-dependent-service", new ModelControllerImplUnitTestCase.RemoveDependentServiceHandler(), ModelControllerImplUnitTestCase.DESC_PROVIDER, false);
             rootRegistration.registerOperationHandler("read-wildcards", new ModelControllerImplUnitTestCase.WildcardReadHandler(), ModelControllerImplUnitTestCase.DESC_PROVIDER, true);
+            rootRegistration.registerOperationHandler("blocking", new ModelControllerImplUnitTestCase.BlockingHandler(), ModelControllerImplUnitTestCase.DESC_PROVIDER, false);
 
             GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
             SimpleResourceDefinition childResource = new SimpleResourceDefinition(
@@ -1255,6 +1321,25 @@ public class ModelControllerImplUnitTestCase {
         }
     }
 
+    static final class BlockingHandler implements OperationStepHandler {
+
+        static volatile CountDownLatch lockTaken;
+        static volatile CountDownLatch release;
+
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            String name = operation.require(NAME).asString();
+            context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS).getModel().get(name).set(operation.require(VALUE));
+            lockTaken.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            context.completeStep();
+        }
+    }
+
     static final class WildcardReadHandler implements OperationStepHandler {
 
         @Override
@@ -29,11 +29,17 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
 
 import junit.framework.Assert;
 
 import org.jboss.as.controller.PathAddress;
 import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -322,6 +328,67 @@ public class PersistanceResourceTestCase {
         checkFiles(null, "Four", "boot", "Four", "Four");
     }
 
+    @Test
+    public void testDeferredConfigurationFilePersistence() throws Exception {
+        ConfigurationFile configurationFile = new ConfigurationFile(standardDir, "standard.xml", null, true);
+        BackupXmlConfigurationPersister persister = new BackupXmlConfigurationPersister(configurationFile, new QName("test"), null, new TestModelWriter());
+        persister.setPersistDelay(1, TimeUnit.HOURS);
+        persister.successfulBoot();
+
+        persister.store(new ModelNode("One"), Collections.<PathAddress>emptySet()).commit();
+        persister.store(new ModelNode("Two"), Collections.<PathAddress>emptySet()).commit();
+        persister.store(new ModelNode("Three"), Collections.<PathAddress>emptySet()).rollback();
+        Assert.assertEquals(2, persister.getPendingChanges());
+        assertFileContents(standardFile, "std");
+
+        // Stopping writes the latest change, and any later change gets written right away
+        persister.stop();
+        Assert.assertEquals(0, persister.getPendingChanges());
+        Assert.assertTrue(readFileContents(standardFile).contains("<test>Two</test>"));
+        checkVersionedHistory("standard", "std");
+
+        persister.store(new ModelNode("Four"), Collections.<PathAddress>emptySet()).commit();
+        Assert.assertEquals(0, persister.getPendingChanges());
+        Assert.assertTrue(readFileContents(standardFile).contains("<test>Four</test>"));
+    }
+
+    @Test
+    public void testSnapshotWritesDeferredChanges() throws Exception {
+        ConfigurationFile configurationFile = new ConfigurationFile(standardDir, "standard.xml", null, true);
+        BackupXmlConfigurationPersister persister = new BackupXmlConfigurationPersister(configurationFile, new QName("test"), null, new TestModelWriter());
+        persister.setPersistDelay(1, TimeUnit.HOURS);
+        persister.successfulBoot();
+
+        persister.store(new ModelNode("One"), Collections.<PathAddress>emptySet()).commit();
+        Assert.assertEquals(1, persister.getPendingChanges());
+        String snapshot = persister.snapshot();
+        Assert.assertEquals(0, persister.getPendingChanges());
+        Assert.assertTrue(readFileContents(standardFile).contains("<test>One</test>"));
+        Assert.assertTrue(readFileContents(new File(snapshot)).contains("<test>One</test>"));
+        persister.stop();
+    }
+
+    @Test
+    public void testFailedDeferredWrite() throws Exception {
+        ConfigurationFile configurationFile = new ConfigurationFile(standardDir, "standard.xml", null, true);
+        BackupXmlConfigurationPersister persister = new BackupXmlConfigurationPersister(configurationFile, new QName("test"), null, new XMLElementWriter<ModelMarshallingContext>() {
+            @Override
+            public void writeContent(XMLExtendedStreamWriter writer, ModelMarshallingContext context) throws XMLStreamException {
+                throw new XMLStreamException("Broken");
+            }
+        });
+        persister.setPersistDelay(1, TimeUnit.HOURS);
+        persister.successfulBoot();
+
+        // The failure cannot be reported to the committing operation, only counted
+        persister.store(new ModelNode("One"), Collections.<PathAddress>emptySet()).commit();
+        Assert.assertEquals(0, persister.getFailedWrites());
+        persister.stop();
+        Assert.assertEquals(0, persister.getPendingChanges());
+        Assert.assertEquals(1, persister.getFailedWrites());
+        assertFileContents(standardFile, "std");
+    }
+
     @Test(expected=IllegalStateException.class)
     public void testPersistentBadRawName() {
         new ConfigurationFile(standardDir, "standard.xml", "crap.xml", true);
@@ -727,6 +794,10 @@ public class PersistanceResourceTestCase {
     }
 
     private void assertFileContents(File file, String expectedContents) throws Exception {
+        Assert.assertEquals(expectedContents, readFileContents(file));
+    }
+
+    private String readFileContents(File file) throws Exception {
         Assert.assertTrue(file + " does not exist", file.exists());
         StringBuilder sb = new StringBuilder();
         BufferedReader in = new BufferedReader(new FileReader(file));
@@ -739,7 +810,7 @@ public class PersistanceResourceTestCase {
         } finally {
             in.close();
         }
-        Assert.assertEquals(expectedContents, sb.toString());
+        return sb.toString();
     }
 
     private void checkVersionedHistory(String name, String...versions) throws Exception {
@@ -768,6 +839,17 @@ public class PersistanceResourceTestCase {
     }
 
 
+    private static class TestModelWriter implements XMLElementWriter<ModelMarshallingContext> {
+        @Override
+        public void writeContent(XMLExtendedStreamWriter writer, ModelMarshallingContext context) throws XMLStreamException {
+            writer.writeStartDocument();
+            writer.writeStartElement("test");
+            writer.writeCharacters(context.getModelNode().asString());
+            writer.writeEndElement();
+            writer.writeEndDocument();
+        }
+    }
+
     private class TestConfigurationFilePersister extends TestConfigurationPersister {
         private final ConfigurationFile configurationFile;
 
@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.jboss.as.controller.PathElement;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link CopyOnWriteResourceTree}.
+ */
+public class CopyOnWriteResourceTreeUnitTestCase {
+
+    private static final PathElement SUBSYSTEM_A = PathElement.pathElement("subsystem", "a");
+    private static final PathElement SUBSYSTEM_B = PathElement.pathElement("subsystem", "b");
+    private static final PathElement SUBSYSTEM_C = PathElement.pathElement("subsystem", "c");
+    private static final PathElement CHILD = PathElement.pathElement("child", "x");
+
+    private final Resource original = createModel();
+
+    @Test
+    public void testUpdateSharesUntouchedResources() {
+        final CopyOnWriteResourceTree tree = new CopyOnWriteResourceTree(this.original, true);
+        final Resource a = tree.getChildForUpdate(tree.getRoot(), SUBSYSTEM_A);
+        a.getModel().get("value").set("updated");
+
+        assertNotSame(this.original.getChild(SUBSYSTEM_A), a);
+        assertSame(a, tree.getChildForUpdate(tree.getRoot(), SUBSYSTEM_A));
+        assertEquals("a", this.original.getChild(SUBSYSTEM_A).getModel().get("value").asString());
+        assertEquals("updated", tree.getRoot().getChild(SUBSYSTEM_A).getModel().get("value").asString());
+        // Siblings and children of the updated resource are shared
+        assertSame(this.original.getChild(SUBSYSTEM_B), tree.getRoot().getChild(SUBSYSTEM_B));
+        assertSame(this.original.getChild(SUBSYSTEM_A).getChild(CHILD), a.getChild(CHILD));
+        // The copy keeps the order of the children
+        assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<String>(tree.getRoot().getChildrenNames("subsystem")));
+    }
+
+    @Test
+    public void testSubtreeForUpdate() {
+        final CopyOnWriteResourceTree tree = new CopyOnWriteResourceTree(this.original, true);
+        final Resource a = tree.getSubtreeForUpdate(tree.getChildForUpdate(tree.getRoot(), SUBSYSTEM_A));
+        a.getChild(CHILD).getModel().get("value").set("updated");
+
+        assertEquals("x", this.original.getChild(SUBSYSTEM_A).getChild(CHILD).getModel().get("value").asString());
+        assertSame(a, tree.getChildForUpdate(tree.getRoot(), SUBSYSTEM_A));
+        assertSame(a.getChild(CHILD), tree.getChildForUpdate(a, CHILD));
+    }
+
+    @Test
+    public void testRegisterAndRemoveChild() {
+        final CopyOnWriteResourceTree tree = new CopyOnWriteResourceTree(this.original, true);
+        final Resource root = tree.getRoot();
+        final Resource d = Resource.Factory.create();
+        tree.registerChild(root, PathElement.pathElement("subsystem", "d"), d);
+        assertSame(d, tree.getChildForUpdate(root, PathElement.pathElement("subsystem", "d")));
+        assertFalse(this.original.hasChild(PathElement.pathElement("subsystem", "d")));
+
+        final Resource removed = tree.removeChild(root, SUBSYSTEM_B);
+        assertFalse(root.hasChild(SUBSYSTEM_B));
+        assertTrue(this.original.hasChild(SUBSYSTEM_B));
+        // The removed resource may be modified without affecting the original tree
+        assertNotSame(this.original.getChild(SUBSYSTEM_B), removed);
+        removed.getModel().get("value").set("removed");
+        assertEquals("b", this.original.getChild(SUBSYSTEM_B).getModel().get("value").asString());
+
+        assertNull(tree.removeChild(root, PathElement.pathElement("subsystem", "missing")));
+    }
+
+    @Test
+    public void testUnsharedCopy() {
+        final CopyOnWriteResourceTree tree = new CopyOnWriteResourceTree(this.original, false);
+        final Resource a = tree.getChildForUpdate(tree.getRoot(), SUBSYSTEM_A);
+        assertNotSame(this.original.getChild(SUBSYSTEM_A), a);
+        assertNotSame(this.original.getChild(SUBSYSTEM_C), tree.getRoot().getChild(SUBSYSTEM_C));
+    }
+
+    private static Resource createModel() {
+        final Resource root = Resource.Factory.create();
+        for (PathElement element : Arrays.asList(SUBSYSTEM_A, SUBSYSTEM_B, SUBSYSTEM_C)) {
+            final Resource subsystem = Resource.Factory.create();
+            subsystem.getModel().get("value").set(element.getValue());
+            final Resource child = Resource.Factory.create();
+            child.getModel().get("value").set(CHILD.getValue());
+            subsystem.registerChild(CHILD, child);
+            root.registerChild(element, subsystem);
+        }
+        return root;
+    }
+}
@@ -569,6 +569,26 @@ public interface EjbLogger extends BasicLogger {
     @Message(id = 14261, value = "Failed to reinstate timer '%s' (id=%s) from its persistent state")
     void timerReinstatementFailed(String timedObjectId, String timerId, @Cause Throwable cause);
 
+    @LogMessage(level = WARN)
+    @Message(id = 14262, value = "Timer journal segment %s is corrupt at offset %d, ignoring the rest of the segment")
+    void timerJournalSegmentCorrupt(File segment, long offset);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 14263, value = "Failed to compact the timer journal in %s")
+    void failToCompactTimerJournal(File directory, @Cause Throwable cause);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 14264, value = "Failed to run due timer timeouts")
+    void failToDispatchTimeouts(@Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 14265, value = "Failed to passivate a batch of %d stateful session bean instances")
+    void failToPassivateBatch(int count, @Cause Throwable cause);
+
+    @LogMessage(level = INFO)
+    @Message(id = 14266, value = "Moved %d timers of %s from the file based timer store to the timer journal")
+    void importedTimerFiles(int count, String timedObjectId);
+
     // Don't add message ids greater that 14299!!! If you need more first check what EjbMessages is
     // using and take more (lower) numbers from the available range for this module. If the range for the module is
     // all used, go to https://community.jboss.org/docs/DOC-16810 and allocate another block for this subsystem
@@ -2407,6 +2407,15 @@ public interface EjbMessages {
     @Message(id = 14581, value = "EJB 3.1 FR 13.3.3: BMT bean %s should complete transaction before returning.")
     String transactionNotComplete(String componentName);
 
+    /**
+     * Creates an exception indicating that the lock group name cannot be empty
+     *
+     * @param ejbName The EJB name
+     * @return an {@link IllegalArgumentException} for the exception
+     */
+    @Message(id = 14582, value = "Lock group name cannot be empty string for bean %s")
+    IllegalArgumentException lockGroupNameCannotBeEmptyString(final String ejbName);
+
     // STOP!!! Don't add message ids greater that 14599!!! If you need more first check what EjbLogger is
     // using and take more (lower) numbers from the available range for this module. If the range for the module is
     // all used, go to https://community.jboss.org/docs/DOC-16810 and allocate another block for this subsystem
@@ -68,6 +68,13 @@ public interface Cache<K extends Serializable, V extends Identifiable<K>> extend
      */
     void release(V obj);
 
+    /**
+     * Gets the passivation statistics of this cache.
+     *
+     * @return the statistics, or <code>null</code> if this cache does not passivate
+     */
+    PassivationMetrics getPassivationMetrics();
+
     /**
      * Start the cache.
      */
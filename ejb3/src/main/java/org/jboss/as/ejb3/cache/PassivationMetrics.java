@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.ejb3.component.invocationmetrics.LatencyHistogram;
+
+/**
+ * Passivation statistics of a {@link Cache}.
+ * <p/>
+ * The passivation latency of an entry is the time between it being chosen for passivation, because the cache evicted
+ * it or it was idle for too long, and it having been written to the passivation store. This holds whether the entry
+ * is passivated in the background or by the thread which chose it, in which case it is recorded as a batch of one.
+ */
+public class PassivationMetrics {
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicLong passivations = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    public void queued() {
+        queueDepth.incrementAndGet();
+    }
+
+    public void dequeued() {
+        queueDepth.decrementAndGet();
+    }
+
+    /**
+     * Records a batch of entries written to the passivation store.
+     *
+     * @param queuedNanos the {@link System#nanoTime()} at which each entry of the batch was queued
+     * @param count       the number of entries in the batch
+     */
+    public void passivated(final long[] queuedNanos, final int count) {
+        final long now = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            latencies.record(TimeUnit.NANOSECONDS.toMicros(now - queuedNanos[i]));
+        }
+        passivations.addAndGet(count);
+        batches.incrementAndGet();
+    }
+
+    /**
+     * @return the number of entries waiting to be passivated, including those of the batch being written
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * @return the number of entries passivated
+     */
+    public long getPassivations() {
+        return passivations.get();
+    }
+
+    /**
+     * @return the number of batches written to the passivation store
+     */
+    public long getBatches() {
+        return batches.get();
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 1
+     * @return the passivation latency percentile in microseconds
+     */
+    public long getLatencyPercentile(final double percentile) {
+        return latencies.getPercentile(percentile);
+    }
+
+    /**
+     * Clears all statistics, except for the queue depth.
+     */
+    public void reset() {
+        passivations.set(0);
+        batches.set(0);
+        latencies.reset();
+    }
+}
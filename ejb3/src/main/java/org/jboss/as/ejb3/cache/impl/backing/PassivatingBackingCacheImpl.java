@@ -23,20 +23,33 @@
 package org.jboss.as.ejb3.cache.impl.backing;
 
 import java.io.Serializable;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
 import java.util.Set;
+import java.util.SortedSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.ejb.NoSuchEJBException;
 
 import org.jboss.as.ejb3.EjbLogger;
 import org.jboss.as.ejb3.EjbMessages;
 import org.jboss.as.ejb3.cache.Cacheable;
+import org.jboss.as.ejb3.cache.PassivationMetrics;
 import org.jboss.as.ejb3.cache.StatefulObjectFactory;
 import org.jboss.as.ejb3.cache.spi.BackingCacheEntry;
 import org.jboss.as.ejb3.cache.spi.BackingCacheEntryFactory;
@@ -47,13 +60,20 @@ import org.jboss.as.ejb3.cache.spi.PassivatingBackingCache;
 import org.jboss.as.ejb3.cache.spi.BackingCacheLifecycleListener.LifecycleState;
 import org.jboss.as.ejb3.cache.spi.ReplicationPassivationManager;
 import org.jboss.as.ejb3.cache.spi.impl.AbstractBackingCache;
-import org.jboss.as.ejb3.cache.spi.impl.PassivateTask;
 import org.jboss.as.ejb3.cache.spi.impl.RemoveTask;
 import org.jboss.as.ejb3.component.stateful.StatefulTimeoutInfo;
 import org.jboss.ejb.client.Affinity;
 import org.jboss.logging.Logger;
 
 /**
+ * A {@link PassivatingBackingCache} which, once started with an executor, passivates in the background.
+ * <p/>
+ * Entries evicted by the store and entries idle for longer than the idle timeout are queued for passivation and
+ * written to the store in batches on the executor, rather than on the thread which triggered the eviction. A single
+ * periodic sweep on the same executor queues idle entries and removes expired ones, in the order they became idle.
+ * Accessing an entry takes it off the queue if it was queued for being idle, but not if the store evicted it. Entries
+ * still queued when the cache stops are passivated by the stopping thread.
+ *
  * @author Paul Ferraro
  *
  */
@@ -65,10 +85,51 @@ public class PassivatingBackingCacheImpl<K extends Serializable, V extends Cache
     private final ReplicationPassivationManager<K, E> passivationManager;
     private final BackingCacheEntryStore<K, V, E> store;
 
+    // The largest number of entries passivated with a single store operation
+    private static final int PASSIVATION_BATCH_SIZE = 64;
+    // The interval between two sweeps for idle and expired entries, in milliseconds
+    private static final long SWEEP_INTERVAL = 100;
+
     private final ThreadFactory threadFactory;
     private volatile ScheduledExecutorService executor;
-    private final Map<K, Future<?>> expirationFutures = new ConcurrentHashMap<K, Future<?>>();
-    private final Map<K, Future<?>> passivationFutures = new ConcurrentHashMap<K, Future<?>>();
+    private volatile Future<?> sweeper;
+
+    private final PassivationMetrics passivationMetrics = new PassivationMetrics();
+    private final Queue<QueuedPassivation<K>> passivationQueue = new ConcurrentLinkedQueue<QueuedPassivation<K>>();
+    /**
+     * The pending passivation of each queued key. Queue elements no longer mapped here were cancelled or superseded
+     */
+    private final ConcurrentMap<K, QueuedPassivation<K>> queuedPassivations = new ConcurrentHashMap<K, QueuedPassivation<K>>();
+    private final AtomicBoolean passivationScheduled = new AtomicBoolean();
+    private final Lock drainLock = new ReentrantLock();
+
+    /**
+     * The entries not in use, indexed by the time they were released for passivation and expiration respectively
+     */
+    private final ConcurrentMap<K, IdleEntry<K>> idleEntries = new ConcurrentHashMap<K, IdleEntry<K>>();
+    private final SortedSet<IdleEntry<K>> passivationIndex = new ConcurrentSkipListSet<IdleEntry<K>>();
+    private final SortedSet<IdleEntry<K>> expirationIndex = new ConcurrentSkipListSet<IdleEntry<K>>();
+    private final AtomicLong idleSequence = new AtomicLong();
+
+    private final Runnable passivationTask = new Runnable() {
+        @Override
+        public void run() {
+            passivationScheduled.set(false);
+            drainPassivationQueue();
+        }
+    };
+
+    private final Runnable sweepTask = new Runnable() {
+        @Override
+        public void run() {
+            try {
+                sweep();
+            } catch (RuntimeException e) {
+                // an exception would cancel all further sweeps
+                log.warn(e.getMessage(), e);
+            }
+        }
+    };
 
     public PassivatingBackingCacheImpl(StatefulObjectFactory<V> factory, BackingCacheEntryFactory<K, V, E> entryFactory, ReplicationPassivationManager<K, E> passivationManager, BackingCacheEntryStore<K, V, E> store) {
         this(factory, entryFactory, passivationManager, store, null, null);
@@ -120,9 +181,16 @@ public class PassivatingBackingCacheImpl<K extends Serializable, V extends Cache
     public E create() {
         E obj = entryFactory.createEntry(factory.createInstance());
         final Set<K> toPassivate = store.insert(obj);
+        final long evicted = System.nanoTime();
+        if (this.executor != null) {
+            for (K i : toPassivate) {
+                this.queuePassivation(i, evicted, true);
+            }
+            return obj;
+        }
         for(K i : toPassivate) {
             try {
-                passivate(i);
+                passivate(i, evicted);
             } catch (Exception e) {
                 EjbLogger.EJB3_LOGGER.debug("passivation failed", e);
             }
@@ -154,7 +222,7 @@ public class PassivatingBackingCacheImpl<K extends Serializable, V extends Cache
                     entry.setPrePassivated(false);
 
                     entry.increaseUsageCount();
-                    this.cancelExpirationPassivation(key);
+                    this.cancelIdlePassivation(key);
                     return entry;
                 }
                 // else discard and reacquire
@@ -168,6 +236,15 @@ public class PassivatingBackingCacheImpl<K extends Serializable, V extends Cache
 
     @Override
     public void passivate(K key) {
+        this.passivate(key, System.nanoTime());
+    }
+
+    /**
+     * Passivates an entry on the calling thread.
+     *
+     * @param chosenNanos the {@link System#nanoTime()} at which the entry was chosen for passivation
+     */
+    private void passivate(K key, long chosenNanos) {
         this.trace("passivate(%s)", key);
 
         E entry = store.get(key, false);
@@ -193,6 +270,7 @@ public class PassivatingBackingCacheImpl<K extends Serializable, V extends Cache
             entry.invalidate();
 
             store.passivate(entry);
+            this.passivationMetrics.passivated(new long[] { chosenNanos }, 1);
         } finally {
             entry.unlock();
         }
@@ -226,7 +304,7 @@ public class PassivatingBackingCacheImpl<K extends Serializable, V extends Cache
 
             store.update(entry, modified);
             if (!entry.isInUse()) {
-                this.scheduleExpirationPassivation(key);
+                this.markIdle(key);
             }
             return entry;
         } finally {
@@ -243,7 +321,8 @@ public class PassivatingBackingCacheImpl<K extends Serializable, V extends Cache
     public void remove(K key) {
         this.trace("remove(%s)", key);
 
-        this.cancelExpirationPassivation(key);
+        this.cancelIdlePassivation(key);
+        this.queuedPassivations.remove(key);
 
         E entry = store.remove(key);
 
@@ -262,37 +341,182 @@ public class PassivatingBackingCacheImpl<K extends Serializable, V extends Cache
         }
     }
 
-    private void cancelExpirationPassivation(K id) {
+    /**
+     * Forgets that an entry is idle, and cancels its passivation if it was queued for being idle. A passivation queued
+     * because the store evicted the entry is kept.
+     */
+    private void cancelIdlePassivation(K id) {
         if (this.executor != null) {
-            if (this.store.getTimeout() != null) {
-                this.cancel(this.expirationFutures, id);
+            IdleEntry<K> entry = this.idleEntries.remove(id);
+            if (entry != null) {
+                this.passivationIndex.remove(entry);
+                this.expirationIndex.remove(entry);
+            }
+            QueuedPassivation<K> queued = this.queuedPassivations.get(id);
+            if (queued != null && !queued.evicted) {
+                this.queuedPassivations.remove(id, queued);
             }
-            this.cancel(this.passivationFutures, id);
-        }
-    }
-
-    private void cancel(Map<K, Future<?>> futures, K id) {
-        Future<?> future = futures.remove(id);
-        if (future != null) {
-            future.cancel(false);
         }
     }
 
-    private void scheduleExpirationPassivation(K id) {
+    private void markIdle(K id) {
         if (this.executor != null) {
+            IdleEntry<K> entry = new IdleEntry<K>(id, System.currentTimeMillis(), this.idleSequence.incrementAndGet());
+            IdleEntry<K> previous = this.idleEntries.put(id, entry);
+            if (previous != null) {
+                this.passivationIndex.remove(previous);
+                this.expirationIndex.remove(previous);
+            }
+            this.passivationIndex.add(entry);
             StatefulTimeoutInfo timeout = this.store.getTimeout();
             if (timeout != null && timeout.getValue() != -1) {
-                this.schedule(this.expirationFutures, id, this.removeTaskFactory, timeout.getValue(), timeout.getTimeUnit());
+                this.expirationIndex.add(entry);
+            }
+        }
+    }
+
+    /**
+     * Removes the expired entries and queues the entries idle for longer than the idle timeout for passivation. Entries
+     * whose state changed since they were indexed are skipped.
+     */
+    private void sweep() {
+        final long now = System.currentTimeMillis();
+        StatefulTimeoutInfo timeout = this.store.getTimeout();
+        if (timeout != null && timeout.getValue() != -1) {
+            final long idleSince = now - timeout.getTimeUnit().toMillis(timeout.getValue());
+            Iterator<IdleEntry<K>> entries = this.expirationIndex.iterator();
+            while (entries.hasNext()) {
+                IdleEntry<K> entry = entries.next();
+                if (entry.since > idleSince) {
+                    break;
+                }
+                entries.remove();
+                if (this.idleEntries.remove(entry.key, entry)) {
+                    this.passivationIndex.remove(entry);
+                    new RemoveTask<K>(this, entry.key).run();
+                }
+            }
+        }
+        BackingCacheEntryStoreConfig config = this.store.getConfig();
+        final long idleSince = now - config.getIdleTimeoutUnit().toMillis(config.getIdleTimeout());
+        Iterator<IdleEntry<K>> entries = this.passivationIndex.iterator();
+        while (entries.hasNext()) {
+            IdleEntry<K> entry = entries.next();
+            if (entry.since > idleSince) {
+                break;
+            }
+            entries.remove();
+            if (this.idleEntries.get(entry.key) == entry) {
+                this.queuePassivation(entry.key, System.nanoTime(), false);
+            }
+        }
+    }
+
+    /**
+     * Queues an entry for passivation, unless it already is. An eviction supersedes a queued idle passivation of the
+     * same entry, so that accessing the entry no longer cancels it.
+     *
+     * @param nanos   the {@link System#nanoTime()} at which the entry was chosen for passivation
+     * @param evicted whether the store evicted the entry, rather than it having been idle for too long
+     */
+    private void queuePassivation(K id, long nanos, boolean evicted) {
+        final QueuedPassivation<K> passivation = new QueuedPassivation<K>(id, nanos, evicted);
+        QueuedPassivation<K> existing = this.queuedPassivations.putIfAbsent(id, passivation);
+        while (existing != null) {
+            if (existing.evicted || !evicted) {
+                return;
+            }
+            if (this.queuedPassivations.replace(id, existing, passivation)) {
+                break;
+            }
+            existing = this.queuedPassivations.putIfAbsent(id, passivation);
+        }
+        this.passivationQueue.offer(passivation);
+        this.passivationMetrics.queued();
+        if (this.passivationScheduled.compareAndSet(false, true)) {
+            try {
+                this.executor.execute(this.passivationTask);
+            } catch (RejectedExecutionException e) {
+                // stopping, the queue is drained by stop()
+                this.passivationScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Passivates the queued entries in batches. Entries count as queued until their batch is written.
+     */
+    private void drainPassivationQueue() {
+        this.drainLock.lock();
+        try {
+            List<QueuedPassivation<K>> batch = new ArrayList<QueuedPassivation<K>>(PASSIVATION_BATCH_SIZE);
+            QueuedPassivation<K> queued;
+            while (!Thread.currentThread().isInterrupted() && (queued = this.passivationQueue.poll()) != null) {
+                // a passivation no longer mapped was cancelled or superseded since
+                if (this.queuedPassivations.remove(queued.key, queued)) {
+                    batch.add(queued);
+                    if (batch.size() == PASSIVATION_BATCH_SIZE) {
+                        this.passivateBatch(batch);
+                        batch.clear();
+                    }
+                } else {
+                    this.passivationMetrics.dequeued();
+                }
             }
-            BackingCacheEntryStoreConfig config = this.store.getConfig();
-            this.schedule(this.passivationFutures, id, this.passivateTaskFactory, config.getIdleTimeout(), config.getIdleTimeoutUnit());
+            if (!batch.isEmpty()) {
+                this.passivateBatch(batch);
+            }
+        } finally {
+            this.drainLock.unlock();
         }
     }
 
-    private void schedule(Map<K, Future<?>> futures, K id, TaskFactory<K> factory, long time, TimeUnit unit) {
-        Future<?> future = futures.put(id, this.executor.schedule(factory.createTask(id), time, unit));
-        if (future != null) {
-            future.cancel(false);
+    /**
+     * Passivates the entries of the batch which are not in use with a single store operation. Entries which are
+     * locked or in use are skipped, like in {@link #passivate(Serializable)}.
+     */
+    private void passivateBatch(List<QueuedPassivation<K>> batch) {
+        final List<E> entries = new ArrayList<E>(batch.size());
+        final long[] queuedNanos = new long[batch.size()];
+        try {
+            for (QueuedPassivation<K> queued : batch) {
+                E entry = store.get(queued.key, false);
+                // We just *try* to lock; a passivation is low priority.
+                if (entry == null || !entry.tryLock()) {
+                    continue;
+                }
+                boolean prePassivated = false;
+                try {
+                    if (!entry.isInUse()) {
+                        passivationManager.prePassivate(entry);
+                        entry.setPrePassivated(true);
+                        entry.invalidate();
+                        prePassivated = true;
+                    }
+                } catch (RuntimeException e) {
+                    EjbLogger.EJB3_LOGGER.debug("passivation failed", e);
+                } finally {
+                    if (prePassivated) {
+                        queuedNanos[entries.size()] = queued.nanos;
+                        entries.add(entry);
+                    } else {
+                        entry.unlock();
+                    }
+                }
+            }
+            if (!entries.isEmpty()) {
+                store.passivateAll(entries);
+                this.passivationMetrics.passivated(queuedNanos, entries.size());
+            }
+        } catch (RuntimeException e) {
+            EjbLogger.EJB3_LOGGER.failToPassivateBatch(entries.size(), e);
+        } finally {
+            for (E entry : entries) {
+                entry.unlock();
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                this.passivationMetrics.dequeued();
+            }
         }
     }
 
@@ -304,6 +528,9 @@ public class PassivatingBackingCacheImpl<K extends Serializable, V extends Cache
             if (this.threadFactory != null) {
                 this.executor = Executors.newSingleThreadScheduledExecutor(this.threadFactory);
             }
+            if (this.executor != null) {
+                this.sweeper = this.executor.scheduleWithFixedDelay(this.sweepTask, SWEEP_INTERVAL, SWEEP_INTERVAL, TimeUnit.MILLISECONDS);
+            }
             notifyLifecycleListeners(LifecycleState.STARTED);
         } catch (RuntimeException e) {
             notifyLifecycleListeners(LifecycleState.FAILED);
@@ -315,9 +542,20 @@ public class PassivatingBackingCacheImpl<K extends Serializable, V extends Cache
     public void stop() {
         notifyLifecycleListeners(LifecycleState.STOPPING);
         try {
+            if (this.sweeper != null) {
+                this.sweeper.cancel(false);
+            }
             if (this.threadFactory != null) {
-                this.executor.shutdownNow();
+                // let a running batch complete, the rest of the queue is passivated below
+                this.executor.shutdown();
             }
+            if (this.executor != null) {
+                // waits for a batch in progress on the executor
+                this.drainPassivationQueue();
+            }
+            this.idleEntries.clear();
+            this.passivationIndex.clear();
+            this.expirationIndex.clear();
             store.stop();
             notifyLifecycleListeners(LifecycleState.STOPPED);
         } catch (RuntimeException e) {
@@ -331,23 +569,45 @@ public class PassivatingBackingCacheImpl<K extends Serializable, V extends Cache
         return store;
     }
 
-    interface TaskFactory<K> {
-        Runnable createTask(K id);
+    @Override
+    public PassivationMetrics getPassivationMetrics() {
+        return this.passivationMetrics;
+    }
+
+    private static class QueuedPassivation<K> {
+        final K key;
+        final long nanos;
+        final boolean evicted;
+
+        QueuedPassivation(K key, long nanos, boolean evicted) {
+            this.key = key;
+            this.nanos = nanos;
+            this.evicted = evicted;
+        }
     }
 
-    private TaskFactory<K> removeTaskFactory = new TaskFactory<K>() {
-        @Override
-        public Runnable createTask(K id) {
-            return new RemoveTask<K>(PassivatingBackingCacheImpl.this, id);
+    /**
+     * An entry not in use, ordered by the time it was released
+     */
+    private static class IdleEntry<K> implements Comparable<IdleEntry<K>> {
+        final K key;
+        final long since;
+        final long sequence;
+
+        IdleEntry(K key, long since, long sequence) {
+            this.key = key;
+            this.since = since;
+            this.sequence = sequence;
         }
-    };
 
-    private TaskFactory<K> passivateTaskFactory = new TaskFactory<K>() {
         @Override
-        public Runnable createTask(K id) {
-            return new PassivateTask<K>(PassivatingBackingCacheImpl.this, id);
+        public int compareTo(IdleEntry<K> entry) {
+            if (this.since != entry.since) {
+                return this.since < entry.since ? -1 : 1;
+            }
+            return this.sequence < entry.sequence ? -1 : (this.sequence == entry.sequence ? 0 : 1);
         }
-    };
+    }
 
     private void trace(String pattern, Object... args) {
         if (log.isTraceEnabled()) {
@@ -23,6 +23,7 @@
 package org.jboss.as.ejb3.cache.impl.backing;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Set;
 
 import org.jboss.as.ejb3.EjbMessages;
@@ -299,6 +300,11 @@ public class SerializationGroupMemberContainer<K extends Serializable, V extends
         store.passivate(entry);
     }
 
+    @Override
+    public void passivateAll(Collection<SerializationGroupMember<K, V, G>> entries) {
+        store.passivateAll(entries);
+    }
+
     @Override
     public Set<K> insert(SerializationGroupMember<K, V, G> entry) {
         return store.insert(entry);
@@ -23,6 +23,7 @@
 package org.jboss.as.ejb3.cache.spi;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Set;
 
 import org.jboss.as.ejb3.cache.AffinitySupport;
@@ -91,6 +92,14 @@ public interface BackingCacheEntryStore<K extends Serializable, V extends Cachea
      */
     void passivate(E entry);
 
+    /**
+     * Remove the given entries from any in-memory store while retaining them in the persistent store, as a single bulk
+     * operation where the store supports it.
+     *
+     * @param entries the entries to passivate
+     */
+    void passivateAll(Collection<E> entries);
+
     /**
      * Gets whether this store supports clustering functionality.
      *
@@ -24,6 +24,7 @@ package org.jboss.as.ejb3.cache.spi;
 import java.io.Serializable;
 
 import org.jboss.as.ejb3.cache.Cacheable;
+import org.jboss.as.ejb3.cache.PassivationMetrics;
 
 /**
  * A {@link BackingCache} which passivates unused objects.
@@ -45,4 +46,11 @@ public interface PassivatingBackingCache<K extends Serializable, V extends Cache
      * @return the checker, or <code>null</code> if this cache is not using one.
      */
     GroupCompatibilityChecker getCompatibilityChecker();
+
+    /**
+     * Gets the passivation statistics of this cache.
+     *
+     * @return the statistics
+     */
+    PassivationMetrics getPassivationMetrics();
 }
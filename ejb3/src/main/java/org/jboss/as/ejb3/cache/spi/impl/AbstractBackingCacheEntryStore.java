@@ -23,6 +23,7 @@
 package org.jboss.as.ejb3.cache.spi.impl;
 
 import java.io.Serializable;
+import java.util.Collection;
 
 import org.jboss.as.ejb3.cache.Cacheable;
 import org.jboss.as.ejb3.cache.spi.BackingCacheEntry;
@@ -43,6 +44,13 @@ public abstract class AbstractBackingCacheEntryStore<K extends Serializable, V e
         this.config = config;
     }
 
+    @Override
+    public void passivateAll(Collection<E> entries) {
+        for (E entry : entries) {
+            this.passivate(entry);
+        }
+    }
+
     @Override
     public BackingCacheEntryStoreConfig getConfig() {
         return this.config;
@@ -28,8 +28,10 @@ import javax.ejb.NoSuchEJBException;
 
 import org.jboss.as.ejb3.cache.Cache;
 import org.jboss.as.ejb3.cache.Cacheable;
+import org.jboss.as.ejb3.cache.PassivationMetrics;
 import org.jboss.as.ejb3.cache.spi.BackingCache;
 import org.jboss.as.ejb3.cache.spi.BackingCacheEntry;
+import org.jboss.as.ejb3.cache.spi.PassivatingBackingCache;
 import org.jboss.ejb.client.Affinity;
 
 /**
@@ -118,6 +120,14 @@ public abstract class AbstractCache<K extends Serializable, V extends Cacheable<
         this.backingCache.stop();
     }
 
+    @Override
+    public PassivationMetrics getPassivationMetrics() {
+        if (this.backingCache instanceof PassivatingBackingCache) {
+            return ((PassivatingBackingCache<?, ?, ?>) this.backingCache).getPassivationMetrics();
+        }
+        return null;
+    }
+
     @Override
     public Affinity getStrictAffinity() {
         return this.backingCache.getStrictAffinity();
@@ -35,6 +35,7 @@ import org.jboss.as.ee.component.BasicComponentInstance;
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.component.allowedmethods.AllowedMethodsInformation;
+import org.jboss.as.ejb3.component.entity.entitycache.ConcurrentReferenceCountingEntityCache;
 import org.jboss.as.ejb3.component.entity.entitycache.ReadyEntityCache;
 import org.jboss.as.ejb3.component.entity.entitycache.ReferenceCountingEntityCache;
 import org.jboss.as.ejb3.component.entity.entitycache.TransactionLocalEntityCache;
@@ -161,6 +162,9 @@ public class EntityBeanComponent extends EJBComponent implements PooledComponent
 
     protected ReadyEntityCache createEntityCache(EntityBeanComponentCreateService ejbComponentCreateService) {
         if (optimisticLocking == null || !optimisticLocking) {
+            if (ejbComponentCreateService.isConcurrentCache()) {
+                return new ConcurrentReferenceCountingEntityCache(this);
+            }
             return new ReferenceCountingEntityCache(this);
         } else {
             return new TransactionLocalEntityCache(this);
@@ -68,6 +68,7 @@ public class EntityBeanComponentCreateService extends EJBComponentCreateService
     private final InterceptorFactory unsetEntityContext;
     private final InjectedValue<PoolConfig> poolConfig = new InjectedValue<PoolConfig>();
     private final InjectedValue<Boolean> defaultOptimisticLocking = new InjectedValue<Boolean>();
+    private final boolean concurrentCache;
 
     public EntityBeanComponentCreateService(final ComponentConfiguration componentConfiguration, final ApplicationExceptions ejbJarConfiguration) {
         super(componentConfiguration, ejbJarConfiguration);
@@ -81,6 +82,7 @@ public class EntityBeanComponentCreateService extends EJBComponentCreateService
         localClass = (Class<EJBLocalObject>) load(classLoader, beanMetaData.getLocal());
         remoteClass = (Class<EJBObject>) load(classLoader, beanMetaData.getRemote());
         primaryKeyClass = (Class<Object>) load(classLoader, beanMetaData.getPrimKeyClass());
+        concurrentCache = description.isConcurrentCache();
 
         final InterceptorFactory tcclInterceptorFactory = new ImmediateInterceptorFactory(new TCCLInterceptor(componentConfiguration.getModuleClassLoader()));
         final InterceptorFactory namespaceContextInterceptorFactory = componentConfiguration.getNamespaceContextInterceptorFactory();
@@ -232,4 +234,8 @@ public class EntityBeanComponentCreateService extends EJBComponentCreateService
     public InjectedValue<Boolean> getOptimisticLockingInjector() {
         return defaultOptimisticLocking;
     }
+
+    public boolean isConcurrentCache() {
+        return concurrentCache;
+    }
 }
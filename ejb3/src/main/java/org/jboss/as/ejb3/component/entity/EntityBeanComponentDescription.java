@@ -72,6 +72,7 @@ public class EntityBeanComponentDescription extends EJBComponentDescription {
     private boolean reentrant;
     private String primaryKeyType;
     private String poolConfigName;
+    private boolean concurrentCache;
 
     public EntityBeanComponentDescription(final String componentName, final String componentClassName, final EjbJarDescription ejbJarDescription, final ServiceName deploymentUnitServiceName, final EntityBeanMetaData descriptorData) {
         super(componentName, componentClassName, ejbJarDescription, deploymentUnitServiceName, descriptorData);
@@ -253,6 +254,18 @@ public class EntityBeanComponentDescription extends EJBComponentDescription {
         this.poolConfigName = poolConfigName;
     }
 
+    /**
+     * @return true if the entity bean uses a {@link org.jboss.as.ejb3.component.entity.entitycache.ConcurrentReferenceCountingEntityCache}
+     *         when optimistic locking is disabled
+     */
+    public boolean isConcurrentCache() {
+        return concurrentCache;
+    }
+
+    public void setConcurrentCache(final boolean concurrentCache) {
+        this.concurrentCache = concurrentCache;
+    }
+
     private class ConfigInjectingConfigurator implements DependencyConfigurator<Service<Component>> {
 
         private final EntityBeanComponentDescription entityComponentDescription;
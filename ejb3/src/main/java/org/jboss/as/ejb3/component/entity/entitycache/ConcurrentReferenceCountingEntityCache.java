@@ -0,0 +1,233 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.entity.entitycache;
+
+import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.ejb.NoSuchEntityException;
+
+import org.jboss.as.ejb3.component.entity.EntityBeanComponent;
+import org.jboss.as.ejb3.component.entity.EntityBeanComponentInstance;
+
+/**
+ * A {@link ReferenceCountingEntityCache} which locks each cache entry on its own rather than the whole cache, so that
+ * only callers working on the same primary key wait for each other.
+ * <p/>
+ * An entry is published in the map before its instance is associated, with its lock held by the associating thread.
+ * Once the last reference to an entry is released it is marked as dead and removed from the map, callers still
+ * holding on to it start over with a new entry.
+ */
+public class ConcurrentReferenceCountingEntityCache implements ReadyEntityCache {
+    private final ConcurrentMap<Object, CacheEntry> cache = new ConcurrentHashMap<Object, CacheEntry>();
+    private final EntityBeanComponent component;
+
+    public ConcurrentReferenceCountingEntityCache(final EntityBeanComponent component) {
+        this.component = component;
+    }
+
+    public void create(final EntityBeanComponentInstance instance) {
+        // the new entry is referenced before it is published
+        final CacheEntry cacheEntry = new CacheEntry(instance);
+        cacheEntry.referenceCount = 1;
+        for (;;) {
+            final CacheEntry existing = cache.putIfAbsent(instance.getPrimaryKey(), cacheEntry);
+            if (existing == null) {
+                return;
+            }
+            synchronized (existing) {
+                if (existing.dead) {
+                    continue;
+                }
+                if (existing.instance.isRemoved()) {
+                    //this happens in an instance is removed and then re-added in the space of the same transaction
+                    existing.replacedInstance = instance;
+                } else {
+                    throw MESSAGES.instanceAlreadyRegisteredForPK(instance.getPrimaryKey());
+                }
+            }
+            return;
+        }
+    }
+
+    public boolean containsNotRemoved(final Object key) {
+        final CacheEntry cacheEntry = cache.get(key);
+        if (cacheEntry == null) {
+            return false;
+        }
+        synchronized (cacheEntry) {
+            if (cacheEntry.dead) {
+                return false;
+            }
+            if (cacheEntry.replacedInstance != null) {
+                return !cacheEntry.replacedInstance.isRemoved();
+            } else {
+                return !cacheEntry.instance.isRemoved();
+            }
+        }
+    }
+
+    public EntityBeanComponentInstance get(final Object key) throws NoSuchEntityException {
+        for (;;) {
+            CacheEntry cacheEntry = cache.get(key);
+            if (cacheEntry == null) {
+                final CacheEntry newEntry = new CacheEntry(null);
+                synchronized (newEntry) {
+                    cacheEntry = cache.putIfAbsent(key, newEntry);
+                    if (cacheEntry == null) {
+                        // concurrent callers for the same key wait on the entry until it is associated
+                        try {
+                            newEntry.instance = createInstance(key);
+                        } catch (RuntimeException e) {
+                            newEntry.dead = true;
+                            cache.remove(key, newEntry);
+                            throw e;
+                        } catch (Error e) {
+                            newEntry.dead = true;
+                            cache.remove(key, newEntry);
+                            throw e;
+                        }
+                        newEntry.referenceCount++;
+                        return newEntry.instance;
+                    }
+                }
+            }
+            synchronized (cacheEntry) {
+                if (cacheEntry.dead) {
+                    continue;
+                }
+                cacheEntry.referenceCount++;
+                if (cacheEntry.replacedInstance != null) {
+                    return cacheEntry.replacedInstance;
+                } else {
+                    return cacheEntry.instance;
+                }
+            }
+        }
+    }
+
+    public void release(final EntityBeanComponentInstance instance, boolean success) {
+        if (instance.isDiscarded()) {
+            return;
+        }
+        final Object pk = instance.getPrimaryKey();
+        if (pk == null) {
+            //instance has already been passivated
+            return;
+        }
+        final CacheEntry cacheEntry = cache.get(pk);
+        if (cacheEntry == null) {
+            throw MESSAGES.entityBeanInstanceNotFoundInCache(instance);
+        }
+        synchronized (cacheEntry) {
+            if (cacheEntry.dead) {
+                throw MESSAGES.entityBeanInstanceNotFoundInCache(instance);
+            }
+            if (cacheEntry.replacedInstance != null) {
+                //this can happen if an entity is removed and a new entity with the same PK is added in a transactions
+                if (instance == cacheEntry.replacedInstance) {
+                    if (success) {
+                        cacheEntry.instance = cacheEntry.replacedInstance;
+                    } else if (cacheEntry.instance.isDiscarded()) {
+                        //if the TX was a failure, and the previous instance has been discarded
+                        //we just remove the entry and return
+                        remove(pk, cacheEntry);
+                        return;
+                    }
+                    cacheEntry.replacedInstance = null;
+                }
+            }
+            //roll back unsuccessful removal
+            if (!success && instance.isRemoved()) {
+                instance.setRemoved(false);
+            }
+            if (--cacheEntry.referenceCount == 0) {
+                try {
+                    instance.passivate();
+                    component.releaseEntityBeanInstance(instance);
+                } finally {
+                    remove(pk, cacheEntry);
+                }
+            }
+        }
+    }
+
+    public void discard(final EntityBeanComponentInstance instance) {
+        final Object pk = instance.getPrimaryKey();
+        if (pk == null) {
+            //instance has already been passivated
+            return;
+        }
+        final CacheEntry entry = cache.get(pk);
+        if (entry != null) {
+            synchronized (entry) {
+                if (instance == entry.replacedInstance) {
+                    //this instance that is being discarded is the new instance
+                    //we can just set it to null
+                    entry.replacedInstance = null;
+                } else if (entry.replacedInstance == null) {
+                    //if there is a new instance we cannot discard the entry entirely
+                    remove(pk, entry);
+                }
+            }
+        }
+    }
+
+    public void start() {
+    }
+
+    public void stop() {
+    }
+
+    /**
+     * Removes the entry from the cache, must be called with the lock on the entry held.
+     */
+    private void remove(final Object pk, final CacheEntry cacheEntry) {
+        cacheEntry.dead = true;
+        cache.remove(pk, cacheEntry);
+    }
+
+    private EntityBeanComponentInstance createInstance(final Object pk) {
+        final EntityBeanComponentInstance instance = component.acquireUnAssociatedInstance();
+        instance.associate(pk);
+        return instance;
+    }
+
+    /**
+     * A cache entry, guarded by its own monitor
+     */
+    private static class CacheEntry {
+        private int referenceCount;
+        private EntityBeanComponentInstance instance;
+        private EntityBeanComponentInstance replacedInstance;
+        /**
+         * True once the entry has been removed from the cache
+         */
+        private boolean dead;
+
+        private CacheEntry(EntityBeanComponentInstance instance) {
+            this.instance = instance;
+        }
+    }
+}
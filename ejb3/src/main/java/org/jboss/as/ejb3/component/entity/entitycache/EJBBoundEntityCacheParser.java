@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.entity.entitycache;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jboss.metadata.ejb.parser.jboss.ejb3.AbstractEJBBoundMetaDataParser;
+import org.jboss.metadata.property.PropertyReplacer;
+
+/**
+ * Parser for <code>urn:ejb-entity-cache</code> namespace. The <code>urn:ejb-entity-cache</code> namespace elements
+ * can be used to select the {@link ReadyEntityCache} of entity beans without optimistic locking.
+ */
+public class EJBBoundEntityCacheParser extends AbstractEJBBoundMetaDataParser<EJBBoundEntityCacheMetaData> {
+
+    public static final String NAMESPACE_URI = "urn:ejb-entity-cache:1.0";
+
+    private static final String ROOT_ELEMENT_ENTITY_CACHE = "entity-cache";
+    private static final String CONCURRENT = "concurrent";
+
+    @Override
+    public EJBBoundEntityCacheMetaData parse(final XMLStreamReader reader, final PropertyReplacer propertyReplacer) throws XMLStreamException {
+        final String element = reader.getLocalName();
+        // we only parse <entity-cache> (root) element
+        if (!ROOT_ELEMENT_ENTITY_CACHE.equals(element)) {
+            throw unexpectedElement(reader);
+        }
+        final EJBBoundEntityCacheMetaData entityCacheMetaData = new EJBBoundEntityCacheMetaData();
+        this.processElements(entityCacheMetaData, reader, propertyReplacer);
+        return entityCacheMetaData;
+    }
+
+    @Override
+    protected void processElement(final EJBBoundEntityCacheMetaData entityCacheMetaData, final XMLStreamReader reader, final PropertyReplacer propertyReplacer) throws XMLStreamException {
+        final String namespaceURI = reader.getNamespaceURI();
+        final String elementName = reader.getLocalName();
+        // if it doesn't belong to our namespace then let the super handle this
+        if (!NAMESPACE_URI.equals(namespaceURI)) {
+            super.processElement(entityCacheMetaData, reader, propertyReplacer);
+            return;
+        }
+        if (CONCURRENT.equals(elementName)) {
+            entityCacheMetaData.setConcurrent(Boolean.parseBoolean(getElementText(reader, propertyReplacer).trim()));
+        } else {
+            throw unexpectedElement(reader);
+        }
+    }
+}
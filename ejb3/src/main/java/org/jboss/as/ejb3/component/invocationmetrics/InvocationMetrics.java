@@ -21,36 +21,117 @@
  */
 package org.jboss.as.ejb3.component.invocationmetrics;
 
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
+ * Invocation statistics of an EJB component.
+ * <p/>
+ * Totals are kept in per-thread stripes so that finishing an invocation does not contend on a single field; they are
+ * only summed up when read. Wait and execution times are additionally recorded in {@link LatencyHistogram}s, which are
+ * striped the same way, for the component as a whole and for every invoked view method.
+ *
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
  */
 public class InvocationMetrics {
-    private static class Values {
-        final long invocations;
-        final long executionTime;
-        final long waitTime;
-
-        private Values(final long invocations, final long waitTime, final long executionTime) {
-            this.invocations = invocations;
-            this.executionTime = executionTime;
-            this.waitTime = waitTime;
+    /**
+     * Striped invocation count, wait time and execution time (both in nanoseconds) plus latency histograms.
+     */
+    public static class Values {
+        private static final int INVOCATIONS = 0;
+        private static final int WAIT_TIME = 1;
+        private static final int EXECUTION_TIME = 2;
+        // 16 longs keep two stripes from sharing a cache line
+        private static final int STRIPE_WIDTH = 16;
+
+        private final AtomicLongArray counters = new AtomicLongArray(Stripes.COUNT * STRIPE_WIDTH);
+        private final LatencyHistogram waitTimes = new LatencyHistogram();
+        private final LatencyHistogram executionTimes = new LatencyHistogram();
+
+        public void record(final long waitNanos, final long executionNanos) {
+            final int base = Stripes.current() * STRIPE_WIDTH;
+            counters.incrementAndGet(base + INVOCATIONS);
+            counters.addAndGet(base + WAIT_TIME, waitNanos);
+            counters.addAndGet(base + EXECUTION_TIME, executionNanos);
+            waitTimes.record(TimeUnit.NANOSECONDS.toMicros(waitNanos));
+            executionTimes.record(TimeUnit.NANOSECONDS.toMicros(executionNanos));
+        }
+
+        private long sum(final int field) {
+            long sum = 0;
+            for (int i = 0; i < Stripes.COUNT; i++) {
+                sum += counters.get(i * STRIPE_WIDTH + field);
+            }
+            return sum;
+        }
+
+        public long getInvocations() {
+            return sum(INVOCATIONS);
+        }
+
+        /**
+         * @return the total wait time in milliseconds
+         */
+        public long getWaitTime() {
+            return TimeUnit.NANOSECONDS.toMillis(sum(WAIT_TIME));
+        }
+
+        /**
+         * @return the total execution time in milliseconds
+         */
+        public long getExecutionTime() {
+            return TimeUnit.NANOSECONDS.toMillis(sum(EXECUTION_TIME));
+        }
+
+        /**
+         * @param percentile the percentile, between 0 and 1
+         * @return the wait time percentile in microseconds
+         */
+        public long getWaitTimePercentile(final double percentile) {
+            return waitTimes.getPercentile(percentile);
+        }
+
+        /**
+         * @param percentile the percentile, between 0 and 1
+         * @return the execution time percentile in microseconds
+         */
+        public long getExecutionTimePercentile(final double percentile) {
+            return executionTimes.getPercentile(percentile);
+        }
+
+        void reset() {
+            for (int i = 0; i < counters.length(); i++) {
+                counters.set(i, 0);
+            }
+            waitTimes.reset();
+            executionTimes.reset();
         }
     }
 
-    private final AtomicReference<Values> values = new AtomicReference<Values>(new Values(0, 0, 0));
+    private final Values values = new Values();
+    private final ConcurrentMap<Method, Values> methods = new ConcurrentHashMap<Method, Values>();
     private final AtomicLong concurrent = new AtomicLong(0);
     private final AtomicLong peakConcurrent = new AtomicLong(0);
 
-    void finishInvocation(final long invocationWaitTime, final long invocationExecutionTime) {
+    void finishInvocation(final Method method, final long invocationWaitNanos, final long invocationExecutionNanos) {
         concurrent.decrementAndGet();
-        for(;;) {
-            final Values oldv = values.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (values.compareAndSet(oldv, newv))
-                return;
+        values.record(invocationWaitNanos, invocationExecutionNanos);
+        if (method != null) {
+            Values methodValues = methods.get(method);
+            if (methodValues == null) {
+                final Values newValues = new Values();
+                methodValues = methods.putIfAbsent(method, newValues);
+                if (methodValues == null) {
+                    methodValues = newValues;
+                }
+            }
+            methodValues.record(invocationWaitNanos, invocationExecutionNanos);
         }
     }
 
@@ -59,11 +140,11 @@ public class InvocationMetrics {
     }
 
     public long getExecutionTime() {
-        return values.get().executionTime;
+        return values.getExecutionTime();
     }
 
     public long getInvocations() {
-        return values.get().invocations;
+        return values.getInvocations();
     }
 
     public long getPeakConcurrent() {
@@ -71,7 +152,30 @@ public class InvocationMetrics {
     }
 
     public long getWaitTime() {
-        return values.get().waitTime;
+        return values.getWaitTime();
+    }
+
+    /**
+     * @return the statistics of the component as a whole
+     */
+    public Values getValues() {
+        return values;
+    }
+
+    /**
+     * @return the statistics of each view method invoked so far
+     */
+    public Map<Method, Values> getMethods() {
+        return Collections.unmodifiableMap(methods);
+    }
+
+    /**
+     * Clears all statistics, except for the number of invocations currently in progress.
+     */
+    public void reset() {
+        values.reset();
+        methods.clear();
+        peakConcurrent.set(concurrent.get());
     }
 
     void startInvocation() {
@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed size, log-linear histogram of latencies in microseconds.
+ * <p/>
+ * Values below 8us get a bucket each; above that every power of two is split into 8 linear sub-buckets, which
+ * bounds the relative error of a reported percentile to 12.5%. Values above 2^40us (about 12 days) are clamped.
+ * <p/>
+ * Counts are kept in per-thread stripes, each allocated on the first value recorded by a thread mapped to it, and are
+ * only summed up when a percentile is read. Recording is then a single atomic increment on the stripe of the calling
+ * thread.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<AtomicLongArray>(Stripes.COUNT);
+
+    /**
+     * Records a latency.
+     *
+     * @param micros the latency in microseconds
+     */
+    public void record(final long micros) {
+        stripe().incrementAndGet(bucketOf(micros));
+    }
+
+    private AtomicLongArray stripe() {
+        final int index = Stripes.current();
+        AtomicLongArray counts = stripes.get(index);
+        if (counts == null) {
+            counts = new AtomicLongArray(BUCKETS);
+            if (!stripes.compareAndSet(index, null, counts)) {
+                counts = stripes.get(index);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Returns an approximation of the given percentile.
+     *
+     * @param percentile the percentile, between 0 and 1 (e.g. 0.99)
+     * @return the latency in microseconds below which the given fraction of recorded values fall, or 0 if nothing has been recorded
+     */
+    public long getPercentile(final double percentile) {
+        final long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int stripe = 0; stripe < Stripes.COUNT; stripe++) {
+            final AtomicLongArray counts = stripes.get(stripe);
+            if (counts != null) {
+                for (int i = 0; i < BUCKETS; i++) {
+                    final long count = counts.get(i);
+                    snapshot[i] += count;
+                    total += count;
+                }
+            }
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return valueOf(i);
+            }
+        }
+        return valueOf(BUCKETS - 1);
+    }
+
+    public void reset() {
+        for (int stripe = 0; stripe < Stripes.COUNT; stripe++) {
+            final AtomicLongArray counts = stripes.get(stripe);
+            if (counts != null) {
+                for (int i = 0; i < BUCKETS; i++) {
+                    counts.set(i, 0);
+                }
+            }
+        }
+    }
+
+    static int bucketOf(final long micros) {
+        if (micros < SUB_BUCKETS) {
+            return micros < 0 ? 0 : (int) micros;
+        }
+        final long value = Math.min(micros, MAX_VALUE);
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @return the midpoint of the range of values covered by the given bucket
+     */
+    static long valueOf(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = bucket / SUB_BUCKETS - 1;
+        final long lower = ((long) (SUB_BUCKETS + bucket % SUB_BUCKETS)) << shift;
+        return lower + ((1L << shift) >>> 1);
+    }
+}
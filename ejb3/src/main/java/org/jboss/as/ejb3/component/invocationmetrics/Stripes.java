@@ -0,0 +1,53 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+/**
+ * Maps threads to stripes of the statistics they update, so that concurrent invocations rarely write to the same
+ * cache line.
+ */
+final class Stripes {
+    /**
+     * The number of stripes, a power of two.
+     */
+    static final int COUNT;
+
+    static {
+        int stripes = 1;
+        final int limit = Math.min(64, Runtime.getRuntime().availableProcessors() * 2);
+        while (stripes < limit) {
+            stripes <<= 1;
+        }
+        COUNT = stripes;
+    }
+
+    /**
+     * @return the stripe of the calling thread, between 0 and {@link #COUNT} - 1
+     */
+    static int current() {
+        final long id = Thread.currentThread().getId();
+        return (int) (id ^ (id >>> 16)) & (COUNT - 1);
+    }
+
+    private Stripes() {
+    }
+}
@@ -51,6 +51,7 @@ public abstract class SessionBeanComponentCreateService extends EJBComponentCrea
     private final Map<EJBBusinessMethod, LockType> methodApplicableLockTypes;
     private final Map<String, AccessTimeoutDetails> beanLevelAccessTimeout;
     private final Map<EJBBusinessMethod, AccessTimeoutDetails> methodApplicableAccessTimeouts;
+    private final Map<String, String> methodLockGroups;
 
     private final InjectedValue<ExecutorService> asyncExecutorService = new InjectedValue<ExecutorService>();
 
@@ -96,6 +97,13 @@ public abstract class SessionBeanComponentCreateService extends EJBComponentCrea
             this.methodApplicableAccessTimeouts = Collections.unmodifiableMap(accessTimeouts);
         }
 
+        final Map<String, String> lockGroups = sessionBeanComponentDescription.getMethodLockGroups();
+        if (lockGroups == null || lockGroups.isEmpty()) {
+            this.methodLockGroups = Collections.emptyMap();
+        } else {
+            this.methodLockGroups = Collections.unmodifiableMap(new HashMap<String, String>(lockGroups));
+        }
+
         if (sessionBeanComponentDescription.getScheduleMethods() != null) {
             for (Method method : sessionBeanComponentDescription.getScheduleMethods().keySet()) {
                 processTxAttr(sessionBeanComponentDescription, MethodIntf.TIMER, method);
@@ -124,6 +132,10 @@ public abstract class SessionBeanComponentCreateService extends EJBComponentCrea
         return this.beanLevelAccessTimeout;
     }
 
+    public Map<String, String> getMethodLockGroups() {
+        return this.methodLockGroups;
+    }
+
     private EJBBusinessMethod getEJBBusinessMethod(final MethodIdentifier method) {
         final ClassLoader classLoader = this.getComponentClass().getClassLoader();
         final String methodName = method.getName();
@@ -95,6 +95,11 @@ public abstract class SessionBeanComponentDescription extends EJBComponentDescri
      */
     private final Map<MethodIdentifier, AccessTimeoutDetails> methodAccessTimeouts = new HashMap<MethodIdentifier, AccessTimeoutDetails>();
 
+    /**
+     * The named lock group, keyed by method name, of bean methods which do not share the bean wide lock
+     */
+    private final Map<String, String> methodLockGroups = new HashMap<String, String>();
+
     /**
      * Methods on the component marked as @Asynchronous
      */
@@ -272,6 +277,21 @@ public abstract class SessionBeanComponentDescription extends EJBComponentDescri
         return this.methodAccessTimeouts;
     }
 
+    /**
+     * Assigns all bean methods with the given name to a named lock group. Methods of a lock group are guarded by a
+     * lock of their own, instead of the bean wide lock.
+     *
+     * @param methodName The method name
+     * @param lockGroup  The name of the lock group
+     */
+    public void setLockGroup(String methodName, String lockGroup) {
+        this.methodLockGroups.put(methodName, lockGroup);
+    }
+
+    public Map<String, String> getMethodLockGroups() {
+        return this.methodLockGroups;
+    }
+
     /**
      * Returns the concurrency management type for this bean.
      * <p/>
@@ -38,6 +38,7 @@ import org.jboss.as.ejb3.component.EJBBusinessMethod;
 import org.jboss.as.ejb3.component.allowedmethods.AllowedMethodsInformation;
 import org.jboss.as.ejb3.component.session.SessionBeanComponent;
 import org.jboss.as.ejb3.concurrency.AccessTimeoutDetails;
+import org.jboss.as.ejb3.concurrency.LockGroupMetrics;
 import org.jboss.as.ejb3.concurrency.LockableComponent;
 import org.jboss.as.naming.ManagedReference;
 import org.jboss.as.server.CurrentServiceContainer;
@@ -67,6 +68,10 @@ public class SingletonComponent extends SessionBeanComponent implements Lockable
 
     private final Map<EJBBusinessMethod, AccessTimeoutDetails> methodAccessTimeouts;
 
+    private final Map<String, String> methodLockGroups;
+
+    private final LockGroupMetrics lockGroupMetrics = new LockGroupMetrics();
+
     private final List<ServiceName> dependsOn;
 
     private final DefaultAccessTimeoutService defaultAccessTimeoutProvider;
@@ -92,6 +97,7 @@ public class SingletonComponent extends SessionBeanComponent implements Lockable
         this.beanLevelLockType = singletonComponentCreateService.getBeanLockType();
         this.methodLockTypes = singletonComponentCreateService.getMethodApplicableLockTypes();
         this.methodAccessTimeouts = singletonComponentCreateService.getMethodApplicableAccessTimeouts();
+        this.methodLockGroups = singletonComponentCreateService.getMethodLockGroups();
         this.defaultAccessTimeoutProvider = singletonComponentCreateService.getDefaultAccessTimeoutService();
     }
 
@@ -185,6 +191,16 @@ public class SingletonComponent extends SessionBeanComponent implements Lockable
         return defaultAccessTimeoutProvider.getDefaultAccessTimeout();
     }
 
+    @Override
+    public String getLockGroup(Method method) {
+        return this.methodLockGroups.get(method.getName());
+    }
+
+    @Override
+    public LockGroupMetrics getLockGroupMetrics() {
+        return this.lockGroupMetrics;
+    }
+
     private void destroySingletonInstance() {
         synchronized (creationLock) {
             if (this.singletonComponentInstance != null) {
@@ -29,6 +29,8 @@ import org.jboss.logging.Logger;
 import javax.ejb.LockType;
 import javax.interceptor.InvocationContext;
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -49,6 +51,11 @@ public class ContainerManagedConcurrencyInterceptor implements Interceptor {
      */
     private final ReadWriteLock readWriteLock = new EJBReadWriteLock();
 
+    /**
+     * The locks of the named lock groups, each guarding the methods of its group instead of {@link #readWriteLock}
+     */
+    private final ConcurrentMap<String, ReadWriteLock> lockGroups = new ConcurrentHashMap<String, ReadWriteLock>();
+
     private final LockableComponent lockableComponent;
 
     public ContainerManagedConcurrencyInterceptor(LockableComponent component) {
@@ -72,7 +79,8 @@ public class ContainerManagedConcurrencyInterceptor implements Interceptor {
             throw MESSAGES.invocationNotApplicableForMethodInvocation(invocationContext);
         }
         // get the Lock applicable for this method
-        Lock lock = getLock(lockableComponent, invokedMethod);
+        final String lockGroup = lockableComponent.getLockGroup(invokedMethod);
+        Lock lock = getLock(lockableComponent, invokedMethod, lockGroup);
         // the default access timeout (will be used in the absence of any explicit access timeout value for the invoked method)
         AccessTimeoutDetails defaultAccessTimeout = lockableComponent.getDefaultAccessTimeout();
         // set to the default values
@@ -94,20 +102,30 @@ public class ContainerManagedConcurrencyInterceptor implements Interceptor {
                 unit = accessTimeoutOnMethod.getTimeUnit();
             }
         }
+        final boolean statisticsEnabled = lockableComponent.isStatisticsEnabled();
+        final long start = statisticsEnabled ? System.nanoTime() : 0L;
         // try getting the lock
         boolean success = lock.tryLock(time, unit);
         if (!success) {
+            if (statisticsEnabled) {
+                lockableComponent.getLockGroupMetrics().recordTimeout(lockGroup);
+            }
             throw MESSAGES.concurrentAccessTimeoutException(invocationContext,time + unit.name());
         }
+        final long acquired = statisticsEnabled ? System.nanoTime() : 0L;
         try {
             // lock obtained. now proceed!
             return invocationContext.proceed();
         } finally {
             lock.unlock();
+            if (statisticsEnabled) {
+                lockableComponent.getLockGroupMetrics().record(lockGroup, acquired - start, System.nanoTime() - acquired);
+            }
         }
     }
 
-    private Lock getLock(LockableComponent lockableComponent, Method method) {
+    private Lock getLock(LockableComponent lockableComponent, Method method, String lockGroup) {
+        final ReadWriteLock readWriteLock = lockGroup == null ? this.readWriteLock : getLockGroup(lockGroup);
         LockType lockType = lockableComponent.getLockType(method);
         switch (lockType) {
             case READ:
@@ -118,4 +136,16 @@ public class ContainerManagedConcurrencyInterceptor implements Interceptor {
         throw MESSAGES.failToObtainLockIllegalType(lockType,method,lockableComponent);
     }
 
+    private ReadWriteLock getLockGroup(String lockGroup) {
+        ReadWriteLock lock = lockGroups.get(lockGroup);
+        if (lock == null) {
+            final ReadWriteLock newLock = new EJBReadWriteLock();
+            lock = lockGroups.putIfAbsent(lockGroup, newLock);
+            if (lock == null) {
+                lock = newLock;
+            }
+        }
+        return lock;
+    }
+
 }
@@ -0,0 +1,111 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.concurrency;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.ejb3.component.invocationmetrics.InvocationMetrics;
+
+/**
+ * Lock statistics of a {@link LockableComponent}, per lock group.
+ * <p/>
+ * For every lock group the number of acquisitions, the time spent waiting for the lock and the time the lock was held
+ * are recorded. They are exposed through {@link InvocationMetrics.Values}, where the wait time is the time spent
+ * waiting for the lock and the execution time is the time the lock was held. Attempts which timed out before the lock
+ * could be acquired are not acquisitions and are counted separately.
+ */
+public class LockGroupMetrics {
+
+    /**
+     * The name under which the bean wide lock, guarding all methods not assigned to a lock group, is reported
+     */
+    public static final String DEFAULT_LOCK_GROUP = "default";
+
+    private final ConcurrentMap<String, InvocationMetrics.Values> lockGroups = new ConcurrentHashMap<String, InvocationMetrics.Values>();
+    private final ConcurrentMap<String, AtomicLong> timeouts = new ConcurrentHashMap<String, AtomicLong>();
+
+    /**
+     * Records a single acquisition of a lock.
+     *
+     * @param lockGroup the lock group, or null for the bean wide lock
+     * @param waitNanos the time spent waiting for the lock, in nanoseconds
+     * @param holdNanos the time the lock was held, in nanoseconds
+     */
+    public void record(final String lockGroup, final long waitNanos, final long holdNanos) {
+        final String name = lockGroup == null ? DEFAULT_LOCK_GROUP : lockGroup;
+        InvocationMetrics.Values values = lockGroups.get(name);
+        if (values == null) {
+            final InvocationMetrics.Values newValues = new InvocationMetrics.Values();
+            values = lockGroups.putIfAbsent(name, newValues);
+            if (values == null) {
+                values = newValues;
+            }
+        }
+        values.record(waitNanos, holdNanos);
+    }
+
+    /**
+     * Records an attempt to acquire a lock which timed out.
+     *
+     * @param lockGroup the lock group, or null for the bean wide lock
+     */
+    public void recordTimeout(final String lockGroup) {
+        final String name = lockGroup == null ? DEFAULT_LOCK_GROUP : lockGroup;
+        AtomicLong count = timeouts.get(name);
+        if (count == null) {
+            final AtomicLong newCount = new AtomicLong();
+            count = timeouts.putIfAbsent(name, newCount);
+            if (count == null) {
+                count = newCount;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    /**
+     * @return the statistics of each lock acquired so far, keyed by lock group name
+     */
+    public Map<String, InvocationMetrics.Values> getLockGroups() {
+        return Collections.unmodifiableMap(lockGroups);
+    }
+
+    /**
+     * @return the number of timed out acquisition attempts of each lock, keyed by lock group name
+     */
+    public Map<String, Long> getTimeouts() {
+        final Map<String, Long> result = new HashMap<String, Long>();
+        for (Map.Entry<String, AtomicLong> entry : timeouts.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().get());
+        }
+        return result;
+    }
+
+    public void reset() {
+        lockGroups.clear();
+        timeouts.clear();
+    }
+}
@@ -61,4 +61,22 @@ public interface LockableComponent {
      * @return
      */
     AccessTimeoutDetails getDefaultAccessTimeout();
+
+    /**
+     * Returns the name of the lock group the passed <code>method</code> belongs to. Methods of a lock group are guarded by
+     * a lock of their own instead of the component wide lock.
+     *
+     * @param method The method for which the lock group is being queried. Cannot be null.
+     * @return the lock group name, or null if the method is guarded by the component wide lock
+     */
+    String getLockGroup(Method method);
+
+    /**
+     * Returns the lock statistics of the component. They are only recorded if {@link #isStatisticsEnabled()}.
+     *
+     * @return
+     */
+    LockGroupMetrics getLockGroupMetrics();
+
+    boolean isStatisticsEnabled();
 }
@@ -70,6 +70,10 @@ public class DeploymentRepository implements Service<DeploymentRepository> {
     }
 
     public synchronized void add(DeploymentModuleIdentifier identifier, ModuleDeployment deployment) {
+        // index the remote view methods before the module can be invoked
+        for (final EjbDeploymentInformation ejb : deployment.getEjbs().values()) {
+            ejb.indexRemoteViewMethods();
+        }
         final Map<DeploymentModuleIdentifier, ModuleDeployment> modules = new HashMap<DeploymentModuleIdentifier, ModuleDeployment>(this.modules);
         modules.put(identifier, deployment);
         this.modules = Collections.unmodifiableMap(modules);
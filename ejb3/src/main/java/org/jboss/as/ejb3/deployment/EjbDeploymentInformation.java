@@ -32,6 +32,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Runtime information about an EJB in a module
@@ -51,6 +53,11 @@ public class EjbDeploymentInformation {
     private final InjectedValue<EjbIIOPService> iorFactory;
     private final Set<String> remoteViewClassNames = new HashSet<String>();
 
+    /**
+     * The method indexes of the remote views, built once the views are available
+     */
+    private final ConcurrentMap<String, ViewMethodIndex> viewMethodIndexes = new ConcurrentHashMap<String, ViewMethodIndex>();
+
     /**
      * @param ejbName               The EJB name
      * @param ejbComponent          The EJB component
@@ -130,4 +137,33 @@ public class EjbDeploymentInformation {
     public boolean isRemoteView(final String viewClassName) {
         return this.remoteViewClassNames.contains(viewClassName);
     }
+
+    /**
+     * Returns the {@link ViewMethodIndex} of the remote view represented by the passed <code>viewClassName</code>.
+     *
+     * @param viewClassName The fully qualified classname of the remote view
+     * @return
+     */
+    public ViewMethodIndex getViewMethodIndex(final String viewClassName) {
+        ViewMethodIndex index = this.viewMethodIndexes.get(viewClassName);
+        if (index == null) {
+            // not indexed yet, index it once
+            final ViewMethodIndex newIndex = new ViewMethodIndex(this.getView(viewClassName).getViewMethods());
+            index = this.viewMethodIndexes.putIfAbsent(viewClassName, newIndex);
+            if (index == null) {
+                index = newIndex;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Builds the {@link ViewMethodIndex} of each remote view. Invoked by the {@link DeploymentRepository} when the
+     * EJB is made available, i.e. once its views have been started.
+     */
+    void indexRemoteViewMethods() {
+        for (final String viewClassName : this.remoteViewClassNames) {
+            this.getViewMethodIndex(viewClassName);
+        }
+    }
 }
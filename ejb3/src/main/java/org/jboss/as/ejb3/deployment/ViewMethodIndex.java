@@ -0,0 +1,138 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.deployment;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.jboss.as.ee.component.ComponentView;
+
+/**
+ * A precomputed index of the methods of a {@link ComponentView}, used to dispatch remote invocations without
+ * scanning all view methods.
+ * <p/>
+ * Methods can be looked up by name and signature, the comma separated parameter type names sent by remote clients,
+ * or by a compact method id. The low 32 bits of an id are the position of the method in the order of method name and
+ * signature, the high 32 bits a fingerprint of the signatures of all view methods. Ids are thus the same on every
+ * server the same view is deployed on, while an id cached by a client for a different version of the view, e.g. before
+ * a redeployment or a failover to a node running another version of the application, is rejected rather than
+ * resolved to whatever method now has its position.
+ */
+public final class ViewMethodIndex {
+
+    private static final char METHOD_PARAM_TYPE_SEPARATOR = ',';
+    private static final long POSITION_MASK = 0xFFFFFFFFL;
+    private static final long FINGERPRINT_MASK = ~POSITION_MASK;
+
+    private final Map<String, Map<String, Method>> methodsByName;
+    private final Method[] methodsById;
+    private final Map<Method, Integer> methodIds;
+    private final long fingerprint;
+
+    public ViewMethodIndex(final Collection<Method> viewMethods) {
+        final List<Method> methods = new ArrayList<Method>(viewMethods);
+        Collections.sort(methods, new Comparator<Method>() {
+            @Override
+            public int compare(final Method m1, final Method m2) {
+                final int result = m1.getName().compareTo(m2.getName());
+                return result != 0 ? result : signature(m1).compareTo(signature(m2));
+            }
+        });
+        final Map<String, Map<String, Method>> methodsByName = new HashMap<String, Map<String, Method>>();
+        final Map<Method, Integer> methodIds = new HashMap<Method, Integer>();
+        final CRC32 fingerprint = new CRC32();
+        for (int i = 0; i < methods.size(); i++) {
+            final Method method = methods.get(i);
+            update(fingerprint, method);
+            Map<String, Method> signatures = methodsByName.get(method.getName());
+            if (signatures == null) {
+                signatures = new HashMap<String, Method>();
+                methodsByName.put(method.getName(), signatures);
+            }
+            signatures.put(signature(method), method);
+            methodIds.put(method, i);
+        }
+        this.methodsByName = methodsByName;
+        this.methodsById = methods.toArray(new Method[methods.size()]);
+        this.methodIds = methodIds;
+        this.fingerprint = fingerprint.getValue() << 32;
+    }
+
+    /**
+     * @param methodName The method name
+     * @param signature  The comma separated, fully qualified names of the method parameter types
+     * @return the view method, or null if the view has no such method
+     */
+    public Method getMethod(final String methodName, final String signature) {
+        final Map<String, Method> signatures = methodsByName.get(methodName);
+        return signatures == null ? null : signatures.get(signature);
+    }
+
+    /**
+     * @param methodId The method id
+     * @return the view method, or null if the id is unknown or was assigned by a different version of the view
+     */
+    public Method getMethod(final long methodId) {
+        if ((methodId & FINGERPRINT_MASK) != fingerprint) {
+            return null;
+        }
+        final long position = methodId & POSITION_MASK;
+        return position < methodsById.length ? methodsById[(int) position] : null;
+    }
+
+    /**
+     * @param method The view method
+     * @return the id of the method, or -1 if it is not a method of this view
+     */
+    public long getMethodId(final Method method) {
+        final Integer position = methodIds.get(method);
+        return position == null ? -1 : fingerprint | position;
+    }
+
+    private static void update(final CRC32 fingerprint, final Method method) {
+        final String signature = method.getReturnType().getName() + ' ' + method.getName() + '(' + signature(method) + ");";
+        for (int i = 0; i < signature.length(); i++) {
+            final char c = signature.charAt(i);
+            fingerprint.update(c >>> 8);
+            fingerprint.update(c);
+        }
+    }
+
+    private static String signature(final Method method) {
+        final Class<?>[] paramTypes = method.getParameterTypes();
+        if (paramTypes.length == 0) {
+            return "";
+        }
+        final StringBuilder sb = new StringBuilder(paramTypes[0].getName());
+        for (int i = 1; i < paramTypes.length; i++) {
+            sb.append(METHOD_PARAM_TYPE_SEPARATOR).append(paramTypes[i].getName());
+        }
+        return sb.toString();
+    }
+}
@@ -34,14 +34,19 @@ import org.jboss.as.ee.component.EEApplicationClasses;
 import org.jboss.as.ee.metadata.MethodAnnotationAggregator;
 import org.jboss.as.ee.metadata.RuntimeAnnotationInformation;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentDescription;
+import org.jboss.as.ejb3.component.singleton.SingletonComponentDescription;
 import org.jboss.as.ejb3.concurrency.AccessTimeoutDetails;
+import org.jboss.as.ejb3.concurrency.EJBBoundLockGroupMetaData;
+import org.jboss.as.ejb3.deployment.EjbDeploymentAttachmentKeys;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.reflect.ClassReflectionIndex;
 import org.jboss.as.server.deployment.reflect.DeploymentReflectionIndex;
 import org.jboss.invocation.proxy.MethodIdentifier;
+import org.jboss.metadata.ejb.spec.AssemblyDescriptorMetaData;
 import org.jboss.metadata.ejb.spec.ConcurrentMethodMetaData;
 import org.jboss.metadata.ejb.spec.ConcurrentMethodsMetaData;
+import org.jboss.metadata.ejb.spec.EjbJarMetaData;
 import org.jboss.metadata.ejb.spec.NamedMethodMetaData;
 import org.jboss.metadata.ejb.spec.SessionBean31MetaData;
 import org.jboss.metadata.ejb.spec.SessionBeanMetaData;
@@ -90,6 +95,10 @@ public class EjbConcurrencyMergingProcessor extends AbstractMergingProcessor<Ses
 
     protected void handleDeploymentDescriptor(final DeploymentUnit deploymentUnit, final DeploymentReflectionIndex deploymentReflectionIndex, final Class<?> componentClass, final SessionBeanComponentDescription componentConfiguration) throws DeploymentUnitProcessingException {
 
+        if (componentConfiguration instanceof SingletonComponentDescription) {
+            handleLockGroups(deploymentUnit, componentConfiguration);
+        }
+
         if (componentConfiguration.getDescriptorData() == null) {
             return;
         }
@@ -126,6 +135,47 @@ public class EjbConcurrencyMergingProcessor extends AbstractMergingProcessor<Ses
         }
     }
 
+    /**
+     * Assigns the bean methods to the lock groups configured through the <code>urn:ejb-lock-group</code> namespace of
+     * jboss-ejb3.xml. Lock groups configured for a specific bean override those configured for all beans (ejb-name *).
+     */
+    private void handleLockGroups(final DeploymentUnit deploymentUnit, final SessionBeanComponentDescription componentConfiguration) {
+        final EjbJarMetaData metaData = deploymentUnit.getAttachment(EjbDeploymentAttachmentKeys.EJB_JAR_METADATA);
+        if (metaData == null) {
+            return;
+        }
+        final AssemblyDescriptorMetaData assemblyDescriptor = metaData.getAssemblyDescriptor();
+        if (assemblyDescriptor == null) {
+            return;
+        }
+        final List<EJBBoundLockGroupMetaData> lockGroups = assemblyDescriptor.getAny(EJBBoundLockGroupMetaData.class);
+        if (lockGroups == null) {
+            return;
+        }
+        final String ejbName = componentConfiguration.getEJBName();
+        for (final EJBBoundLockGroupMetaData lockGroup : lockGroups) {
+            if ("*".equals(lockGroup.getEjbName())) {
+                setLockGroup(componentConfiguration, lockGroup, false);
+            }
+        }
+        for (final EJBBoundLockGroupMetaData lockGroup : lockGroups) {
+            if (ejbName.equals(lockGroup.getEjbName())) {
+                setLockGroup(componentConfiguration, lockGroup, true);
+            }
+        }
+    }
+
+    private void setLockGroup(final SessionBeanComponentDescription componentConfiguration, final EJBBoundLockGroupMetaData lockGroup, final boolean override) {
+        final String lockGroupName = lockGroup.getLockGroupName();
+        if (lockGroupName == null || lockGroupName.trim().isEmpty()) {
+            throw MESSAGES.lockGroupNameCannotBeEmptyString(componentConfiguration.getEJBName());
+        }
+        for (final String methodName : lockGroup.getMethodNames()) {
+            if (override || !componentConfiguration.getMethodLockGroups().containsKey(methodName)) {
+                componentConfiguration.setLockGroup(methodName, lockGroupName);
+            }
+        }
+    }
 
     private Method resolveMethod(final DeploymentReflectionIndex index, final Class<?> currentClass, final Class<?> componentClass, final NamedMethodMetaData methodData) throws DeploymentUnitProcessingException {
         if (currentClass == null) {
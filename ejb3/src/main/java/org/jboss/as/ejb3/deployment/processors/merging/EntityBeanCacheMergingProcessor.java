@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.deployment.processors.merging;
+
+import java.util.List;
+
+import org.jboss.as.ee.component.EEApplicationClasses;
+import org.jboss.as.ejb3.component.entity.EntityBeanComponentDescription;
+import org.jboss.as.ejb3.component.entity.entitycache.EJBBoundEntityCacheMetaData;
+import org.jboss.as.ejb3.deployment.EjbDeploymentAttachmentKeys;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.as.server.deployment.reflect.DeploymentReflectionIndex;
+import org.jboss.metadata.ejb.spec.AssemblyDescriptorMetaData;
+import org.jboss.metadata.ejb.spec.EjbJarMetaData;
+
+/**
+ * Sets up the entity bean component description with the ready entity cache configured for the bean via the
+ * <code>urn:ejb-entity-cache</code> namespace of the deployment descriptor
+ */
+public class EntityBeanCacheMergingProcessor extends AbstractMergingProcessor<EntityBeanComponentDescription> {
+
+    public EntityBeanCacheMergingProcessor() {
+        super(EntityBeanComponentDescription.class);
+    }
+
+    @Override
+    protected void handleAnnotations(DeploymentUnit deploymentUnit, EEApplicationClasses applicationClasses,
+            DeploymentReflectionIndex deploymentReflectionIndex, Class<?> componentClass,
+            EntityBeanComponentDescription description) throws DeploymentUnitProcessingException {
+        // the cache can only be selected in the deployment descriptor
+    }
+
+    @Override
+    protected void handleDeploymentDescriptor(DeploymentUnit deploymentUnit,
+            DeploymentReflectionIndex deploymentReflectionIndex, Class<?> componentClass,
+            EntityBeanComponentDescription description) throws DeploymentUnitProcessingException {
+        final String ejbName = description.getEJBName();
+        final EjbJarMetaData metaData = deploymentUnit.getAttachment(EjbDeploymentAttachmentKeys.EJB_JAR_METADATA);
+        if (metaData == null) {
+            return;
+        }
+        final AssemblyDescriptorMetaData assemblyDescriptor = metaData.getAssemblyDescriptor();
+        if (assemblyDescriptor == null) {
+            return;
+        }
+        final List<EJBBoundEntityCacheMetaData> entityCaches = assemblyDescriptor.getAny(EJBBoundEntityCacheMetaData.class);
+
+        Boolean concurrent = null;
+        if (entityCaches != null) {
+            for (final EJBBoundEntityCacheMetaData entityCacheMetaData : entityCaches) {
+                // if this applies for all EJBs and if there isn't a cache already explicitly specified
+                // for the specific bean (i.e. via a ejb-name match)
+                if ("*".equals(entityCacheMetaData.getEjbName()) && concurrent == null) {
+                    concurrent = entityCacheMetaData.isConcurrent();
+                } else if (ejbName.equals(entityCacheMetaData.getEjbName())) {
+                    concurrent = entityCacheMetaData.isConcurrent();
+                }
+            }
+        }
+        if (concurrent != null) {
+            description.setConcurrentCache(concurrent);
+        }
+    }
+}
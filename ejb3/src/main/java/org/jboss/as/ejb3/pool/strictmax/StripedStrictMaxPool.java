@@ -0,0 +1,252 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.strictmax;
+
+import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A pool with a maximum size which, unlike {@link StrictMaxPool}, does not funnel every
+ * request through a single monitor.
+ * <p/>
+ * Free instances are kept in a set of per-thread stripes, each holding at most one instance,
+ * backed by a lock-free global overflow queue. A thread releasing an instance will usually find
+ * it again on its next {@link #get()}, without touching any shared state other than the
+ * (non-fair) semaphore that enforces the strict upper bound.
+ * <p/>
+ * As with {@link StrictMaxPool} no more than maxSize instances are ever in use at once. A {@link #get()} racing
+ * with a release may create a new instance instead of reusing the one being returned, the surplus is destroyed
+ * when it is next released.
+ */
+public class StripedStrictMaxPool<T> extends AbstractPool<T> {
+
+    /**
+     * A non-fair semaphore enforcing the strict max size. Only maxSize instances may be active,
+     * any attempt to get an instance will block until an instance is freed or the timeout expires.
+     */
+    private final Semaphore semaphore;
+    /**
+     * The maximum number of instances allowed in the pool
+     */
+    private final int maxSize;
+    /**
+     * The time to wait for the semaphore.
+     */
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    /**
+     * The per-thread free slots, indexed by the thread id. Slots are spread {@link #SPACING} elements
+     * apart so that neighbouring stripes do not share a cache line.
+     */
+    private final AtomicReferenceArray<T> stripes;
+    private final int stripeCount;
+    /**
+     * Free instances that did not fit into their stripe
+     */
+    private final ConcurrentLinkedQueue<T> overflow = new ConcurrentLinkedQueue<T>();
+    /**
+     * The number of instances in the overflow queue, as {@link ConcurrentLinkedQueue#size()} is not constant time
+     */
+    private final AtomicInteger overflowSize = new AtomicInteger();
+
+    private static final int SPACING = 16;
+
+    public StripedStrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit) {
+        this(factory, maxSize, timeout, timeUnit, Runtime.getRuntime().availableProcessors());
+    }
+
+    public StripedStrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit, int concurrencyLevel) {
+        super(factory);
+        this.maxSize = maxSize;
+        this.semaphore = new Semaphore(maxSize, false);
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        // a power of two number of stripes, no more than we could ever fill
+        int stripeCount = 1;
+        final int limit = Math.min(Math.max(concurrencyLevel, 1) * 2, maxSize);
+        while (stripeCount < limit) {
+            stripeCount <<= 1;
+        }
+        this.stripes = new AtomicReferenceArray<T>(stripeCount * SPACING);
+        this.stripeCount = stripeCount;
+    }
+
+    public void discard(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Discard instance %s#%s", this, ctx);
+        }
+
+        semaphore.release();
+
+        // Let the super do any other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public int getCurrentSize() {
+        return getCreateCount() - getRemoveCount();
+    }
+
+    public int getAvailableCount() {
+        return semaphore.availablePermits();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        throw MESSAGES.methodNotImplemented();
+    }
+
+    /**
+     * Get an instance without identity.
+     * Can be used by finders,create-methods, and activation
+     *
+     * @return Context /w instance
+     */
+    public T get() {
+        try {
+            boolean acquired = semaphore.tryAcquire(timeout, timeUnit);
+            if (!acquired)
+                throw MESSAGES.failedToAcquirePermit(timeout, timeUnit);
+        } catch (InterruptedException e) {
+            throw MESSAGES.acquireSemaphoreInterrupted();
+        }
+
+        T bean = poll();
+        if (bean != null) {
+            return bean;
+        }
+        try {
+            // Pool is empty, create an instance
+            bean = create();
+        } finally {
+            if (bean == null) {
+                semaphore.release();
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Return an instance after invocation.
+     * <p/>
+     * Called in 2 cases:
+     * a) Done with finder method
+     * b) Just removed
+     *
+     * @param obj
+     */
+    public void release(T obj) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("%s/%s Free instance: %s", getCurrentSize(), maxSize, this);
+        }
+
+        boolean destroyIt = false;
+        if (getCurrentSize() > maxSize) {
+            // a racing get() missed a free instance and created a new one, shrink back to maxSize
+            destroyIt = true;
+        } else if (!stripes.compareAndSet(stripe(), null, obj)) {
+            // Add the unused context to the overflow queue
+            if (overflowSize.incrementAndGet() <= maxSize) {
+                overflow.offer(obj);
+            } else {
+                overflowSize.decrementAndGet();
+                destroyIt = true;
+            }
+        }
+        if (destroyIt)
+            destroy(obj);
+        semaphore.release();
+    }
+
+    @Override
+    @Deprecated
+    public void remove(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Removing instance: %s#%s", this, ctx);
+        }
+
+        semaphore.release();
+        // let the super do the other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public void start() {
+    }
+
+    public void stop() {
+        for (int i = 0; i < stripeCount; i++) {
+            final T obj = stripes.getAndSet(i * SPACING, null);
+            if (obj != null) {
+                destroy(obj);
+            }
+        }
+        T obj;
+        while ((obj = overflow.poll()) != null) {
+            overflowSize.decrementAndGet();
+            destroy(obj);
+        }
+    }
+
+    /**
+     * Takes a free instance, preferring the one owned by the calling thread's stripe.
+     *
+     * @return a free instance or null if none is pooled
+     */
+    private T poll() {
+        T bean = stripes.getAndSet(stripe(), null);
+        if (bean != null) {
+            return bean;
+        }
+        bean = overflow.poll();
+        if (bean != null) {
+            overflowSize.decrementAndGet();
+            return bean;
+        }
+        // another thread may have parked an instance in a different stripe
+        for (int i = 0; i < stripeCount; i++) {
+            final int index = i * SPACING;
+            if (stripes.get(index) != null) {
+                bean = stripes.getAndSet(index, null);
+                if (bean != null) {
+                    return bean;
+                }
+            }
+        }
+        return null;
+    }
+
+    private int stripe() {
+        final long id = Thread.currentThread().getId();
+        return ((int) (id ^ (id >>> 16)) & (stripeCount - 1)) * SPACING;
+    }
+}
@@ -27,6 +27,7 @@ import org.jboss.as.ejb3.EjbMessages;
 import org.jboss.as.ejb3.deployment.DeploymentRepository;
 import org.jboss.as.ejb3.remote.protocol.versionone.ChannelAssociation;
 import org.jboss.as.ejb3.remote.protocol.versionone.VersionOneProtocolChannelReceiver;
+import org.jboss.as.ejb3.remote.protocol.versiontwo.ResponseCoalescingChannelAssociation;
 import org.jboss.as.network.ClientMapping;
 import org.jboss.as.network.SocketBinding;
 import org.jboss.as.remoting.AbstractStreamServerService;
@@ -65,6 +66,9 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
@@ -76,8 +80,14 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
 
     public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("ejb3", "connector");
 
+    /**
+     * The name of the thread factory service creating the thread which writes out coalesced responses
+     */
+    public static final ServiceName RESPONSE_COALESCING_THREAD_FACTORY_SERVICE_NAME = SERVICE_NAME.append("response-coalescing", "thread-factory");
+
     private final InjectedValue<Endpoint> endpointValue = new InjectedValue<Endpoint>();
     private final InjectedValue<ExecutorService> executorService = new InjectedValue<ExecutorService>();
+    private final InjectedValue<ThreadFactory> responseCoalescingThreadFactory = new InjectedValue<ThreadFactory>();
     private final InjectedValue<DeploymentRepository> deploymentRepositoryInjectedValue = new InjectedValue<DeploymentRepository>();
     private final InjectedValue<EJBRemoteTransactionsRepository> ejbRemoteTransactionsRepositoryInjectedValue = new InjectedValue<EJBRemoteTransactionsRepository>();
     private final InjectedValue<RegistryCollector> clusterRegistryCollector = new InjectedValue<RegistryCollector>();
@@ -91,6 +101,9 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
     private final byte serverProtocolVersion;
     private final String[] supportedMarshallingStrategies;
     private final OptionMap channelCreationOptions;
+    private final long responseCoalescingWindow;
+    private final int responseCoalescingMaxBytes;
+    private volatile ScheduledExecutorService responseCoalescingScheduler;
 
     public EJBRemoteConnectorService(final byte serverProtocolVersion, final String[] supportedMarshallingStrategies, final ServiceName remotingConnectorServiceName) {
         this(serverProtocolVersion, supportedMarshallingStrategies, remotingConnectorServiceName, OptionMap.EMPTY);
@@ -98,10 +111,22 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
 
     public EJBRemoteConnectorService(final byte serverProtocolVersion, final String[] supportedMarshallingStrategies, final ServiceName remotingConnectorServiceName,
                                      final OptionMap channelCreationOptions) {
+        this(serverProtocolVersion, supportedMarshallingStrategies, remotingConnectorServiceName, channelCreationOptions, 0, 0);
+    }
+
+    /**
+     * @param responseCoalescingWindow   The longest time, in microseconds, a message to a version 2 client is held back to be
+     *                                   sent along with other messages. 0 disables coalescing.
+     * @param responseCoalescingMaxBytes The number of held back bytes which triggers sending them right away
+     */
+    public EJBRemoteConnectorService(final byte serverProtocolVersion, final String[] supportedMarshallingStrategies, final ServiceName remotingConnectorServiceName,
+                                     final OptionMap channelCreationOptions, final long responseCoalescingWindow, final int responseCoalescingMaxBytes) {
         this.serverProtocolVersion = serverProtocolVersion;
         this.supportedMarshallingStrategies = supportedMarshallingStrategies;
         this.remotingConnectorServiceName = remotingConnectorServiceName;
         this.channelCreationOptions = channelCreationOptions;
+        this.responseCoalescingWindow = responseCoalescingWindow;
+        this.responseCoalescingMaxBytes = responseCoalescingMaxBytes;
     }
 
     @Override
@@ -115,6 +140,10 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
             this.remotingServer = (InjectedSocketBindingStreamServerService) streamServerService;
         }
 
+        if (this.responseCoalescingWindow > 0) {
+            this.responseCoalescingScheduler = Executors.newSingleThreadScheduledExecutor(this.responseCoalescingThreadFactory.getValue());
+        }
+
         // Register a EJB channel open listener
         final OpenListener channelOpenListener = new ChannelOpenListener(serviceContainer);
         try {
@@ -133,6 +162,11 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
     public void stop(StopContext context) {
         this.remotingServer = null;
         registration.close();
+        if (this.responseCoalescingScheduler != null) {
+            // batches already held back are still written out by the scheduler, later ones right away
+            this.responseCoalescingScheduler.shutdown();
+            this.responseCoalescingScheduler = null;
+        }
         // reset the EJBClientTransactionContext on this server
         EJBClientTransactionContext.setSelector(new ConstantContextSelector<EJBClientTransactionContext>(null));
     }
@@ -171,8 +205,8 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
         }
         outputStream = new DataOutputStream(messageOutputStream);
         try {
-            // write the version
-            outputStream.write(this.serverProtocolVersion);
+            // write the version. Clients supporting it can opt for version 2 (coalesced messages) if it's enabled
+            outputStream.write(this.responseCoalescingScheduler != null ? Math.max(this.serverProtocolVersion, 0x02) : this.serverProtocolVersion);
             // write the marshaller type count
             PackedInteger.writePackedInteger(outputStream, this.supportedMarshallingStrategies.length);
             // write the marshaller types
@@ -267,16 +301,19 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
                 }
                 switch (version) {
                     case 0x01:
-                        final MarshallerFactory marshallerFactory = EJBRemoteConnectorService.this.getMarshallerFactory(clientMarshallingStrategy);
                         // enroll VersionOneProtocolChannelReceiver for handling subsequent messages on this channel
-                        final DeploymentRepository deploymentRepository = EJBRemoteConnectorService.this.deploymentRepositoryInjectedValue.getValue();
-                        final RegistryCollector<String, List<ClientMapping>> clientMappingRegistryCollector = EJBRemoteConnectorService.this.clusterRegistryCollector.getValue();
-                        final RemoteAsyncInvocationCancelStatusService asyncInvocationCancelStatus = EJBRemoteConnectorService.this.remoteAsyncInvocationCancelStatus.getValue();
-                        final VersionOneProtocolChannelReceiver receiver = new VersionOneProtocolChannelReceiver(this.channelAssociation, deploymentRepository,
-                                EJBRemoteConnectorService.this.ejbRemoteTransactionsRepositoryInjectedValue.getValue(), clientMappingRegistryCollector,
-                                marshallerFactory, executorService.getValue(), asyncInvocationCancelStatus);
-                        // trigger the receiving
-                        receiver.startReceiving();
+                        this.startReceiving(this.channelAssociation, clientMarshallingStrategy);
+                        break;
+                    case 0x02:
+                        final ScheduledExecutorService scheduler = EJBRemoteConnectorService.this.responseCoalescingScheduler;
+                        if (scheduler == null) {
+                            throw EjbMessages.MESSAGES.ejbRemoteServiceCannotHandleClientVersion(version);
+                        }
+                        // version 2 only differs in that the server may coalesce its messages, so the version 1 receiver
+                        // handles the messages of the client
+                        final ChannelAssociation coalescingChannelAssociation = new ResponseCoalescingChannelAssociation(channel,
+                                EJBRemoteConnectorService.this.responseCoalescingWindow, EJBRemoteConnectorService.this.responseCoalescingMaxBytes, scheduler);
+                        this.startReceiving(coalescingChannelAssociation, clientMarshallingStrategy);
                         break;
 
                     default:
@@ -293,12 +330,31 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
 
 
         }
+
+        private void startReceiving(final ChannelAssociation channelAssociation, final String clientMarshallingStrategy) {
+            final MarshallerFactory marshallerFactory = EJBRemoteConnectorService.this.getMarshallerFactory(clientMarshallingStrategy);
+            final DeploymentRepository deploymentRepository = EJBRemoteConnectorService.this.deploymentRepositoryInjectedValue.getValue();
+            final RegistryCollector<String, List<ClientMapping>> clientMappingRegistryCollector = EJBRemoteConnectorService.this.clusterRegistryCollector.getValue();
+            final RemoteAsyncInvocationCancelStatusService asyncInvocationCancelStatus = EJBRemoteConnectorService.this.remoteAsyncInvocationCancelStatus.getValue();
+            final VersionOneProtocolChannelReceiver receiver = new VersionOneProtocolChannelReceiver(channelAssociation, deploymentRepository,
+                    EJBRemoteConnectorService.this.ejbRemoteTransactionsRepositoryInjectedValue.getValue(), clientMappingRegistryCollector,
+                    marshallerFactory, executorService.getValue(), asyncInvocationCancelStatus);
+            // trigger the receiving
+            receiver.startReceiving();
+        }
     }
 
     public InjectedValue<ExecutorService> getExecutorService() {
         return executorService;
     }
 
+    /**
+     * The thread factory of the thread writing out coalesced responses. Only required if coalescing is enabled
+     */
+    public Injector<ThreadFactory> getResponseCoalescingThreadFactoryInjector() {
+        return this.responseCoalescingThreadFactory;
+    }
+
     public Injector<DeploymentRepository> getDeploymentRepositoryInjector() {
         return this.deploymentRepositoryInjectedValue;
     }
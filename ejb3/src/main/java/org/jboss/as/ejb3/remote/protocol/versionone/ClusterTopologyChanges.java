@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote.protocol.versionone;
+
+import org.jboss.as.network.ClientMapping;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The changes of the topology of a cluster which were not yet written to a client, as a diff against the nodes the client
+ * already knows of. Changes notified before the pending ones are taken are coalesced with them. Not thread safe.
+ */
+class ClusterTopologyChanges {
+    // The nodes which the client was told about
+    private final Set<String> knownNodes;
+    private final Map<String, List<ClientMapping>> addedNodes = new LinkedHashMap<String, List<ClientMapping>>();
+    private final Set<String> removedNodes = new LinkedHashSet<String>();
+
+    /**
+     * @param knownNodes the nodes of the complete topology of the cluster which was sent to the client
+     */
+    ClusterTopologyChanges(final Collection<String> knownNodes) {
+        this.knownNodes = new HashSet<String>(knownNodes);
+    }
+
+    void nodesAdded(final Map<String, List<ClientMapping>> added) {
+        this.addedNodes.putAll(added);
+    }
+
+    void nodesRemoved(final Set<String> removed) {
+        for (String node : removed) {
+            this.addedNodes.remove(node);
+            // a node added and removed before the client was told about it cancels out
+            if (this.knownNodes.contains(node)) {
+                this.removedNodes.add(node);
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return this.removedNodes.isEmpty() && this.addedNodes.isEmpty();
+    }
+
+    /**
+     * Takes the pending removals, which must be written to the client before the additions taken along with them, so that
+     * a node removed and then re-added ends up known to the client.
+     */
+    Set<String> takeRemovedNodes() {
+        final Set<String> removed = new LinkedHashSet<String>(this.removedNodes);
+        this.removedNodes.clear();
+        this.knownNodes.removeAll(removed);
+        return removed;
+    }
+
+    Map<String, List<ClientMapping>> takeAddedNodes() {
+        final Map<String, List<ClientMapping>> added = new LinkedHashMap<String, List<ClientMapping>>(this.addedNodes);
+        this.addedNodes.clear();
+        this.knownNodes.addAll(added.keySet());
+        return added;
+    }
+
+    void clear() {
+        this.removedNodes.clear();
+        this.addedNodes.clear();
+    }
+}
@@ -53,26 +53,27 @@ class ClusterTopologyWriter {
      * Writes out a EJB remoting protocol message containing the cluster topology information for the passed <code>clusters</code>
      *
      * @param output                   The {@link DataOutput} into which the message will be written
-     * @param clientMappingsRegistries
+     * @param clusterTopologies        The clusters, along with the client mappings of each of their nodes
      * @throws IOException
      */
-    void writeCompleteClusterTopology(final DataOutput output, final Collection<Registry<String, List<ClientMapping>>> clientMappingsRegistries) throws IOException {
+    void writeCompleteClusterTopology(final DataOutput output, final Map<Registry<String, List<ClientMapping>>, Map<String, List<ClientMapping>>> clusterTopologies) throws IOException {
         if (output == null) {
             throw EjbMessages.MESSAGES.cannotWriteToNullDataOutput();
         }
-        if (clientMappingsRegistries == null || clientMappingsRegistries.isEmpty()) {
+        if (clusterTopologies == null || clusterTopologies.isEmpty()) {
             return;
         }
         // write the header
         output.write(HEADER_COMPLETE_CLUSTER_TOPOLOGY);
         // write the cluster count
-        PackedInteger.writePackedInteger(output, clientMappingsRegistries.size());
+        PackedInteger.writePackedInteger(output, clusterTopologies.size());
         // write out each of the cluster's topology
-        for (final Registry<String, List<ClientMapping>> registry : clientMappingsRegistries) {
+        for (final Map.Entry<Registry<String, List<ClientMapping>>, Map<String, List<ClientMapping>>> clusterTopology : clusterTopologies.entrySet()) {
+            final String clusterName = clusterTopology.getKey().getName();
             // write the cluster name
-            output.writeUTF(registry.getName());
+            output.writeUTF(clusterName);
             // write out the information of each cluster node
-            this.writeClusterNodes(output, registry.getName(), registry.getEntries());
+            this.writeClusterNodes(output, clusterName, clusterTopology.getValue());
         }
 
     }
@@ -34,6 +34,7 @@ import org.jboss.as.ejb3.component.stateful.StatefulSessionComponent;
 import org.jboss.as.ejb3.component.stateless.StatelessSessionComponent;
 import org.jboss.as.ejb3.deployment.DeploymentRepository;
 import org.jboss.as.ejb3.deployment.EjbDeploymentInformation;
+import org.jboss.as.ejb3.deployment.ViewMethodIndex;
 import org.jboss.as.ejb3.remote.RemoteAsyncInvocationCancelStatusService;
 import org.jboss.as.security.remoting.RemotingContext;
 import org.jboss.ejb.client.Affinity;
@@ -58,16 +59,29 @@ import java.io.ObjectStreamException;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
 
 /**
+ * Handles method invocation requests.
+ * <p/>
+ * A request identifies the invoked method either by its name and signature or, for requests sent with the compact
+ * invocation header, by the method id the server assigned to the method within its view. A client learns the id of
+ * a method by adding the {@link #METHOD_ID_ATTACHMENT_KEY} entry to the private attachments of an invocation; the
+ * response then carries the id under the same key. Ids carry a fingerprint of the view, so an id the client obtained
+ * from a different version of the view is answered with a no such method failure, upon which the client falls back to
+ * identifying the method by name and signature.
+ *
  * @author Jaikiran Pai
  */
 class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
 
+    /**
+     * The private attachment a client sets to request, and the server sets to return, the id of the invoked method
+     */
+    static final String METHOD_ID_ATTACHMENT_KEY = "jboss.ejb.remote.method-id";
+
     private static final char METHOD_PARAM_TYPE_SEPARATOR = ',';
 
     private static final byte HEADER_METHOD_INVOCATION_RESPONSE = 0x05;
@@ -76,13 +90,23 @@ class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
     private final ExecutorService executorService;
     private final MarshallerFactory marshallerFactory;
     private final RemoteAsyncInvocationCancelStatusService remoteAsyncInvocationCancelStatus;
+    private final boolean compactMethodId;
 
     MethodInvocationMessageHandler(final DeploymentRepository deploymentRepository, final org.jboss.marshalling.MarshallerFactory marshallerFactory, final ExecutorService executorService,
                                    final RemoteAsyncInvocationCancelStatusService asyncInvocationCancelStatus) {
+        this(deploymentRepository, marshallerFactory, executorService, asyncInvocationCancelStatus, false);
+    }
+
+    /**
+     * @param compactMethodId true if the invoked method is identified by its method id rather than by its name and signature
+     */
+    MethodInvocationMessageHandler(final DeploymentRepository deploymentRepository, final org.jboss.marshalling.MarshallerFactory marshallerFactory, final ExecutorService executorService,
+                                   final RemoteAsyncInvocationCancelStatusService asyncInvocationCancelStatus, final boolean compactMethodId) {
         super(deploymentRepository);
         this.marshallerFactory = marshallerFactory;
         this.executorService = executorService;
         this.remoteAsyncInvocationCancelStatus = asyncInvocationCancelStatus;
+        this.compactMethodId = compactMethodId;
     }
 
     @Override
@@ -92,15 +116,20 @@ class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
         // read the invocation id
         final short invocationId = input.readShort();
 
-        // read the method name
-        final String methodName = input.readUTF();
-        // method signature
-        String[] methodParamTypes = null;
-        final String signature = input.readUTF();
-        if (signature.isEmpty()) {
-            methodParamTypes = new String[0];
+        final long methodId;
+        final String methodName;
+        final String signature;
+        if (this.compactMethodId) {
+            // read the method id
+            methodId = input.readLong();
+            methodName = null;
+            signature = null;
         } else {
-            methodParamTypes = signature.split(String.valueOf(METHOD_PARAM_TYPE_SEPARATOR));
+            methodId = -1;
+            // read the method name
+            methodName = input.readUTF();
+            // method signature
+            signature = input.readUTF();
         }
 
         // read the Locator
@@ -148,16 +177,23 @@ class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
                 return;
             }
             final ComponentView componentView = ejbDeploymentInformation.getView(viewClassName);
-            final Method invokedMethod = this.findMethod(componentView, methodName, methodParamTypes);
+            final ViewMethodIndex methodIndex = ejbDeploymentInformation.getViewMethodIndex(viewClassName);
+            final Method invokedMethod = this.compactMethodId ? methodIndex.getMethod(methodId) : methodIndex.getMethod(methodName, signature);
             if (invokedMethod == null) {
-                this.writeNoSuchEJBMethodFailureMessage(channelAssociation, invocationId, appName, moduleName, distinctName, beanName, viewClassName, methodName, methodParamTypes);
+                if (this.compactMethodId) {
+                    this.writeNoSuchEJBMethodFailureMessage(channelAssociation, invocationId, appName, moduleName, distinctName, beanName, viewClassName, "#" + methodId, null);
+                } else {
+                    final String[] methodParamTypes = signature.isEmpty() ? new String[0] : signature.split(String.valueOf(METHOD_PARAM_TYPE_SEPARATOR));
+                    this.writeNoSuchEJBMethodFailureMessage(channelAssociation, invocationId, appName, moduleName, distinctName, beanName, viewClassName, methodName, methodParamTypes);
+                }
                 return;
             }
 
-            final Object[] methodParams = new Object[methodParamTypes.length];
+            final int methodParamCount = invokedMethod.getParameterTypes().length;
+            final Object[] methodParams = new Object[methodParamCount];
             // un-marshall the method arguments
-            if (methodParamTypes.length > 0) {
-                for (int i = 0; i < methodParamTypes.length; i++) {
+            if (methodParamCount > 0) {
+                for (int i = 0; i < methodParamCount; i++) {
                     try {
                         methodParams[i] = unmarshaller.readObject();
                     } catch (Throwable e) {
@@ -178,6 +214,8 @@ class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
             }
             // done with unmarshalling
             unmarshaller.finish();
+            // let the client use the compact method id for subsequent invocations, if it asked for it
+            this.attachMethodId(attachments, methodIndex.getMethodId(invokedMethod));
 
             runnable = new Runnable() {
 
@@ -322,27 +360,15 @@ class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
         }
     }
 
-    private Method findMethod(final ComponentView componentView, final String methodName, final String[] paramTypes) {
-        final Set<Method> viewMethods = componentView.getViewMethods();
-        for (final Method method : viewMethods) {
-            if (method.getName().equals(methodName)) {
-                final Class<?>[] methodParamTypes = method.getParameterTypes();
-                if (methodParamTypes.length != paramTypes.length) {
-                    continue;
-                }
-                boolean found = true;
-                for (int i = 0; i < methodParamTypes.length; i++) {
-                    if (!methodParamTypes[i].getName().equals(paramTypes[i])) {
-                        found = false;
-                        break;
-                    }
-                }
-                if (found) {
-                    return method;
-                }
-            }
+    private void attachMethodId(final Map<String, Object> attachments, final long methodId) {
+        final Object privateAttachments = attachments.get(EJBClientInvocationContext.PRIVATE_ATTACHMENTS_KEY);
+        if (methodId != -1 && privateAttachments instanceof Map && ((Map<?, ?>) privateAttachments).containsKey(METHOD_ID_ATTACHMENT_KEY)) {
+            // the private attachments are unmarshalled from the request as an untyped map, which accepts any key and value.
+            // The key has to stay a plain string, since that is what the client sends and looks up
+            @SuppressWarnings("unchecked")
+            final Map<Object, Object> map = (Map<Object, Object>) privateAttachments;
+            map.put(METHOD_ID_ATTACHMENT_KEY, methodId);
         }
-        return null;
     }
 
     private void writeMethodInvocationResponse(final ChannelAssociation channelAssociation, final short invocationId, final Object result, final Map<String, Object> attachments) throws IOException {
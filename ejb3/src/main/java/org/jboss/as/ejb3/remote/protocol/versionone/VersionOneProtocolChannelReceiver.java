@@ -45,10 +45,12 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * @author Jaikiran Pai
@@ -64,6 +66,7 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
     private static final byte HEADER_TX_PREPARE_REQUEST = 0x11;
     private static final byte HEADER_TX_FORGET_REQUEST = 0x12;
     private static final byte HEADER_TX_BEFORE_COMPLETION_REQUEST = 0x13;
+    private static final byte HEADER_COMPACT_INVOCATION_REQUEST = 0x1E;
 
     private final ChannelAssociation channelAssociation;
     private final DeploymentRepository deploymentRepository;
@@ -98,16 +101,17 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
         // Send the cluster topology for existing clusters in the registry
         // and for each of these clusters added ourselves as a listener for cluster
         // topology changes (members added/removed events in the cluster)
-        final Collection<Registry<String, List<ClientMapping>>> clusters = this.clientMappingRegistryCollector.getRegistries();
+        final Map<Registry<String, List<ClientMapping>>, Map<String, List<ClientMapping>>> clusterTopologies = getClusterTopologies(this.clientMappingRegistryCollector.getRegistries());
         try {
-            this.sendNewClusterFormedMessage(clusters);
+            this.sendNewClusterFormedMessage(clusterTopologies);
         } catch (IOException ioe) {
             // just log and don't throw an error
             EjbLogger.EJB3_LOGGER.failedToSendClusterFormationMessageToClient(ioe, channel);
         }
-        for (final Registry<String, List<ClientMapping>> cluster : clusters) {
+        for (final Map.Entry<Registry<String, List<ClientMapping>>, Map<String, List<ClientMapping>>> clusterTopology : clusterTopologies.entrySet()) {
+            final Registry<String, List<ClientMapping>> cluster = clusterTopology.getKey();
             // add the topology update listener
-            final ClusterTopologyUpdateListener clusterTopologyUpdateListener = new ClusterTopologyUpdateListener(cluster, this);
+            final ClusterTopologyUpdateListener clusterTopologyUpdateListener = new ClusterTopologyUpdateListener(cluster, clusterTopology.getValue().keySet(), this);
             cluster.addListener(clusterTopologyUpdateListener);
 
             // keep track of this topology update listener so that we can unregister it when the channel is closed and
@@ -151,6 +155,9 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
                 case HEADER_INVOCATION_REQUEST:
                     messageHandler = new MethodInvocationMessageHandler(this.deploymentRepository, this.marshallerFactory, this.executorService, this.remoteAsyncInvocationCancelStatus);
                     break;
+                case HEADER_COMPACT_INVOCATION_REQUEST:
+                    messageHandler = new MethodInvocationMessageHandler(this.deploymentRepository, this.marshallerFactory, this.executorService, this.remoteAsyncInvocationCancelStatus, true);
+                    break;
                 case HEADER_INVOCATION_CANCELLATION_REQUEST:
                     messageHandler = new InvocationCancellationMessageHandler(this.remoteAsyncInvocationCancelStatus);
                     break;
@@ -261,14 +268,15 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
 
     @Override
     public void registryAdded(Registry<String, List<ClientMapping>> cluster) {
+        final Map<Registry<String, List<ClientMapping>>, Map<String, List<ClientMapping>>> clusterTopologies = getClusterTopologies(Collections.singleton(cluster));
         try {
             EjbLogger.ROOT_LOGGER.debug("Received new cluster formation notification for cluster " + cluster.getName());
-            this.sendNewClusterFormedMessage(Collections.singleton(cluster));
+            this.sendNewClusterFormedMessage(clusterTopologies);
         } catch (IOException ioe) {
             EjbLogger.EJB3_LOGGER.failedToSendClusterFormationMessageToClient(ioe, cluster.getName(), channelAssociation.getChannel());
         } finally {
             // add a listener for receiving node(s) addition/removal from the cluster
-            final ClusterTopologyUpdateListener clusterTopologyUpdateListener = new ClusterTopologyUpdateListener(cluster, this);
+            final ClusterTopologyUpdateListener clusterTopologyUpdateListener = new ClusterTopologyUpdateListener(cluster, clusterTopologies.get(cluster).keySet(), this);
             cluster.addListener(clusterTopologyUpdateListener);
             // keep track of this update listener so that we cleanup properly
             this.clusterTopologyUpdateListeners.add(clusterTopologyUpdateListener);
@@ -290,13 +298,25 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
 //        }
     }
 
+    /**
+     * Reads the current topology of each of the passed clusters once, so that the topology sent to the client is the one
+     * its topology update listener diffs against
+     */
+    private static Map<Registry<String, List<ClientMapping>>, Map<String, List<ClientMapping>>> getClusterTopologies(final Collection<Registry<String, List<ClientMapping>>> clientMappingRegistries) {
+        final Map<Registry<String, List<ClientMapping>>, Map<String, List<ClientMapping>>> clusterTopologies = new LinkedHashMap<Registry<String, List<ClientMapping>>, Map<String, List<ClientMapping>>>();
+        for (final Registry<String, List<ClientMapping>> registry : clientMappingRegistries) {
+            clusterTopologies.put(registry, registry.getEntries());
+        }
+        return clusterTopologies;
+    }
+
     /**
      * Sends a cluster formation message for the passed clusters, over the remoting channel
      *
-     * @param clientMappingRegistries The new clusters
+     * @param clusterTopologies The new clusters, along with their topology
      * @throws IOException If any exception occurs while sending the message over the channel
      */
-    private void sendNewClusterFormedMessage(final Collection<Registry<String, List<ClientMapping>>> clientMappingRegistries) throws IOException {
+    private void sendNewClusterFormedMessage(final Map<Registry<String, List<ClientMapping>>, Map<String, List<ClientMapping>>> clusterTopologies) throws IOException {
         final DataOutputStream outputStream;
         final MessageOutputStream messageOutputStream;
         try {
@@ -307,8 +327,8 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
         outputStream = new DataOutputStream(messageOutputStream);
         final ClusterTopologyWriter clusterTopologyWriter = new ClusterTopologyWriter();
         try {
-            EjbLogger.ROOT_LOGGER.debug("Writing out cluster formation message for " + clientMappingRegistries.size() + " clusters, to channel " + this.channelAssociation.getChannel());
-            clusterTopologyWriter.writeCompleteClusterTopology(outputStream, clientMappingRegistries);
+            EjbLogger.ROOT_LOGGER.debug("Writing out cluster formation message for " + clusterTopologies.size() + " clusters, to channel " + this.channelAssociation.getChannel());
+            clusterTopologyWriter.writeCompleteClusterTopology(outputStream, clusterTopologies);
         } finally {
             channelAssociation.releaseChannelMessageOutputStream(messageOutputStream);
             outputStream.close();
@@ -364,25 +384,36 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
     /**
      * A {@link org.jboss.as.clustering.GroupMembershipListener} which writes out messages to the client, over a {@link Channel remoting channel}
      * upon cluster topology updates
+     * <p/>
+     * Topology updates are not written by the thread which notifies them, but queued and written asynchronously, as a diff
+     * against the nodes the client already knows of. Updates notified while a diff is being written are coalesced into the
+     * next one, so that a burst of topology changes results in a couple of messages per client, rather than one per change.
      */
-    private class ClusterTopologyUpdateListener implements Registry.Listener<String, List<ClientMapping>> {
+    private class ClusterTopologyUpdateListener implements Registry.Listener<String, List<ClientMapping>>, Runnable {
         private final String clusterName;
         private final VersionOneProtocolChannelReceiver channelReceiver;
         private final Registry<String, List<ClientMapping>> cluster;
-
-        ClusterTopologyUpdateListener(Registry<String, List<ClientMapping>> cluster, final VersionOneProtocolChannelReceiver channelReceiver) {
+        // The topology changes not yet written to the client, guarded by this listener
+        private final ClusterTopologyChanges pendingChanges;
+        private boolean writeScheduled = false;
+        private boolean unregistered = false;
+
+        /**
+         * @param knownNodes the nodes of the complete topology of the cluster which was just sent to the client
+         */
+        ClusterTopologyUpdateListener(Registry<String, List<ClientMapping>> cluster, final Set<String> knownNodes, final VersionOneProtocolChannelReceiver channelReceiver) {
             this.channelReceiver = channelReceiver;
             this.clusterName = cluster.getName();
             this.cluster = cluster;
+            this.pendingChanges = new ClusterTopologyChanges(knownNodes);
         }
 
         @Override
         public void addedEntries(Map<String, List<ClientMapping>> added) {
-            try {
-                this.sendClusterNodesAdded(added);
-            } catch (IOException ioe) {
-                EjbLogger.EJB3_LOGGER.failedToSendClusterNodeAdditionMessageToClient(ioe, channelAssociation.getChannel());
+            synchronized (this) {
+                this.pendingChanges.nodesAdded(added);
             }
+            this.scheduleWrite();
         }
 
         @Override
@@ -392,15 +423,67 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
 
         @Override
         public void removedEntries(Set<String> removed) {
+            synchronized (this) {
+                this.pendingChanges.nodesRemoved(removed);
+            }
+            this.scheduleWrite();
+        }
+
+        private void scheduleWrite() {
+            synchronized (this) {
+                if (this.writeScheduled || this.unregistered) {
+                    return;
+                }
+                this.writeScheduled = true;
+            }
             try {
-                this.sendClusterNodesRemoved(removed);
-            } catch (IOException ioe) {
-                EjbLogger.EJB3_LOGGER.failedToSendClusterNodeRemovalMessageToClient(ioe, channelAssociation.getChannel());
+                executorService.execute(this);
+            } catch (RejectedExecutionException e) {
+                // write the changes ourselves
+                this.run();
+            }
+        }
+
+        /**
+         * Writes the pending topology changes to the client, until there are none left. Only one thread at a time writes
+         * the changes of a given listener, which preserves their order.
+         */
+        @Override
+        public void run() {
+            while (true) {
+                final Set<String> removedNodes;
+                final Map<String, List<ClientMapping>> addedNodes;
+                synchronized (this) {
+                    if (this.unregistered || this.pendingChanges.isEmpty()) {
+                        this.writeScheduled = false;
+                        return;
+                    }
+                    removedNodes = this.pendingChanges.takeRemovedNodes();
+                    addedNodes = this.pendingChanges.takeAddedNodes();
+                }
+                if (!removedNodes.isEmpty()) {
+                    try {
+                        this.sendClusterNodesRemoved(removedNodes);
+                    } catch (IOException ioe) {
+                        EjbLogger.EJB3_LOGGER.failedToSendClusterNodeRemovalMessageToClient(ioe, channelAssociation.getChannel());
+                    }
+                }
+                if (!addedNodes.isEmpty()) {
+                    try {
+                        this.sendClusterNodesAdded(addedNodes);
+                    } catch (IOException ioe) {
+                        EjbLogger.EJB3_LOGGER.failedToSendClusterNodeAdditionMessageToClient(ioe, channelAssociation.getChannel());
+                    }
+                }
             }
         }
 
         private void unregisterListener() {
             this.cluster.removeListener(this);
+            synchronized (this) {
+                this.unregistered = true;
+                this.pendingChanges.clear();
+            }
         }
 
         private void sendClusterNodesRemoved(final Set<String> removedNodes) throws IOException {
@@ -0,0 +1,217 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.remote.protocol.versiontwo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.EjbLogger;
+import org.jboss.as.ejb3.EjbMessages;
+import org.jboss.as.ejb3.remote.protocol.versionone.ChannelAssociation;
+import org.jboss.ejb.client.remoting.PackedInteger;
+import org.jboss.remoting3.Channel;
+import org.jboss.remoting3.MessageOutputStream;
+import org.xnio.IoUtils;
+
+/**
+ * A {@link ChannelAssociation} for clients speaking version 2 of the EJB remoting protocol, which packs the messages
+ * written within a short window into a single outbound Remoting message.
+ * <p/>
+ * Version 2 of the protocol is version 1 plus a batch message, sent by the server only:
+ * <pre>
+ *     0x1F (header) | packed int: message count | { packed int: message length | message } *
+ * </pre>
+ * where each message is a complete version 1 message, header included. The messages of a batch are to be processed in
+ * order, as if they had been received one by one.
+ * <p/>
+ * A message is held back for at most the configured window. The batch is written out earlier once the held back
+ * messages reach the byte budget, and a lone message is written as is. Once the scheduler is shut down messages are
+ * written out right away.
+ */
+public class ResponseCoalescingChannelAssociation extends ChannelAssociation {
+
+    private static final byte HEADER_MESSAGE_BATCH = 0x1F;
+
+    private final long windowNanos;
+    private final int maxBatchBytes;
+    private final ScheduledExecutorService scheduler;
+
+    private final Queue<byte[]> pendingMessages = new ConcurrentLinkedQueue<byte[]>();
+    private final AtomicInteger pendingBytes = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Object flushLock = new Object();
+
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flushScheduled.set(false);
+            try {
+                flush();
+            } catch (IOException e) {
+                EjbLogger.EJB3_LOGGER.closingChannel(getChannel(), e);
+                IoUtils.safeClose(getChannel());
+            }
+        }
+    };
+
+    /**
+     * @param channel       The channel
+     * @param window        The longest time a message is held back, in microseconds
+     * @param maxBatchBytes The number of held back bytes which triggers writing out a batch right away
+     * @param scheduler     The executor writing out the batches whose window expired
+     */
+    public ResponseCoalescingChannelAssociation(final Channel channel, final long window, final int maxBatchBytes, final ScheduledExecutorService scheduler) {
+        super(channel);
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(window);
+        this.maxBatchBytes = maxBatchBytes;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Returns a {@link MessageOutputStream} which buffers the message until it is released through
+     * {@link #releaseChannelMessageOutputStream(org.jboss.remoting3.MessageOutputStream)}. Unlike
+     * {@link ChannelAssociation#acquireChannelMessageOutputStream()} this never blocks.
+     *
+     * @return
+     */
+    @Override
+    public MessageOutputStream acquireChannelMessageOutputStream() {
+        return new BufferedMessageOutputStream();
+    }
+
+    @Override
+    public void releaseChannelMessageOutputStream(final MessageOutputStream messageOutputStream) throws IOException {
+        if (!(messageOutputStream instanceof BufferedMessageOutputStream)) {
+            super.releaseChannelMessageOutputStream(messageOutputStream);
+            return;
+        }
+        final BufferedMessageOutputStream message = (BufferedMessageOutputStream) messageOutputStream;
+        message.close();
+        if (message.cancelled) {
+            return;
+        }
+        final byte[] bytes = message.toByteArray();
+        this.pendingMessages.offer(bytes);
+        if (this.pendingBytes.addAndGet(bytes.length) >= this.maxBatchBytes || this.scheduler.isShutdown()) {
+            this.flush();
+        } else if (this.flushScheduled.compareAndSet(false, true)) {
+            try {
+                this.scheduler.schedule(this.flushTask, this.windowNanos, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                // the scheduler was shut down in the meantime
+                this.flushScheduled.set(false);
+                this.flush();
+            }
+        }
+    }
+
+    /**
+     * Writes out all held back messages.
+     *
+     * @throws IOException
+     */
+    public void flush() throws IOException {
+        synchronized (this.flushLock) {
+            final List<byte[]> batch = new ArrayList<byte[]>();
+            int batchBytes = 0;
+            byte[] message;
+            while ((message = this.pendingMessages.poll()) != null) {
+                batch.add(message);
+                batchBytes += message.length;
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            this.pendingBytes.addAndGet(-batchBytes);
+
+            final MessageOutputStream messageOutputStream;
+            try {
+                messageOutputStream = super.acquireChannelMessageOutputStream();
+            } catch (Exception e) {
+                throw EjbMessages.MESSAGES.failedToOpenMessageOutputStream(e);
+            }
+            final DataOutputStream outputStream = new DataOutputStream(messageOutputStream);
+            try {
+                if (batch.size() == 1) {
+                    outputStream.write(batch.get(0));
+                } else {
+                    outputStream.write(HEADER_MESSAGE_BATCH);
+                    PackedInteger.writePackedInteger(outputStream, batch.size());
+                    for (final byte[] bytes : batch) {
+                        PackedInteger.writePackedInteger(outputStream, bytes.length);
+                        outputStream.write(bytes);
+                    }
+                }
+            } finally {
+                super.releaseChannelMessageOutputStream(messageOutputStream);
+                outputStream.close();
+            }
+        }
+    }
+
+    /**
+     * A message held in memory until it is released
+     */
+    private static class BufferedMessageOutputStream extends MessageOutputStream {
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        private volatile boolean cancelled;
+
+        @Override
+        public void write(final int b) {
+            this.buffer.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            this.buffer.write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public MessageOutputStream cancel() {
+            this.cancelled = true;
+            return this;
+        }
+
+        byte[] toByteArray() {
+            return this.buffer.toByteArray();
+        }
+    }
+}
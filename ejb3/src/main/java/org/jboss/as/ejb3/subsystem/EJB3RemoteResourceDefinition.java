@@ -23,6 +23,7 @@
 package org.jboss.as.ejb3.subsystem;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UNDEFINE_ATTRIBUTE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
 
 import org.jboss.as.controller.AttributeDefinition;
@@ -30,11 +31,18 @@ import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.transform.DiscardUndefinedAttributesTransformer;
 import org.jboss.as.controller.transform.RejectExpressionValuesTransformer;
 import org.jboss.as.controller.transform.ResourceTransformer;
 import org.jboss.as.controller.transform.TransformersSubRegistration;
+import org.jboss.as.controller.transform.chained.ChainedOperationTransformer;
+import org.jboss.as.controller.transform.chained.ChainedResourceTransformer;
+import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
 import java.util.Collections;
@@ -62,6 +70,28 @@ public class EJB3RemoteResourceDefinition extends SimpleResourceDefinition {
                     .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
                     .build();
 
+    /**
+     * The longest time a message to a client is held back, to be sent along with other messages. Coalescing is
+     * disabled unless this is greater than 0.
+     */
+    static final SimpleAttributeDefinition RESPONSE_COALESCING_WINDOW =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.RESPONSE_COALESCING_WINDOW, ModelType.LONG, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(0L))
+                    .setValidator(new LongRangeValidator(0, Long.MAX_VALUE, true, true))
+                    .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
+    static final SimpleAttributeDefinition RESPONSE_COALESCING_MAX_BYTES =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.RESPONSE_COALESCING_MAX_BYTES, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(16384))
+                    .setValidator(new IntRangeValidator(1, Integer.MAX_VALUE, true, true))
+                    .setMeasurementUnit(MeasurementUnit.BYTES)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
 
     private static final Map<String, AttributeDefinition> ATTRIBUTES;
 
@@ -69,6 +99,8 @@ public class EJB3RemoteResourceDefinition extends SimpleResourceDefinition {
         Map<String, AttributeDefinition> map = new LinkedHashMap<String, AttributeDefinition>();
         map.put(CONNECTOR_REF.getName(), CONNECTOR_REF);
         map.put(THREAD_POOL_NAME.getName(), THREAD_POOL_NAME);
+        map.put(RESPONSE_COALESCING_WINDOW.getName(), RESPONSE_COALESCING_WINDOW);
+        map.put(RESPONSE_COALESCING_MAX_BYTES.getName(), RESPONSE_COALESCING_MAX_BYTES);
 
         ATTRIBUTES = Collections.unmodifiableMap(map);
     }
@@ -97,8 +129,15 @@ public class EJB3RemoteResourceDefinition extends SimpleResourceDefinition {
 
     static void registerTransformers_1_1_0(TransformersSubRegistration parent) {
 
+        RejectExpressionValuesTransformer rejectTransformer = new RejectExpressionValuesTransformer(RESPONSE_COALESCING_WINDOW, RESPONSE_COALESCING_MAX_BYTES);
+        DiscardUndefinedAttributesTransformer discardTransformer = new DiscardUndefinedAttributesTransformer(RESPONSE_COALESCING_WINDOW, RESPONSE_COALESCING_MAX_BYTES);
+        ChainedResourceTransformer ctr = new ChainedResourceTransformer(rejectTransformer.getChainedTransformer(), discardTransformer);
         final TransformersSubRegistration transformers110 = parent.registerSubResource(EJB3SubsystemModel.REMOTE_SERVICE_PATH,
-                ResourceTransformer.DEFAULT);
+                (ResourceTransformer) ctr);
+        transformers110.registerOperationTransformer(ADD, new ChainedOperationTransformer(rejectTransformer, discardTransformer));
+        transformers110.registerOperationTransformer(WRITE_ATTRIBUTE_OPERATION,
+                new ChainedOperationTransformer(rejectTransformer.getWriteAttributeTransformer(), discardTransformer.getWriteAttributeTransformer()));
+        transformers110.registerOperationTransformer(UNDEFINE_ATTRIBUTE_OPERATION, discardTransformer);
         ChannelCreationOptionResource.registerTransformers_1_1_0(transformers110);
     }
 }
@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
 import javax.transaction.TransactionManager;
 import javax.transaction.TransactionSynchronizationRegistry;
 import javax.transaction.UserTransaction;
@@ -50,6 +51,7 @@ import org.jboss.as.ejb3.remote.RemoteAsyncInvocationCancelStatusService;
 import org.jboss.as.remoting.RemotingServices;
 import org.jboss.as.server.ServerEnvironment;
 import org.jboss.as.server.ServerEnvironmentService;
+import org.jboss.as.threads.ThreadFactoryService;
 import org.jboss.as.txn.service.TransactionManagerService;
 import org.jboss.as.txn.service.TransactionSynchronizationRegistryService;
 import org.jboss.as.txn.service.UserTransactionService;
@@ -103,6 +105,8 @@ public class EJB3RemoteServiceAdd extends AbstractBoottimeAddStepHandler {
     Collection<ServiceController<?>> installRuntimeServices(final OperationContext context, final ModelNode model, final ServiceVerificationHandler verificationHandler) throws OperationFailedException {
         final String connectorName = EJB3RemoteResourceDefinition.CONNECTOR_REF.resolveModelAttribute(context, model).asString();
         final String threadPoolName = EJB3RemoteResourceDefinition.THREAD_POOL_NAME.resolveModelAttribute(context, model).asString();
+        final long responseCoalescingWindow = EJB3RemoteResourceDefinition.RESPONSE_COALESCING_WINDOW.resolveModelAttribute(context, model).asLong();
+        final int responseCoalescingMaxBytes = EJB3RemoteResourceDefinition.RESPONSE_COALESCING_MAX_BYTES.resolveModelAttribute(context, model).asInt();
         final ServiceName remotingServerServiceName = RemotingServices.serverServiceName(connectorName);
 
         final List<ServiceController<?>> services = new ArrayList<ServiceController<?>>();
@@ -123,7 +127,8 @@ public class EJB3RemoteServiceAdd extends AbstractBoottimeAddStepHandler {
         final OptionMap channelCreationOptions = this.getChannelCreationOptions(context);
         // Install the EJB remoting connector service which will listen for client connections on the remoting channel
         // TODO: Externalize (expose via management API if needed) the version and the marshalling strategy
-        final EJBRemoteConnectorService ejbRemoteConnectorService = new EJBRemoteConnectorService((byte) 0x01, new String[]{"river"}, remotingServerServiceName, channelCreationOptions);
+        final EJBRemoteConnectorService ejbRemoteConnectorService = new EJBRemoteConnectorService((byte) 0x01, new String[]{"river"}, remotingServerServiceName, channelCreationOptions,
+                responseCoalescingWindow, responseCoalescingMaxBytes);
         final ServiceBuilder<EJBRemoteConnectorService> ejbRemoteConnectorServiceBuilder = serviceTarget.addService(EJBRemoteConnectorService.SERVICE_NAME, ejbRemoteConnectorService);
         // add dependency on the Remoting subsystem endpoint
         ejbRemoteConnectorServiceBuilder.addDependency(RemotingServices.SUBSYSTEM_ENDPOINT, Endpoint.class, ejbRemoteConnectorService.getEndpointInjector());
@@ -139,6 +144,15 @@ public class EJB3RemoteServiceAdd extends AbstractBoottimeAddStepHandler {
                 .addDependency(TransactionSynchronizationRegistryService.SERVICE_NAME, TransactionSynchronizationRegistry.class, ejbRemoteConnectorService.getTxSyncRegistryInjector())
                 .addDependency(RemoteAsyncInvocationCancelStatusService.SERVICE_NAME, RemoteAsyncInvocationCancelStatusService.class, ejbRemoteConnectorService.getAsyncInvocationCancelStatusInjector())
                 .setInitialMode(ServiceController.Mode.ACTIVE);
+        if (responseCoalescingWindow > 0) {
+            // the thread writing out coalesced responses, named like the threads of the subsystem's thread pools
+            final ThreadFactoryService threadFactoryService = new ThreadFactoryService();
+            threadFactoryService.setThreadGroupName("EJB remote response coalescing");
+            threadFactoryService.setNamePattern("%G - %t");
+            services.add(serviceTarget.addService(EJBRemoteConnectorService.RESPONSE_COALESCING_THREAD_FACTORY_SERVICE_NAME, threadFactoryService).install());
+            ejbRemoteConnectorServiceBuilder.addDependency(EJBRemoteConnectorService.RESPONSE_COALESCING_THREAD_FACTORY_SERVICE_NAME, ThreadFactory.class,
+                    ejbRemoteConnectorService.getResponseCoalescingThreadFactoryInjector());
+        }
         if (verificationHandler != null) {
             ejbRemoteConnectorServiceBuilder.addListener(verificationHandler);
         }
@@ -153,6 +167,8 @@ public class EJB3RemoteServiceAdd extends AbstractBoottimeAddStepHandler {
     protected void populateModel(ModelNode operation, ModelNode model) throws OperationFailedException {
         EJB3RemoteResourceDefinition.CONNECTOR_REF.validateAndSet(operation, model);
         EJB3RemoteResourceDefinition.THREAD_POOL_NAME.validateAndSet(operation, model);
+        EJB3RemoteResourceDefinition.RESPONSE_COALESCING_WINDOW.validateAndSet(operation, model);
+        EJB3RemoteResourceDefinition.RESPONSE_COALESCING_MAX_BYTES.validateAndSet(operation, model);
     }
 
     private OptionMap getChannelCreationOptions(final OperationContext context) throws OperationFailedException {
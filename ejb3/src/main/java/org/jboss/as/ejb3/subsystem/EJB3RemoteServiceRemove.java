@@ -57,5 +57,6 @@ public class EJB3RemoteServiceRemove extends AbstractRemoveStepHandler {
 
     void removeRuntimeService(OperationContext context, ModelNode operation) {
         context.removeService(EJBRemoteConnectorService.SERVICE_NAME);
+        context.removeService(EJBRemoteConnectorService.RESPONSE_COALESCING_THREAD_FACTORY_SERVICE_NAME);
     }
 }
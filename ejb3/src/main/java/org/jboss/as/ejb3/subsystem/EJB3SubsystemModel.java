@@ -58,17 +58,22 @@ public interface EJB3SubsystemModel {
 
     String MAX_POOL_SIZE = "max-pool-size";
     String STRICT_MAX_BEAN_INSTANCE_POOL = "strict-max-bean-instance-pool";
+    String STRIPED = "striped";
 
     String MAX_THREADS = "max-threads";
     String KEEPALIVE_TIME = "keepalive-time";
 
     String RELATIVE_TO = "relative-to";
     String PATH = "path";
+    String DATA_STORE_TYPE = "data-store-type";
+    String TIMEOUT_SCHEDULER = "timeout-scheduler";
 
     String DEFAULT_SINGLETON_BEAN_ACCESS_TIMEOUT = "default-singleton-bean-access-timeout";
     String DEFAULT_STATEFUL_BEAN_ACCESS_TIMEOUT = "default-stateful-bean-access-timeout";
 
     String REMOTE = "remote";
+    String RESPONSE_COALESCING_MAX_BYTES = "response-coalescing-max-bytes";
+    String RESPONSE_COALESCING_WINDOW = "response-coalescing-window";
     String SERVICE = "service";
     String TIMER_SERVICE = "timer-service";
     String THREAD_POOL = "thread-pool";
@@ -69,11 +69,15 @@ public enum EJB3SubsystemXMLAttribute {
 
     RELATIVE_TO("relative-to"),
     RESOURCE_ADAPTER_NAME("resource-adapter-name"),
+    RESPONSE_COALESCING_MAX_BYTES("response-coalescing-max-bytes"),
+    RESPONSE_COALESCING_WINDOW("response-coalescing-window"),
 
     SESSIONS_PATH("sessions-path"),
+    STRIPED("striped"),
     SUBDIRECTORY_COUNT("subdirectory-count"),
 
     THREAD_POOL_NAME("thread-pool-name"),
+    TIMEOUT_SCHEDULER("timeout-scheduler"),
     TYPE("type"),
 
     USE_QUALIFIED_NAME("use-qualified-name"),
@@ -0,0 +1,56 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.subsystem;
+
+/**
+ * The ways the timer service can schedule timeouts.
+ */
+public enum TimeoutSchedulerType {
+    /**
+     * A single {@link java.util.Timer}
+     */
+    TIMER("timer"),
+    /**
+     * A hierarchical timing wheel
+     */
+    TIMING_WHEEL("timing-wheel");
+
+    private final String name;
+
+    TimeoutSchedulerType(final String name) {
+        this.name = name;
+    }
+
+    public static TimeoutSchedulerType forName(final String name) {
+        for (TimeoutSchedulerType type : values()) {
+            if (type.name.equals(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
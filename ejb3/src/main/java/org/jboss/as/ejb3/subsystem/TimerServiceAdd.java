@@ -23,7 +23,7 @@
 package org.jboss.as.ejb3.subsystem;
 
 import java.util.List;
-import java.util.Timer;
+import java.util.concurrent.ThreadFactory;
 
 import javax.transaction.TransactionManager;
 import javax.transaction.TransactionSynchronizationRegistry;
@@ -40,20 +40,27 @@ import org.jboss.as.ejb3.deployment.processors.TimerServiceDeploymentProcessor;
 import org.jboss.as.ejb3.deployment.processors.annotation.TimerServiceAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.merging.TimerMethodMergingProcessor;
 import org.jboss.as.ejb3.timerservice.persistence.filestore.FileTimerPersistence;
+import org.jboss.as.ejb3.timerservice.persistence.filestore.JournalTimerPersistence;
+import org.jboss.as.ejb3.timerservice.scheduler.JavaUtilTimerScheduler;
+import org.jboss.as.ejb3.timerservice.scheduler.TimingWheelScheduler;
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler;
 import org.jboss.as.server.AbstractDeploymentChainStep;
 import org.jboss.as.server.DeploymentProcessorTarget;
 import org.jboss.as.server.Services;
 import org.jboss.as.server.deployment.Phase;
+import org.jboss.as.threads.ThreadFactoryService;
 import org.jboss.as.txn.service.TransactionManagerService;
 import org.jboss.as.txn.service.TransactionSynchronizationRegistryService;
 import org.jboss.dmr.ModelNode;
 import org.jboss.modules.ModuleLoader;
 import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
 
 import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
 /**
@@ -90,6 +97,9 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
         final ModelNode relativeToNode = TimerServiceResourceDefinition.RELATIVE_TO.resolveModelAttribute(context, model);
         final String relativeTo = relativeToNode.isDefined() ? relativeToNode.asString() : null;
 
+        final TimeoutSchedulerType schedulerType = TimeoutSchedulerType.forName(TimerServiceResourceDefinition.TIMEOUT_SCHEDULER.resolveModelAttribute(context, model).asString());
+        final TimerDataStoreType dataStoreType = TimerDataStoreType.forName(TimerServiceResourceDefinition.DATA_STORE_TYPE.resolveModelAttribute(context, model).asString());
+
         final String threadPoolName = TimerServiceResourceDefinition.THREAD_POOL_NAME.resolveModelAttribute(context, model).asString();
         final ServiceName threadPoolServiceName = EJB3SubsystemModel.BASE_THREAD_POOL_SERVICE_NAME.append(threadPoolName);
 
@@ -108,9 +118,20 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
             }
         }, OperationContext.Stage.RUNTIME);
 
-        newControllers.add(context.getServiceTarget().addService(TimerServiceDeploymentProcessor.TIMER_SERVICE_NAME, new TimerValueService())
-                .install());
-        final FileTimerPersistence fileTimerPersistence = new FileTimerPersistence(true, path, relativeTo);
+        final TimeoutSchedulerService schedulerService = new TimeoutSchedulerService(schedulerType);
+        final ServiceBuilder<TimeoutScheduler> schedulerBuilder = context.getServiceTarget().addService(TimerServiceDeploymentProcessor.TIMER_SERVICE_NAME, schedulerService);
+        if (schedulerType == TimeoutSchedulerType.TIMING_WHEEL) {
+            // the thread advancing the wheels, named like the threads of the subsystem's thread pools
+            final ServiceName threadFactoryServiceName = TimerServiceDeploymentProcessor.TIMER_SERVICE_NAME.append("thread-factory");
+            final ThreadFactoryService threadFactoryService = new ThreadFactoryService();
+            threadFactoryService.setThreadGroupName("EJB timing-wheel");
+            threadFactoryService.setNamePattern("%G - %t");
+            newControllers.add(context.getServiceTarget().addService(threadFactoryServiceName, threadFactoryService).install());
+            schedulerBuilder.addDependency(threadFactoryServiceName, ThreadFactory.class, schedulerService.threadFactory);
+        }
+        newControllers.add(schedulerBuilder.install());
+        final FileTimerPersistence fileTimerPersistence = dataStoreType == TimerDataStoreType.JOURNAL ?
+                new JournalTimerPersistence(true, path, relativeTo) : new FileTimerPersistence(true, path, relativeTo);
         newControllers.add(context.getServiceTarget().addService(FileTimerPersistence.SERVICE_NAME, fileTimerPersistence)
                 .addDependency(Services.JBOSS_SERVICE_MODULE_LOADER, ModuleLoader.class, fileTimerPersistence.getModuleLoader())
                 .addDependency(PathManagerService.SERVICE_NAME, PathManager.class, fileTimerPersistence.getPathManager())
@@ -120,24 +141,30 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
 
     }
 
-    private static final class TimerValueService implements Service<Timer> {
+    private static final class TimeoutSchedulerService implements Service<TimeoutScheduler> {
 
-        private Timer timer;
+        private final TimeoutSchedulerType type;
+        private final InjectedValue<ThreadFactory> threadFactory = new InjectedValue<ThreadFactory>();
+        private TimeoutScheduler scheduler;
+
+        TimeoutSchedulerService(final TimeoutSchedulerType type) {
+            this.type = type;
+        }
 
         @Override
         public synchronized void start(final StartContext context) throws StartException {
-            timer = new Timer();
+            scheduler = type == TimeoutSchedulerType.TIMING_WHEEL ? new TimingWheelScheduler(threadFactory.getValue()) : new JavaUtilTimerScheduler();
         }
 
         @Override
         public synchronized void stop(final StopContext context) {
-            timer.cancel();
-            timer = null;
+            scheduler.shutdown();
+            scheduler = null;
         }
 
         @Override
-        public synchronized Timer getValue() throws IllegalStateException, IllegalArgumentException {
-            return timer;
+        public synchronized TimeoutScheduler getValue() throws IllegalStateException, IllegalArgumentException {
+            return scheduler;
         }
     }
 }
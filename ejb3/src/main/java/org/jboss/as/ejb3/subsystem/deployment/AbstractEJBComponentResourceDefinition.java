@@ -22,7 +22,9 @@
 
 package org.jboss.as.ejb3.subsystem.deployment;
 
+import java.lang.reflect.Method;
 import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
 
 import javax.xml.stream.XMLStreamException;
@@ -37,13 +39,18 @@ import org.jboss.as.controller.PrimitiveListAttributeDefinition;
 import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.ejb3.component.EJBComponent;
+import org.jboss.as.ejb3.component.invocationmetrics.InvocationMetrics;
+import org.jboss.as.ejb3.concurrency.LockableComponent;
 import org.jboss.as.ejb3.subsystem.EJB3Extension;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -85,6 +92,14 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
 
+    // Latency percentiles, as name suffix and percentile
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private static final AttributeDefinition METHODS = new SimpleAttributeDefinitionBuilder("methods", ModelType.OBJECT, true)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
     public static final SimpleAttributeDefinition RUN_AS_ROLE = new SimpleAttributeDefinitionBuilder("run-as-role", ModelType.STRING, true)
             .setValidator(new StringLengthValidator(1, true))
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
@@ -163,5 +178,76 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                 context.getResult().set(component.getInvocationMetrics().getWaitTime());
             }
         });
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            final double percentile = PERCENTILES[i];
+            resourceRegistration.registerMetric(percentileAttribute("execution-time-" + PERCENTILE_NAMES[i]), new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    context.getResult().set(component.getInvocationMetrics().getValues().getExecutionTimePercentile(percentile));
+                }
+            });
+            resourceRegistration.registerMetric(percentileAttribute("wait-time-" + PERCENTILE_NAMES[i]), new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    context.getResult().set(component.getInvocationMetrics().getValues().getWaitTimePercentile(percentile));
+                }
+            });
+        }
+        resourceRegistration.registerMetric(METHODS, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                final ModelNode result = context.getResult();
+                result.setEmptyObject();
+                for (Map.Entry<Method, InvocationMetrics.Values> entry : component.getInvocationMetrics().getMethods().entrySet()) {
+                    final ModelNode methodNode = result.get(methodName(entry.getKey()));
+                    final InvocationMetrics.Values values = entry.getValue();
+                    methodNode.get(INVOCATIONS.getName()).set(values.getInvocations());
+                    methodNode.get(EXECUTION_TIME.getName()).set(values.getExecutionTime());
+                    methodNode.get(WAIT_TIME.getName()).set(values.getWaitTime());
+                    for (int i = 0; i < PERCENTILES.length; i++) {
+                        methodNode.get("execution-time-" + PERCENTILE_NAMES[i]).set(values.getExecutionTimePercentile(PERCENTILES[i]));
+                        methodNode.get("wait-time-" + PERCENTILE_NAMES[i]).set(values.getWaitTimePercentile(PERCENTILES[i]));
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public void registerOperations(ManagementResourceRegistration resourceRegistration) {
+        super.registerOperations(resourceRegistration);
+        final SimpleOperationDefinition resetStatistics = new SimpleOperationDefinitionBuilder("reset-statistics",
+                EJB3Extension.getResourceDescriptionResolver(componentType.getResourceType()))
+                .setRuntimeOnly()
+                .build();
+        resourceRegistration.registerOperationHandler(resetStatistics, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                component.getInvocationMetrics().reset();
+                if (component instanceof LockableComponent) {
+                    ((LockableComponent) component).getLockGroupMetrics().reset();
+                }
+            }
+        });
+    }
+
+    private static AttributeDefinition percentileAttribute(final String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG)
+                .setAllowNull(false)
+                .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+                .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                .build();
+    }
+
+    private static String methodName(final Method method) {
+        final StringBuilder sb = new StringBuilder(method.getName()).append('(');
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(parameterTypes[i].getName());
+        }
+        return sb.append(')').toString();
     }
 }
@@ -22,8 +22,21 @@
 
 package org.jboss.as.ejb3.subsystem.deployment;
 
+import java.util.Map;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.ResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.ejb3.component.EJBComponent;
+import org.jboss.as.ejb3.component.invocationmetrics.InvocationMetrics;
 import org.jboss.as.ejb3.component.singleton.SingletonComponent;
+import org.jboss.as.ejb3.concurrency.LockGroupMetrics;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * {@link ResourceDefinition} for a {@link SingletonComponent}.
@@ -34,7 +47,42 @@ public class SingletonBeanDeploymentResourceDefinition extends AbstractEJBCompon
 
     public static final SingletonBeanDeploymentResourceDefinition INSTANCE = new SingletonBeanDeploymentResourceDefinition();
 
+    private static final AttributeDefinition LOCK_GROUPS = new SimpleAttributeDefinitionBuilder("lock-groups", ModelType.OBJECT, true)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
     private SingletonBeanDeploymentResourceDefinition() {
         super(EJBComponentType.SINGLETON);
     }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        resourceRegistration.registerMetric(LOCK_GROUPS, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                final ModelNode result = context.getResult();
+                result.setEmptyObject();
+                final LockGroupMetrics metrics = ((SingletonComponent) component).getLockGroupMetrics();
+                final Map<String, Long> timeouts = metrics.getTimeouts();
+                for (Map.Entry<String, InvocationMetrics.Values> entry : metrics.getLockGroups().entrySet()) {
+                    final ModelNode lockGroupNode = result.get(entry.getKey());
+                    final InvocationMetrics.Values values = entry.getValue();
+                    lockGroupNode.get("acquisitions").set(values.getInvocations());
+                    lockGroupNode.get("wait-time").set(values.getWaitTime());
+                    lockGroupNode.get("wait-time-p99").set(values.getWaitTimePercentile(0.99));
+                    lockGroupNode.get("hold-time").set(values.getExecutionTime());
+                    lockGroupNode.get("hold-time-p99").set(values.getExecutionTimePercentile(0.99));
+                    lockGroupNode.get("timeouts").set(0L);
+                }
+                for (Map.Entry<String, Long> entry : timeouts.entrySet()) {
+                    final ModelNode lockGroupNode = result.get(entry.getKey());
+                    if (!lockGroupNode.has("acquisitions")) {
+                        lockGroupNode.get("acquisitions").set(0L);
+                    }
+                    lockGroupNode.get("timeouts").set(entry.getValue());
+                }
+            }
+        });
+    }
 }
@@ -22,8 +22,19 @@
 
 package org.jboss.as.ejb3.subsystem.deployment;
 
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.ResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.ejb3.cache.PassivationMetrics;
+import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.component.stateful.StatefulSessionComponent;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * {@link ResourceDefinition} for a {@link StatefulSessionComponent}.
@@ -34,7 +45,63 @@ public class StatefulSessionBeanDeploymentResourceDefinition extends AbstractEJB
 
     public static final StatefulSessionBeanDeploymentResourceDefinition INSTANCE = new StatefulSessionBeanDeploymentResourceDefinition();
 
+    private static final AttributeDefinition PASSIVATION_QUEUE_DEPTH = new SimpleAttributeDefinitionBuilder("passivation-queue-depth", ModelType.INT, true)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition PASSIVATION_COUNT = new SimpleAttributeDefinitionBuilder("passivation-count", ModelType.LONG, true)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition PASSIVATION_LATENCY_P50 = passivationLatencyAttribute("passivation-latency-p50");
+
+    private static final AttributeDefinition PASSIVATION_LATENCY_P99 = passivationLatencyAttribute("passivation-latency-p99");
+
     private StatefulSessionBeanDeploymentResourceDefinition() {
         super(EJBComponentType.STATEFUL);
     }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        resourceRegistration.registerMetric(PASSIVATION_QUEUE_DEPTH, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                final PassivationMetrics metrics = ((StatefulSessionComponent) component).getCache().getPassivationMetrics();
+                if (metrics != null) {
+                    context.getResult().set(metrics.getQueueDepth());
+                }
+            }
+        });
+        resourceRegistration.registerMetric(PASSIVATION_COUNT, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                final PassivationMetrics metrics = ((StatefulSessionComponent) component).getCache().getPassivationMetrics();
+                if (metrics != null) {
+                    context.getResult().set(metrics.getPassivations());
+                }
+            }
+        });
+        registerPassivationLatency(resourceRegistration, PASSIVATION_LATENCY_P50, 0.5);
+        registerPassivationLatency(resourceRegistration, PASSIVATION_LATENCY_P99, 0.99);
+    }
+
+    private static void registerPassivationLatency(final ManagementResourceRegistration resourceRegistration, final AttributeDefinition attribute, final double percentile) {
+        resourceRegistration.registerMetric(attribute, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                final PassivationMetrics metrics = ((StatefulSessionComponent) component).getCache().getPassivationMetrics();
+                if (metrics != null) {
+                    context.getResult().set(metrics.getLatencyPercentile(percentile));
+                }
+            }
+        });
+    }
+
+    private static AttributeDefinition passivationLatencyAttribute(final String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG, true)
+                .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+                .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                .build();
+    }
 }
@@ -61,6 +61,7 @@ import org.jboss.modules.ModuleLoader;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 
@@ -102,7 +103,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
     }
 
     @Override
-    public synchronized void start(final StartContext context) {
+    public synchronized void start(final StartContext context) throws StartException {
 
         final RiverMarshallerFactory factory = new RiverMarshallerFactory();
         final MarshallingConfiguration configuration = new MarshallingConfiguration();
@@ -158,6 +159,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     private void persistTimer(final TimerEntity timerEntity, boolean newTimer) {
         final Lock lock = getLock(timerEntity.getTimedObjectId());
+        long written = 0;
         try {
             final int status = transactionManager.getValue().getStatus();
             if (status == Status.STATUS_MARKED_ROLLBACK || status == Status.STATUS_ROLLEDBACK ||
@@ -167,36 +169,40 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             }
 
             lock.lock();
-            if (status == Status.STATUS_NO_TRANSACTION ||
-                    status == Status.STATUS_UNKNOWN || isBeforeCompletion()
-                    || status == Status.STATUS_COMMITTED) {
-                Map<String, TimerEntity> map = getTimers(timerEntity.getTimedObjectId());
-                if (timerEntity.getTimerState() == TimerState.CANCELED ||
-                        timerEntity.getTimerState() == TimerState.EXPIRED) {
-                    map.remove(timerEntity.getId());
-                    writeFile(timerEntity);
-                } else if (newTimer || map.containsKey(timerEntity.getId())) {
-                    //if it is not a new timer and is not in the map then it has
-                    //been removed by another thread.
-                    map.put(timerEntity.getId(), timerEntity);
-                    writeFile(timerEntity);
-                }
-            } else {
+            try {
+                if (status == Status.STATUS_NO_TRANSACTION ||
+                        status == Status.STATUS_UNKNOWN || isBeforeCompletion()
+                        || status == Status.STATUS_COMMITTED) {
+                    Map<String, TimerEntity> map = getTimers(timerEntity.getTimedObjectId());
+                    if (timerEntity.getTimerState() == TimerState.CANCELED ||
+                            timerEntity.getTimerState() == TimerState.EXPIRED) {
+                        map.remove(timerEntity.getId());
+                        written = writeFile(timerEntity);
+                    } else if (newTimer || map.containsKey(timerEntity.getId())) {
+                        //if it is not a new timer and is not in the map then it has
+                        //been removed by another thread.
+                        map.put(timerEntity.getId(), timerEntity);
+                        written = writeFile(timerEntity);
+                    }
+                } else {
 
-                final String key = timerTransactionKey(timerEntity);
-                Object existing = transactionSynchronizationRegistry.getValue().getResource(key);
-                //check is there is already a persist sync for this timer
-                if (existing == null) {
-                    transactionSynchronizationRegistry.getValue().registerInterposedSynchronization(new PersistTransactionSynchronization(lock, key, newTimer));
+                    final String key = timerTransactionKey(timerEntity);
+                    Object existing = transactionSynchronizationRegistry.getValue().getResource(key);
+                    //check is there is already a persist sync for this timer
+                    if (existing == null) {
+                        transactionSynchronizationRegistry.getValue().registerInterposedSynchronization(new PersistTransactionSynchronization(lock, key, newTimer));
+                    }
+                    //update the most recent version of the timer to be persisted
+                    transactionSynchronizationRegistry.getValue().putResource(key, timerEntity);
                 }
-                //update the most recent version of the timer to be persisted
-                transactionSynchronizationRegistry.getValue().putResource(key, timerEntity);
+            } finally {
+                lock.unlock();
             }
         } catch (SystemException e) {
             throw new RuntimeException(e);
-        } finally {
-            lock.unlock();
         }
+        // outside of the lock, so that other changes to the timers of the object are not held up meanwhile
+        awaitWritten(written);
     }
 
     private String timerTransactionKey(final TimerEntity timerEntity) {
@@ -312,7 +318,13 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         return map;
     }
 
-    private Map<String, TimerEntity> loadTimersFromFile(final String timedObjectId) {
+    /**
+     * Loads the persisted timers of a timed object. Called under lock
+     *
+     * @param timedObjectId The timed object id
+     * @return The timers for the object, keyed by timer id
+     */
+    protected Map<String, TimerEntity> loadTimersFromFile(final String timedObjectId) {
         final Map<String, TimerEntity> timers = new HashMap<String, TimerEntity>();
         try {
             final File file = new File(getDirectory(timedObjectId));
@@ -351,10 +363,20 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         return timers;
     }
 
-    private File fileName(String timedObjectId, String timerId) {
+    protected File fileName(String timedObjectId, String timerId) {
         return new File(getDirectory(timedObjectId) + File.separator + timerId.replace(File.separator, "-"));
     }
 
+    /**
+     * Gets the directory holding the timer files of a given timed object, without creating it.
+     *
+     * @param timedObjectId The timed object
+     * @return The directory
+     */
+    protected File getTimedObjectDirectory(String timedObjectId) {
+        return new File(baseDir, timedObjectId.replace(File.separator, "-"));
+    }
+
     /**
      * Gets the directory for a given timed object, making sure it exists.
      *
@@ -364,8 +386,8 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
     private String getDirectory(String timedObjectId) {
         String dirName = directories.get(timedObjectId);
         if (dirName == null) {
-            dirName = baseDir.getAbsolutePath() + File.separator + timedObjectId.replace(File.separator, "-");
-            File file = new File(dirName);
+            File file = getTimedObjectDirectory(timedObjectId);
+            dirName = file.getAbsolutePath();
             if (!file.exists()) {
                 if (!file.mkdirs()) {
                     ROOT_LOGGER.failToCreateDirectoryForPersistTimers(file);
@@ -377,7 +399,14 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
     }
 
 
-    private void writeFile(TimerEntity entity) {
+    /**
+     * Writes out the new state of a timer, removing it from the store if it is cancelled or expired. Called under lock
+     *
+     * @param entity The timer
+     * @return what to pass to {@link #awaitWritten(long)} once the lock is released. Timer files are synced as they are
+     *         written, so always 0
+     */
+    protected long writeFile(TimerEntity entity) {
         final File file = fileName(entity.getTimedObjectId(), entity.getId());
 
         //if the timer is expired or cancelled delete the file
@@ -386,7 +415,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             if (file.exists()) {
                 file.delete();
             }
-            return;
+            return 0;
         }
 
         FileOutputStream fileOutputStream = null;
@@ -411,6 +440,16 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                 }
             }
         }
+        return 0;
+    }
+
+    /**
+     * Waits until a change written by {@link #writeFile(TimerEntity)} is durable. Called after the lock of the timed
+     * object has been released.
+     *
+     * @param written the value returned by {@link #writeFile(TimerEntity)}
+     */
+    protected void awaitWritten(long written) {
     }
 
     private final class PersistTransactionSynchronization implements Synchronization {
@@ -440,6 +479,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             if (timer == null) {
                 return;
             }
+            long written = 0;
             try {
                 lock.lock();
                 if (status == Status.STATUS_COMMITTED) {
@@ -453,16 +493,29 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                             map.put(timer.getId(), timer);
                         }
                     }
-                    writeFile(timer);
+                    written = writeFile(timer);
                 }
             } finally {
                 lock.unlock();
             }
+            awaitWritten(written);
         }
 
 
     }
 
+    protected File getBaseDir() {
+        return baseDir;
+    }
+
+    protected Marshaller createMarshaller() throws IOException {
+        return factory.createMarshaller(configuration);
+    }
+
+    protected Unmarshaller createUnmarshaller() throws IOException {
+        return factory.createUnmarshaller(configuration);
+    }
+
     public InjectedValue<TransactionManager> getTransactionManager() {
         return transactionManager;
     }
@@ -0,0 +1,769 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.TimerEntity;
+import org.jboss.marshalling.InputStreamByteInput;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.marshalling.Unmarshaller;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+
+/**
+ * Persistent timer store which appends every change to a journal, instead of rewriting a file per timer.
+ * <p/>
+ * The journal is a sequence of segment files in the <code>journal</code> directory of the data store. Each record
+ * either puts the marshalled state of a timer or removes it, and carries the timed object and timer ids in plain form
+ * so that the journal can be indexed on start without unmarshalling any timer. Timers of a timed object are only
+ * unmarshalled when the timer service of that object asks for them, reading just the records the index points to.
+ * <p/>
+ * Changes are appended by the thread making them, which then waits for the journal to be synced to disk once it has
+ * released the lock of the timed object. Threads waiting at the same time share a single fsync. A new segment is started once the current one is full, and the oldest
+ * segments are compacted in the background, by copying their live records to the end of the journal, once the journal
+ * has grown to more than twice the size of the live records.
+ * <p/>
+ * Timers a file based store left in the data store directory are moved to the journal when the timers of their timed
+ * object are first loaded, so the data store type can be switched from file to journal without losing them.
+ */
+public class JournalTimerPersistence extends FileTimerPersistence {
+
+    public static final String JOURNAL_DIRECTORY = "journal";
+
+    private static final long DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int SEGMENT_MAGIC = 0x454a544a;
+    private static final int SEGMENT_HEADER_SIZE = 4;
+    // length + checksum
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final int GARBAGE_FACTOR = 2;
+
+    private final long segmentSize;
+
+    /**
+     * Guards appending to the journal: {@link #head}, {@link #segments}, {@link #index} and the byte counts.
+     */
+    private final Lock journalLock = new ReentrantLock();
+    /**
+     * Segments are only closed and deleted by compaction, which takes the write lock. Reads take the read lock.
+     */
+    private final ReadWriteLock segmentLock = new ReentrantReadWriteLock();
+    private final Lock syncLock = new ReentrantLock();
+    private final Condition syncDone = syncLock.newCondition();
+
+    /**
+     * The segments, oldest first
+     */
+    private final LinkedList<Segment> segments = new LinkedList<Segment>();
+    /**
+     * timed object id : timer id : the record holding the current state of the timer
+     */
+    private final Map<String, Map<String, Location>> index = new HashMap<String, Map<String, Location>>();
+    private long totalBytes;
+    private long liveBytes;
+    private volatile Segment head;
+    /**
+     * The number of bytes ever appended, and the number of those known to be on disk
+     */
+    private volatile long writtenPosition;
+    private long syncedPosition;
+    private boolean syncing;
+
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private ExecutorService compactor;
+    private File journalDir;
+
+    public JournalTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo) {
+        this(createIfNotExists, path, pathRelativeTo, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public JournalTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo, final long segmentSize) {
+        super(createIfNotExists, path, pathRelativeTo);
+        this.segmentSize = segmentSize;
+    }
+
+    @Override
+    public synchronized void start(final StartContext context) throws StartException {
+        super.start(context);
+        journalDir = new File(getBaseDir(), JOURNAL_DIRECTORY);
+        if (!journalDir.exists() && !journalDir.mkdirs()) {
+            throw MESSAGES.failToCreateTimerFileStoreDir(journalDir);
+        }
+        writtenPosition = 0;
+        syncedPosition = 0;
+        totalBytes = 0;
+        liveBytes = 0;
+        try {
+            final File[] files = journalDir.listFiles();
+            final List<Segment> existing = new ArrayList<Segment>();
+            for (final File file : files) {
+                final String name = file.getName();
+                if (name.endsWith(SEGMENT_SUFFIX)) {
+                    try {
+                        existing.add(new Segment(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())), file));
+                    } catch (NumberFormatException e) {
+                        // not one of ours
+                    }
+                }
+            }
+            Collections.sort(existing, new Comparator<Segment>() {
+                @Override
+                public int compare(final Segment o1, final Segment o2) {
+                    return o1.id < o2.id ? -1 : (o1.id == o2.id ? 0 : 1);
+                }
+            });
+            for (final Segment segment : existing) {
+                segment.open();
+                replay(segment);
+                segments.add(segment);
+                totalBytes += segment.size;
+            }
+            roll(segments.isEmpty() ? 0 : segments.getLast().id + 1);
+        } catch (IOException e) {
+            closeSegments();
+            throw new StartException(e);
+        }
+        final String threadName = "EJB timer journal compactor [" + journalDir + "]";
+        compactor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r, threadName);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    @Override
+    public void stop(final StopContext context) {
+        // a running compaction stops after the segment at hand
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        segmentLock.writeLock().lock();
+        try {
+            journalLock.lock();
+            try {
+                closeSegments();
+                index.clear();
+                head = null;
+            } finally {
+                journalLock.unlock();
+            }
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+        super.stop(context);
+    }
+
+    @Override
+    protected Map<String, TimerEntity> loadTimersFromFile(final String timedObjectId) {
+        final Map<String, TimerEntity> timers = loadTimersFromJournal(timedObjectId);
+        importTimerFiles(timedObjectId, timers);
+        return timers;
+    }
+
+    private Map<String, TimerEntity> loadTimersFromJournal(final String timedObjectId) {
+        final Map<String, TimerEntity> timers = new HashMap<String, TimerEntity>();
+        final List<Location> locations;
+        journalLock.lock();
+        try {
+            final Map<String, Location> timerLocations = index.get(timedObjectId);
+            if (timerLocations == null) {
+                return timers;
+            }
+            locations = new ArrayList<Location>(timerLocations.values());
+        } finally {
+            journalLock.unlock();
+        }
+        // read in journal order, which is mostly sequential
+        Collections.sort(locations);
+        segmentLock.readLock().lock();
+        try {
+            final Unmarshaller unmarshaller = createUnmarshaller();
+            for (final Location location : locations) {
+                try {
+                    final Record record = location.read();
+                    if (record == null) {
+                        ROOT_LOGGER.timerJournalSegmentCorrupt(location.segment.file, location.offset);
+                        continue;
+                    }
+                    unmarshaller.start(new InputStreamByteInput(record.entityStream()));
+                    final TimerEntity entity = unmarshaller.readObject(TimerEntity.class);
+                    unmarshaller.finish();
+                    timers.put(entity.getId(), entity);
+                } catch (Exception e) {
+                    ROOT_LOGGER.failToRestoreTimersFromFile(location.segment.file, e);
+                }
+            }
+        } catch (IOException e) {
+            ROOT_LOGGER.failToRestoreTimersForObjectId(timedObjectId, e);
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+        return timers;
+    }
+
+    /**
+     * Moves the timers a file based store left for a timed object into the journal, where they replace the journaled
+     * state of the same timers. The files of the timers which could be read are deleted once the journal is synced.
+     * Called under the lock of the timed object.
+     */
+    private void importTimerFiles(final String timedObjectId, final Map<String, TimerEntity> timers) {
+        final File directory = getTimedObjectDirectory(timedObjectId);
+        if (!directory.isDirectory()) {
+            return;
+        }
+        final Map<String, TimerEntity> imported = super.loadTimersFromFile(timedObjectId);
+        long position = 0;
+        for (final TimerEntity entity : imported.values()) {
+            position = Math.max(position, writeFile(entity));
+            timers.put(entity.getId(), entity);
+        }
+        awaitWritten(position);
+        for (final TimerEntity entity : imported.values()) {
+            final File file = fileName(timedObjectId, entity.getId());
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+        // only succeeds if every file could be imported
+        directory.delete();
+        if (!imported.isEmpty()) {
+            ROOT_LOGGER.importedTimerFiles(imported.size(), timedObjectId);
+        }
+    }
+
+    /**
+     * Appends the new state of a timer to the journal, without waiting for it to be synced.
+     *
+     * @return the position the journal needs to be synced up to for the change to be durable, or 0 if nothing was written
+     */
+    @Override
+    protected long writeFile(final TimerEntity entity) {
+        try {
+            if (entity.getTimerState() == TimerState.CANCELED ||
+                    entity.getTimerState() == TimerState.EXPIRED) {
+                return append(entity.getTimedObjectId(), entity.getId(), null);
+            }
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+            final Marshaller marshaller = createMarshaller();
+            marshaller.start(new OutputStreamByteOutput(out));
+            marshaller.writeObject(entity);
+            marshaller.finish();
+            return append(entity.getTimedObjectId(), entity.getId(), out.toByteArray());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    protected void awaitWritten(final long position) {
+        if (position > 0) {
+            try {
+                sync(position);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * Appends a record to the journal.
+     *
+     * @param entity the marshalled timer, or null to remove the timer
+     * @return the position the journal needs to be synced up to for the record to be durable, or 0 if nothing was written
+     */
+    private long append(final String timedObjectId, final String timerId, final byte[] entity) throws IOException {
+        final byte[] record = Record.encode(entity == null ? REMOVE : PUT, timedObjectId, timerId, entity);
+        journalLock.lock();
+        try {
+            if (head == null) {
+                throw MESSAGES.failToStartTimerService();
+            }
+            if (entity == null) {
+                final Map<String, Location> timers = index.get(timedObjectId);
+                if (timers == null || !timers.containsKey(timerId)) {
+                    // never made it to the journal, nothing to remove
+                    return 0;
+                }
+            }
+            final Location location = write(record);
+            if (entity == null) {
+                unindex(timedObjectId, timerId);
+            } else {
+                index(timedObjectId, timerId, location);
+            }
+            return writtenPosition;
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    /**
+     * Writes a record to the head segment, rolling over to a new segment if it is full. Called under the journal lock.
+     */
+    private Location write(final byte[] record) throws IOException {
+        if (head.size > SEGMENT_HEADER_SIZE && head.size + record.length > segmentSize) {
+            roll(head.id + 1);
+            if (totalBytes > segmentSize * GARBAGE_FACTOR && totalBytes > liveBytes * GARBAGE_FACTOR
+                    && compactionScheduled.compareAndSet(false, true)) {
+                try {
+                    compactor.execute(new CompactionTask());
+                } catch (RejectedExecutionException e) {
+                    // stopping
+                    compactionScheduled.set(false);
+                }
+            }
+        }
+        final Location location = new Location(head, head.size, record.length);
+        head.write(record);
+        totalBytes += record.length;
+        writtenPosition += record.length;
+        return location;
+    }
+
+    /**
+     * Syncs and seals the head segment and starts a new one. Called under the journal lock or on start.
+     */
+    private void roll(final long id) throws IOException {
+        final Segment previous = head;
+        if (previous != null) {
+            previous.channel.force(false);
+            syncLock.lock();
+            try {
+                syncedPosition = Math.max(syncedPosition, writtenPosition);
+            } finally {
+                syncLock.unlock();
+            }
+        }
+        final Segment segment = new Segment(id, new File(journalDir, id + SEGMENT_SUFFIX));
+        segment.open();
+        segment.channel.truncate(0);
+        segment.write(ByteBuffer.allocate(SEGMENT_HEADER_SIZE).putInt(0, SEGMENT_MAGIC).array());
+        segment.channel.force(true);
+        segments.add(segment);
+        totalBytes += SEGMENT_HEADER_SIZE;
+        head = segment;
+    }
+
+    /**
+     * Waits until the journal is on disk up to the given position. The first waiting thread syncs the journal on behalf
+     * of everyone, threads arriving in the meantime are covered by the next sync.
+     */
+    private void sync(final long position) throws IOException {
+        syncLock.lock();
+        try {
+            while (syncedPosition < position) {
+                if (syncing) {
+                    syncDone.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                long target = 0;
+                syncLock.unlock();
+                try {
+                    // read the position before the segment, a roll in between syncs the previous segment itself
+                    target = writtenPosition;
+                    final Segment segment = head;
+                    if (segment != null) {
+                        segment.channel.force(false);
+                    }
+                } catch (ClosedChannelException e) {
+                    // rolled and removed since, so synced
+                } finally {
+                    syncLock.lock();
+                    syncing = false;
+                    syncDone.signalAll();
+                }
+                syncedPosition = Math.max(syncedPosition, target);
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void index(final String timedObjectId, final String timerId, final Location location) {
+        Map<String, Location> timers = index.get(timedObjectId);
+        if (timers == null) {
+            timers = new HashMap<String, Location>();
+            index.put(timedObjectId, timers);
+        }
+        final Location previous = timers.put(timerId, location);
+        if (previous != null) {
+            previous.segment.liveBytes -= previous.length;
+            liveBytes -= previous.length;
+        }
+        location.segment.liveBytes += location.length;
+        liveBytes += location.length;
+    }
+
+    private void unindex(final String timedObjectId, final String timerId) {
+        final Map<String, Location> timers = index.get(timedObjectId);
+        if (timers == null) {
+            return;
+        }
+        final Location previous = timers.remove(timerId);
+        if (previous != null) {
+            previous.segment.liveBytes -= previous.length;
+            liveBytes -= previous.length;
+        }
+        if (timers.isEmpty()) {
+            index.remove(timedObjectId);
+        }
+    }
+
+    /**
+     * Rebuilds the index from a segment. A torn record at the end of the segment, left by a crash, is cut off.
+     */
+    private void replay(final Segment segment) throws IOException {
+        final long length = segment.channel.size();
+        final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        long offset = SEGMENT_HEADER_SIZE;
+        if (length < SEGMENT_HEADER_SIZE || segment.readInt(0) != SEGMENT_MAGIC) {
+            ROOT_LOGGER.timerJournalSegmentCorrupt(segment.file, 0);
+            offset = 0;
+        } else {
+            while (offset + RECORD_HEADER_SIZE <= length) {
+                header.clear();
+                segment.read(header, offset);
+                final int recordLength = header.getInt(0);
+                if (recordLength < RECORD_HEADER_SIZE || offset + recordLength > length) {
+                    break;
+                }
+                final Record record = new Location(segment, offset, recordLength).read();
+                if (record == null) {
+                    break;
+                }
+                if (record.type == PUT) {
+                    index(record.timedObjectId, record.timerId, new Location(segment, offset, recordLength));
+                } else {
+                    unindex(record.timedObjectId, record.timerId);
+                }
+                offset += recordLength;
+            }
+            if (offset < length) {
+                ROOT_LOGGER.timerJournalSegmentCorrupt(segment.file, offset);
+            }
+        }
+        segment.size = offset;
+        segment.channel.truncate(offset);
+    }
+
+    private void closeSegments() {
+        for (final Segment segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+    }
+
+    /**
+     * Copies the live records of the oldest segments to the head of the journal, and deletes the segments, until the
+     * journal is no longer more than twice the size of the live records.
+     * <p/>
+     * Only the oldest segment is ever deleted, so a removal record never outlives the records it removes.
+     */
+    private class CompactionTask implements Runnable {
+
+        @Override
+        public void run() {
+            compactionScheduled.set(false);
+            try {
+                while (!compactor.isShutdown() && compactOldest()) {
+                    // keep going
+                }
+            } catch (Exception e) {
+                ROOT_LOGGER.failToCompactTimerJournal(journalDir, e);
+            }
+        }
+
+        private boolean compactOldest() throws IOException {
+            final Segment oldest;
+            final List<String[]> ids = new ArrayList<String[]>();
+            final List<Location> live = new ArrayList<Location>();
+            journalLock.lock();
+            try {
+                if (head == null || segments.size() < 2 || totalBytes <= liveBytes * GARBAGE_FACTOR) {
+                    return false;
+                }
+                oldest = segments.getFirst();
+                if (oldest.liveBytes > 0) {
+                    for (final Map.Entry<String, Map<String, Location>> timers : index.entrySet()) {
+                        for (final Map.Entry<String, Location> timer : timers.getValue().entrySet()) {
+                            if (timer.getValue().segment == oldest) {
+                                ids.add(new String[]{timers.getKey(), timer.getKey()});
+                                live.add(timer.getValue());
+                            }
+                        }
+                    }
+                }
+            } finally {
+                journalLock.unlock();
+            }
+            // the oldest segment is sealed, so can be read without holding the journal lock
+            for (int i = 0; i < live.size(); i++) {
+                final Location location = live.get(i);
+                final byte[] record = location.readBytes();
+                journalLock.lock();
+                try {
+                    if (head == null) {
+                        return false;
+                    }
+                    final Map<String, Location> timers = index.get(ids.get(i)[0]);
+                    // unless the timer changed in the meantime
+                    if (timers != null && timers.get(ids.get(i)[1]) == location) {
+                        index(ids.get(i)[0], ids.get(i)[1], write(record));
+                    }
+                } finally {
+                    journalLock.unlock();
+                }
+            }
+            sync(writtenPosition);
+            segmentLock.writeLock().lock();
+            try {
+                journalLock.lock();
+                try {
+                    if (head == null) {
+                        return false;
+                    }
+                    segments.remove(oldest);
+                    totalBytes -= oldest.size;
+                } finally {
+                    journalLock.unlock();
+                }
+                oldest.close();
+            } finally {
+                segmentLock.writeLock().unlock();
+            }
+            if (!oldest.file.delete()) {
+                oldest.file.deleteOnExit();
+            }
+            return true;
+        }
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final File file;
+        private RandomAccessFile raf;
+        private FileChannel channel;
+        /**
+         * the number of bytes written, guarded by the journal lock
+         */
+        private long size;
+        /**
+         * the number of bytes in records that are still current, guarded by the journal lock
+         */
+        private long liveBytes;
+
+        Segment(final long id, final File file) {
+            this.id = id;
+            this.file = file;
+        }
+
+        void open() throws IOException {
+            raf = new RandomAccessFile(file, "rw");
+            channel = raf.getChannel();
+        }
+
+        void write(final byte[] bytes) throws IOException {
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            long position = size;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            size = position;
+        }
+
+        void read(final ByteBuffer buffer, final long offset) throws IOException {
+            long position = offset;
+            while (buffer.hasRemaining()) {
+                final int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException(file + ": unexpected end of segment at " + position);
+                }
+                position += read;
+            }
+        }
+
+        int readInt(final long offset) throws IOException {
+            final ByteBuffer buffer = ByteBuffer.allocate(4);
+            read(buffer, offset);
+            return buffer.getInt(0);
+        }
+
+        void close() {
+            try {
+                if (raf != null) {
+                    raf.close();
+                }
+            } catch (IOException e) {
+                ROOT_LOGGER.failToCloseFile(e);
+            }
+        }
+    }
+
+    /**
+     * The position of a record in the journal
+     */
+    private static final class Location implements Comparable<Location> {
+        private final Segment segment;
+        private final long offset;
+        private final int length;
+
+        Location(final Segment segment, final long offset, final int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        byte[] readBytes() throws IOException {
+            final ByteBuffer buffer = ByteBuffer.allocate(length);
+            segment.read(buffer, offset);
+            return buffer.array();
+        }
+
+        /**
+         * @return the record, or null if it is corrupt
+         */
+        Record read() throws IOException {
+            return Record.decode(readBytes());
+        }
+
+        @Override
+        public int compareTo(final Location o) {
+            if (segment.id != o.segment.id) {
+                return segment.id < o.segment.id ? -1 : 1;
+            }
+            return offset < o.offset ? -1 : (offset == o.offset ? 0 : 1);
+        }
+    }
+
+    /**
+     * A journal record:
+     * <pre>
+     *     int: record length | int: CRC32 of the body | body: byte: type | UTF: timed object id | UTF: timer id | marshalled timer (puts only)
+     * </pre>
+     */
+    private static final class Record {
+        private final byte type;
+        private final String timedObjectId;
+        private final String timerId;
+        private final byte[] bytes;
+        private final int entityOffset;
+
+        private Record(final byte type, final String timedObjectId, final String timerId, final byte[] bytes, final int entityOffset) {
+            this.type = type;
+            this.timedObjectId = timedObjectId;
+            this.timerId = timerId;
+            this.bytes = bytes;
+            this.entityOffset = entityOffset;
+        }
+
+        ByteArrayInputStream entityStream() {
+            return new ByteArrayInputStream(bytes, entityOffset, bytes.length - entityOffset);
+        }
+
+        static byte[] encode(final byte type, final String timedObjectId, final String timerId, final byte[] entity) throws IOException {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(RECORD_HEADER_SIZE + 128 + (entity == null ? 0 : entity.length));
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeByte(type);
+            out.writeUTF(timedObjectId);
+            out.writeUTF(timerId);
+            if (entity != null) {
+                out.write(entity);
+            }
+            out.close();
+            final byte[] record = bytes.toByteArray();
+            final CRC32 crc = new CRC32();
+            crc.update(record, RECORD_HEADER_SIZE, record.length - RECORD_HEADER_SIZE);
+            final ByteBuffer header = ByteBuffer.wrap(record);
+            header.putInt(0, record.length);
+            header.putInt(4, (int) crc.getValue());
+            return record;
+        }
+
+        static Record decode(final byte[] record) {
+            final ByteBuffer header = ByteBuffer.wrap(record);
+            final CRC32 crc = new CRC32();
+            crc.update(record, RECORD_HEADER_SIZE, record.length - RECORD_HEADER_SIZE);
+            if (header.getInt(0) != record.length || header.getInt(4) != (int) crc.getValue()) {
+                return null;
+            }
+            final ByteArrayInputStream bytes = new ByteArrayInputStream(record, RECORD_HEADER_SIZE, record.length - RECORD_HEADER_SIZE);
+            final DataInputStream in = new DataInputStream(bytes);
+            try {
+                final byte type = in.readByte();
+                if (type != PUT && type != REMOVE) {
+                    return null;
+                }
+                final String timedObjectId = in.readUTF();
+                final String timerId = in.readUTF();
+                return new Record(type, timedObjectId, timerId, record, record.length - bytes.available());
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    }
+}
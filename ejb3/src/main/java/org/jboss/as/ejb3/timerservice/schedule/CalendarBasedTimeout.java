@@ -24,6 +24,7 @@ package org.jboss.as.ejb3.timerservice.schedule;
 import org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfMonth;
 import org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfWeek;
 import org.jboss.as.ejb3.timerservice.schedule.attribute.Hour;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.IntegerBasedExpression;
 import org.jboss.as.ejb3.timerservice.schedule.attribute.Minute;
 import org.jboss.as.ejb3.timerservice.schedule.attribute.Month;
 import org.jboss.as.ejb3.timerservice.schedule.attribute.Second;
@@ -98,6 +99,17 @@ public class CalendarBasedTimeout {
      */
     private TimeZone timezone;
 
+    /**
+     * The last timeout computed by {@link #getNextTimeout(java.util.Calendar)}. Since the next timeout is always the
+     * earliest match after the passed time, it also answers every later request up to the timeout itself, and is
+     * the starting point for computing the one after it.
+     */
+    private volatile CachedTimeout cachedTimeout;
+
+    private static final long HOUR_MILLIS = 60 * 60 * 1000L;
+
+    private static final long DAY_MILLIS = 24 * HOUR_MILLIS;
+
     /**
      * Creates a {@link CalendarBasedTimeout} from the passed <code>schedule</code>.
      * <p>
@@ -230,6 +242,37 @@ public class CalendarBasedTimeout {
         if (this.noMoreTimeouts(currentCal)) {
             return null;
         }
+        long currentTime = currentCal.getTimeInMillis();
+        TimeZone currentTimeZone = currentCal.getTimeZone();
+        CachedTimeout cached = this.cachedTimeout;
+        if (cached != null && cached.matches && cached.isApplicable(currentTimeZone)) {
+            if (currentTime >= cached.from && currentTime < cached.timeout
+                    && isOffsetStable(cached.timeZone, cached.from, cached.timeout)) {
+                // the schedule has no timeout between the previously computed one and the time
+                // it was computed from
+                return cached.toCalendar();
+            }
+            if (currentTime == cached.timeout) {
+                // the usual case of a timer asking for the timeout following the one which just expired
+                CachedTimeout next = this.advanceWithinHour(cached);
+                if (next != null) {
+                    this.cachedTimeout = next;
+                    return next.toCalendar();
+                }
+            }
+        }
+        Calendar nextCal = this.computeNextTimeout(currentCal);
+        if (nextCal != null) {
+            this.cachedTimeout = this.cache(currentTime, nextCal);
+        }
+        return nextCal;
+    }
+
+    /**
+     * Computes the next timeout after <code>currentCal</code> from scratch, walking the schedule attributes from the
+     * second up to the year.
+     */
+    private Calendar computeNextTimeout(Calendar currentCal) {
         Calendar nextCal = this.copy(currentCal);
 
         Date start = this.scheduleExpression.getStart();
@@ -279,6 +322,71 @@ public class CalendarBasedTimeout {
         return nextCal;
     }
 
+    /**
+     * Creates the cache entry for <code>nextCal</code>, the next timeout computed from <code>currentTime</code>.
+     * The entry is only used if <code>nextCal</code> is accepted by all the schedule attributes as is, which
+     * isn't the case for a timeout moved by a daylight saving time transition.
+     */
+    private CachedTimeout cache(long currentTime, Calendar nextCal) {
+        if (nextCal.get(Calendar.MILLISECOND) != 0) {
+            // a start date with a millisecond part, nothing can be derived from such a timeout
+            return null;
+        }
+        int second = nextCal.get(Calendar.SECOND);
+        int minute = nextCal.get(Calendar.MINUTE);
+        int hour = nextCal.get(Calendar.HOUR_OF_DAY);
+        boolean matches = (this.second.getMask() & (1L << second)) != 0
+                && (this.minute.getMask() & (1L << minute)) != 0
+                && (this.hour.getMask() & (1L << hour)) != 0
+                && this.computeNextMonth(nextCal) == nextCal
+                && this.computeNextDate(nextCal) == nextCal
+                && this.computeNextYear(nextCal) == nextCal;
+        return new CachedTimeout(currentTime, nextCal.getTimeInMillis(), nextCal.getTimeZone(), second, minute, matches);
+    }
+
+    /**
+     * Computes the timeout following <code>cached</code> using the second and minute bit masks alone, which is
+     * possible as long as it falls within the same hour of the same day.
+     *
+     * @return the next timeout or null if it has to be computed from scratch
+     */
+    private CachedTimeout advanceWithinHour(CachedTimeout cached) {
+        Date start = this.scheduleExpression.getStart();
+        if (start != null && cached.timeout < start.getTime()) {
+            return null;
+        }
+        long secondMask = this.second.getMask();
+        int nextSecond = IntegerBasedExpression.nextSetBit(secondMask, cached.second + 1);
+        int nextMinute = cached.minute;
+        if (nextSecond < 0) {
+            nextMinute = IntegerBasedExpression.nextSetBit(this.minute.getMask(), cached.minute + 1);
+            if (nextMinute < 0) {
+                return null;
+            }
+            nextSecond = Long.numberOfTrailingZeros(secondMask);
+        }
+        long timeout = cached.timeout + ((nextMinute - cached.minute) * 60L + nextSecond - cached.second) * 1000L;
+        // wall clock and elapsed time only agree if there's no offset transition around this hour
+        if (!isOffsetStable(cached.timeZone, cached.timeout, timeout)) {
+            return null;
+        }
+        Date end = this.scheduleExpression.getEnd();
+        if (end != null && timeout > end.getTime()) {
+            return null;
+        }
+        return new CachedTimeout(cached.timeout, timeout, cached.timeZone, nextSecond, nextMinute, true);
+    }
+
+    /**
+     * Returns true if the UTC offset of the passed timezone doesn't change within an hour of the period between
+     * <code>from</code> and <code>to</code>. Around such a change, the timeouts computed from scratch depend on
+     * the time they're computed from, which rules out deriving them from one another.
+     */
+    private static boolean isOffsetStable(TimeZone timeZone, long from, long to) {
+        // offset changes are months apart, so equal offsets at both ends of a short period rule out any change in between
+        return to - from <= DAY_MILLIS && timeZone.getOffset(from - HOUR_MILLIS) == timeZone.getOffset(to + HOUR_MILLIS);
+    }
+
     private Calendar computeNextSecond(Calendar currentCal) {
         if (this.noMoreTimeouts(currentCal)) {
             return null;
@@ -795,4 +903,44 @@ public class CalendarBasedTimeout {
         return clonedSchedule;
     }
 
+    /**
+     * A timeout computed by {@link #getNextTimeout(java.util.Calendar)} along with the time it was computed from.
+     */
+    private static final class CachedTimeout {
+
+        private final long from;
+
+        private final long timeout;
+
+        private final TimeZone timeZone;
+
+        private final int second;
+
+        private final int minute;
+
+        /**
+         * True if the timeout is a match of every attribute of the schedule
+         */
+        private final boolean matches;
+
+        CachedTimeout(long from, long timeout, TimeZone timeZone, int second, int minute, boolean matches) {
+            this.from = from;
+            this.timeout = timeout;
+            this.timeZone = timeZone;
+            this.second = second;
+            this.minute = minute;
+            this.matches = matches;
+        }
+
+        boolean isApplicable(TimeZone timeZone) {
+            return this.timeZone == timeZone || this.timeZone.equals(timeZone);
+        }
+
+        Calendar toCalendar() {
+            Calendar cal = new GregorianCalendar(this.timeZone);
+            cal.setTimeInMillis(this.timeout);
+            return cal;
+        }
+    }
+
 }
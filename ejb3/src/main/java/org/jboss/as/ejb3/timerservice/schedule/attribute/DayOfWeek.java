@@ -59,6 +59,11 @@ public class DayOfWeek extends IntegerBasedExpression {
 
     private SortedSet<Integer> offsetAdjustedDaysOfWeek = new TreeSet<Integer>();
 
+    /**
+     * The offset adjusted days of week as a bit mask, in which bit <code>n</code> is set if {@link Calendar#DAY_OF_WEEK} <code>n</code> matches
+     */
+    private final long offsetAdjustedDaysOfWeekMask;
+
     public DayOfWeek(String value) {
         super(value);
         for (Integer dayOfWeek : this.absoluteValues) {
@@ -74,6 +79,11 @@ public class DayOfWeek extends IntegerBasedExpression {
         } else {
             this.offsetAdjustedDaysOfWeek = this.absoluteValues;
         }
+        long mask = 0;
+        for (Integer dayOfWeek : this.offsetAdjustedDaysOfWeek) {
+            mask |= 1L << dayOfWeek;
+        }
+        this.offsetAdjustedDaysOfWeekMask = mask;
     }
 
 
@@ -138,15 +148,6 @@ public class DayOfWeek extends IntegerBasedExpression {
         if (this.scheduleExpressionType == ScheduleExpressionType.WILDCARD) {
             return currentCal.get(Calendar.DAY_OF_WEEK);
         }
-        int currentDayOfWeek = currentCal.get(Calendar.DAY_OF_WEEK);
-        for (Integer dayOfWeek : this.offsetAdjustedDaysOfWeek) {
-            if (currentDayOfWeek == dayOfWeek) {
-                return currentDayOfWeek;
-            }
-            if (dayOfWeek > currentDayOfWeek) {
-                return dayOfWeek;
-            }
-        }
-        return this.offsetAdjustedDaysOfWeek.first();
+        return getNextMatch(this.offsetAdjustedDaysOfWeekMask, currentCal.get(Calendar.DAY_OF_WEEK));
     }
 }
@@ -55,6 +55,11 @@ public class Hour extends IntegerBasedExpression {
      */
     public static final Integer MIN_HOUR = 0;
 
+    /**
+     * The matching hours, see {@link #getMask()}
+     */
+    private final long mask;
+
     /**
      * Creates a {@link Hour} by parsing the passed {@link String} <code>value</code>
      * <p>
@@ -70,6 +75,7 @@ public class Hour extends IntegerBasedExpression {
      */
     public Hour(String value) {
         super(value);
+        this.mask = this.toBitMask();
     }
 
     public int getFirst() {
@@ -123,18 +129,15 @@ public class Hour extends IntegerBasedExpression {
         if (this.scheduleExpressionType == ScheduleExpressionType.WILDCARD) {
             return currentCal.get(Calendar.HOUR_OF_DAY);
         }
-        if (this.absoluteValues.isEmpty()) {
-            return null;
-        }
-        int currentHour = currentCal.get(Calendar.HOUR_OF_DAY);
-        for (Integer hour : this.absoluteValues) {
-            if (currentHour == hour) {
-                return currentHour;
-            }
-            if (hour > currentHour) {
-                return hour;
-            }
-        }
-        return this.absoluteValues.first();
+        return getNextMatch(this.mask, currentCal.get(Calendar.HOUR_OF_DAY));
+    }
+
+    /**
+     * Returns the matching hours as a bit mask, in which bit <code>n</code> is set if hour <code>n</code> matches
+     *
+     * @return
+     */
+    public long getMask() {
+        return this.mask;
     }
 }
@@ -212,4 +212,60 @@ public abstract class IntegerBasedExpression {
 
     public abstract boolean isRelativeValue(String value);
 
+    /**
+     * Returns the absolute values of this expression as a bit mask, in which bit <code>n</code> is set if
+     * <code>n</code> is a matching value. A wildcard matches every value between {@link #getMinValue()}
+     * and {@link #getMaxValue()}.
+     * <p>
+     * Only applicable to attributes whose values lie between 0 and 63.
+     * </p>
+     *
+     * @return
+     */
+    protected long toBitMask() {
+        long mask = 0;
+        if (this.scheduleExpressionType == ScheduleExpressionType.WILDCARD) {
+            for (int i = this.getMinValue(); i <= this.getMaxValue(); i++) {
+                mask |= 1L << i;
+            }
+        } else {
+            for (Integer value : this.absoluteValues) {
+                mask |= 1L << value;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the smallest value set in the passed <code>mask</code> which is equal to or greater than
+     * <code>from</code>, or -1 if there is none.
+     *
+     * @param mask The bit mask
+     * @param from The value to start looking from
+     * @return
+     */
+    public static int nextSetBit(long mask, int from) {
+        if (from > 63) {
+            return -1;
+        }
+        long remaining = mask & (-1L << from);
+        return remaining == 0 ? -1 : Long.numberOfTrailingZeros(remaining);
+    }
+
+    /**
+     * Returns the next match in the passed <code>mask</code> for the <code>current</code> value: the current value
+     * itself if it's a match, else the next greater value, wrapping around to the smallest value.
+     *
+     * @param mask    The bit mask of the matching values
+     * @param current The current value
+     * @return The next match or null if the mask is empty
+     */
+    protected static Integer getNextMatch(long mask, int current) {
+        if (mask == 0) {
+            return null;
+        }
+        int next = nextSetBit(mask, current);
+        return next >= 0 ? next : Long.numberOfTrailingZeros(mask);
+    }
+
 }
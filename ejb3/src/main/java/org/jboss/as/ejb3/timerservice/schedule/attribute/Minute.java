@@ -57,6 +57,11 @@ public class Minute extends IntegerBasedExpression {
      */
     public static final Integer MIN_MINUTE = 0;
 
+    /**
+     * The matching minutes, see {@link #getMask()}
+     */
+    private final long mask;
+
     /**
      * Creates a {@link Minute} by parsing the passed {@link String} <code>value</code>
      * <p>
@@ -72,6 +77,7 @@ public class Minute extends IntegerBasedExpression {
      */
     public Minute(String value) {
         super(value);
+        this.mask = this.toBitMask();
     }
 
     public int getFirst() {
@@ -134,18 +140,15 @@ public class Minute extends IntegerBasedExpression {
         if (this.scheduleExpressionType == ScheduleExpressionType.WILDCARD) {
             return currentCal.get(Calendar.MINUTE);
         }
-        if (this.absoluteValues.isEmpty()) {
-            return null;
-        }
-        int currentMinute = currentCal.get(Calendar.MINUTE);
-        for (Integer minute : this.absoluteValues) {
-            if (currentMinute == minute) {
-                return currentMinute;
-            }
-            if (minute > currentMinute) {
-                return minute;
-            }
-        }
-        return this.absoluteValues.first();
+        return getNextMatch(this.mask, currentCal.get(Calendar.MINUTE));
+    }
+
+    /**
+     * Returns the matching minutes as a bit mask, in which bit <code>n</code> is set if minute <code>n</code> matches
+     *
+     * @return
+     */
+    public long getMask() {
+        return this.mask;
     }
 }
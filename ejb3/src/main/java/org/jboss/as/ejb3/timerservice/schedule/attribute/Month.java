@@ -64,6 +64,11 @@ public class Month extends IntegerBasedExpression {
 
     private SortedSet<Integer> offsetAdjustedMonths = new TreeSet<Integer>();
 
+    /**
+     * The offset adjusted months as a bit mask, in which bit <code>n</code> is set if {@link Calendar#MONTH} <code>n</code> matches
+     */
+    private final long offsetAdjustedMonthsMask;
+
     public Month(String value) {
         super(value);
         if (OFFSET != 0) {
@@ -73,6 +78,11 @@ public class Month extends IntegerBasedExpression {
         } else {
             this.offsetAdjustedMonths = this.absoluteValues;
         }
+        long mask = 0;
+        for (Integer month : this.offsetAdjustedMonths) {
+            mask |= 1L << month;
+        }
+        this.offsetAdjustedMonthsMask = mask;
     }
 
     @Override
@@ -123,19 +133,7 @@ public class Month extends IntegerBasedExpression {
         if (this.scheduleExpressionType == ScheduleExpressionType.WILDCARD) {
             return currentCal.get(Calendar.MONTH);
         }
-        if (this.offsetAdjustedMonths.isEmpty()) {
-            return null;
-        }
-        int currentMonth = currentCal.get(Calendar.MONTH);
-        for (Integer month : this.offsetAdjustedMonths) {
-            if (currentMonth == month) {
-                return currentMonth;
-            }
-            if (month > currentMonth) {
-                return month;
-            }
-        }
-        return this.offsetAdjustedMonths.first();
+        return getNextMatch(this.offsetAdjustedMonthsMask, currentCal.get(Calendar.MONTH));
     }
 
     public Integer getFirstMatch() {
@@ -56,6 +56,11 @@ public class Second extends IntegerBasedExpression {
      */
     public static final Integer MIN_SECOND = 0;
 
+    /**
+     * The matching seconds, see {@link #getMask()}
+     */
+    private final long mask;
+
     /**
      * Creates a {@link Second} by parsing the passed {@link String} <code>value</code>
      * <p>
@@ -71,6 +76,7 @@ public class Second extends IntegerBasedExpression {
      */
     public Second(String value) {
         super(value);
+        this.mask = this.toBitMask();
     }
 
 
@@ -78,19 +84,16 @@ public class Second extends IntegerBasedExpression {
         if (this.scheduleExpressionType == ScheduleExpressionType.WILDCARD) {
             return currentCal.get(Calendar.SECOND);
         }
-        if (this.absoluteValues.isEmpty()) {
-            return null;
-        }
-        int currentSecond = currentCal.get(Calendar.SECOND);
-        for (Integer second : this.absoluteValues) {
-            if (currentSecond == second) {
-                return currentSecond;
-            }
-            if (second > currentSecond) {
-                return second;
-            }
-        }
-        return this.absoluteValues.first();
+        return getNextMatch(this.mask, currentCal.get(Calendar.SECOND));
+    }
+
+    /**
+     * Returns the matching seconds as a bit mask, in which bit <code>n</code> is set if second <code>n</code> matches
+     *
+     * @return
+     */
+    public long getMask() {
+        return this.mask;
     }
 
     public int getFirst() {
@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.Executor;
+
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler;
+
+/**
+ * A {@link TimeoutScheduler} backed by a single {@link Timer}.
+ */
+public class JavaUtilTimerScheduler implements TimeoutScheduler {
+
+    private final Timer timer = new Timer();
+
+    @Override
+    public ScheduledTimeout schedule(final Runnable task, final Executor executor, final long delay, final long period) {
+        final Task timerTask = new Task(task, executor);
+        if (period > 0) {
+            timer.scheduleAtFixedRate(timerTask, delay, period);
+        } else {
+            timer.schedule(timerTask, delay);
+        }
+        return timerTask;
+    }
+
+    @Override
+    public void shutdown() {
+        timer.cancel();
+    }
+
+    private static final class Task extends TimerTask implements ScheduledTimeout {
+
+        private final Runnable delegate;
+        private final Executor executor;
+
+        Task(final Runnable delegate, final Executor executor) {
+            this.delegate = delegate;
+            this.executor = executor;
+        }
+
+        @Override
+        public void run() {
+            executor.execute(delegate);
+        }
+    }
+}
@@ -0,0 +1,432 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler;
+
+/**
+ * A {@link TimeoutScheduler} based on a hierarchical timing wheel.
+ * <p/>
+ * The innermost wheel has a bucket per tick; each outer wheel has buckets spanning a whole turn of the wheel inside
+ * it, and is only created once a task is due too far ahead for the wheels so far. A task is put into the bucket its
+ * expiration falls into, and moved inwards as the time of its bucket comes, so that both scheduling and cancelling
+ * a task are constant time list operations.
+ * <p/>
+ * Only buckets holding tasks are put into a {@link DelayQueue}, which the scheduler thread waits on, so an idle wheel
+ * does not tick. The tasks found due at once are handed to their executor in batches: a task per expired timer would
+ * flood the executor's queue when many timers expire at the same time. A batch runs for at most
+ * {@value #DISPATCH_BATCH_MILLIS} ms before it hands the rest of its tasks to a fresh runnable of the executor, so that
+ * a slow timeout delays the others of its batch for a bounded time only.
+ */
+public class TimingWheelScheduler implements TimeoutScheduler {
+
+    /**
+     * The number of due tasks an executor is handed per runnable
+     */
+    private static final int DISPATCH_BATCH_SIZE = 16;
+    /**
+     * The time a runnable keeps running the tasks of its batch
+     */
+    private static final long DISPATCH_BATCH_MILLIS = 10;
+    private static final long POLL_MILLIS = 500;
+
+    private final int wheelSize;
+    private final DelayQueue<Bucket> queue = new DelayQueue<Bucket>();
+    /**
+     * Scheduling takes the read lock, advancing the wheels the write lock
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Wheel wheel;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public TimingWheelScheduler(final ThreadFactory threadFactory) {
+        this(threadFactory, 1, 512);
+    }
+
+    /**
+     * @param tickMillis The resolution of the scheduler in milliseconds
+     * @param wheelSize  The number of buckets of each wheel
+     */
+    public TimingWheelScheduler(final long tickMillis, final int wheelSize) {
+        this(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r, "EJB timing wheel");
+                thread.setDaemon(true);
+                return thread;
+            }
+        }, tickMillis, wheelSize);
+    }
+
+    /**
+     * @param threadFactory The factory of the thread advancing the wheels
+     * @param tickMillis    The resolution of the scheduler in milliseconds
+     * @param wheelSize     The number of buckets of each wheel
+     */
+    public TimingWheelScheduler(final ThreadFactory threadFactory, final long tickMillis, final int wheelSize) {
+        this.wheelSize = wheelSize;
+        this.wheel = new Wheel(tickMillis, now());
+        this.thread = threadFactory.newThread(new Runnable() {
+            @Override
+            public void run() {
+                while (running) {
+                    try {
+                        advance(queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS));
+                    } catch (InterruptedException e) {
+                        // shutting down
+                    }
+                }
+            }
+        });
+        this.thread.start();
+    }
+
+    @Override
+    public ScheduledTimeout schedule(final Runnable task, final Executor executor, final long delay, final long period) {
+        final Entry entry = new Entry(task, executor, period, now() + Math.max(delay, 0));
+        if (!add(entry)) {
+            final List<Entry> due = new ArrayList<Entry>(1);
+            due.add(entry);
+            dispatch(due);
+        }
+        return entry;
+    }
+
+    @Override
+    public void shutdown() {
+        running = false;
+        thread.interrupt();
+        queue.clear();
+    }
+
+    /**
+     * @return false if the entry is due already
+     */
+    private boolean add(final Entry entry) {
+        lock.readLock().lock();
+        try {
+            return entry.cancelled || wheel.add(entry);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void advance(Bucket bucket) {
+        if (bucket == null) {
+            return;
+        }
+        final List<Entry> due = new ArrayList<Entry>();
+        lock.writeLock().lock();
+        try {
+            while (bucket != null) {
+                wheel.advance(bucket.expiration.get());
+                // tasks in an outer wheel's bucket move inwards, those of the innermost wheel are due
+                for (final Entry entry : bucket.flush()) {
+                    if (!entry.cancelled && !wheel.add(entry)) {
+                        due.add(entry);
+                    }
+                }
+                bucket = queue.poll();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        dispatch(due);
+    }
+
+    private void dispatch(final List<Entry> due) {
+        if (due.isEmpty()) {
+            return;
+        }
+        final Map<Executor, List<Runnable>> tasks = new IdentityHashMap<Executor, List<Runnable>>();
+        final long now = now();
+        for (final Entry entry : due) {
+            List<Runnable> executorTasks = tasks.get(entry.executor);
+            if (executorTasks == null) {
+                executorTasks = new ArrayList<Runnable>();
+                tasks.put(entry.executor, executorTasks);
+            }
+            executorTasks.add(entry.task);
+            if (entry.period > 0) {
+                // fixed rate, but runs missed (e.g. while the server was suspended) are skipped rather than caught up on
+                long expiration = entry.expiration + entry.period;
+                if (expiration <= now) {
+                    expiration += ((now - expiration) / entry.period + 1) * entry.period;
+                }
+                entry.expiration = expiration;
+                if (!add(entry) && !entry.cancelled) {
+                    // can only happen if the period is shorter than a tick
+                    entry.expiration = now + wheel.tick;
+                    add(entry);
+                }
+            }
+        }
+        for (final Map.Entry<Executor, List<Runnable>> executorTasks : tasks.entrySet()) {
+            final Queue<Runnable> batch = new ConcurrentLinkedQueue<Runnable>(executorTasks.getValue());
+            // one runnable per batch, all draining the same queue so that a slow timeout holds up as few others as possible
+            final int runners = (executorTasks.getValue().size() + DISPATCH_BATCH_SIZE - 1) / DISPATCH_BATCH_SIZE;
+            for (int i = 0; i < runners; i++) {
+                try {
+                    executorTasks.getKey().execute(new BatchRunner(batch, executorTasks.getKey()));
+                } catch (RuntimeException e) {
+                    ROOT_LOGGER.failToDispatchTimeouts(e);
+                }
+            }
+        }
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    private static final class BatchRunner implements Runnable {
+
+        private final Queue<Runnable> batch;
+        private final Executor executor;
+
+        BatchRunner(final Queue<Runnable> batch, final Executor executor) {
+            this.batch = batch;
+            this.executor = executor;
+        }
+
+        @Override
+        public void run() {
+            final long deadline = now() + DISPATCH_BATCH_MILLIS;
+            Runnable task;
+            while ((task = batch.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    ROOT_LOGGER.failToDispatchTimeouts(e);
+                }
+                if (now() >= deadline && !batch.isEmpty()) {
+                    try {
+                        executor.execute(new BatchRunner(batch, executor));
+                        return;
+                    } catch (RuntimeException e) {
+                        // the executor cannot take it, keep going here
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * One level of the hierarchy. The current time of all wheels is only changed under the write lock.
+     */
+    private final class Wheel {
+
+        private final long tick;
+        private final long interval;
+        private final Bucket[] buckets;
+        private long currentTime;
+        private volatile Wheel overflow;
+
+        Wheel(final long tick, final long startTime) {
+            this.tick = tick;
+            this.interval = tick * wheelSize;
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket();
+            }
+            this.currentTime = startTime - startTime % tick;
+        }
+
+        /**
+         * @return false if the entry is due within the current tick of this wheel
+         */
+        boolean add(final Entry entry) {
+            final long expiration = entry.expiration;
+            if (expiration < currentTime + tick) {
+                return false;
+            } else if (expiration < currentTime + interval) {
+                final long virtualId = expiration / tick;
+                final Bucket bucket = buckets[(int) (virtualId % wheelSize)];
+                bucket.add(entry);
+                // the bucket is reused once its previous expiration has passed, and only queued once per expiration
+                if (bucket.setExpiration(virtualId * tick)) {
+                    queue.offer(bucket);
+                }
+                return true;
+            } else {
+                Wheel overflow = this.overflow;
+                if (overflow == null) {
+                    synchronized (this) {
+                        overflow = this.overflow;
+                        if (overflow == null) {
+                            this.overflow = overflow = new Wheel(interval, currentTime);
+                        }
+                    }
+                }
+                return overflow.add(entry);
+            }
+        }
+
+        void advance(final long time) {
+            if (time >= currentTime + tick) {
+                currentTime = time - time % tick;
+                final Wheel overflow = this.overflow;
+                if (overflow != null) {
+                    overflow.advance(currentTime);
+                }
+            }
+        }
+    }
+
+    /**
+     * A doubly linked list of the entries due within the same tick of a wheel
+     */
+    private static final class Bucket implements Delayed {
+
+        private final Entry root = new Entry(null, null, 0, 0);
+        private final AtomicLong expiration = new AtomicLong(-1);
+
+        Bucket() {
+            root.next = root;
+            root.prev = root;
+        }
+
+        /**
+         * @return true if the expiration changed
+         */
+        boolean setExpiration(final long expiration) {
+            return this.expiration.getAndSet(expiration) != expiration;
+        }
+
+        void add(final Entry entry) {
+            // an entry is in one bucket at a time
+            entry.remove();
+            synchronized (this) {
+                synchronized (entry) {
+                    if (entry.bucket == null) {
+                        final Entry tail = root.prev;
+                        entry.next = root;
+                        entry.prev = tail;
+                        tail.next = entry;
+                        root.prev = entry;
+                        entry.bucket = this;
+                    }
+                }
+            }
+        }
+
+        synchronized void remove(final Entry entry) {
+            synchronized (entry) {
+                if (entry.bucket == this) {
+                    entry.next.prev = entry.prev;
+                    entry.prev.next = entry.next;
+                    entry.next = null;
+                    entry.prev = null;
+                    entry.bucket = null;
+                }
+            }
+        }
+
+        /**
+         * Removes all entries and resets the expiration, so the bucket can be reused
+         */
+        synchronized List<Entry> flush() {
+            final List<Entry> entries = new ArrayList<Entry>();
+            Entry entry = root.next;
+            while (entry != root) {
+                final Entry next = entry.next;
+                remove(entry);
+                entries.add(entry);
+                entry = next;
+            }
+            expiration.set(-1);
+            return entries;
+        }
+
+        @Override
+        public long getDelay(final TimeUnit unit) {
+            return unit.convert(Math.max(expiration.get() - now(), 0), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(final Delayed o) {
+            final long expiration = this.expiration.get();
+            final long other = ((Bucket) o).expiration.get();
+            return expiration < other ? -1 : (expiration == other ? 0 : 1);
+        }
+    }
+
+    private static final class Entry implements ScheduledTimeout {
+
+        private final Runnable task;
+        private final Executor executor;
+        private final long period;
+        /**
+         * The time the task is next due, in milliseconds on the scheduler's clock
+         */
+        private volatile long expiration;
+        private volatile boolean cancelled;
+        private volatile Bucket bucket;
+        private Entry next;
+        private Entry prev;
+
+        Entry(final Runnable task, final Executor executor, final long period, final long expiration) {
+            this.task = task;
+            this.executor = executor;
+            this.period = period;
+            this.expiration = expiration;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (cancelled) {
+                return false;
+            }
+            cancelled = true;
+            final boolean scheduled = bucket != null || period > 0;
+            remove();
+            return scheduled;
+        }
+
+        void remove() {
+            Bucket bucket = this.bucket;
+            // the entry may be moved to another bucket concurrently
+            while (bucket != null) {
+                bucket.remove(this);
+                bucket = this.bucket;
+            }
+        }
+    }
+}
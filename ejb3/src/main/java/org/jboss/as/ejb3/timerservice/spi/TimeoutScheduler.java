@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.spi;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Schedules the timeouts of the timers of all timer services.
+ * <p/>
+ * An implementation only keeps track of when tasks are due, the tasks themselves are run by the executor passed in
+ * with each of them.
+ */
+public interface TimeoutScheduler {
+
+    /**
+     * Schedules a task.
+     *
+     * @param task     The task to hand to the executor once it is due
+     * @param executor The executor to run the task
+     * @param delay    The time until the task is due, in milliseconds
+     * @param period   The time between successive runs in milliseconds, or 0 to run the task only once
+     * @return A handle to cancel the task with
+     */
+    ScheduledTimeout schedule(Runnable task, Executor executor, long delay, long period);
+
+    /**
+     * Discards all scheduled tasks and stops any threads of this scheduler.
+     */
+    void shutdown();
+
+    /**
+     * A task scheduled with a {@link TimeoutScheduler}
+     */
+    interface ScheduledTimeout {
+
+        /**
+         * Prevents any further runs of the task. A run that has already been handed to the executor is not affected.
+         *
+         * @return true if this prevented one or more runs, false if the task was already cancelled or has run its
+         *         only time
+         */
+        boolean cancel();
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.cache.impl.backing;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.cache.Cacheable;
+import org.jboss.as.ejb3.cache.PassivationMetrics;
+import org.jboss.as.ejb3.cache.StatefulObjectFactory;
+import org.jboss.as.ejb3.cache.spi.BackingCacheEntry;
+import org.jboss.as.ejb3.cache.spi.BackingCacheEntryFactory;
+import org.jboss.as.ejb3.cache.spi.BackingCacheEntryStore;
+import org.jboss.as.ejb3.cache.spi.BackingCacheEntryStoreConfig;
+import org.jboss.as.ejb3.cache.spi.ReplicationPassivationManager;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Tests the background passivation queue of {@link PassivatingBackingCacheImpl}.
+ */
+public class PassivatingBackingCacheImplTestCase {
+
+    private final List<Runnable> tasks = new ArrayList<Runnable>();
+    private final Map<String, BackingCacheEntry<String, Cacheable<String>>> entries = new HashMap<String, BackingCacheEntry<String, Cacheable<String>>>();
+    private final List<String> evictions = new ArrayList<String>();
+
+    private BackingCacheEntryStore<String, Cacheable<String>, BackingCacheEntry<String, Cacheable<String>>> store;
+    private BackingCacheEntryFactory<String, Cacheable<String>, BackingCacheEntry<String, Cacheable<String>>> entryFactory;
+    private PassivatingBackingCacheImpl<String, Cacheable<String>, BackingCacheEntry<String, Cacheable<String>>> cache;
+    private Runnable sweep;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void createCache() {
+        final StatefulObjectFactory<Cacheable<String>> factory = mock(StatefulObjectFactory.class);
+        entryFactory = mock(BackingCacheEntryFactory.class);
+        store = mock(BackingCacheEntryStore.class);
+        final BackingCacheEntryStoreConfig config = mock(BackingCacheEntryStoreConfig.class);
+        when(config.getIdleTimeout()).thenReturn(0L);
+        when(config.getIdleTimeoutUnit()).thenReturn(TimeUnit.MILLISECONDS);
+        when(store.getConfig()).thenReturn(config);
+        when(store.get(anyString(), anyBoolean())).thenAnswer(new Answer<BackingCacheEntry<String, Cacheable<String>>>() {
+            @Override
+            public BackingCacheEntry<String, Cacheable<String>> answer(InvocationOnMock invocation) {
+                return entries.get((String) invocation.getArguments()[0]);
+            }
+        });
+        when(store.insert(any(BackingCacheEntry.class))).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+                final Set<String> evicted = new HashSet<String>(evictions);
+                evictions.clear();
+                return evicted;
+            }
+        });
+
+        final ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+        final ArgumentCaptor<Runnable> sweepCaptor = ArgumentCaptor.forClass(Runnable.class);
+        doReturn(mock(ScheduledFuture.class)).when(executor).scheduleWithFixedDelay(sweepCaptor.capture(), anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS));
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+                tasks.add((Runnable) invocation.getArguments()[0]);
+                return null;
+            }
+        }).when(executor).execute(any(Runnable.class));
+
+        cache = new PassivatingBackingCacheImpl<String, Cacheable<String>, BackingCacheEntry<String, Cacheable<String>>>(factory, entryFactory,
+                mock(ReplicationPassivationManager.class), store, executor);
+        cache.start();
+        sweep = sweepCaptor.getValue();
+    }
+
+    @Test
+    public void testEvictionsArePassivatedInBatches() {
+        create("a");
+        create("b");
+        evictions.addAll(entries.keySet());
+        create("c");
+        final PassivationMetrics metrics = cache.getPassivationMetrics();
+        Assert.assertEquals(2, metrics.getQueueDepth());
+
+        runTasks();
+        verifyPassivated("a", "b");
+        Assert.assertEquals(0, metrics.getQueueDepth());
+        Assert.assertEquals(2, metrics.getPassivations());
+        Assert.assertEquals(1, metrics.getBatches());
+    }
+
+    @Test
+    public void testAccessDoesNotCancelEviction() {
+        create("a");
+        evictions.add("a");
+        create("b");
+
+        // touched and released again before the queue is drained
+        cache.get("a");
+        release("a");
+
+        runTasks();
+        verifyPassivated("a");
+    }
+
+    @Test
+    public void testAccessCancelsIdlePassivation() throws Exception {
+        create("a");
+        create("b");
+        release("a");
+        release("b");
+        Thread.sleep(5);
+        sweep.run();
+        Assert.assertEquals(2, cache.getPassivationMetrics().getQueueDepth());
+
+        cache.get("a");
+
+        runTasks();
+        verifyPassivated("b");
+        Assert.assertEquals(0, cache.getPassivationMetrics().getQueueDepth());
+    }
+
+    @Test
+    public void testEvictionSupersedesIdlePassivation() throws Exception {
+        create("a");
+        release("a");
+        Thread.sleep(5);
+        sweep.run();
+        evictions.add("a");
+        create("b");
+
+        cache.get("a");
+        release("a");
+
+        runTasks();
+        verifyPassivated("a");
+        Assert.assertEquals(1, cache.getPassivationMetrics().getPassivations());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStopDrainsQueue() {
+        create("a");
+        evictions.add("a");
+        create("b");
+
+        cache.stop();
+        verifyPassivated("a");
+        final InOrder order = inOrder(store);
+        order.verify(store).passivateAll(any(Collection.class));
+        order.verify(store).stop();
+        Assert.assertEquals(0, cache.getPassivationMetrics().getQueueDepth());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRemoveCancelsEviction() {
+        create("a");
+        evictions.add("a");
+        create("b");
+        when(store.remove("a")).thenReturn(entries.get("a"));
+
+        cache.remove("a");
+
+        runTasks();
+        verify(store, never()).passivateAll(any(Collection.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void create(final String key) {
+        final BackingCacheEntry<String, Cacheable<String>> entry = mock(BackingCacheEntry.class);
+        when(entry.getId()).thenReturn(key);
+        when(entry.tryLock()).thenReturn(true);
+        when(entry.isValid()).thenReturn(true);
+        entries.put(key, entry);
+        when(entryFactory.createEntry(any(Cacheable.class))).thenReturn(entry);
+        cache.create();
+    }
+
+    private void release(final String key) {
+        cache.release(key);
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    /**
+     * Verifies that the entries of the given keys were passivated with a single store operation
+     */
+    @SuppressWarnings("unchecked")
+    private void verifyPassivated(final String... keys) {
+        final ArgumentCaptor<Collection> passivated = ArgumentCaptor.forClass(Collection.class);
+        verify(store).passivateAll(passivated.capture());
+        final Set<Object> expected = new HashSet<Object>();
+        for (String key : keys) {
+            expected.add(entries.get(key));
+        }
+        Assert.assertEquals(expected, new HashSet<Object>(passivated.getValue()));
+        Assert.assertEquals(keys.length, passivated.getValue().size());
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.entity.entitycache;
+
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.component.entity.EntityBeanComponent;
+import org.jboss.as.ejb3.component.entity.EntityBeanComponentInstance;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Tests {@link ConcurrentReferenceCountingEntityCache}
+ */
+public class ConcurrentReferenceCountingEntityCacheTestCase {
+
+    private static final Object PK = "pk";
+
+    private EntityBeanComponent component;
+    private ConcurrentReferenceCountingEntityCache cache;
+
+    @Before
+    public void setup() {
+        component = mock(EntityBeanComponent.class);
+        cache = new ConcurrentReferenceCountingEntityCache(component);
+    }
+
+    @Test
+    public void testReferenceCounting() {
+        final EntityBeanComponentInstance instance = instance(PK);
+        final EntityBeanComponentInstance other = instance(PK);
+        when(component.acquireUnAssociatedInstance()).thenReturn(instance, other);
+
+        Assert.assertSame(instance, cache.get(PK));
+        Assert.assertSame(instance, cache.get(PK));
+        verify(component, times(1)).acquireUnAssociatedInstance();
+        verify(instance).associate(PK);
+        Assert.assertTrue(cache.containsNotRemoved(PK));
+
+        // the instance stays associated until the last reference is released
+        cache.release(instance, true);
+        verify(instance, never()).passivate();
+        verify(component, never()).releaseEntityBeanInstance(instance);
+        cache.release(instance, true);
+        verify(instance).passivate();
+        verify(component).releaseEntityBeanInstance(instance);
+        Assert.assertFalse(cache.containsNotRemoved(PK));
+
+        // the entry is gone, so the next caller associates a new instance
+        Assert.assertSame(other, cache.get(PK));
+        verify(component, times(2)).acquireUnAssociatedInstance();
+    }
+
+    @Test
+    public void testReplacedInstance() {
+        final EntityBeanComponentInstance removed = instance(PK);
+        final EntityBeanComponentInstance replacement = instance(PK);
+        cache.create(removed);
+        when(removed.isRemoved()).thenReturn(true);
+
+        // removed and created again within the same transaction
+        cache.create(replacement);
+        Assert.assertTrue(cache.containsNotRemoved(PK));
+        Assert.assertSame(replacement, cache.get(PK));
+
+        // once the transaction succeeds the replacement takes over the entry
+        cache.release(replacement, true);
+        Assert.assertSame(replacement, cache.get(PK));
+        cache.release(replacement, true);
+        verify(component, never()).releaseEntityBeanInstance(Matchers.<EntityBeanComponentInstance>any());
+        cache.release(replacement, true);
+        verify(replacement).passivate();
+        verify(component).releaseEntityBeanInstance(replacement);
+        verify(component, never()).releaseEntityBeanInstance(removed);
+        Assert.assertFalse(cache.containsNotRemoved(PK));
+    }
+
+    @Test
+    public void testDuplicateInstance() {
+        cache.create(instance(PK));
+        try {
+            cache.create(instance(PK));
+            Assert.fail("Instance registered twice for the same primary key");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void testReleaseOfUnknownInstance() {
+        final EntityBeanComponentInstance instance = instance(PK);
+        when(component.acquireUnAssociatedInstance()).thenReturn(instance);
+        cache.get(PK);
+        cache.release(instance, true);
+        try {
+            // the entry is dead by now
+            cache.release(instance, true);
+            Assert.fail("Released an instance no longer in the cache");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    /**
+     * Callers racing for the same primary key must never see more than one associated instance at a time, also while
+     * the entry of the key dies and is replaced.
+     */
+    @Test
+    public void testDeadEntryRace() throws Exception {
+        final int threads = 8;
+        final int iterations = 500;
+        final Queue<EntityBeanComponentInstance> instances = new ConcurrentLinkedQueue<EntityBeanComponentInstance>();
+        for (int i = 0; i < threads * iterations; i++) {
+            instances.add(instance(PK));
+        }
+        final AtomicInteger associated = new AtomicInteger();
+        final AtomicInteger maxAssociated = new AtomicInteger();
+        final AtomicInteger acquired = new AtomicInteger();
+        final AtomicInteger released = new AtomicInteger();
+        when(component.acquireUnAssociatedInstance()).thenAnswer(new Answer<EntityBeanComponentInstance>() {
+            @Override
+            public EntityBeanComponentInstance answer(final InvocationOnMock invocation) {
+                acquired.incrementAndGet();
+                final int current = associated.incrementAndGet();
+                int max;
+                while (current > (max = maxAssociated.get()) && !maxAssociated.compareAndSet(max, current)) {
+                    // retry
+                }
+                return instances.poll();
+            }
+        });
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                released.incrementAndGet();
+                associated.decrementAndGet();
+                return null;
+            }
+        }).when(component).releaseEntityBeanInstance(Matchers.<EntityBeanComponentInstance>any());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<Void>> results = new ArrayList<Future<Void>>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        start.await();
+                        for (int j = 0; j < iterations; j++) {
+                            cache.release(cache.get(PK), true);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+            for (final Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(1, maxAssociated.get());
+        Assert.assertEquals(acquired.get(), released.get());
+        Assert.assertFalse(cache.containsNotRemoved(PK));
+    }
+
+    private static EntityBeanComponentInstance instance(final Object pk) {
+        final EntityBeanComponentInstance instance = mock(EntityBeanComponentInstance.class);
+        when(instance.getPrimaryKey()).thenReturn(pk);
+        return instance;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link InvocationMetrics} and {@link LatencyHistogram}.
+ */
+public class InvocationMetricsTestCase {
+
+    @Test
+    public void testHistogramBuckets() {
+        for (long value = 0; value < 1000000; value = value * 3 + 1) {
+            final long approximation = LatencyHistogram.valueOf(LatencyHistogram.bucketOf(value));
+            assertTrue(value + " ~ " + approximation, Math.abs(approximation - value) <= value / 8);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(0.99));
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertApproximately(500, histogram.getPercentile(0.5));
+        assertApproximately(900, histogram.getPercentile(0.9));
+        assertApproximately(990, histogram.getPercentile(0.99));
+        histogram.reset();
+        assertEquals(0, histogram.getPercentile(0.5));
+    }
+
+    @Test
+    public void testPercentilesAcrossThreads() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = offset + 1; i <= 1000; i += threads.length) {
+                        histogram.record(i);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // The stripes of all threads are merged on read
+        assertApproximately(500, histogram.getPercentile(0.5));
+        assertApproximately(990, histogram.getPercentile(0.99));
+    }
+
+    @Test
+    public void testTotals() throws Exception {
+        final InvocationMetrics metrics = new InvocationMetrics();
+        final Method method = Object.class.getMethod("toString");
+        for (int i = 0; i < 10; i++) {
+            metrics.startInvocation();
+            metrics.finishInvocation(method, TimeUnit.MILLISECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(2));
+        }
+        assertEquals(10, metrics.getInvocations());
+        assertEquals(10, metrics.getWaitTime());
+        assertEquals(20, metrics.getExecutionTime());
+        assertEquals(1, metrics.getPeakConcurrent());
+        assertEquals(0, metrics.getConcurrent());
+        assertEquals(10, metrics.getMethods().get(method).getInvocations());
+        assertApproximately(2000, metrics.getValues().getExecutionTimePercentile(0.99));
+
+        metrics.reset();
+        assertEquals(0, metrics.getInvocations());
+        assertEquals(0, metrics.getExecutionTime());
+        assertTrue(metrics.getMethods().isEmpty());
+    }
+
+    private static void assertApproximately(final long expected, final long actual) {
+        assertTrue(expected + " ~ " + actual, Math.abs(expected - actual) <= expected / 8);
+    }
+}
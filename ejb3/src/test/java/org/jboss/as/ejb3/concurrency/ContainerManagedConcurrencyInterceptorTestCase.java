@@ -0,0 +1,173 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.concurrency;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.ejb.ConcurrentAccessTimeoutException;
+import javax.ejb.LockType;
+
+import org.jboss.as.ejb3.component.invocationmetrics.InvocationMetrics;
+import org.jboss.invocation.Interceptor;
+import org.jboss.invocation.InterceptorContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests lock groups of the {@link ContainerManagedConcurrencyInterceptor}
+ */
+public class ContainerManagedConcurrencyInterceptorTestCase {
+
+    public static class Bean {
+        public void placeOrder() {
+        }
+
+        public void cancelOrder() {
+        }
+
+        public void updateCatalog() {
+        }
+
+        public void audit() {
+        }
+    }
+
+    private static class Component implements LockableComponent {
+        private final Map<String, String> lockGroups = new HashMap<String, String>();
+        private final LockGroupMetrics metrics = new LockGroupMetrics();
+
+        @Override
+        public LockType getLockType(Method method) {
+            return LockType.WRITE;
+        }
+
+        @Override
+        public AccessTimeoutDetails getAccessTimeout(Method method) {
+            return null;
+        }
+
+        @Override
+        public AccessTimeoutDetails getDefaultAccessTimeout() {
+            return new AccessTimeoutDetails(100, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public String getLockGroup(Method method) {
+            return lockGroups.get(method.getName());
+        }
+
+        @Override
+        public LockGroupMetrics getLockGroupMetrics() {
+            return metrics;
+        }
+
+        @Override
+        public boolean isStatisticsEnabled() {
+            return true;
+        }
+    }
+
+    private static InterceptorContext context(final String methodName, final Interceptor target) throws NoSuchMethodException {
+        final InterceptorContext context = new InterceptorContext();
+        context.setMethod(Bean.class.getMethod(methodName));
+        context.setInterceptors(Arrays.asList(target));
+        return context;
+    }
+
+    private static Interceptor noop() {
+        return new Interceptor() {
+            @Override
+            public Object processInvocation(InterceptorContext context) throws Exception {
+                return null;
+            }
+        };
+    }
+
+    @Test
+    public void testLockGroups() throws Exception {
+        final Component component = new Component();
+        component.lockGroups.put("placeOrder", "orders");
+        component.lockGroups.put("cancelOrder", "orders");
+        component.lockGroups.put("updateCatalog", "catalog");
+        final ContainerManagedConcurrencyInterceptor interceptor = new ContainerManagedConcurrencyInterceptor(component);
+
+        // keep the write lock of the orders group while the other methods are invoked
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final InterceptorContext holder = context("placeOrder", new Interceptor() {
+            @Override
+            public Object processInvocation(InterceptorContext context) throws Exception {
+                locked.countDown();
+                release.await();
+                return null;
+            }
+        });
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    interceptor.processInvocation(holder);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        thread.start();
+        try {
+            Assert.assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+            // other groups and the bean wide lock are not affected
+            interceptor.processInvocation(context("updateCatalog", noop()));
+            interceptor.processInvocation(context("audit", noop()));
+
+            // the same group is
+            try {
+                interceptor.processInvocation(context("cancelOrder", noop()));
+                Assert.fail("Expected a " + ConcurrentAccessTimeoutException.class.getName());
+            } catch (ConcurrentAccessTimeoutException expected) {
+                // expected
+            }
+        } finally {
+            release.countDown();
+            thread.join();
+        }
+
+        // the timed out attempt is counted separately from the acquisitions
+        final Map<String, InvocationMetrics.Values> lockGroups = component.getLockGroupMetrics().getLockGroups();
+        Assert.assertEquals(3, lockGroups.size());
+        Assert.assertEquals(1, lockGroups.get("orders").getInvocations());
+        Assert.assertEquals(1, lockGroups.get("catalog").getInvocations());
+        Assert.assertEquals(1, lockGroups.get(LockGroupMetrics.DEFAULT_LOCK_GROUP).getInvocations());
+        final Map<String, Long> timeouts = component.getLockGroupMetrics().getTimeouts();
+        Assert.assertEquals(1, timeouts.size());
+        Assert.assertEquals(Long.valueOf(1L), timeouts.get("orders"));
+
+        component.getLockGroupMetrics().reset();
+        Assert.assertTrue(component.getLockGroupMetrics().getLockGroups().isEmpty());
+        Assert.assertTrue(component.getLockGroupMetrics().getTimeouts().isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.deployment;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ViewMethodIndex}
+ */
+public class ViewMethodIndexTestCase {
+
+    public interface View {
+        String echo(String message);
+
+        String echo(String message, int times);
+
+        void ping();
+
+        int[] sum(int[] values, long offset);
+    }
+
+    @Test
+    public void testLookupBySignature() throws Exception {
+        final ViewMethodIndex index = new ViewMethodIndex(Arrays.asList(View.class.getMethods()));
+        Assert.assertEquals(View.class.getMethod("echo", String.class), index.getMethod("echo", "java.lang.String"));
+        Assert.assertEquals(View.class.getMethod("echo", String.class, int.class), index.getMethod("echo", "java.lang.String,int"));
+        Assert.assertEquals(View.class.getMethod("ping"), index.getMethod("ping", ""));
+        Assert.assertEquals(View.class.getMethod("sum", int[].class, long.class), index.getMethod("sum", "[I,long"));
+        Assert.assertNull(index.getMethod("echo", "java.lang.Object"));
+        Assert.assertNull(index.getMethod("pong", ""));
+    }
+
+    @Test
+    public void testMethodIds() throws Exception {
+        final List<Method> methods = new ArrayList<Method>(Arrays.asList(View.class.getMethods()));
+        final ViewMethodIndex index = new ViewMethodIndex(methods);
+        for (final Method method : methods) {
+            final long methodId = index.getMethodId(method);
+            Assert.assertTrue(methodId != -1);
+            Assert.assertEquals(method, index.getMethod(methodId));
+        }
+        Assert.assertEquals(-1, index.getMethodId(Object.class.getMethod("toString")));
+        Assert.assertNull(index.getMethod(index.getMethodId(methods.get(0)) + methods.size()));
+        Assert.assertNull(index.getMethod(-1));
+
+        // ids do not depend on the order in which the view methods are reported
+        Collections.reverse(methods);
+        final ViewMethodIndex other = new ViewMethodIndex(methods);
+        for (final Method method : methods) {
+            Assert.assertEquals(index.getMethodId(method), other.getMethodId(method));
+        }
+    }
+
+    @Test
+    public void testMethodIdsOfOtherViewAreRejected() throws Exception {
+        final List<Method> methods = new ArrayList<Method>(Arrays.asList(View.class.getMethods()));
+        final ViewMethodIndex index = new ViewMethodIndex(methods);
+        // the same methods at the same positions, but a different version of the view
+        final List<Method> changedMethods = new ArrayList<Method>(methods);
+        changedMethods.add(Object.class.getMethod("toString"));
+        final ViewMethodIndex changed = new ViewMethodIndex(changedMethods);
+        for (final Method method : methods) {
+            Assert.assertNull(changed.getMethod(index.getMethodId(method)));
+            Assert.assertNull(index.getMethod(changed.getMethodId(method)));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote.protocol.versionone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.as.network.ClientMapping;
+import org.junit.Test;
+
+/**
+ * Tests the coalescing of cluster topology changes by {@link ClusterTopologyChanges}.
+ */
+public class ClusterTopologyChangesTestCase {
+
+    @Test
+    public void testAddThenRemoveCancelsOut() throws Exception {
+        final ClusterTopologyChanges changes = new ClusterTopologyChanges(Arrays.asList("a"));
+        changes.nodesAdded(mappings("b"));
+        changes.nodesRemoved(Collections.singleton("b"));
+        assertTrue(changes.isEmpty());
+        assertTrue(changes.takeRemovedNodes().isEmpty());
+        assertTrue(changes.takeAddedNodes().isEmpty());
+    }
+
+    @Test
+    public void testRemoveThenReAddKeepsOrder() throws Exception {
+        final ClusterTopologyChanges changes = new ClusterTopologyChanges(Arrays.asList("a", "b"));
+        changes.nodesRemoved(Collections.singleton("a"));
+        final Map<String, List<ClientMapping>> mappings = mappings("a");
+        changes.nodesAdded(mappings);
+        assertFalse(changes.isEmpty());
+        // the removal is written before the addition, so that the client ends up knowing of the node
+        assertEquals(Collections.singleton("a"), changes.takeRemovedNodes());
+        assertEquals(mappings, changes.takeAddedNodes());
+        assertTrue(changes.isEmpty());
+
+        // the re-added node is known again, so its subsequent removal must be written
+        changes.nodesRemoved(Collections.singleton("a"));
+        assertEquals(Collections.singleton("a"), changes.takeRemovedNodes());
+        assertTrue(changes.takeAddedNodes().isEmpty());
+    }
+
+    @Test
+    public void testRemoveOfUnknownNode() throws Exception {
+        final ClusterTopologyChanges changes = new ClusterTopologyChanges(Arrays.asList("a"));
+        changes.nodesRemoved(Collections.singleton("b"));
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void testAddedNodesBecomeKnown() throws Exception {
+        final ClusterTopologyChanges changes = new ClusterTopologyChanges(Collections.<String>emptySet());
+        changes.nodesAdded(mappings("a"));
+        changes.takeRemovedNodes();
+        changes.takeAddedNodes();
+        changes.nodesRemoved(Collections.singleton("a"));
+        assertEquals(Collections.singleton("a"), changes.takeRemovedNodes());
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        final ClusterTopologyChanges changes = new ClusterTopologyChanges(Arrays.asList("a"));
+        changes.nodesRemoved(Collections.singleton("a"));
+        changes.nodesAdded(mappings("b"));
+        changes.clear();
+        assertTrue(changes.isEmpty());
+    }
+
+    private static Map<String, List<ClientMapping>> mappings(final String node) throws Exception {
+        final ClientMapping mapping = new ClientMapping(InetAddress.getByName("127.0.0.1"), 32, "127.0.0.1", 4447);
+        return Collections.singletonMap(node, Collections.singletonList(mapping));
+    }
+}
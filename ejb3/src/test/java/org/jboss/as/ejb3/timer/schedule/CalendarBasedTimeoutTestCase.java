@@ -475,6 +475,39 @@ public class CalendarBasedTimeoutTestCase {
 
     }
 
+    @Test
+    public void testCachedTimeoutsMatchComputedTimeouts() {
+        String[][] schedules = {
+                {"*", "*", "*", "*", "*"},
+                {"*/5", "*", "*", "*", "*"},
+                {"0", "*/15", "9-17", "*", "Mon-Fri"},
+                {"10, 40", "0-5", "*", "Last", "*"},
+                {"0", "0", "0", "1st Mon", "Sat"},
+        };
+        for (String[] schedule : schedules) {
+            ScheduleExpression expression = this.getTimezoneSpecificScheduleExpression();
+            expression.second(schedule[0]).minute(schedule[1]).hour(schedule[2]).dayOfMonth(schedule[3]).dayOfWeek(schedule[4]);
+
+            CalendarBasedTimeout calendarTimeout = new CalendarBasedTimeout(expression);
+            Calendar previousTimeout = calendarTimeout.getFirstTimeout();
+            for (int i = 0; i < 200; i++) {
+                // a new CalendarBasedTimeout has nothing cached yet
+                Calendar expectedTimeout = new CalendarBasedTimeout(expression).getNextTimeout(previousTimeout);
+                Calendar nextTimeout = calendarTimeout.getNextTimeout(previousTimeout);
+                Assert.assertEquals("Unexpected timeout after " + previousTimeout.getTime() + " for " + expression,
+                        expectedTimeout.getTime(), nextTimeout.getTime());
+
+                Calendar between = new GregorianCalendar(this.timezone);
+                between.setTimeInMillis((previousTimeout.getTimeInMillis() + nextTimeout.getTimeInMillis()) / 2);
+                Assert.assertEquals("Unexpected timeout after " + between.getTime() + " for " + expression,
+                        new CalendarBasedTimeout(expression).getNextTimeout(between).getTime(),
+                        calendarTimeout.getNextTimeout(between).getTime());
+
+                previousTimeout = nextTimeout;
+            }
+        }
+    }
+
     private ScheduleExpression getTimezoneSpecificScheduleExpression() {
         return new ScheduleExpression().timezone(this.timezone.getID());
     }
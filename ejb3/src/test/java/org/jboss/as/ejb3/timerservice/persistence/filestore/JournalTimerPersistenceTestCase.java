@@ -0,0 +1,230 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.transaction.Status;
+import javax.transaction.TransactionManager;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.TimerEntity;
+import org.jboss.modules.ModuleLoader;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link JournalTimerPersistence}
+ */
+public class JournalTimerPersistenceTestCase {
+
+    private static final String BEAN_A = "app.module.BeanA";
+    private static final String BEAN_B = "app.module.BeanB";
+
+    private File dataStore;
+
+    @Before
+    public void createDataStore() throws Exception {
+        dataStore = File.createTempFile("timer-journal", "");
+        Assert.assertTrue(dataStore.delete());
+        Assert.assertTrue(dataStore.mkdirs());
+    }
+
+    @After
+    public void deleteDataStore() {
+        delete(dataStore);
+    }
+
+    @Test
+    public void testTimersSurviveRestart() throws Exception {
+        JournalTimerPersistence persistence = start(dataStore, 1024 * 1024);
+        for (int i = 0; i < 100; i++) {
+            persistence.addTimer(timer(i % 2 == 0 ? BEAN_A : BEAN_B, "timer" + i, i, TimerState.ACTIVE));
+        }
+        for (int i = 0; i < 100; i += 10) {
+            persistence.persistTimer(timer(i % 2 == 0 ? BEAN_A : BEAN_B, "timer" + i, 1000 + i, TimerState.ACTIVE));
+        }
+        for (int i = 1; i < 100; i += 10) {
+            persistence.persistTimer(timer(i % 2 == 0 ? BEAN_A : BEAN_B, "timer" + i, i, TimerState.CANCELED));
+        }
+        persistence.stop(null);
+
+        persistence = start(dataStore, 1024 * 1024);
+        final Map<String, TimerEntity> timers = load(persistence, BEAN_A, BEAN_B);
+        Assert.assertEquals(90, timers.size());
+        for (int i = 0; i < 100; i++) {
+            final TimerEntity timer = timers.get("timer" + i);
+            if (i % 10 == 1) {
+                Assert.assertNull(timer);
+            } else {
+                Assert.assertNotNull(timer);
+                Assert.assertEquals(i % 10 == 0 ? 1000 + i : i, timer.getNextDate().getTime());
+                Assert.assertEquals("info-timer" + i, timer.getInfo());
+            }
+        }
+        persistence.stop(null);
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        JournalTimerPersistence persistence = start(dataStore, 4096);
+        for (int i = 0; i < 10; i++) {
+            persistence.addTimer(timer(BEAN_A, "timer" + i, 0, TimerState.ACTIVE));
+        }
+        for (int round = 1; round <= 100; round++) {
+            for (int i = 0; i < 10; i++) {
+                persistence.persistTimer(timer(BEAN_A, "timer" + i, round, TimerState.ACTIVE));
+            }
+        }
+        // compaction runs in the background
+        final File journal = new File(dataStore, JournalTimerPersistence.JOURNAL_DIRECTORY);
+        final long end = System.currentTimeMillis() + 10000;
+        while (journal.listFiles().length > 4 && System.currentTimeMillis() < end) {
+            Thread.sleep(50);
+        }
+        Assert.assertTrue(journal.listFiles().length <= 4);
+        persistence.stop(null);
+
+        persistence = start(dataStore, 4096);
+        final Map<String, TimerEntity> timers = load(persistence, BEAN_A);
+        Assert.assertEquals(10, timers.size());
+        for (TimerEntity timer : timers.values()) {
+            Assert.assertEquals(100, timer.getNextDate().getTime());
+        }
+        persistence.stop(null);
+    }
+
+    @Test
+    public void testTornRecordIsIgnored() throws Exception {
+        JournalTimerPersistence persistence = start(dataStore, 1024 * 1024);
+        persistence.addTimer(timer(BEAN_A, "timer", 42, TimerState.ACTIVE));
+        persistence.stop(null);
+
+        // a crash half way through appending a record
+        final File[] segments = new File(dataStore, JournalTimerPersistence.JOURNAL_DIRECTORY).listFiles();
+        for (File segment : segments) {
+            final FileOutputStream out = new FileOutputStream(segment, true);
+            try {
+                out.write(new byte[]{0, 0, 1, 0, 7, 7});
+            } finally {
+                out.close();
+            }
+        }
+
+        persistence = start(dataStore, 1024 * 1024);
+        final Map<String, TimerEntity> timers = load(persistence, BEAN_A);
+        Assert.assertEquals(1, timers.size());
+        Assert.assertEquals(42, timers.get("timer").getNextDate().getTime());
+        persistence.addTimer(timer(BEAN_A, "other", 43, TimerState.ACTIVE));
+        persistence.stop(null);
+
+        persistence = start(dataStore, 1024 * 1024);
+        Assert.assertEquals(2, load(persistence, BEAN_A).size());
+        persistence.stop(null);
+    }
+
+    @Test
+    public void testTimerFilesAreMovedToJournal() throws Exception {
+        final FileTimerPersistence filePersistence = start(new FileTimerPersistence(true, dataStore.getAbsolutePath(), null), dataStore);
+        for (int i = 0; i < 10; i++) {
+            filePersistence.addTimer(timer(BEAN_A, "timer" + i, i, TimerState.ACTIVE));
+        }
+        filePersistence.stop(null);
+        final File timerFiles = new File(dataStore, BEAN_A);
+        Assert.assertEquals(10, timerFiles.listFiles().length);
+
+        JournalTimerPersistence persistence = start(dataStore, 1024 * 1024);
+        Assert.assertEquals(10, load(persistence, BEAN_A).size());
+        Assert.assertFalse(timerFiles.exists());
+        persistence.persistTimer(timer(BEAN_A, "timer0", 0, TimerState.CANCELED));
+        persistence.stop(null);
+
+        persistence = start(dataStore, 1024 * 1024);
+        final Map<String, TimerEntity> timers = load(persistence, BEAN_A);
+        Assert.assertEquals(9, timers.size());
+        Assert.assertEquals(5, timers.get("timer5").getNextDate().getTime());
+        persistence.stop(null);
+    }
+
+    private static JournalTimerPersistence start(final File dataStore, final long segmentSize) throws Exception {
+        return start(new JournalTimerPersistence(true, dataStore.getAbsolutePath(), null, segmentSize), dataStore);
+    }
+
+    private static <T extends FileTimerPersistence> T start(final T persistence, final File dataStore) throws Exception {
+        final PathManager pathManager = mock(PathManager.class);
+        when(pathManager.resolveRelativePathEntry(dataStore.getAbsolutePath(), null)).thenReturn(dataStore.getAbsolutePath());
+        final TransactionManager transactionManager = mock(TransactionManager.class);
+        when(transactionManager.getStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+        persistence.getPathManager().inject(pathManager);
+        persistence.getTransactionManager().inject(transactionManager);
+        persistence.getTransactionSynchronizationRegistry().inject(mock(TransactionSynchronizationRegistry.class));
+        persistence.getModuleLoader().inject(mock(ModuleLoader.class));
+        persistence.start(null);
+        return persistence;
+    }
+
+    private static Map<String, TimerEntity> load(final JournalTimerPersistence persistence, final String... timedObjectIds) {
+        final Map<String, TimerEntity> timers = new HashMap<String, TimerEntity>();
+        for (String timedObjectId : timedObjectIds) {
+            final List<TimerEntity> entities = persistence.loadActiveTimers(timedObjectId);
+            for (TimerEntity entity : entities) {
+                Assert.assertEquals(timedObjectId, entity.getTimedObjectId());
+                timers.put(entity.getId(), entity);
+            }
+        }
+        return timers;
+    }
+
+    private static TimerEntity timer(final String timedObjectId, final String id, final long nextExpiration, final TimerState state) {
+        final TimerImpl timer = mock(TimerImpl.class);
+        when(timer.getId()).thenReturn(id);
+        when(timer.getTimedObjectId()).thenReturn(timedObjectId);
+        when(timer.getInitialExpiration()).thenReturn(new Date(0));
+        when(timer.getNextExpiration()).thenReturn(new Date(nextExpiration));
+        when(timer.getTimerInfo()).thenReturn("info-" + id);
+        when(timer.getState()).thenReturn(state);
+        return new TimerEntity(timer);
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link TimingWheelScheduler}
+ */
+public class TimingWheelSchedulerTestCase {
+
+    private TimingWheelScheduler scheduler;
+    private final AtomicInteger batches = new AtomicInteger();
+    private final Executor executor = new Executor() {
+        @Override
+        public void execute(final Runnable command) {
+            batches.incrementAndGet();
+            command.run();
+        }
+    };
+
+    @Before
+    public void createScheduler() {
+        // small wheels, so that the longer delays go through a few levels of the hierarchy
+        scheduler = new TimingWheelScheduler(1, 8);
+    }
+
+    @After
+    public void shutdownScheduler() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testTasksRunNoEarlierThanDue() throws Exception {
+        final long[] delays = {0, 1, 5, 7, 8, 9, 63, 64, 65, 300, 700};
+        final CountDownLatch latch = new CountDownLatch(delays.length);
+        final AtomicInteger early = new AtomicInteger();
+        final long start = System.nanoTime();
+        for (final long delay : delays) {
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < delay - 1) {
+                        early.incrementAndGet();
+                    }
+                    latch.countDown();
+                }
+            }, executor, delay, 0);
+        }
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(0, early.get());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        final AtomicInteger runs = new AtomicInteger();
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                runs.incrementAndGet();
+            }
+        };
+        final TimeoutScheduler.ScheduledTimeout near = scheduler.schedule(task, executor, 50, 0);
+        final TimeoutScheduler.ScheduledTimeout far = scheduler.schedule(task, executor, 200, 0);
+        final TimeoutScheduler.ScheduledTimeout periodic = scheduler.schedule(task, executor, 50, 10);
+        Assert.assertTrue(near.cancel());
+        Assert.assertTrue(far.cancel());
+        Assert.assertTrue(periodic.cancel());
+        Assert.assertFalse(near.cancel());
+        Thread.sleep(400);
+        Assert.assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void testPeriodic() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(5);
+        final TimeoutScheduler.ScheduledTimeout timeout = scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, executor, 10, 20);
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        timeout.cancel();
+    }
+
+    @Test
+    public void testSimultaneousTimeoutsAreBatched() throws Exception {
+        final int tasks = 1000;
+        final CountDownLatch latch = new CountDownLatch(tasks);
+        for (int i = 0; i < tasks; i++) {
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    latch.countDown();
+                }
+            }, executor, 100, 0);
+        }
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue("expected fewer than one batch per timeout, got " + batches.get(), batches.get() < tasks);
+    }
+}
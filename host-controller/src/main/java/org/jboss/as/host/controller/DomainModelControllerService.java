@@ -549,23 +549,19 @@ public class DomainModelControllerService extends AbstractControllerService impl
         serverInventory = null;
         extensionRegistry.clear();
         super.stop(context);
+    }
 
-        context.asynchronous();
-        Thread executorShutdown = new Thread(new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    pingScheduler.shutdownNow();
-                } finally {
-                    try {
-                        proxyExecutor.shutdown();
-                    } finally {
-                        context.complete();
-                    }
-                }
+    @Override
+    protected void stopAsynchronous(final StopContext context) {
+        try {
+            super.stopAsynchronous(context);
+        } finally {
+            try {
+                pingScheduler.shutdownNow();
+            } finally {
+                proxyExecutor.shutdown();
             }
-        }, DomainModelControllerService.class.getSimpleName() + " ExecutorService Shutdown Thread");
-        executorShutdown.start();
+        }
     }
 
 
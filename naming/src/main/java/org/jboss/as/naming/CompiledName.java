@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.naming;
+
+import java.io.ObjectStreamException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.naming.CompositeName;
+import javax.naming.InvalidNameException;
+import javax.naming.Name;
+
+/**
+ * An immutable {@link CompositeName}, parsed once per distinct string and shared by every lookup of that string.
+ * <p/>
+ * Compiled names are interned in a bounded cache, which is cleared as a whole once full, so that names built from
+ * varying strings, e.g. containing an id, don't pile up. A compiled name also remembers its hash code and, if it is
+ * absolute, e.g. {@code java:comp/env/foo}, the name it denotes relative to the root of the {@code java:} namespace.
+ */
+public final class CompiledName extends CompositeName {
+
+    private static final long serialVersionUID = -6585146452620562446L;
+
+    static final int MAX_CACHED_NAMES = 4096;
+
+    private static final ConcurrentMap<String, CompiledName> cache = new ConcurrentHashMap<String, CompiledName>();
+
+    private final int hashCode;
+    private final CompiledName absoluteName;
+
+    /**
+     * Returns the compiled form of the specified name.
+     *
+     * @param name the name to compile
+     * @return the compiled name
+     * @throws InvalidNameException if the name is not a valid composite name
+     */
+    public static CompiledName of(final String name) throws InvalidNameException {
+        CompiledName compiled = cache.get(name);
+        if (compiled == null) {
+            compiled = new CompiledName(name);
+            if (cache.size() >= MAX_CACHED_NAMES) {
+                cache.clear();
+            }
+            final CompiledName existing = cache.putIfAbsent(name, compiled);
+            if (existing != null) {
+                compiled = existing;
+            }
+        }
+        return compiled;
+    }
+
+    private CompiledName(final String name) throws InvalidNameException {
+        super(name);
+        this.hashCode = super.hashCode();
+        this.absoluteName = this.createAbsoluteName();
+    }
+
+    private CompiledName(final Enumeration<String> components) {
+        super(components);
+        this.hashCode = super.hashCode();
+        this.absoluteName = null;
+    }
+
+    private CompiledName createAbsoluteName() {
+        if (this.isEmpty()) {
+            return null;
+        }
+        final String firstComponent = this.get(0);
+        final List<String> components = new ArrayList<String>(this.size());
+        if (firstComponent.startsWith("java:")) {
+            final String cleaned = firstComponent.substring(5);
+            if (!cleaned.isEmpty()) {
+                components.add(cleaned);
+            }
+        } else if (!firstComponent.isEmpty()) {
+            // relative to the context it is looked up from
+            return null;
+        }
+        for (int i = 1; i < this.size(); ++i) {
+            components.add(this.get(i));
+        }
+        return new CompiledName(Collections.enumeration(components));
+    }
+
+    /**
+     * @return the name relative to the root of the {@code java:} namespace which this absolute name denotes, or null if
+     *         this name is relative
+     */
+    public CompiledName getAbsoluteName() {
+        return this.absoluteName;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+
+    @Override
+    public Name add(final String comp) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Name add(final int posn, final String comp) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Name addAll(final Name suffix) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Name addAll(final int posn, final Name n) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object remove(final int posn) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Compiled names are serialized as plain composite names.
+     */
+    private Object writeReplace() throws ObjectStreamException {
+        return new CompositeName(this.getAll());
+    }
+}
@@ -281,7 +281,8 @@ public class InMemoryNamingStore implements WritableNamingStore {
 
         private void addChild(final String childName, final TreeNode childNode) throws NamingException {
             if (childrenUpdater.putIfAbsent(this, childName, childNode) != null) {
-                throw nameAlreadyBoundException(fullName.add(childName));
+                // the full name may be a compiled name, which is immutable
+                throw nameAlreadyBoundException(((Name) fullName.clone()).add(childName));
             }
         }
 
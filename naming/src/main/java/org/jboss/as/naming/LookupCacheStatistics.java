@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.naming;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Hits and misses of the lookup caches of the service based naming stores. The counts are kept in per-thread stripes, so
+ * that concurrent lookups do not contend on a single field; reading a count sums its stripes.
+ */
+final class LookupCacheStatistics {
+    private static final int HITS = 0;
+    private static final int MISSES = 1;
+    // 16 longs keep two stripes from sharing a cache line
+    private static final int STRIPE_WIDTH = 16;
+    private static final int STRIPES;
+
+    static {
+        int stripes = 1;
+        final int limit = Math.min(64, Runtime.getRuntime().availableProcessors() * 2);
+        while (stripes < limit) {
+            stripes <<= 1;
+        }
+        STRIPES = stripes;
+    }
+
+    private final AtomicLongArray counters = new AtomicLongArray(STRIPES * STRIPE_WIDTH);
+
+    void hit() {
+        this.counters.incrementAndGet(stripe() + HITS);
+    }
+
+    void miss() {
+        this.counters.incrementAndGet(stripe() + MISSES);
+    }
+
+    long getHits() {
+        return this.sum(HITS);
+    }
+
+    long getMisses() {
+        return this.sum(MISSES);
+    }
+
+    private long sum(final int field) {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            sum += this.counters.get(i * STRIPE_WIDTH + field);
+        }
+        return sum;
+    }
+
+    private static int stripe() {
+        final long id = Thread.currentThread().getId();
+        return ((int) (id ^ (id >>> 16)) & (STRIPES - 1)) * STRIPE_WIDTH;
+    }
+}
@@ -488,10 +488,16 @@ public class NamingContext implements EventContext {
     }
 
     private Name parseName(final String name) throws NamingException {
-        return getNameParser(name).parse(name);
+        return CompiledName.of(name);
     }
 
     private Name getAbsoluteName(final Name name) throws NamingException {
+        if (name instanceof CompiledName) {
+            final Name absoluteName = ((CompiledName) name).getAbsoluteName();
+            if (absoluteName != null) {
+                return absoluteName;
+            }
+        }
         if(name.isEmpty()) {
             return composeName(name, prefix);
         }
@@ -30,6 +30,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.NavigableSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 
 import javax.naming.Binding;
@@ -55,12 +57,16 @@ import org.jboss.msc.service.ServiceRegistry;
  * @author Eduardo Martins
  */
 public class ServiceBasedNamingStore implements NamingStore {
+    private static final LookupCacheStatistics lookupCacheStatistics = new LookupCacheStatistics();
+
     private final Name EMPTY_NAME = new CompositeName();
 
     private final ServiceRegistry serviceRegistry;
     private final ServiceName serviceNameBase;
 
     private ConcurrentSkipListSet<ServiceName> boundServices = new ConcurrentSkipListSet<ServiceName>();
+    // The objects bound to the names looked up so far, discarded as a whole whenever a service is bound or unbound
+    private volatile ConcurrentMap<Name, Object> resolvedBindings = new ConcurrentHashMap<Name, Object>();
 
     public ServiceBasedNamingStore(final ServiceRegistry serviceRegistry, final ServiceName serviceNameBase) {
         this.serviceRegistry = serviceRegistry;
@@ -76,8 +82,25 @@ public class ServiceBasedNamingStore implements NamingStore {
         if (name.isEmpty()) {
             return new NamingContext(EMPTY_NAME, this, null);
         }
+        final ConcurrentMap<Name, Object> resolvedBindings = this.resolvedBindings;
+        Object binding = resolvedBindings.get(name);
+        if (binding != null) {
+            lookupCacheStatistics.hit();
+            return dereference ? dereference(binding) : binding;
+        }
+        lookupCacheStatistics.miss();
         final ServiceName lookupName = buildServiceName(name);
-        Object obj = lookup(name.toString(), lookupName, dereference);
+        binding = getBinding(name.toString(), lookupName);
+        if (binding != null) {
+            // If a service was bound or unbound meanwhile, this goes to a discarded map
+            final Name resolvedName = (name instanceof CompiledName) ? name : (Name) name.clone();
+            resolvedBindings.put(resolvedName, binding);
+            // A binder service unbinds its name before it stops providing its binding, which must not be resolved after that
+            if (!boundServices.contains(lookupName)) {
+                resolvedBindings.remove(resolvedName, binding);
+            }
+        }
+        Object obj = dereference ? dereference(binding) : binding;
         if (obj == null) {
             final ServiceName lower = boundServices.lower(lookupName);
             if (lower != null && lower.isParentOf(lookupName)) {
@@ -122,19 +145,25 @@ public class ServiceBasedNamingStore implements NamingStore {
     }
 
     private Object lookup(final String name, final ServiceName lookupName, boolean dereference) throws NamingException {
+        final Object object = getBinding(name, lookupName);
+        return dereference ? dereference(object) : object;
+    }
+
+    private Object getBinding(final String name, final ServiceName lookupName) throws NamingException {
         final ServiceController<?> controller = serviceRegistry.getService(lookupName);
-        final Object object;
-        if (controller != null) {
-            try {
-                object = controller.getValue();
-            } catch (IllegalStateException e) {
-                //occurs if the service is not actually up
-                throw new NameNotFoundException("Error looking up " + name + ", service " + lookupName + " is not started");
-            }
-        } else {
+        if (controller == null) {
             return null;
         }
-        if (dereference && object instanceof ManagedReferenceFactory) {
+        try {
+            return controller.getValue();
+        } catch (IllegalStateException e) {
+            //occurs if the service is not actually up
+            throw new NameNotFoundException("Error looking up " + name + ", service " + lookupName + " is not started");
+        }
+    }
+
+    private static Object dereference(final Object object) throws NamingException {
+        if (object instanceof ManagedReferenceFactory) {
             try {
                 return ManagedReferenceFactory.class.cast(object).getReference().getInstance();
             } catch (Exception e) {
@@ -243,6 +272,7 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     public void close() throws NamingException {
         boundServices.clear();
+        resolvedBindings = new ConcurrentHashMap<Name, Object>();
     }
 
     public void addNamingListener(Name target, int scope, NamingListener listener) {
@@ -257,10 +287,26 @@ public class ServiceBasedNamingStore implements NamingStore {
             throw MESSAGES.serviceAlreadyBound(serviceName);
         }
         boundServices.add(serviceName);
+        resolvedBindings = new ConcurrentHashMap<Name, Object>();
     }
 
     public void remove(final ServiceName serviceName) {
         boundServices.remove(serviceName);
+        resolvedBindings = new ConcurrentHashMap<Name, Object>();
+    }
+
+    /**
+     * @return the number of lookups, across all service based naming stores, whose binding was already resolved
+     */
+    public static long getLookupCacheHits() {
+        return lookupCacheStatistics.getHits();
+    }
+
+    /**
+     * @return the number of lookups, across all service based naming stores, whose binding had to be resolved
+     */
+    public static long getLookupCacheMisses() {
+        return lookupCacheStatistics.getMisses();
     }
 
     protected ServiceName buildServiceName(final Name name) {
@@ -0,0 +1,79 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2010, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.naming.subsystem;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.naming.ServiceBasedNamingStore;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Handler of the metrics of the lookup caches of the {@link ServiceBasedNamingStore service based naming stores}.
+ */
+public class LookupCacheMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    static final AttributeDefinition LOOKUP_CACHE_HITS = new SimpleAttributeDefinitionBuilder(NamingSubsystemModel.LOOKUP_CACHE_HITS, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+    static final AttributeDefinition LOOKUP_CACHE_MISSES = new SimpleAttributeDefinitionBuilder(NamingSubsystemModel.LOOKUP_CACHE_MISSES, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+    static final AttributeDefinition LOOKUP_CACHE_HIT_RATIO = new SimpleAttributeDefinitionBuilder(NamingSubsystemModel.LOOKUP_CACHE_HIT_RATIO, ModelType.DOUBLE, true)
+            .setStorageRuntime()
+            .build();
+
+    static final AttributeDefinition[] METRICS = { LOOKUP_CACHE_HITS, LOOKUP_CACHE_MISSES, LOOKUP_CACHE_HIT_RATIO };
+
+    static final LookupCacheMetricsHandler INSTANCE = new LookupCacheMetricsHandler();
+
+    private LookupCacheMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String name = operation.require(ModelDescriptionConstants.NAME).asString();
+        final long hits = ServiceBasedNamingStore.getLookupCacheHits();
+        final long misses = ServiceBasedNamingStore.getLookupCacheMisses();
+        final ModelNode result = context.getResult();
+        if (NamingSubsystemModel.LOOKUP_CACHE_HITS.equals(name)) {
+            result.set(hits);
+        } else if (NamingSubsystemModel.LOOKUP_CACHE_MISSES.equals(name)) {
+            result.set(misses);
+        } else if (NamingSubsystemModel.LOOKUP_CACHE_HIT_RATIO.equals(name)) {
+            final long lookups = hits + misses;
+            result.set((lookups > 0) ? (double) hits / lookups : 0);
+        }
+        context.stepCompleted();
+    }
+
+    void registerMetrics(final ManagementResourceRegistration registration) {
+        for (AttributeDefinition metric : METRICS) {
+            registration.registerMetric(metric, this);
+        }
+    }
+}
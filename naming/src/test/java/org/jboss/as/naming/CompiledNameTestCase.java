@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.naming;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import javax.naming.CompositeName;
+import javax.naming.Name;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link CompiledName}.
+ */
+public class CompiledNameTestCase {
+
+    @Test
+    public void testInterned() throws Exception {
+        final CompiledName name = CompiledName.of("java:comp/env/foo");
+        assertSame(name, CompiledName.of("java:comp/env/foo"));
+        assertEquals(new CompositeName("java:comp/env/foo"), name);
+        assertEquals(name, new CompositeName("java:comp/env/foo"));
+        assertEquals(new CompositeName("java:comp/env/foo").hashCode(), name.hashCode());
+    }
+
+    @Test
+    public void testAbsoluteName() throws Exception {
+        assertEquals(new CompositeName("comp/env/foo"), CompiledName.of("java:comp/env/foo").getAbsoluteName());
+        assertEquals(new CompositeName("comp/env/foo"), CompiledName.of("java:/comp/env/foo").getAbsoluteName());
+        assertEquals(new CompositeName("jboss/foo"), CompiledName.of("/jboss/foo").getAbsoluteName());
+        assertNull(CompiledName.of("env/foo").getAbsoluteName());
+        assertNull(CompiledName.of("").getAbsoluteName());
+    }
+
+    @Test
+    public void testImmutable() throws Exception {
+        final CompiledName name = CompiledName.of("java:comp/env");
+        try {
+            name.add("foo");
+            fail("Compiled names should be immutable");
+        } catch (UnsupportedOperationException expected) {
+        }
+        try {
+            name.remove(0);
+            fail("Compiled names should be immutable");
+        } catch (UnsupportedOperationException expected) {
+        }
+        final Name copy = (Name) name.clone();
+        copy.add("foo");
+        assertEquals(new CompositeName("java:comp/env/foo"), copy);
+        assertEquals(new CompositeName("java:comp/env"), name);
+    }
+
+    @Test
+    public void testBoundedCache() throws Exception {
+        for (int i = 0; i <= CompiledName.MAX_CACHED_NAMES; i++) {
+            CompiledName.of("java:comp/env/name" + i);
+        }
+        assertEquals(new CompositeName("java:comp/env/name0"), CompiledName.of("java:comp/env/name0"));
+    }
+}
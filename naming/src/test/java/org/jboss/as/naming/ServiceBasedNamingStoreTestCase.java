@@ -37,6 +37,7 @@ import javax.naming.NamingException;
 
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
@@ -98,6 +99,59 @@ public class ServiceBasedNamingStoreTestCase {
         assertEquals(value, obj);
     }
 
+    @Test
+    public void testLookupCachedBinding() throws Exception {
+        final ServiceName bindingName = ServiceName.JBOSS.append("foo", "cached");
+        final Object value = new Object();
+        bindObject(bindingName, value);
+
+        final long hits = ServiceBasedNamingStore.getLookupCacheHits();
+        final long misses = ServiceBasedNamingStore.getLookupCacheMisses();
+        assertEquals(value, store.lookup(new CompositeName("foo/cached")));
+        assertEquals(value, store.lookup(new CompositeName("foo/cached")));
+        assertEquals(hits + 1, ServiceBasedNamingStore.getLookupCacheHits());
+        assertEquals(misses + 1, ServiceBasedNamingStore.getLookupCacheMisses());
+
+        // unbinding discards the resolved bindings
+        store.remove(bindingName);
+        store.lookup(new CompositeName("foo/cached"));
+        assertEquals(hits + 1, ServiceBasedNamingStore.getLookupCacheHits());
+        assertEquals(misses + 2, ServiceBasedNamingStore.getLookupCacheMisses());
+    }
+
+    @Test
+    public void testLookupAfterBind() throws Exception {
+        final ServiceName bindingName = ServiceName.JBOSS.append("foo", "cached");
+        bindObject(bindingName, new Object());
+        store.lookup(new CompositeName("foo/cached"));
+
+        // binding discards the resolved bindings
+        final long misses = ServiceBasedNamingStore.getLookupCacheMisses();
+        bindObject(ServiceName.JBOSS.append("foo", "other"), new Object());
+        store.lookup(new CompositeName("foo/cached"));
+        assertEquals(misses + 1, ServiceBasedNamingStore.getLookupCacheMisses());
+    }
+
+    @Test
+    public void testLookupAfterRebind() throws Exception {
+        final ServiceName bindingName = ServiceName.JBOSS.append("foo", "rebound");
+        bindObject(bindingName, "old");
+        assertEquals("old", store.lookup(new CompositeName("foo/rebound")));
+
+        // like a stopping binder service, which unbinds its name before it stops providing its binding
+        store.remove(bindingName);
+        assertEquals("old", store.lookup(new CompositeName("foo/rebound")));
+        final ServiceController<?> controller = container.getRequiredService(bindingName);
+        controller.setMode(ServiceController.Mode.REMOVE);
+        final long deadline = System.currentTimeMillis() + 5000;
+        while ((container.getService(bindingName) != null) && (System.currentTimeMillis() < deadline)) {
+            Thread.sleep(10);
+        }
+
+        bindObject(bindingName, "new");
+        assertEquals("new", store.lookup(new CompositeName("foo/rebound")));
+    }
+
     @Test
     public void testLookupParentContext() throws Exception {
         final ServiceName bindingName = ServiceName.JBOSS.append("foo", "bar");
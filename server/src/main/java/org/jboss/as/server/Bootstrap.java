@@ -22,8 +22,11 @@
 
 package org.jboss.as.server;
 
+import static org.jboss.as.controller.ControllerLogger.ROOT_LOGGER;
+
 import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.xml.namespace.QName;
 
@@ -151,6 +154,7 @@ public interface Bootstrap {
                         QName rootElement = new QName(Namespace.CURRENT.getUriString(), "server");
                         StandaloneXml parser = new StandaloneXml(Module.getBootModuleLoader(), executorService, extensionRegistry);
                         BackupXmlConfigurationPersister persister = new BackupXmlConfigurationPersister(configurationFile, rootElement, parser, parser);
+                        persister.setPersistDelay(getPersistDelay(), TimeUnit.MILLISECONDS);
                         for (Namespace namespace : Namespace.domainValues()) {
                             if (!namespace.equals(Namespace.CURRENT)) {
                                 persister.registerAdditionalRootElement(new QName(namespace.getUriString(), "server"), parser);
@@ -173,6 +177,19 @@ public interface Bootstrap {
             this.configurationPersisterFactory = configurationPersisterFactory;
         }
 
+        private static long getPersistDelay() {
+            final String delay = SecurityActions.getSystemProperty(ServerEnvironment.JBOSS_SERVER_CONFIG_PERSIST_DELAY);
+            if (delay == null) {
+                return 0;
+            }
+            try {
+                return Long.parseLong(delay.trim());
+            } catch (NumberFormatException e) {
+                ROOT_LOGGER.invalidSystemPropertyValue(delay, ServerEnvironment.JBOSS_SERVER_CONFIG_PERSIST_DELAY, 0);
+                return 0;
+            }
+        }
+
         /**
          * Get the server start time to report in the logs.
          *
@@ -246,6 +246,13 @@ public class ServerEnvironment extends ProcessEnvironment implements Serializabl
      */
     public static final String JBOSS_SERVER_DEFAULT_CONFIG = "jboss.server.default.config";
 
+    /**
+     * The system property used to set the delay, in milliseconds, after which changes to the server configuration get
+     * written to the configuration file. Changes committed in the meantime are written at once. If not set, changes are
+     * written as they get committed.
+     */
+    public static final String JBOSS_SERVER_CONFIG_PERSIST_DELAY = "jboss.server.config.persist.delay";
+
     protected static final String DOMAIN_BASE_DIR = "jboss.domain.base.dir";
     protected static final String DOMAIN_CONFIG_DIR = "jboss.domain.config.dir";
 
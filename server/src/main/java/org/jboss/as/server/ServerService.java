@@ -333,11 +333,15 @@ public final class ServerService extends AbstractControllerService {
         return super.boot(operations, rollbackOnRuntimeFailure);
     }
 
-    public void stop(final StopContext context) {
-        super.stop(context);
-
-        configuration.getExtensionRegistry().clear();
-        configuration.getServerEnvironment().resetProvidedProperties();
+    @Override
+    protected void stopAsynchronous(final StopContext context) {
+        try {
+            super.stopAsynchronous(context);
+        } finally {
+            // only once the configuration has been written, so the persister still sees the extensions and properties
+            configuration.getExtensionRegistry().clear();
+            configuration.getServerEnvironment().resetProvidedProperties();
+        }
     }
 
     @Override
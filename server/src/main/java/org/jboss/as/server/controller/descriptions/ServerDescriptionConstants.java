@@ -34,6 +34,10 @@ public final class ServerDescriptionConstants {
 
     public static final String PROCESS_STATE = "server-state";
 
+    public static final String PENDING_CONFIGURATION_CHANGES = "pending-configuration-changes";
+
+    public static final String FAILED_CONFIGURATION_WRITES = "failed-configuration-writes";
+
     public static final String PROCESS_TYPE = "process-type";
 
     public static final String LAUNCH_TYPE = "launch-type";
@@ -46,8 +46,10 @@ import org.jboss.as.controller.descriptions.common.ControllerResolver;
 import org.jboss.as.controller.descriptions.common.CoreManagementDefinition;
 import org.jboss.as.controller.extension.ExtensionRegistry;
 import org.jboss.as.controller.extension.ExtensionResourceDefinition;
+import org.jboss.as.controller.operations.common.FailedConfigurationWritesHandler;
 import org.jboss.as.controller.operations.common.NamespaceAddHandler;
 import org.jboss.as.controller.operations.common.NamespaceRemoveHandler;
+import org.jboss.as.controller.operations.common.PendingConfigurationChangesHandler;
 import org.jboss.as.controller.operations.common.ProcessStateAttributeHandler;
 import org.jboss.as.controller.operations.common.ResolveExpressionHandler;
 import org.jboss.as.controller.operations.common.SchemaLocationAddHandler;
@@ -164,6 +166,12 @@ public class ServerRootResourceDefinition extends SimpleResourceDefinition {
             .setStorageRuntime()
             .setValidator(NOT_NULL_STRING_LENGTH_ONE_VALIDATOR)
             .build();
+    public static final SimpleAttributeDefinition PENDING_CONFIGURATION_CHANGES = SimpleAttributeDefinitionBuilder.create(ServerDescriptionConstants.PENDING_CONFIGURATION_CHANGES, ModelType.INT)
+            .setStorageRuntime()
+            .build();
+    public static final SimpleAttributeDefinition FAILED_CONFIGURATION_WRITES = SimpleAttributeDefinitionBuilder.create(ServerDescriptionConstants.FAILED_CONFIGURATION_WRITES, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
     public static final SimpleAttributeDefinition PROCESS_TYPE = SimpleAttributeDefinitionBuilder.create(ServerDescriptionConstants.PROCESS_TYPE, ModelType.STRING)
             .setStorageRuntime()
             .setValidator(NOT_NULL_STRING_LENGTH_ONE_VALIDATOR)
@@ -292,6 +300,8 @@ public class ServerRootResourceDefinition extends SimpleResourceDefinition {
         }
 
         resourceRegistration.registerReadOnlyAttribute(SERVER_STATE, new ProcessStateAttributeHandler(processState));
+        resourceRegistration.registerMetric(PENDING_CONFIGURATION_CHANGES, new PendingConfigurationChangesHandler(extensibleConfigurationPersister));
+        resourceRegistration.registerMetric(FAILED_CONFIGURATION_WRITES, new FailedConfigurationWritesHandler(extensibleConfigurationPersister));
         resourceRegistration.registerReadOnlyAttribute(PROCESS_TYPE, ProcessTypeHandler.INSTANCE);
         resourceRegistration.registerReadOnlyAttribute(RUNNING_MODE, new RunningModeReadHandler(runningModeControl));
 
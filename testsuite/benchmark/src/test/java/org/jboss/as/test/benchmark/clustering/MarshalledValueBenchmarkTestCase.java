@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.test.benchmark.clustering;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.jboss.as.clustering.MarshallingBufferPool;
+import org.jboss.as.clustering.MarshallingContext;
+import org.jboss.as.clustering.SimpleMarshalledValue;
+import org.jboss.as.clustering.VersionedMarshallingConfiguration;
+import org.jboss.logging.Logger;
+import org.jboss.marshalling.Marshalling;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Measures how fast {@link SimpleMarshalledValue}s are serialized, and how many bytes of buffers are allocated doing so,
+ * with a {@link MarshallingBufferPool} which retains buffers versus one which retains none.
+ */
+public class MarshalledValueBenchmarkTestCase {
+
+    private static final Logger log = Logger.getLogger(MarshalledValueBenchmarkTestCase.class);
+
+    private static final int VALUES = 20000;
+    private static final int ROUNDS = 5;
+    private static final int[] ATTRIBUTE_COUNTS = { 1, 10, 100, 1000 };
+
+    @Test
+    public void testPooledVersusUnpooled() throws Exception {
+        for (int count : ATTRIBUTE_COUNTS) {
+            final Map<String, Object> attributes = createAttributes(count);
+            final MarshallingBufferPool unpooled = new MarshallingBufferPool(MarshallingBufferPool.DEFAULT_MAX_RETAINED_SIZE, 0);
+            final MarshallingBufferPool pooled = new MarshallingBufferPool(MarshallingBufferPool.DEFAULT_MAX_RETAINED_SIZE, MarshallingBufferPool.DEFAULT_BUFFERS_PER_SIZE);
+            final MarshallingContext unpooledContext = createContext(unpooled);
+            final MarshallingContext pooledContext = createContext(pooled);
+            final int values = VALUES / count + 1;
+            long unpooledNanos = Long.MAX_VALUE;
+            long pooledNanos = Long.MAX_VALUE;
+            for (int i = 0; i < ROUNDS; i++) {
+                unpooled.resetStatistics();
+                pooled.resetStatistics();
+                unpooledNanos = Math.min(unpooledNanos, run(unpooledContext, attributes, values));
+                pooledNanos = Math.min(pooledNanos, run(pooledContext, attributes, values));
+            }
+            Assert.assertArrayEquals(new SimpleMarshalledValue<Object>(attributes, unpooledContext).getBytes(),
+                    new SimpleMarshalledValue<Object>(attributes, pooledContext).getBytes());
+            log.infof("%5d attributes: unpooled %,10d ns/value %,12d buffer bytes/value, pooled %,10d ns/value %,12d buffer bytes/value",
+                    count, unpooledNanos / values, unpooled.getAllocatedBytes() / values, pooledNanos / values, pooled.getAllocatedBytes() / values);
+        }
+    }
+
+    /**
+     * @return the elapsed time in nanoseconds
+     */
+    private static long run(final MarshallingContext context, final Map<String, Object> attributes, final int values) throws Exception {
+        final long start = System.nanoTime();
+        for (int i = 0; i < values; i++) {
+            final SimpleMarshalledValue<Object> value = new SimpleMarshalledValue<Object>(attributes, context);
+            Assert.assertNotNull(value.getBytes());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static Map<String, Object> createAttributes(final int count) {
+        final Map<String, Object> attributes = new HashMap<String, Object>();
+        for (int i = 0; i < count; i++) {
+            final List<Object> value = new ArrayList<Object>();
+            value.add(UUID.randomUUID());
+            value.add(Integer.valueOf(i));
+            value.add("attribute value " + i);
+            attributes.put("attribute" + i, value);
+        }
+        return attributes;
+    }
+
+    private static MarshallingContext createContext(final MarshallingBufferPool pool) {
+        final VersionedMarshallingConfiguration configuration = new VersionedMarshallingConfiguration() {
+            @Override
+            public int getCurrentMarshallingVersion() {
+                return 0;
+            }
+
+            @Override
+            public MarshallingConfiguration getMarshallingConfiguration(int version) {
+                return new MarshallingConfiguration();
+            }
+        };
+        return new MarshallingContext(Marshalling.getMarshallerFactory("river", Marshalling.class.getClassLoader()), configuration, pool);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.test.benchmark.controller;
+
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.CopyOnWriteResourceTree;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.logging.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Measures the cost to the model of a {@code write-attribute} operation against models of growing size: copying the
+ * whole model before updating an attribute, as operations did before, versus copying only the path to the updated
+ * resource with a {@link CopyOnWriteResourceTree}.
+ */
+public class ModelUpdateBenchmarkTestCase {
+
+    private static final Logger log = Logger.getLogger(ModelUpdateBenchmarkTestCase.class);
+
+    private static final int[] DEPLOYMENTS = { 1, 10, 50, 100 };
+    private static final int SUBSYSTEMS = 30;
+    private static final int RESOURCES_PER_SUBSYSTEM = 10;
+    private static final int UPDATES = 200;
+    private static final int ROUNDS = 3;
+
+    private static final PathElement UPDATED = PathElement.pathElement("subsystem", "subsystem0");
+
+    @Test
+    public void testCloneVersusCopyOnWrite() {
+        for (int deployments : DEPLOYMENTS) {
+            Resource model = createModel(deployments);
+            long cloneNanos = Long.MAX_VALUE;
+            long copyOnWriteNanos = Long.MAX_VALUE;
+            for (int i = 0; i < ROUNDS; i++) {
+                long start = System.nanoTime();
+                model = updateClone(model);
+                cloneNanos = Math.min(cloneNanos, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                model = updateCopyOnWrite(model);
+                copyOnWriteNanos = Math.min(copyOnWriteNanos, System.nanoTime() - start);
+            }
+            Assert.assertEquals(ROUNDS * UPDATES * 2, model.getChild(UPDATED).getModel().get("value").asInt());
+            log.infof("%3d deployments: clone %,12d ns/update, copy-on-write %,8d ns/update", deployments, cloneNanos / UPDATES, copyOnWriteNanos / UPDATES);
+        }
+    }
+
+    private static Resource updateClone(Resource model) {
+        for (int i = 0; i < UPDATES; i++) {
+            final Resource copy = model.clone();
+            increment(copy.getChild(UPDATED));
+            model = copy;
+        }
+        return model;
+    }
+
+    private static Resource updateCopyOnWrite(Resource model) {
+        for (int i = 0; i < UPDATES; i++) {
+            final CopyOnWriteResourceTree tree = new CopyOnWriteResourceTree(model, true);
+            increment(tree.getChildForUpdate(tree.getRoot(), UPDATED));
+            model = tree.getRoot();
+        }
+        return model;
+    }
+
+    private static void increment(final Resource resource) {
+        final int value = resource.getModel().get("value").asInt();
+        resource.getModel().get("value").set(value + 1);
+    }
+
+    /**
+     * Creates a model with a number of subsystems, and a number of deployments, each with a number of resources per
+     * subsystem.
+     */
+    private static Resource createModel(final int deployments) {
+        final Resource root = Resource.Factory.create();
+        populate(root);
+        for (int i = 0; i < deployments; i++) {
+            final Resource deployment = Resource.Factory.create();
+            deployment.getModel().get("name").set("deployment" + i);
+            populate(deployment);
+            root.registerChild(PathElement.pathElement("deployment", "deployment" + i), deployment);
+        }
+        root.getChild(UPDATED).getModel().get("value").set(0);
+        return root;
+    }
+
+    private static void populate(final Resource parent) {
+        for (int i = 0; i < SUBSYSTEMS; i++) {
+            final Resource subsystem = Resource.Factory.create();
+            for (int j = 0; j < RESOURCES_PER_SUBSYSTEM; j++) {
+                final Resource resource = Resource.Factory.create();
+                resource.getModel().get("attribute").set("value" + j);
+                subsystem.registerChild(PathElement.pathElement("resource", "resource" + j), resource);
+            }
+            parent.registerChild(PathElement.pathElement("subsystem", "subsystem" + i), subsystem);
+        }
+    }
+}
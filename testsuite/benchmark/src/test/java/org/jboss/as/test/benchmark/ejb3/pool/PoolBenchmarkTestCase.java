@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.test.benchmark.ejb3.pool;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.ejb3.pool.Pool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.jboss.as.ejb3.pool.strictmax.StrictMaxPool;
+import org.jboss.as.ejb3.pool.strictmax.StripedStrictMaxPool;
+import org.jboss.logging.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Compares get/release throughput of {@link StrictMaxPool} and {@link StripedStrictMaxPool} with 1 to 128 threads
+ * hammering a single pool, as a stateless session bean under load would.
+ */
+public class PoolBenchmarkTestCase {
+
+    private static final Logger log = Logger.getLogger(PoolBenchmarkTestCase.class);
+
+    private static final int MAX_POOL_SIZE = 20;
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64, 128};
+    private static final long WARMUP_MILLIS = 500;
+    private static final long MEASURE_MILLIS = 2000;
+
+    @Test
+    public void testStrictMaxVersusStriped() throws Exception {
+        for (int threads : THREADS) {
+            final double strict = measure(new StrictMaxPool<Object>(new Factory(), MAX_POOL_SIZE, 1, TimeUnit.MINUTES), threads);
+            final double striped = measure(new StripedStrictMaxPool<Object>(new Factory(), MAX_POOL_SIZE, 1, TimeUnit.MINUTES), threads);
+            log.infof("%3d threads: strict-max %,12.0f ops/s, striped %,12.0f ops/s (%.2fx)", threads, strict, striped, striped / strict);
+        }
+    }
+
+    private static double measure(final Pool<Object> pool, final int threads) throws Exception {
+        pool.start();
+        try {
+            run(pool, threads, WARMUP_MILLIS);
+            final long ops = run(pool, threads, MEASURE_MILLIS);
+            // All the workers are done, so every permit must be back. The number of pooled instances is not checked:
+            // the striped pool may briefly hold a surplus, which is only trimmed on later releases.
+            Assert.assertEquals(MAX_POOL_SIZE, pool.getAvailableCount());
+            return ops * 1000.0 / MEASURE_MILLIS;
+        } finally {
+            pool.stop();
+        }
+    }
+
+    private static long run(final Pool<Object> pool, final int threads, final long millis) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        final AtomicLong total = new AtomicLong();
+        final long[] deadline = new long[1];
+        for (int i = 0; i < threads; i++) {
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        long ops = 0;
+                        while (System.currentTimeMillis() < deadline[0]) {
+                            final Object bean = pool.get();
+                            // a little work while holding the instance
+                            bean.hashCode();
+                            pool.release(bean);
+                            ops++;
+                        }
+                        total.addAndGet(ops);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            });
+            thread.start();
+        }
+        deadline[0] = System.currentTimeMillis() + millis;
+        start.countDown();
+        done.await();
+        return total.get();
+    }
+
+    private static class Factory implements StatelessObjectFactory<Object> {
+        @Override
+        public Object create() {
+            return new Object();
+        }
+
+        @Override
+        public void destroy(Object obj) {
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.test.benchmark.ejb3.remote;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.ejb3.remote.protocol.versionone.ChannelAssociation;
+import org.jboss.as.ejb3.remote.protocol.versiontwo.ResponseCoalescingChannelAssociation;
+import org.jboss.logging.Logger;
+import org.jboss.remoting3.Channel;
+import org.jboss.remoting3.MessageOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.xnio.Option;
+
+/**
+ * Compares the number of invocation responses per second a remoting channel can carry with and without
+ * {@link ResponseCoalescingChannelAssociation response coalescing}, with 1 to 64 threads completing invocations.
+ * <p/>
+ * The channel is simulated: every outbound Remoting message costs a fixed amount of time on a single, shared
+ * connection, standing in for the frame and the write to the socket a real message costs.
+ */
+public class ResponseCoalescingBenchmarkTestCase {
+
+    private static final Logger log = Logger.getLogger(ResponseCoalescingBenchmarkTestCase.class);
+
+    private static final int[] THREADS = {1, 4, 16, 64};
+    private static final long MESSAGE_COST_NANOS = 20000;
+    private static final int RESPONSE_SIZE = 200;
+    private static final long WINDOW_MICROS = 100;
+    private static final int MAX_BATCH_BYTES = 16384;
+    private static final long WARMUP_MILLIS = 500;
+    private static final long MEASURE_MILLIS = 2000;
+
+    @Test
+    public void testCoalescing() throws Exception {
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            for (int threads : THREADS) {
+                final SimulatedChannel plainChannel = new SimulatedChannel();
+                final double plain = measure(new ChannelAssociation(plainChannel.channel), threads);
+                final SimulatedChannel coalescingChannel = new SimulatedChannel();
+                final ResponseCoalescingChannelAssociation coalescing = new ResponseCoalescingChannelAssociation(coalescingChannel.channel, WINDOW_MICROS, MAX_BATCH_BYTES, scheduler);
+                final double coalesced = measure(coalescing, threads);
+                coalescing.flush();
+                Assert.assertTrue(coalescingChannel.messages.get() > 0);
+                log.infof("%3d threads: plain %,10.0f calls/s in %,d messages, coalescing %,10.0f calls/s in %,d messages (%.2fx)",
+                        threads, plain, plainChannel.messages.get(), coalesced, coalescingChannel.messages.get(), coalesced / plain);
+            }
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    private static double measure(final ChannelAssociation channelAssociation, final int threads) throws Exception {
+        run(channelAssociation, threads, WARMUP_MILLIS);
+        final long calls = run(channelAssociation, threads, MEASURE_MILLIS);
+        return calls * 1000.0 / MEASURE_MILLIS;
+    }
+
+    private static long run(final ChannelAssociation channelAssociation, final int threads, final long millis) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        final AtomicLong total = new AtomicLong();
+        final long[] deadline = new long[1];
+        final byte[] result = new byte[RESPONSE_SIZE];
+        for (int i = 0; i < threads; i++) {
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        long calls = 0;
+                        short invocationId = 0;
+                        while (System.currentTimeMillis() < deadline[0]) {
+                            // what MethodInvocationMessageHandler does to write out a response
+                            final MessageOutputStream messageOutputStream = channelAssociation.acquireChannelMessageOutputStream();
+                            final DataOutputStream outputStream = new DataOutputStream(messageOutputStream);
+                            try {
+                                outputStream.write(0x05);
+                                outputStream.writeShort(invocationId++);
+                                outputStream.write(result);
+                            } finally {
+                                channelAssociation.releaseChannelMessageOutputStream(messageOutputStream);
+                                outputStream.close();
+                            }
+                            calls++;
+                        }
+                        total.addAndGet(calls);
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            });
+            thread.start();
+        }
+        deadline[0] = System.currentTimeMillis() + millis;
+        start.countDown();
+        done.await();
+        return total.get();
+    }
+
+    /**
+     * A {@link Channel} over a connection which sends one message at a time, each taking {@link #MESSAGE_COST_NANOS}
+     */
+    private static class SimulatedChannel {
+        final Channel channel = mock(Channel.class);
+        final AtomicLong messages = new AtomicLong();
+        private final Object connection = new Object();
+
+        SimulatedChannel() throws Exception {
+            when(channel.getOption(any(Option.class))).thenReturn(null);
+            when(channel.writeMessage()).thenAnswer(new Answer<MessageOutputStream>() {
+                @Override
+                public MessageOutputStream answer(InvocationOnMock invocation) {
+                    return new SimulatedMessageOutputStream();
+                }
+            });
+        }
+
+        private class SimulatedMessageOutputStream extends MessageOutputStream {
+            private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+            @Override
+            public void write(final int b) {
+                buffer.write(b);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+                synchronized (connection) {
+                    final long end = System.nanoTime() + MESSAGE_COST_NANOS;
+                    while (System.nanoTime() < end) {
+                        // busy writing
+                    }
+                    messages.incrementAndGet();
+                }
+            }
+
+            @Override
+            public MessageOutputStream cancel() {
+                return this;
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.test.benchmark.ejb3.timer;
+
+import java.util.Calendar;
+
+import javax.ejb.ScheduleExpression;
+
+import org.jboss.as.ejb3.timerservice.schedule.CalendarBasedTimeout;
+import org.jboss.logging.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Measures how fast {@link CalendarBasedTimeout} computes a sequence of timeouts, each from the previous one as a
+ * calendar timer does, for common schedule shapes.
+ * <p/>
+ * The computed sequence alternates between two {@link CalendarBasedTimeout}s, so that neither finds the previous
+ * timeout in its cache and every timeout is computed from scratch. The incremental sequence asks a single one.
+ * Both sequences must be identical.
+ */
+public class CalendarBasedTimeoutBenchmarkTestCase {
+
+    private static final Logger log = Logger.getLogger(CalendarBasedTimeoutBenchmarkTestCase.class);
+
+    private static final int TIMEOUTS = 20000;
+    private static final int ROUNDS = 5;
+
+    private static final String[][] SCHEDULES = {
+            // second, minute, hour, day of month, day of week
+            {"*", "*", "*", "*", "*"},
+            {"*/5", "*", "*", "*", "*"},
+            {"0", "*", "*", "*", "*"},
+            {"0", "*/15", "9-17", "*", "Mon-Fri"},
+            {"0", "0", "0", "*", "*"},
+            {"0", "30", "23", "Last", "*"},
+    };
+
+    @Test
+    public void testComputedVersusIncremental() {
+        for (String[] schedule : SCHEDULES) {
+            final ScheduleExpression expression = new ScheduleExpression()
+                    .second(schedule[0]).minute(schedule[1]).hour(schedule[2]).dayOfMonth(schedule[3]).dayOfWeek(schedule[4]);
+            final long[] expected = new long[TIMEOUTS];
+            final long[] actual = new long[TIMEOUTS];
+            long computed = Long.MAX_VALUE;
+            long incremental = Long.MAX_VALUE;
+            for (int i = 0; i < ROUNDS; i++) {
+                final CalendarBasedTimeout first = new CalendarBasedTimeout(expression);
+                final CalendarBasedTimeout second = new CalendarBasedTimeout(expression);
+                computed = Math.min(computed, run(first.getFirstTimeout(), expected, first, second));
+                final CalendarBasedTimeout single = new CalendarBasedTimeout(expression);
+                incremental = Math.min(incremental, run(first.getFirstTimeout(), actual, single, single));
+                Assert.assertArrayEquals("Timeouts of " + expression, expected, actual);
+            }
+            log.infof("%-40s computed %,8d ns/timeout, incremental %,8d ns/timeout (%.1fx)", expression,
+                    computed / TIMEOUTS, incremental / TIMEOUTS, (double) computed / incremental);
+        }
+    }
+
+    /**
+     * @return the elapsed time in nanoseconds
+     */
+    private static long run(final Calendar firstTimeout, final long[] timeouts, final CalendarBasedTimeout even, final CalendarBasedTimeout odd) {
+        Calendar timeout = firstTimeout;
+        final long start = System.nanoTime();
+        for (int i = 0; i < timeouts.length; i++) {
+            timeout = (i % 2 == 0 ? even : odd).getNextTimeout(timeout);
+            timeouts[i] = timeout.getTimeInMillis();
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.test.benchmark.naming;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.naming.CompositeName;
+import javax.naming.Context;
+import javax.naming.NamingException;
+
+import org.jboss.as.naming.CompiledName;
+import org.jboss.as.naming.InMemoryNamingStore;
+import org.jboss.as.naming.ManagedReferenceFactory;
+import org.jboss.as.naming.NamingContext;
+import org.jboss.as.naming.NamingStore;
+import org.jboss.as.naming.ServiceBasedNamingStore;
+import org.jboss.as.naming.ValueManagedReferenceFactory;
+import org.jboss.logging.Logger;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.Values;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Measures how fast a constant {@code java:} name is looked up, and how many bytes each lookup allocates, when the name
+ * is parsed on every lookup, as it was before names were compiled, versus when it is looked up as a string, and thus
+ * resolved to a {@link CompiledName}.
+ */
+public class NamingLookupBenchmarkTestCase {
+
+    private static final Logger log = Logger.getLogger(NamingLookupBenchmarkTestCase.class);
+
+    private static final String NAME = "java:comp/env/jdbc/DataSource";
+    private static final int LOOKUPS = 200000;
+    private static final int ROUNDS = 5;
+
+    @Test
+    public void testInMemoryNamingStore() throws Exception {
+        final InMemoryNamingStore store = new InMemoryNamingStore();
+        try {
+            final Object value = new Object();
+            store.bind(new CompositeName("comp/env/jdbc/DataSource"), value, Object.class);
+            this.compare("in-memory", store, value);
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void testServiceBasedNamingStore() throws Exception {
+        final ServiceContainer container = ServiceContainer.Factory.create();
+        try {
+            final ServiceBasedNamingStore store = new ServiceBasedNamingStore(container, ServiceName.JBOSS);
+            final Object value = new Object();
+            final ServiceName name = ServiceName.JBOSS.append("comp", "env", "jdbc", "DataSource");
+            final CountDownLatch latch = new CountDownLatch(1);
+            container.addService(name, new Service<ManagedReferenceFactory>() {
+                @Override
+                public void start(StartContext context) {
+                    store.add(name);
+                    latch.countDown();
+                }
+
+                @Override
+                public void stop(StopContext context) {
+                    store.remove(name);
+                }
+
+                @Override
+                public ManagedReferenceFactory getValue() {
+                    return new ValueManagedReferenceFactory(Values.immediateValue(value));
+                }
+            }).install();
+            latch.await();
+            this.compare("service based", store, value);
+        } finally {
+            container.shutdown();
+            container.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private void compare(final String type, final NamingStore store, final Object value) throws Exception {
+        final Context context = new NamingContext(store, null);
+        Assert.assertSame(value, context.lookup(new CompositeName(NAME)));
+        Assert.assertSame(value, context.lookup(NAME));
+        long parsedNanos = Long.MAX_VALUE;
+        long compiledNanos = Long.MAX_VALUE;
+        long parsedBytes = Long.MAX_VALUE;
+        long compiledBytes = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            lookupParsed(context);
+            parsedNanos = Math.min(parsedNanos, System.nanoTime() - start);
+            parsedBytes = Math.min(parsedBytes, allocatedBytes() - bytes);
+
+            bytes = allocatedBytes();
+            start = System.nanoTime();
+            lookupCompiled(context);
+            compiledNanos = Math.min(compiledNanos, System.nanoTime() - start);
+            compiledBytes = Math.min(compiledBytes, allocatedBytes() - bytes);
+        }
+        log.infof("%s store: parsed %,6d ns/lookup %,6d bytes/lookup, compiled %,6d ns/lookup %,6d bytes/lookup", type,
+                parsedNanos / LOOKUPS, parsedBytes / LOOKUPS, compiledNanos / LOOKUPS, compiledBytes / LOOKUPS);
+    }
+
+    private static void lookupParsed(final Context context) throws NamingException {
+        for (int i = 0; i < LOOKUPS; i++) {
+            Assert.assertNotNull(context.lookup(new CompositeName(NAME)));
+        }
+    }
+
+    private static void lookupCompiled(final Context context) throws NamingException {
+        for (int i = 0; i < LOOKUPS; i++) {
+            Assert.assertNotNull(context.lookup(NAME));
+        }
+    }
+
+    /**
+     * @return the number of bytes allocated so far by the current thread, or 0 if the JVM can't tell
+     */
+    private static long allocatedBytes() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -70,6 +70,7 @@ public class PassivationSucceedsEJB2TestCase {
 
     @Test
     public void testPassivationMaxSize() throws Exception {
+        final int passivations = TestPassivationBeanParent.getPassivations();
         TestPassivationRemoteHome home = (TestPassivationRemoteHome) ctx.lookup(jndi);
         TestPassivationRemote remote1 = home.create();
         Assert.assertEquals("Returned remote1 result was not expected", TestPassivationRemote.EXPECTED_RESULT,
@@ -81,6 +82,11 @@ public class PassivationSucceedsEJB2TestCase {
 
         // create another bean. This should force the other bean to passivate, as only one bean is allowed in the pool at a time
         home.create();
+        // evicted beans are passivated in the background
+        final long end = System.currentTimeMillis() + 5000L;
+        while (TestPassivationBeanParent.getPassivations() < passivations + 2 && System.currentTimeMillis() < end) {
+            Thread.sleep(50L);
+        }
 
         Assert.assertTrue("ejbPassivate not called on remote1, check cache configuration and client sleep time",
                 remote1.hasBeenPassivated());
@@ -23,6 +23,7 @@
 package org.jboss.as.test.integration.ejb.stateful.passivation.ejb2;
 
 import java.rmi.RemoteException;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.ejb.EJBException;
 import org.jboss.logging.Logger;
 
@@ -31,6 +32,7 @@ import org.jboss.logging.Logger;
  */
 public abstract class TestPassivationBeanParent {
     private static final Logger log = Logger.getLogger(TestPassivationBeanParent.class);
+    private static final AtomicInteger passivations = new AtomicInteger();
     
     protected String identificator;
     protected boolean beenPassivated = false;
@@ -42,6 +44,14 @@ public abstract class TestPassivationBeanParent {
     public void ejbPassivate() throws EJBException, RemoteException {
         log.info(this.toString() + " ejbPassivate [" + this.identificator + "]");
         this.beenPassivated = true;
+        passivations.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of times ejbPassivate was called on any instance
+     */
+    public static int getPassivations() {
+        return passivations.get();
     }
     
     /**
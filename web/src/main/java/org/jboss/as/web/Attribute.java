@@ -90,6 +90,10 @@ enum Attribute {
     SECURE(Constants.SECURE),
     SENDFILE(Constants.SENDFILE),
     SESSION_CACHE_SIZE(Constants.SESSION_CACHE_SIZE),
+    SESSION_LAZY_ATTRIBUTES(Constants.SESSION_LAZY_ATTRIBUTES),
+    SESSION_OFF_HEAP_STORE_MAX_SIZE(Constants.SESSION_OFF_HEAP_STORE_MAX_SIZE),
+    SESSION_SNAPSHOT_MAX_QUEUED(Constants.SESSION_SNAPSHOT_MAX_QUEUED),
+    SESSION_SNAPSHOT_THREADS(Constants.SESSION_SNAPSHOT_THREADS),
     SESSION_TIMEOUT(Constants.SESSION_TIMEOUT),
     SMAP(Constants.SMAP),
     SOCKET_BINDING(Constants.SOCKET_BINDING),
@@ -96,6 +96,10 @@ public interface Constants {
     String SECURE = "secure";
     String SENDFILE = "sendfile";
     String SESSION_CACHE_SIZE = "session-cache-size";
+    String SESSION_LAZY_ATTRIBUTES = "session-lazy-attributes";
+    String SESSION_OFF_HEAP_STORE_MAX_SIZE = "session-off-heap-store-max-size";
+    String SESSION_SNAPSHOT_MAX_QUEUED = "session-snapshot-max-queued";
+    String SESSION_SNAPSHOT_THREADS = "session-snapshot-threads";
     String SESSION_TIMEOUT = "session-timeout";
     String SMAP = "smap";
     String SOCKET_BINDING = "socket-binding";
@@ -127,6 +131,12 @@ public interface Constants {
     String MAX_TIME = "maxTime";
     String REQUEST_COUNT = "requestCount";
 
+    /* Marshalling buffer pool stats attributes */
+    String MARSHALLING_BUFFER_REUSES = "marshalling-buffer-reuses";
+    String MARSHALLING_BUFFER_ALLOCATIONS = "marshalling-buffer-allocations";
+    String MARSHALLING_BUFFER_ALLOCATED_BYTES = "marshalling-buffer-allocated-bytes";
+    String MARSHALLING_BUFFER_DISCARDS = "marshalling-buffer-discards";
+
     String LOAD_TIME ="load-time";
     String MIN_TIME = "min-time";
     String MODULE = "module";
@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.web;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import org.jboss.as.clustering.MarshallingBufferPool;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Reports the statistics of the {@link MarshallingBufferPool#getSharedPool() shared buffer pool} into which
+ * distributed sessions are marshalled.
+ */
+class MarshallingBufferPoolMetrics extends AbstractRuntimeOnlyHandler {
+
+    static final MarshallingBufferPoolMetrics INSTANCE = new MarshallingBufferPoolMetrics();
+
+    protected static final SimpleAttributeDefinition REUSES =
+            new SimpleAttributeDefinitionBuilder(Constants.MARSHALLING_BUFFER_REUSES, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+    protected static final SimpleAttributeDefinition ALLOCATIONS =
+            new SimpleAttributeDefinitionBuilder(Constants.MARSHALLING_BUFFER_ALLOCATIONS, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+    protected static final SimpleAttributeDefinition ALLOCATED_BYTES =
+            new SimpleAttributeDefinitionBuilder(Constants.MARSHALLING_BUFFER_ALLOCATED_BYTES, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+    protected static final SimpleAttributeDefinition DISCARDS =
+            new SimpleAttributeDefinitionBuilder(Constants.MARSHALLING_BUFFER_DISCARDS, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition[] ATTRIBUTES = {
+            REUSES,
+            ALLOCATIONS,
+            ALLOCATED_BYTES,
+            DISCARDS
+    };
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String attributeName = operation.require(NAME).asString();
+        final MarshallingBufferPool pool = MarshallingBufferPool.getSharedPool();
+        final ModelNode result = context.getResult();
+        if (Constants.MARSHALLING_BUFFER_REUSES.equals(attributeName)) {
+            result.set(pool.getReuses());
+        } else if (Constants.MARSHALLING_BUFFER_ALLOCATIONS.equals(attributeName)) {
+            result.set(pool.getAllocations());
+        } else if (Constants.MARSHALLING_BUFFER_ALLOCATED_BYTES.equals(attributeName)) {
+            result.set(pool.getAllocatedBytes());
+        } else if (Constants.MARSHALLING_BUFFER_DISCARDS.equals(attributeName)) {
+            result.set(pool.getDiscards());
+        }
+        context.stepCompleted();
+    }
+}
@@ -28,7 +28,10 @@ import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
@@ -59,6 +62,33 @@ public class WebDefinition extends SimpleResourceDefinition {
                     .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
                     .setDefaultValue(null)
                     .build();
+    protected static final SimpleAttributeDefinition SESSION_SNAPSHOT_THREADS =
+            new SimpleAttributeDefinitionBuilder(Constants.SESSION_SNAPSHOT_THREADS, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setDefaultValue(new ModelNode(1))
+                    .build();
+    protected static final SimpleAttributeDefinition SESSION_SNAPSHOT_MAX_QUEUED =
+            new SimpleAttributeDefinitionBuilder(Constants.SESSION_SNAPSHOT_MAX_QUEUED, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+    protected static final SimpleAttributeDefinition SESSION_LAZY_ATTRIBUTES =
+            new SimpleAttributeDefinitionBuilder(Constants.SESSION_LAZY_ATTRIBUTES, ModelType.BOOLEAN, true)
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setDefaultValue(new ModelNode(false))
+                    .build();
+    protected static final SimpleAttributeDefinition SESSION_OFF_HEAP_STORE_MAX_SIZE =
+            new SimpleAttributeDefinitionBuilder(Constants.SESSION_OFF_HEAP_STORE_MAX_SIZE, ModelType.LONG, true)
+                    .setAllowExpression(true)
+                    .setValidator(new LongRangeValidator(0, Long.MAX_VALUE, true, true))
+                    .setMeasurementUnit(MeasurementUnit.BYTES)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setDefaultValue(new ModelNode(0L))
+                    .build();
 
     private WebDefinition() {
         super(PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, WebExtension.SUBSYSTEM_NAME),
@@ -73,5 +103,12 @@ public class WebDefinition extends SimpleResourceDefinition {
         registration.registerReadWriteAttribute(DEFAULT_VIRTUAL_SERVER, null, new ReloadRequiredWriteAttributeHandler(DEFAULT_VIRTUAL_SERVER));
         registration.registerReadWriteAttribute(NATIVE, null, new ReloadRequiredWriteAttributeHandler(NATIVE));
         registration.registerReadWriteAttribute(INSTANCE_ID, null, new ReloadRequiredWriteAttributeHandler(INSTANCE_ID));
+        registration.registerReadWriteAttribute(SESSION_SNAPSHOT_THREADS, null, new ReloadRequiredWriteAttributeHandler(SESSION_SNAPSHOT_THREADS));
+        registration.registerReadWriteAttribute(SESSION_SNAPSHOT_MAX_QUEUED, null, new ReloadRequiredWriteAttributeHandler(SESSION_SNAPSHOT_MAX_QUEUED));
+        registration.registerReadWriteAttribute(SESSION_LAZY_ATTRIBUTES, null, new ReloadRequiredWriteAttributeHandler(SESSION_LAZY_ATTRIBUTES));
+        registration.registerReadWriteAttribute(SESSION_OFF_HEAP_STORE_MAX_SIZE, null, new ReloadRequiredWriteAttributeHandler(SESSION_OFF_HEAP_STORE_MAX_SIZE));
+        for (SimpleAttributeDefinition metric : MarshallingBufferPoolMetrics.ATTRIBUTES) {
+            registration.registerMetric(metric, MarshallingBufferPoolMetrics.INSTANCE);
+        }
     }
 }
@@ -50,12 +50,12 @@ import org.jboss.as.controller.registry.AliasEntry;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.transform.AliasOperationTransformer;
 import org.jboss.as.controller.transform.AliasOperationTransformer.AddressTransformer;
+import org.jboss.as.controller.transform.DiscardUndefinedAttributesTransformer;
 import org.jboss.as.controller.transform.OperationRejectionPolicy;
 import org.jboss.as.controller.transform.OperationResultTransformer;
 import org.jboss.as.controller.transform.OperationTransformer;
 import org.jboss.as.controller.transform.RejectExpressionValuesChainedTransformer;
 import org.jboss.as.controller.transform.RejectExpressionValuesTransformer;
-import org.jboss.as.controller.transform.ResourceTransformer;
 import org.jboss.as.controller.transform.TransformationContext;
 import org.jboss.as.controller.transform.TransformersSubRegistration;
 import org.jboss.as.controller.transform.chained.ChainedOperationTransformer;
@@ -189,7 +189,12 @@ public class WebExtension implements Extension {
 
         final int defaultRedirectPort = 443;
 
-        final TransformersSubRegistration transformers = registration.registerModelTransformers(ModelVersion.create(1, 1, 0), ResourceTransformer.DEFAULT);
+        // session distribution attributes
+        final DiscardUndefinedAttributesTransformer discardSessionAttributes = new DiscardUndefinedAttributesTransformer(WebDefinition.SESSION_SNAPSHOT_THREADS, WebDefinition.SESSION_SNAPSHOT_MAX_QUEUED, WebDefinition.SESSION_LAZY_ATTRIBUTES, WebDefinition.SESSION_OFF_HEAP_STORE_MAX_SIZE);
+        final TransformersSubRegistration transformers = registration.registerModelTransformers(ModelVersion.create(1, 1, 0), discardSessionAttributes);
+        transformers.registerOperationTransformer(ADD, discardSessionAttributes);
+        transformers.registerOperationTransformer(WRITE_ATTRIBUTE_OPERATION, discardSessionAttributes.getWriteAttributeTransformer());
+        transformers.registerOperationTransformer(UNDEFINE_ATTRIBUTE_OPERATION, discardSessionAttributes.getUndefineAttributeTransformer());
         transformers.registerSubResource(VALVE_PATH, true);
         // configuration
         rejectExpressions(transformers, JSP_CONFIGURATION_PATH, WebJSPDefinition.JSP_ATTRIBUTES);
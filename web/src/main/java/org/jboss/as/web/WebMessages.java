@@ -374,4 +374,7 @@ public interface WebMessages {
 
     @Message(id = 18107, value = "Param-name is required to remove parameter")
     String paramNameRequiredForRemoveParam();
+
+    @Message(id = 18108, value = "Failed to load attribute %s of session %s")
+    IllegalStateException failedToLoadSessionAttribute(String name, String id, @Cause Throwable cause);
 }
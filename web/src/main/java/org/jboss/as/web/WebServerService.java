@@ -33,6 +33,7 @@ import org.apache.catalina.core.StandardEngine;
 import org.apache.catalina.core.StandardServer;
 import org.apache.catalina.core.StandardService;
 import org.apache.tomcat.util.modeler.Registry;
+import org.jboss.as.clustering.web.DistributableSessionConfiguration;
 import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
@@ -54,6 +55,7 @@ public class WebServerService implements WebServer, Service<WebServer> {
     private final boolean useNative;
     private final String instanceId;
     private final String tempPathName;
+    private final DistributableSessionConfiguration sessionConfig;
 
     private Engine engine;
     private StandardServer server;
@@ -64,11 +66,12 @@ public class WebServerService implements WebServer, Service<WebServer> {
     private final InjectedValue<PathManager> pathManagerInjector = new InjectedValue<PathManager>();
 
     public WebServerService(final String defaultHost, final boolean useNative, final String instanceId,
-            final String tempPathName) {
+            final String tempPathName, final DistributableSessionConfiguration sessionConfig) {
         this.defaultHost = defaultHost;
         this.useNative = useNative;
         this.instanceId = instanceId;
         this.tempPathName = tempPathName;
+        this.sessionConfig = sessionConfig;
     }
 
     /** {@inheritDoc} */
@@ -197,4 +200,8 @@ public class WebServerService implements WebServer, Service<WebServer> {
     public Map<String, AuthenticatorValve> getAuthenValves() {
         return this.authenvalves;
     }
+
+    public DistributableSessionConfiguration getDistributableSessionConfiguration() {
+        return this.sessionConfig;
+    }
 }
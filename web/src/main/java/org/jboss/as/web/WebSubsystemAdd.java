@@ -22,6 +22,7 @@
 
 package org.jboss.as.web;
 
+import org.jboss.as.clustering.web.DistributableSessionConfiguration;
 import org.jboss.as.clustering.web.DistributedCacheManagerFactory;
 import org.jboss.as.clustering.web.DistributedCacheManagerFactoryService;
 import org.jboss.as.controller.AbstractBoottimeAddStepHandler;
@@ -87,6 +88,10 @@ class WebSubsystemAdd extends AbstractBoottimeAddStepHandler {
         WebDefinition.DEFAULT_VIRTUAL_SERVER.validateAndSet(operation, model);
         WebDefinition.NATIVE.validateAndSet(operation, model);
         WebDefinition.INSTANCE_ID.validateAndSet(operation, model);
+        WebDefinition.SESSION_SNAPSHOT_THREADS.validateAndSet(operation, model);
+        WebDefinition.SESSION_SNAPSHOT_MAX_QUEUED.validateAndSet(operation, model);
+        WebDefinition.SESSION_LAZY_ATTRIBUTES.validateAndSet(operation, model);
+        WebDefinition.SESSION_OFF_HEAP_STORE_MAX_SIZE.validateAndSet(operation, model);
     }
 
     @Override
@@ -101,7 +106,16 @@ class WebSubsystemAdd extends AbstractBoottimeAddStepHandler {
         final ModelNode instanceIdModel = WebDefinition.INSTANCE_ID.resolveModelAttribute(context, fullModel);
         final String instanceId = instanceIdModel.isDefined() ? instanceIdModel.asString() : null;
 
-        final WebServerService service = new WebServerService(defaultVirtualServer, useNative, instanceId, TEMP_DIR);
+        final DistributableSessionConfiguration sessionConfig = new DistributableSessionConfiguration();
+        sessionConfig.setSnapshotThreads(WebDefinition.SESSION_SNAPSHOT_THREADS.resolveModelAttribute(context, fullModel).asInt());
+        final ModelNode snapshotMaxQueuedModel = WebDefinition.SESSION_SNAPSHOT_MAX_QUEUED.resolveModelAttribute(context, fullModel);
+        if (snapshotMaxQueuedModel.isDefined()) {
+            sessionConfig.setSnapshotMaxQueued(snapshotMaxQueuedModel.asInt());
+        }
+        sessionConfig.setLazyAttributes(WebDefinition.SESSION_LAZY_ATTRIBUTES.resolveModelAttribute(context, fullModel).asBoolean());
+        sessionConfig.setOffHeapStoreMaxSize(WebDefinition.SESSION_OFF_HEAP_STORE_MAX_SIZE.resolveModelAttribute(context, fullModel).asLong());
+
+        final WebServerService service = new WebServerService(defaultVirtualServer, useNative, instanceId, TEMP_DIR, sessionConfig);
 
         context.addStep(new AbstractDeploymentChainStep() {
             @Override
@@ -107,6 +107,10 @@ class WebSubsystemParser implements XMLStreamConstants, XMLElementReader<List<Mo
         WebDefinition.DEFAULT_VIRTUAL_SERVER.marshallAsAttribute(node, true, writer);
         WebDefinition.INSTANCE_ID.marshallAsAttribute(node, false, writer);
         WebDefinition.NATIVE.marshallAsAttribute(node, true, writer);
+        WebDefinition.SESSION_SNAPSHOT_THREADS.marshallAsAttribute(node, false, writer);
+        WebDefinition.SESSION_SNAPSHOT_MAX_QUEUED.marshallAsAttribute(node, false, writer);
+        WebDefinition.SESSION_LAZY_ATTRIBUTES.marshallAsAttribute(node, false, writer);
+        WebDefinition.SESSION_OFF_HEAP_STORE_MAX_SIZE.marshallAsAttribute(node, false, writer);
         if (node.hasDefined(CONFIGURATION)) {
             writeContainerConfig(writer, node.get(CONFIGURATION));
         }
@@ -358,6 +362,18 @@ class WebSubsystemParser implements XMLStreamConstants, XMLElementReader<List<Mo
                 case INSTANCE_ID:
                     WebDefinition.INSTANCE_ID.parseAndSetParameter(value, subsystem, reader);
                     break;
+                case SESSION_SNAPSHOT_THREADS:
+                    WebDefinition.SESSION_SNAPSHOT_THREADS.parseAndSetParameter(value, subsystem, reader);
+                    break;
+                case SESSION_SNAPSHOT_MAX_QUEUED:
+                    WebDefinition.SESSION_SNAPSHOT_MAX_QUEUED.parseAndSetParameter(value, subsystem, reader);
+                    break;
+                case SESSION_LAZY_ATTRIBUTES:
+                    WebDefinition.SESSION_LAZY_ATTRIBUTES.parseAndSetParameter(value, subsystem, reader);
+                    break;
+                case SESSION_OFF_HEAP_STORE_MAX_SIZE:
+                    WebDefinition.SESSION_OFF_HEAP_STORE_MAX_SIZE.parseAndSetParameter(value, subsystem, reader);
+                    break;
                 default:
                     throw unexpectedAttribute(reader, i);
             }
@@ -57,6 +57,7 @@ import org.apache.naming.resources.ProxyDirContext;
 import org.apache.tomcat.util.IntrospectionUtils;
 import org.jboss.annotation.javaee.Icon;
 import org.jboss.as.clustering.ClassLoaderAwareClassResolver;
+import org.jboss.as.clustering.web.DistributableSessionConfiguration;
 import org.jboss.as.clustering.web.DistributedCacheManagerFactory;
 import org.jboss.as.clustering.web.OutgoingDistributableSessionData;
 import org.jboss.as.server.deployment.Attachments;
@@ -126,6 +127,7 @@ public class JBossContextConfig extends ContextConfig {
     private Set<String> overlays = new HashSet<String>();
     private final InjectedValue<DistributedCacheManagerFactory> factory = new InjectedValue<DistributedCacheManagerFactory>();
     private Map<String, AuthenticatorValve> authenValves = null;
+    private DistributableSessionConfiguration sessionConfig = new DistributableSessionConfiguration();
     /**
      * <p>
      * Creates a new instance of {@code JBossContextConfig}.
@@ -139,8 +141,10 @@ public class JBossContextConfig extends ContextConfig {
     public JBossContextConfig(DeploymentUnit deploymentUnitContext, WebServerService service) {
         super();
         this.deploymentUnitContext = deploymentUnitContext;
-        if (service !=null)
+        if (service !=null) {
             this.authenValves = service.getAuthenValves();
+            this.sessionConfig = service.getDistributableSessionConfiguration();
+        }
     }
 
     @Override
@@ -279,7 +283,7 @@ public class JBossContextConfig extends ContextConfig {
         if (module != null && metaData.getDistributable() != null) {
             try {
                 ClassResolver resolver = ModularClassResolver.getInstance(module.getModuleLoader());
-                context.setManager(new DistributableSessionManager<OutgoingDistributableSessionData>(this.factory.getValue(), metaData, new ClassLoaderAwareClassResolver(resolver, module.getClassLoader())));
+                context.setManager(new DistributableSessionManager<OutgoingDistributableSessionData>(this.factory.getValue(), metaData, this.sessionConfig, new ClassLoaderAwareClassResolver(resolver, module.getClassLoader())));
                 context.setDistributable(true);
             } catch (Exception e) {
                 WebLogger.WEB_LOGGER.clusteringNotSupported();
@@ -25,8 +25,10 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import org.jboss.as.clustering.web.DistributableSessionMetadata;
+import org.jboss.as.clustering.web.MarshalledSessionAttribute;
 import org.jboss.as.clustering.web.OutgoingAttributeGranularitySessionData;
 
 /**
@@ -37,6 +39,11 @@ import org.jboss.as.clustering.web.OutgoingAttributeGranularitySessionData;
  * attributes are stored in different nodes. This will be ok since cache will take care of concurrency. When replicating, we
  * will need to replicate both session and its attributes.
  * </p>
+ * <p>
+ * Attributes may be loaded from the distributed cache in their marshalled form, in which case each is unmarshalled when
+ * first read. Attributes which are never read are thus neither unmarshalled nor, since they are not modified, marshalled
+ * again.
+ * </p>
  * @author Ben Wang
  * @author Brian Stansberry
  */
@@ -104,7 +111,13 @@ class AttributeBasedClusteredSession extends ClusteredSession<OutgoingAttributeG
 
     @Override
     protected Object getAttributeInternal(String name) {
-        Object result = getAttributesInternal().get(name);
+        ConcurrentMap<String, Object> attributes = getAttributesInternal();
+        Object result = attributes.get(name);
+        while (result instanceof MarshalledSessionAttribute) {
+            Object value = unmarshalAttribute(name, (MarshalledSessionAttribute) result);
+            // Another request may have read or replaced the attribute in the meantime
+            result = attributes.replace(name, result, value) ? value : attributes.get(name);
+        }
 
         // Do dirty check even if result is null, as w/ SET_AND_GET null
         // still makes us dirty (ensures timely replication w/o using ACCESS)
@@ -118,6 +131,9 @@ class AttributeBasedClusteredSession extends ClusteredSession<OutgoingAttributeG
     @Override
     protected Object removeAttributeInternal(String name, boolean localCall, boolean localOnly) {
         Object result = getAttributesInternal().remove(name);
+        if (result instanceof MarshalledSessionAttribute) {
+            result = unmarshalAttribute(name, (MarshalledSessionAttribute) result);
+        }
         if (localCall && !replicationExcludes.contains(name))
             attributeChanged(name, result, true);
         return result;
@@ -126,6 +142,9 @@ class AttributeBasedClusteredSession extends ClusteredSession<OutgoingAttributeG
     @Override
     protected Object setAttributeInternal(String key, Object value) {
         Object old = getAttributesInternal().put(key, value);
+        if (old instanceof MarshalledSessionAttribute) {
+            old = unmarshalAttribute(key, (MarshalledSessionAttribute) old);
+        }
         if (!replicationExcludes.contains(key))
             attributeChanged(key, value, false);
         return old;
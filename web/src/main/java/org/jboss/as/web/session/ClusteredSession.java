@@ -24,6 +24,7 @@ package org.jboss.as.web.session;
 import static org.jboss.as.web.WebMessages.MESSAGES;
 
 import java.beans.PropertyChangeSupport;
+import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.security.AccessController;
@@ -41,6 +42,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -69,6 +71,7 @@ import org.apache.catalina.util.Enumerator;
 import org.jboss.as.clustering.web.DistributableSessionMetadata;
 import org.jboss.as.clustering.web.DistributedCacheManager;
 import org.jboss.as.clustering.web.IncomingDistributableSessionData;
+import org.jboss.as.clustering.web.MarshalledSessionAttribute;
 import org.jboss.as.clustering.web.OutgoingDistributableSessionData;
 import org.jboss.as.clustering.web.SessionOwnershipSupport;
 import org.jboss.as.web.session.notification.ClusteredSessionManagementStatus;
@@ -136,7 +139,7 @@ public abstract class ClusteredSession<O extends OutgoingDistributableSessionDat
     /**
      * The collection of user data attributes associated with this Session.
      */
-    private final Map<String, Object> attributes = new ConcurrentHashMap<String, Object>(16, 0.75f, 2);
+    private final ConcurrentMap<String, Object> attributes = new ConcurrentHashMap<String, Object>(16, 0.75f, 2);
 
     /**
      * The authentication type used to authenticate our cached Principal, if any. NOTE: This value is not included in the
@@ -316,6 +319,12 @@ public abstract class ClusteredSession<O extends OutgoingDistributableSessionDat
     /** True if a call to activate() is needed to offset a preceding passivate() call */
     private transient boolean needsPostReplicateActivation;
 
+    /** Cause of the last activation, to notify attributes unmarshalled since */
+    private transient volatile ClusteredSessionNotificationCause activationCause;
+
+    /** Number of bytes of lazily loaded attributes unmarshalled during the current request */
+    private final transient AtomicLong unmarshalledAttributeBytes = new AtomicLong();
+
     /**
      * True if a getOutgoingSessionData() should include metadata and all attributes no matter what. This is a workaround to
      * JBCACHE-1531. This flag ensures that at least one request gets full replication, whether or not in occurs before
@@ -560,6 +569,8 @@ public abstract class ClusteredSession<O extends OutgoingDistributableSessionDat
         }
 
         this.relinquishSessionOwnership(false);
+
+        this.manager.attributesUnmarshalled(this.unmarshalledAttributeBytes.getAndSet(0));
     }
 
     private void relinquishSessionOwnership(boolean remove) {
@@ -1393,6 +1404,8 @@ public abstract class ClusteredSession<O extends OutgoingDistributableSessionDat
      *        {@link ClusteredSessionNotificationCause#PASSIVATION}
      */
     public void notifyDidActivate(ClusteredSessionNotificationCause cause) {
+        this.activationCause = cause;
+
         if (cause == ClusteredSessionNotificationCause.ACTIVATION) {
             this.needsPostReplicateActivation = true;
         }
@@ -1481,10 +1494,44 @@ public abstract class ClusteredSession<O extends OutgoingDistributableSessionDat
             existing.putAll(excluded);
     }
 
-    protected final Map<String, Object> getAttributesInternal() {
+    protected final ConcurrentMap<String, Object> getAttributesInternal() {
         return attributes;
     }
 
+    /**
+     * Unmarshals an attribute loaded lazily from the distributed cache. Since the attribute value did not exist before,
+     * it is notified of the last activation of this session if it is an HttpSessionActivationListener.
+     *
+     * @param name the attribute name
+     * @param attribute the marshalled attribute
+     * @return the attribute value
+     */
+    protected final Object unmarshalAttribute(String name, MarshalledSessionAttribute attribute) {
+        Object value;
+        try {
+            value = attribute.getValue();
+        } catch (IOException e) {
+            throw MESSAGES.failedToLoadSessionAttribute(name, realId, e);
+        } catch (ClassNotFoundException e) {
+            throw MESSAGES.failedToLoadSessionAttribute(name, realId, e);
+        }
+        this.unmarshalledAttributeBytes.addAndGet(attribute.getSize());
+
+        if (value instanceof HttpSessionActivationListener) {
+            hasActivationListener = Boolean.TRUE;
+
+            ClusteredSessionNotificationCause cause = this.activationCause;
+            if ((cause != null) && notificationPolicy.isHttpSessionActivationListenerInvocationAllowed(this.clusterStatus, cause, name)) {
+                try {
+                    ((HttpSessionActivationListener) value).sessionDidActivate(new HttpSessionEvent(getSession()));
+                } catch (Throwable t) {
+                    manager.getContainer().getLogger().error(MESSAGES.errorSessionActivationEvent(t));
+                }
+            }
+        }
+        return value;
+    }
+
     protected final ClusteredSessionManager<O> getManagerInternal() {
         return manager;
     }
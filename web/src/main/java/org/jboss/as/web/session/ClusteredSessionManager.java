@@ -66,4 +66,10 @@ public interface ClusteredSessionManager<O extends OutgoingDistributableSessionD
      * Gets the <code>DistributedCacheManager</code> through which we interact with the distributed cache.
      */
     DistributedCacheManager<O> getDistributedCacheManager();
+
+    /**
+     * Records the number of bytes of lazily loaded session attributes unmarshalled while processing a request.
+     * @param bytes a number of bytes, possibly 0
+     */
+    void attributesUnmarshalled(long bytes);
 }
@@ -36,12 +36,12 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Random;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 
@@ -56,6 +56,7 @@ import org.apache.catalina.Session;
 import org.apache.catalina.Valve;
 import org.jboss.as.clustering.web.BatchingManager;
 import org.jboss.as.clustering.web.ClusteringNotSupportedException;
+import org.jboss.as.clustering.web.DistributableSessionConfiguration;
 import org.jboss.as.clustering.web.DistributableSessionMetadata;
 import org.jboss.as.clustering.web.DistributedCacheManager;
 import org.jboss.as.clustering.web.DistributedCacheManagerFactory;
@@ -89,9 +90,10 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
 
     private final DistributedCacheManager<O> distributedCacheManager;
 
-    private SnapshotManager snapshotManager;
+    private volatile SnapshotManager snapshotManager;
 
     private final ReplicationConfig replicationConfig;
+    private final DistributableSessionConfiguration sessionConfig;
     private final ClassResolver resolver;
     private ClusteredSessionNotificationPolicy notificationPolicy;
     private final OutdatedSessionChecker outdatedSessionChecker = new AskSessionOutdatedSessionChecker();
@@ -124,8 +126,21 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
     private final Map<String, OwnedSessionUpdate> unloadedSessions = new ConcurrentHashMap<String, OwnedSessionUpdate>();
     /** Sessions that have been created but not yet loaded. Used to ensure concurrent threads trying to load the same session */
     private final ConcurrentMap<String, ClusteredSession<O>> embryonicSessions = new ConcurrentHashMap<String, ClusteredSession<O>>();
+    /** Local and unloaded sessions by the earliest time at which they may expire */
+    private final SessionAccessIndex expirationIndex = new SessionAccessIndex();
+    /** Local and unloaded, but not passivated, sessions by last access time */
+    private final SessionAccessIndex passivationIndex = new SessionAccessIndex();
+    /** Duration of the last expiration/passivation sweep, in milliseconds */
+    private volatile long expirationPassivationSweepTime = 0;
+    /** Number of requests, and bytes of lazily loaded session attributes unmarshalled by them */
+    private final AtomicLong unmarshalledAttributeRequests = new AtomicLong();
+    private final AtomicLong unmarshalledAttributeBytes = new AtomicLong();
 
     public DistributableSessionManager(DistributedCacheManagerFactory factory, JBossWebMetaData metaData, ClassResolver resolver) throws ClusteringNotSupportedException {
+        this(factory, metaData, new DistributableSessionConfiguration(), resolver);
+    }
+
+    public DistributableSessionManager(DistributedCacheManagerFactory factory, JBossWebMetaData metaData, DistributableSessionConfiguration sessionConfig, ClassResolver resolver) throws ClusteringNotSupportedException {
         super(metaData);
 
         PassivationConfig passivationConfig = metaData.getPassivationConfig();
@@ -138,10 +153,7 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
 
         ReplicationConfig config = metaData.getReplicationConfig();
         this.replicationConfig = (config != null) ? config : new ReplicationConfig();
-
-        if (this.replicationConfig.getReplicationGranularity() == ReplicationGranularity.FIELD) {
-            this.replicationConfig.setReplicationGranularity(ReplicationGranularity.SESSION);
-        }
+        this.sessionConfig = sessionConfig;
 
         Integer interval = this.replicationConfig.getMaxUnreplicatedInterval();
         this.maxUnreplicatedInterval = (interval != null) ? interval.intValue() : -1;
@@ -247,6 +259,10 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
             case INTERVAL: {
                 int interval = this.getSnapshotInterval();
                 if (interval > 0) {
+                    int threads = this.sessionConfig.getSnapshotThreads();
+                    if (threads > 1) {
+                        return new ParallelIntervalSnapshotManager(this, ctxPath, interval, threads, this.sessionConfig.getSnapshotMaxQueued());
+                    }
                     return new IntervalSnapshotManager(this, ctxPath, interval);
                 }
                 WebLogger.WEB_SESSION_LOGGER.invalidSnapshotInterval();
@@ -297,6 +313,7 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
 
                 OwnedSessionUpdate osu = new OwnedSessionUpdate(owner, lastMod, maxLife, false);
                 unloadedSessions.put(realId, osu);
+                this.indexUnloadedSession(realId, osu);
             }
 
             if (passivate) {
@@ -337,6 +354,7 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
 
         this.distributedCacheManager.evictSession(realId, osu.getOwner());
         osu.setPassivated(true);
+        this.passivationIndex.remove(realId);
         sessionPassivated();
     }
 
@@ -432,6 +450,8 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
         // Clean up maps
         this.sessions.clear();
         this.unloadedSessions.clear();
+        this.expirationIndex.clear();
+        this.passivationIndex.clear();
 
         this.passivatedCount.set(0);
 
@@ -514,13 +534,15 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
 
                 // Put the session in the unloadedSessions map. This will
                 // expose the session to regular invalidation.
-                Object obj = unloadedSessions.put(realId, new OwnedSessionUpdate(null, session.getLastAccessedTimeInternal(), session.getMaxInactiveInterval(), true));
+                OwnedSessionUpdate osu = new OwnedSessionUpdate(null, session.getLastAccessedTimeInternal(), session.getMaxInactiveInterval(), true);
+                Object obj = unloadedSessions.put(realId, osu);
                 if (obj == null) {
                     log.tracef("New session %s added to unloaded session map", realId);
                 } else {
                     log.tracef("Updated timestamp for unloaded session %s", realId);
                 }
                 sessions.remove(realId);
+                this.indexUnloadedSession(realId, osu);
             }
         } else {
             log.tracef("processSessionPassivation():  could not find session %s", realId);
@@ -692,6 +714,7 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
                 // So we need to clean up
                 // TODO what about notifications?
                 this.sessions.remove(realId);
+                this.unindexSession(realId);
             }
         }
 
@@ -766,6 +789,7 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
                 SessionInvalidationTracker.sessionInvalidated(realId, this);
 
                 sessions.remove(realId);
+                this.unindexSession(realId);
                 this.getReplicationStatistics().removeStats(realId);
 
                 // Compute how long this session has been alive, and update
@@ -825,6 +849,7 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
                 SessionInvalidationTracker.sessionInvalidated(realId, this);
 
                 sessions.remove(realId);
+                this.unindexSession(realId);
                 this.getReplicationStatistics().removeStats(realId);
 
                 // Compute how long this session has been alive, and update
@@ -846,6 +871,9 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
                 if (session.isValid() && (session.isSessionDirty() || session.getMustReplicateTimestamp())) {
                     String realId = session.getRealId();
 
+                    // The session may have been accessed, or its max inactive interval changed
+                    this.indexSession(session);
+
                     // Notify all session attributes that they get serialized (SRV 7.7.2)
                     long begin = System.currentTimeMillis();
                     session.notifyWillPassivate(ClusteredSessionNotificationCause.REPLICATION);
@@ -917,6 +945,7 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
         String realId = session.getRealId();
         Object existing = sessions.put(realId, session);
         unloadedSessions.remove(realId);
+        this.indexSession(session);
 
         if (!session.equals(existing)) {
             if (replicate) {
@@ -953,6 +982,74 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
         return (interval != null) ? interval.intValue() : -1;
     }
 
+    @Override
+    public long getExpirationPassivationSweepTime() {
+        return this.expirationPassivationSweepTime;
+    }
+
+    @Override
+    public void attributesUnmarshalled(long bytes) {
+        this.unmarshalledAttributeRequests.incrementAndGet();
+        if (bytes > 0) {
+            this.unmarshalledAttributeBytes.addAndGet(bytes);
+        }
+    }
+
+    @Override
+    public long getUnmarshalledAttributeBytes() {
+        return this.unmarshalledAttributeBytes.get();
+    }
+
+    @Override
+    public long getAverageUnmarshalledAttributeBytesPerRequest() {
+        long requests = this.unmarshalledAttributeRequests.get();
+        return (requests > 0) ? this.unmarshalledAttributeBytes.get() / requests : 0;
+    }
+
+    @Override
+    public void resetStats() {
+        super.resetStats();
+        this.unmarshalledAttributeRequests.set(0);
+        this.unmarshalledAttributeBytes.set(0);
+    }
+
+    @Override
+    public int getOffHeapSessionCount() {
+        return (this.distributedCacheManager != null) ? this.distributedCacheManager.getOffHeapSessionCount() : 0;
+    }
+
+    @Override
+    public long getOffHeapSessionSize() {
+        return (this.distributedCacheManager != null) ? this.distributedCacheManager.getOffHeapSessionSize() : 0;
+    }
+
+    @Override
+    public long getOffHeapSessionEvictions() {
+        return (this.distributedCacheManager != null) ? this.distributedCacheManager.getOffHeapSessionEvictions() : 0;
+    }
+
+    @Override
+    public long getLocationCacheHits() {
+        return (this.distributedCacheManager != null) ? this.distributedCacheManager.getLocationCacheHits() : 0;
+    }
+
+    @Override
+    public long getLocationCacheMisses() {
+        return (this.distributedCacheManager != null) ? this.distributedCacheManager.getLocationCacheMisses() : 0;
+    }
+
+    @Override
+    public int getSnapshotQueueSize() {
+        SnapshotManager snapshotManager = this.snapshotManager;
+        return (snapshotManager != null) ? snapshotManager.getQueueSize() : 0;
+    }
+
+    @Override
+    public long getOldestUnreplicatedSessionAge() {
+        SnapshotManager snapshotManager = this.snapshotManager;
+        return (snapshotManager != null) ? snapshotManager.getOldestQueuedAge() : 0;
+    }
+
     @Override
     public void setMaxUnreplicatedInterval(int maxUnreplicatedInterval) {
         this.maxUnreplicatedInterval = maxUnreplicatedInterval;
@@ -1042,6 +1139,11 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
         return this.resolver;
     }
 
+    @Override
+    public DistributableSessionConfiguration getDistributableSessionConfiguration() {
+        return this.sessionConfig;
+    }
+
     @Override
     public ReplicationConfig getReplicationConfig() {
         return this.replicationConfig;
@@ -1051,6 +1153,7 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
     public void notifyRemoteInvalidation(String realId) {
         // Remove the session from our local map
         ClusteredSession<O> session = cast(this.sessions.remove(realId));
+        this.unindexSession(realId);
         if (session == null) {
             // We weren't managing the session anyway. But remove it
             // from the list of cached sessions we haven't loaded
@@ -1129,7 +1232,9 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
         } else {
             int maxLife = metadata == null ? getMaxInactiveInterval() : metadata.getMaxInactiveInterval();
 
-            Object existing = unloadedSessions.put(realId, new OwnedSessionUpdate(dataOwner, timestamp, maxLife, false));
+            OwnedSessionUpdate osu = new OwnedSessionUpdate(dataOwner, timestamp, maxLife, false);
+            Object existing = unloadedSessions.put(realId, osu);
+            this.indexUnloadedSession(realId, osu);
             if (existing == null) {
                 calcActiveSessions();
                 log.tracef("New session %s added to unloaded session map", realId);
@@ -1143,6 +1248,7 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
 
     @Override
     protected void processExpirationPassivation() {
+        long begin = System.currentTimeMillis();
         boolean expire = maxInactiveInterval >= 0;
         boolean passivate = isPassivationEnabled();
 
@@ -1156,125 +1262,31 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
             log.tracef("processExpirationPassivation(): passivated count = %d", getPassivatedSessionCount());
         }
 
-        // Holder for sessions or OwnedSessionUpdates that survive expiration,
-        // sorted by last accessed time
-        TreeSet<PassivationCheck> passivationChecks = new TreeSet<PassivationCheck>();
-
         try {
             // Don't track sessions invalidated via this method as if they
             // were going to be re-requested by the thread
             SessionInvalidationTracker.suspend();
 
-            // First, handle the sessions we are actively managing
-            for (Session s: this.sessions.values()) {
-                if (!this.started) return;
-
-                boolean likelyExpired = false;
-                String realId = null;
-
-                try {
-                    ClusteredSession<O> session = cast(s);
-
-                    realId = session.getRealId();
-                    likelyExpired = expire;
-
-                    if (expire) {
-                        // JBAS-2403. Check for outdated sessions where we think
-                        // the local copy has timed out. If found, refresh the
-                        // session from the cache in case that might change the timeout
-                        likelyExpired = (session.isValid(false) == false);
-                        if (likelyExpired && this.outdatedSessionChecker.isSessionOutdated(session)) {
-                            // With JBC, every time we get a notification from the distributed
-                            // cache of an update, we get the latest timestamp. So
-                            // we shouldn't need to do a full session load here. A load
-                            // adds a risk of an unintended data gravitation. However,
-                            // with a database instead of JBC we don't get notifications
-
-                            // JBAS-2792 don't assign the result of loadSession to session
-                            // just update the object from the cache or fall through if
-                            // the session has been removed from the cache
-                            loadSession(session.getRealId());
-                        }
-
-                        // Do a normal invalidation check that will expire the
-                        // session if it has timed out
-                        // DON'T SYNCHRONIZE on session here -- isValid() and
-                        // expire() are meant to be multi-threaded and synchronize
-                        // properly internally; synchronizing externally can lead
-                        // to deadlocks!!
-                        if (!session.isValid())
-                            continue;
+            if (expire) {
+                // We may have not gotten replication of a timestamp for requests
+                // that occurred w/in maxUnreplicatedInterval of the previous
+                // request. So we add a grace period to avoid flushing a session early
+                // and permanently losing part of its node structure in JBoss Cache.
+                long maxUnrep = maxUnreplicatedInterval < 0 ? 60 : maxUnreplicatedInterval;
 
-                        likelyExpired = false;
-                    }
-
-                    // we now have a valid session; store it so we can check later
-                    // if we need to passivate it
-                    if (passivate) {
-                        passivationChecks.add(new PassivationCheck(session));
-                    }
+                // Only visit the sessions, both those we are actively managing and
+                // unloaded ones, which may have expired by now
+                for (String realId : this.expirationIndex.removeUntil(begin)) {
+                    if (!this.started) return;
 
-                } catch (Exception e) {
-                    if (likelyExpired) {
-                        // JBAS-7397 clean up
-                        bruteForceCleanup(realId, e);
+                    ClusteredSession<O> session = cast(this.sessions.get(realId));
+                    if (session != null) {
+                        this.processExpiration(session);
                     } else {
-                        log.error(MESSAGES.failToPassivateLoad(realId), e);
-                    }
-
-                }
-            }
-
-            // Next, handle any unloaded sessions
-
-            // We may have not gotten replication of a timestamp for requests
-            // that occurred w/in maxUnreplicatedInterval of the previous
-            // request. So we add a grace period to avoid flushing a session early
-            // and permanently losing part of its node structure in JBoss Cache.
-            long maxUnrep = maxUnreplicatedInterval < 0 ? 60 : maxUnreplicatedInterval;
-
-            for (Map.Entry<String, OwnedSessionUpdate> entry : this.unloadedSessions.entrySet()) {
-                if (!this.started) return;
-
-                String realId = entry.getKey();
-                OwnedSessionUpdate osu = entry.getValue();
-                boolean likelyExpired = false;
-
-                long now = System.currentTimeMillis();
-                long elapsed = (now - osu.getUpdateTime());
-                try {
-                    likelyExpired = expire && osu.getMaxInactive() >= 1 && elapsed >= (osu.getMaxInactive() + maxUnrep) * 1000L;
-                    if (likelyExpired) {
-                        // if (osu.passivated && osu.owner == null)
-                        if (osu.isPassivated()) {
-                            // Passivated session needs to be expired. A call to
-                            // findSession will bring it out of passivation
-                            Session session = findSession(realId);
-                            if (session != null) {
-                                session.isValid(); // will expire
-                                continue;
-                            }
+                        OwnedSessionUpdate osu = this.unloadedSessions.get(realId);
+                        if (osu != null) {
+                            this.processUnloadedSessionExpiration(realId, osu, maxUnrep);
                         }
-
-                        // If we get here either !osu.passivated, or we don't own
-                        // the session or the session couldn't be reactivated (invalidated by user).
-                        // Either way, do a cleanup
-                        this.distributedCacheManager.removeSessionLocal(realId, osu.getOwner());
-                        unloadedSessions.remove(realId);
-                        this.getReplicationStatistics().removeStats(realId);
-
-                    } else if (passivate && !osu.isPassivated()) {
-                        // we now have a valid session; store it so we can check later
-                        // if we need to passivate it
-                        passivationChecks.add(new PassivationCheck(realId, osu));
-                    }
-                } catch (Exception e) {
-                    // JBAS-7397 Don't try forever
-                    if (likelyExpired) {
-                        // JBAS-7397
-                        bruteForceCleanup(realId, e);
-                    } else {
-                        log.error(MESSAGES.failToPassivateUnloaded(realId), e);
                     }
                 }
             }
@@ -1284,7 +1296,19 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
             // Now, passivations
             if (passivate) {
                 // Iterate through sessions, earliest lastAccessedTime to latest
-                for (PassivationCheck passivationCheck : passivationChecks) {
+                for (SessionAccessIndex.Entry entry : this.passivationIndex) {
+                    if (!this.started) return;
+
+                    PassivationCheck passivationCheck = this.createPassivationCheck(entry.getId());
+                    if (passivationCheck == null) {
+                        this.passivationIndex.remove(entry);
+                        continue;
+                    }
+                    if (passivationCheck.getLastUpdate() != entry.getTime()) {
+                        // Accessed since it was indexed; revisit it in its proper place
+                        this.passivationIndex.index(entry.getId(), passivationCheck.getLastUpdate());
+                        continue;
+                    }
                     try {
                         long timeNow = System.currentTimeMillis();
                         long timeIdle = timeNow - passivationCheck.getLastUpdate();
@@ -1312,6 +1336,7 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
             log.error(MESSAGES.processExpirationPassivationException(ex.getLocalizedMessage()), ex);
         } finally {
             SessionInvalidationTracker.resume();
+            this.expirationPassivationSweepTime = System.currentTimeMillis() - begin;
         }
 
         log.trace("processExpirationPassivation(): Completed ...");
@@ -1322,6 +1347,147 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
         }
     }
 
+    /**
+     * Expires a session we are actively managing if it timed out, otherwise indexes it again.
+     */
+    private void processExpiration(ClusteredSession<O> session) {
+        String realId = session.getRealId();
+        boolean likelyExpired = false;
+        try {
+            // JBAS-2403. Check for outdated sessions where we think
+            // the local copy has timed out. If found, refresh the
+            // session from the cache in case that might change the timeout
+            likelyExpired = (session.isValid(false) == false);
+            if (likelyExpired && this.outdatedSessionChecker.isSessionOutdated(session)) {
+                // With JBC, every time we get a notification from the distributed
+                // cache of an update, we get the latest timestamp. So
+                // we shouldn't need to do a full session load here. A load
+                // adds a risk of an unintended data gravitation. However,
+                // with a database instead of JBC we don't get notifications
+
+                // JBAS-2792 don't assign the result of loadSession to session
+                // just update the object from the cache or fall through if
+                // the session has been removed from the cache
+                loadSession(session.getRealId());
+            }
+
+            // Do a normal invalidation check that will expire the
+            // session if it has timed out
+            // DON'T SYNCHRONIZE on session here -- isValid() and
+            // expire() are meant to be multi-threaded and synchronize
+            // properly internally; synchronizing externally can lead
+            // to deadlocks!!
+            if (session.isValid()) {
+                // Still valid, e.g. accessed since it was indexed
+                this.indexSession(session);
+            }
+        } catch (Exception e) {
+            if (likelyExpired) {
+                // JBAS-7397 clean up
+                bruteForceCleanup(realId, e);
+            } else {
+                log.error(MESSAGES.failToPassivateLoad(realId), e);
+            }
+            // The sweep took the session off the index; revisit it next time unless it is gone
+            if (this.sessions.get(realId) == session) {
+                this.indexSession(session);
+            }
+        }
+    }
+
+    /**
+     * Expires a session we are not actively managing if it timed out, otherwise indexes it again.
+     */
+    private void processUnloadedSessionExpiration(String realId, OwnedSessionUpdate osu, long maxUnrep) {
+        boolean likelyExpired = false;
+
+        long now = System.currentTimeMillis();
+        long elapsed = (now - osu.getUpdateTime());
+        try {
+            likelyExpired = osu.getMaxInactive() >= 1 && elapsed >= (osu.getMaxInactive() + maxUnrep) * 1000L;
+            if (likelyExpired) {
+                // if (osu.passivated && osu.owner == null)
+                if (osu.isPassivated()) {
+                    // Passivated session needs to be expired. A call to
+                    // findSession will bring it out of passivation
+                    Session session = findSession(realId);
+                    if (session != null) {
+                        session.isValid(); // will expire
+                        return;
+                    }
+                }
+
+                // If we get here either !osu.passivated, or we don't own
+                // the session or the session couldn't be reactivated (invalidated by user).
+                // Either way, do a cleanup
+                this.distributedCacheManager.removeSessionLocal(realId, osu.getOwner());
+                unloadedSessions.remove(realId);
+                this.unindexSession(realId);
+                this.getReplicationStatistics().removeStats(realId);
+            } else {
+                // Within the grace period, or updated since it was indexed
+                this.indexUnloadedSession(realId, osu);
+            }
+        } catch (Exception e) {
+            // JBAS-7397 Don't try forever
+            if (likelyExpired) {
+                // JBAS-7397
+                bruteForceCleanup(realId, e);
+            } else {
+                log.error(MESSAGES.failToPassivateUnloaded(realId), e);
+                // The sweep took the session off the index; revisit it next time
+                this.indexUnloadedSession(realId, osu);
+            }
+        }
+    }
+
+    private PassivationCheck createPassivationCheck(String realId) {
+        ClusteredSession<O> session = cast(this.sessions.get(realId));
+        if (session != null) {
+            return new PassivationCheck(session);
+        }
+        OwnedSessionUpdate osu = this.unloadedSessions.get(realId);
+        return ((osu != null) && !osu.isPassivated()) ? new PassivationCheck(realId, osu) : null;
+    }
+
+    /**
+     * Indexes a session we are actively managing by the earliest time at which it may expire, and by its last access time.
+     */
+    private void indexSession(ClusteredSession<O> session) {
+        String realId = session.getRealId();
+        long lastAccessed = session.getLastAccessedTimeInternal();
+        int maxInactive = session.getMaxInactiveInterval();
+        if (maxInactive > 0) {
+            this.expirationIndex.index(realId, lastAccessed + maxInactive * 1000L);
+        } else {
+            this.expirationIndex.remove(realId);
+        }
+        this.passivationIndex.index(realId, lastAccessed);
+    }
+
+    /**
+     * Indexes a session we are not actively managing by the earliest time at which it may expire, and, unless passivated,
+     * by its last update time.
+     */
+    private void indexUnloadedSession(String realId, OwnedSessionUpdate osu) {
+        if (osu.getMaxInactive() >= 1) {
+            // The grace period for unreplicated timestamps is checked on expiration
+            this.expirationIndex.index(realId, osu.getUpdateTime() + osu.getMaxInactive() * 1000L);
+        } else {
+            this.expirationIndex.remove(realId);
+        }
+        if (osu.isPassivated()) {
+            this.passivationIndex.remove(realId);
+        } else {
+            this.passivationIndex.index(realId, osu.getUpdateTime());
+        }
+    }
+
+    private void unindexSession(String realId) {
+        this.expirationIndex.remove(realId);
+        this.passivationIndex.remove(realId);
+    }
+
     /**
      * Loads a session from the distributed store. If an existing session with the id is already under local management, that
      * session's internal state will be updated from the distributed store. Otherwise a new session will be created and added to
@@ -1376,6 +1542,9 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
                         IncomingDistributableSessionData data = this.distributedCacheManager.getSessionData(realId, initialLoad);
                         if (data != null) {
                             session.update(data);
+                            if (!mustAdd) {
+                                this.indexSession(session);
+                            }
                         } else {
                             // Clunky; we set the session variable to null to indicate
                             // no data so move on
@@ -1459,6 +1628,7 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
         } finally {
             // Get rid of our refs even if distributed store fails
             unloadedSessions.remove(realId);
+            this.unindexSession(realId);
             this.getReplicationStatistics().removeStats(realId);
         }
     }
@@ -1527,7 +1697,7 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
         return (ClusteredSession<O>) session;
     }
 
-    private class PassivationCheck implements Comparable<PassivationCheck> {
+    private class PassivationCheck {
         private final String realId;
         private final OwnedSessionUpdate osu;
         private final ClusteredSession<O> session;
@@ -1568,14 +1738,6 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
         private boolean isUnloaded() {
             return osu != null;
         }
-
-        // This is what causes sorting based on lastAccessed
-        @Override
-        public int compareTo(PassivationCheck o) {
-            long thisVal = getLastUpdate();
-            long anotherVal = o.getLastUpdate();
-            return (thisVal < anotherVal ? -1 : (thisVal == anotherVal ? 0 : 1));
-        }
     }
 
     private static class SemaphoreLock implements Lock {
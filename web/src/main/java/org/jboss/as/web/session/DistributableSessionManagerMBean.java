@@ -100,6 +100,59 @@ public interface DistributableSessionManagerMBean extends SessionManagerMBean {
      */
     int getSnapshotInterval();
 
+    /**
+     * Gets the number of modified sessions waiting to be replicated if "interval" mode is used.
+     */
+    int getSnapshotQueueSize();
+
+    /**
+     * Gets how long, in milliseconds, the longest waiting modified session has been waiting to be replicated if "interval"
+     * mode is used with more than one snapshot thread.
+     */
+    long getOldestUnreplicatedSessionAge();
+
+    /**
+     * Gets how long, in milliseconds, the last background check for sessions to expire or passivate took.
+     */
+    long getExpirationPassivationSweepTime();
+
+    /**
+     * Gets the number of bytes of lazily loaded session attributes unmarshalled by requests, if lazy attribute loading is
+     * enabled for "attribute" replication granularity.
+     */
+    long getUnmarshalledAttributeBytes();
+
+    /**
+     * Gets the average number of bytes of lazily loaded session attributes unmarshalled per request.
+     */
+    long getAverageUnmarshalledAttributeBytesPerRequest();
+
+    /**
+     * Gets the number of passivated sessions stored off-heap, if the off-heap session store is enabled.
+     */
+    int getOffHeapSessionCount();
+
+    /**
+     * Gets the number of bytes of off-heap memory occupied by passivated sessions, if the off-heap session store is enabled.
+     */
+    long getOffHeapSessionSize();
+
+    /**
+     * Gets the number of passivated sessions evicted from the off-heap session store for lack of space, if it is enabled.
+     */
+    long getOffHeapSessionEvictions();
+
+    /**
+     * Gets the number of session location lookups, used for jvm route and ownership decisions, which were served from the
+     * local cache of session locations.
+     */
+    long getLocationCacheHits();
+
+    /**
+     * Gets the number of session location lookups which had to consult the current cluster topology.
+     */
+    long getLocationCacheMisses();
+
     /**
      * Get the maximum interval between requests, in seconds, after which a request will trigger replication of the session's
      * metadata regardless of whether the request has otherwise made the session dirty. Such replication ensures that other
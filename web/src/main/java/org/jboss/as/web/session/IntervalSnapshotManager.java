@@ -124,6 +124,13 @@ public class IntervalSnapshotManager extends SnapshotManager implements Runnable
         }
     }
 
+    @Override
+    public int getQueueSize() {
+        synchronized (sessions) {
+            return sessions.size();
+        }
+    }
+
     /**
      * Start the distributor thread
      */
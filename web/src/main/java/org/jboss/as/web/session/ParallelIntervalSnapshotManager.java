@@ -0,0 +1,287 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.web.session;
+
+import static org.jboss.as.web.WebMessages.MESSAGES;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.clustering.web.BatchingManager;
+import org.jboss.as.clustering.web.OutgoingDistributableSessionData;
+
+/**
+ * A snapshot manager that, like {@link IntervalSnapshotManager}, collects the sessions modified over a given period of
+ * time, but distributes them with several threads.
+ * <p/>
+ * Modified sessions are partitioned by session id, so a session is always distributed by the same thread, and a session
+ * modified several times within an interval is distributed once. Each thread distributes its sessions in batches, each
+ * of which is a single {@link BatchingManager} batch.
+ * <p/>
+ * Once the number of queued sessions reaches the configured maximum, further modified sessions are distributed by the
+ * request thread itself, as {@link InstantSnapshotManager} does, which slows down the requests until the distributor
+ * threads catch up. The sessions of a batch that could not be committed are queued again.
+ */
+public class ParallelIntervalSnapshotManager extends SnapshotManager {
+    static final int BATCH_SIZE = 100;
+
+    private final int interval;
+    private final int maxQueued;
+    private final List<Partition> partitions;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong overflows = new AtomicLong();
+
+    private volatile boolean processingAllowed = false;
+    private ScheduledExecutorService executor = null;
+
+    /**
+     * @param manager the session manager
+     * @param path the context path
+     * @param interval the interval, in milliseconds, at which each thread distributes its sessions
+     * @param threads the number of distributor threads
+     * @param maxQueued the number of queued sessions beyond which modified sessions are distributed by the request thread
+     */
+    public ParallelIntervalSnapshotManager(ClusteredSessionManager<? extends OutgoingDistributableSessionData> manager, String path, int interval, int threads, int maxQueued) {
+        super(manager, path);
+        this.interval = interval;
+        this.maxQueued = maxQueued;
+        this.partitions = new ArrayList<Partition>(threads);
+        for (int i = 0; i < threads; ++i) {
+            this.partitions.add(new Partition());
+        }
+    }
+
+    /**
+     * Queues the modified session for the distributor thread of its partition, unless the queue is full.
+     */
+    @Override
+    public void snapshot(ClusteredSession<? extends OutgoingDistributableSessionData> session) {
+        if (session == null) return;
+        try {
+            String id = session.getRealId();
+            Partition partition = this.partitions.get(this.partitionOf(id));
+            if (partition.sessions.containsKey(id)) return;
+            if (this.queued.get() >= this.maxQueued) {
+                this.overflows.incrementAndGet();
+                getManager().storeSession(session);
+                return;
+            }
+            this.enqueue(partition, new QueuedSession(session));
+        } catch (Exception e) {
+            getLog().error(MESSAGES.failedQueueingSessionReplication(session), e);
+        }
+    }
+
+    /**
+     * Distributes the queued sessions of a partition.
+     */
+    protected void processSessions(Partition partition) {
+        List<QueuedSession> batch = new ArrayList<QueuedSession>(BATCH_SIZE);
+        // Sessions queued from now on set the oldest enqueue time again, unless they are distributed by this run
+        partition.oldest.set(0);
+        Iterator<QueuedSession> sessions = partition.sessions.values().iterator();
+        while (this.processingAllowed && sessions.hasNext()) {
+            QueuedSession queuedSession = sessions.next();
+            // A session queued again from now on will be distributed in a later run
+            if (partition.sessions.remove(queuedSession.session.getRealId(), queuedSession)) {
+                this.queued.decrementAndGet();
+                batch.add(queuedSession);
+                if (batch.size() == BATCH_SIZE) {
+                    this.processBatch(partition, batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            this.processBatch(partition, batch);
+        }
+    }
+
+    private void processBatch(Partition partition, List<QueuedSession> batch) {
+        SessionManager manager = getManager();
+        BatchingManager batchingManager = ((ClusteredSessionManager<?>) manager).getDistributedCacheManager().getBatchingManager();
+        boolean endBatch = false;
+        try {
+            try {
+                batchingManager.startBatch();
+                endBatch = true;
+            } catch (Exception e) {
+                // Distribute the sessions in batches of their own
+                getLog().error(MESSAGES.exceptionProcessingSessions(), e);
+            }
+            for (QueuedSession queuedSession : batch) {
+                // Confirm we haven't been stopped
+                if (!this.processingAllowed) break;
+
+                try {
+                    manager.storeSession(queuedSession.session);
+                } catch (Exception e) {
+                    getLog().error(MESSAGES.failedToStoreSession(queuedSession.session.getRealId()), e);
+                }
+            }
+        } finally {
+            if (endBatch) {
+                try {
+                    batchingManager.endBatch();
+                } catch (RuntimeException e) {
+                    getLog().error(MESSAGES.exceptionProcessingSessions(), e);
+                    // The sessions were removed from the partition before the batch was committed, so queue them again
+                    for (QueuedSession queuedSession : batch) {
+                        if (!this.processingAllowed) break;
+                        this.enqueue(partition, queuedSession);
+                    }
+                }
+            }
+        }
+    }
+
+    private void enqueue(Partition partition, QueuedSession queuedSession) {
+        if (partition.sessions.putIfAbsent(queuedSession.session.getRealId(), queuedSession) == null) {
+            this.queued.incrementAndGet();
+            partition.queued(queuedSession.queued);
+        }
+    }
+
+    /**
+     * Start the snapshot manager
+     */
+    @Override
+    public synchronized void start() {
+        if (this.executor != null) return;
+        this.processingAllowed = true;
+        final ClassLoader loader = getManager().getContainer().getLoader().getClassLoader();
+        final AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread thread = new Thread(task, "ClusteredSessionDistributor[" + getContextPath() + "]-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setContextClassLoader(loader);
+                return thread;
+            }
+        };
+        this.executor = new ScheduledThreadPoolExecutor(this.partitions.size(), factory);
+        for (final Partition partition : this.partitions) {
+            Runnable task = new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        processSessions(partition);
+                    } catch (Throwable e) {
+                        getLog().error(MESSAGES.exceptionProcessingSessions(), e);
+                    }
+                }
+            };
+            this.executor.scheduleWithFixedDelay(task, this.interval, this.interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stop the snapshot manager
+     */
+    @Override
+    public synchronized void stop() {
+        this.processingAllowed = false;
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+            boolean interrupted = false;
+            try {
+                this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+            this.executor = null;
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Partition partition : this.partitions) {
+            partition.sessions.clear();
+            partition.oldest.set(0);
+        }
+        this.queued.set(0);
+    }
+
+    @Override
+    public int getQueueSize() {
+        return this.queued.get();
+    }
+
+    @Override
+    public long getOldestQueuedAge() {
+        long oldest = Long.MAX_VALUE;
+        for (Partition partition : this.partitions) {
+            long queued = partition.oldest.get();
+            if (queued != 0) {
+                oldest = Math.min(oldest, queued);
+            }
+        }
+        return (oldest != Long.MAX_VALUE) ? Math.max(System.currentTimeMillis() - oldest, 0) : 0;
+    }
+
+    /**
+     * @return the number of modified sessions distributed by the request thread since the queue was full
+     */
+    public long getOverflowCount() {
+        return this.overflows.get();
+    }
+
+    private int partitionOf(String id) {
+        int hash = id.hashCode();
+        // Spread the hash, since session ids only differ in a few characters
+        hash ^= (hash >>> 16);
+        return (hash & Integer.MAX_VALUE) % this.partitions.size();
+    }
+
+    /**
+     * The sessions distributed by one thread, along with the enqueue time of the oldest of them, or 0 if there are none.
+     */
+    protected static class Partition {
+        final ConcurrentMap<String, QueuedSession> sessions = new ConcurrentHashMap<String, QueuedSession>();
+        final AtomicLong oldest = new AtomicLong();
+
+        void queued(long time) {
+            long current = this.oldest.get();
+            while (((current == 0) || (time < current)) && !this.oldest.compareAndSet(current, time)) {
+                current = this.oldest.get();
+            }
+        }
+    }
+
+    private static class QueuedSession {
+        final ClusteredSession<? extends OutgoingDistributableSessionData> session;
+        final long queued = System.currentTimeMillis();
+
+        QueuedSession(ClusteredSession<? extends OutgoingDistributableSessionData> session) {
+            this.session = session;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.web.session;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Session ids ordered by a time, e.g. the time at which the session was last accessed.
+ * <p/>
+ * The index is meant to be maintained lazily: the time of a session may be earlier than its actual one, in which case
+ * whoever processes the session when its indexed time comes is expected to index it again with its actual time.
+ */
+class SessionAccessIndex implements Iterable<SessionAccessIndex.Entry> {
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+    private final ConcurrentSkipListSet<Entry> ordered = new ConcurrentSkipListSet<Entry>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Indexes a session with the specified time, replacing its previous time, if any.
+     */
+    void index(String id, long time) {
+        Entry entry = new Entry(id, time, this.sequence.incrementAndGet());
+        Entry previous = this.entries.put(id, entry);
+        if (previous != null) {
+            this.ordered.remove(previous);
+        }
+        this.ordered.add(entry);
+    }
+
+    void remove(String id) {
+        Entry entry = this.entries.remove(id);
+        if (entry != null) {
+            this.ordered.remove(entry);
+        }
+    }
+
+    void remove(Entry entry) {
+        this.entries.remove(entry.getId(), entry);
+        this.ordered.remove(entry);
+    }
+
+    void clear() {
+        this.entries.clear();
+        this.ordered.clear();
+    }
+
+    int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Removes the sessions whose time is no later than the specified time from the index.
+     *
+     * @return the ids of the removed sessions, earliest first
+     */
+    List<String> removeUntil(long time) {
+        List<String> ids = new ArrayList<String>();
+        Entry entry = this.ordered.pollFirst();
+        while (entry != null) {
+            if (entry.getTime() > time) {
+                this.ordered.add(entry);
+                break;
+            }
+            // Skip entries which lost a race against a concurrent index of the same session
+            if (this.entries.remove(entry.getId(), entry)) {
+                ids.add(entry.getId());
+            }
+            entry = this.ordered.pollFirst();
+        }
+        return ids;
+    }
+
+    /**
+     * Iterates over the indexed sessions, earliest first. Entries which are indexed again while iterating may or may not be
+     * seen again.
+     */
+    @Override
+    public Iterator<Entry> iterator() {
+        final Iterator<Entry> iterator = this.ordered.iterator();
+        return new Iterator<Entry>() {
+            private Entry next = this.advance();
+
+            private Entry advance() {
+                while (iterator.hasNext()) {
+                    Entry entry = iterator.next();
+                    if (SessionAccessIndex.this.entries.get(entry.getId()) == entry) {
+                        return entry;
+                    }
+                    // Superseded by a concurrent index of the same session
+                    SessionAccessIndex.this.ordered.remove(entry);
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.next != null;
+            }
+
+            @Override
+            public Entry next() {
+                Entry entry = this.next;
+                if (entry == null) {
+                    throw new NoSuchElementException();
+                }
+                this.next = this.advance();
+                return entry;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    static class Entry implements Comparable<Entry> {
+        private final String id;
+        private final long time;
+        private final long sequence;
+
+        Entry(String id, long time, long sequence) {
+            this.id = id;
+            this.time = time;
+            this.sequence = sequence;
+        }
+
+        String getId() {
+            return this.id;
+        }
+
+        long getTime() {
+            return this.time;
+        }
+
+        @Override
+        public int compareTo(Entry entry) {
+            if (this.time != entry.time) {
+                return (this.time < entry.time) ? -1 : 1;
+            }
+            return (this.sequence < entry.sequence) ? -1 : ((this.sequence == entry.sequence) ? 0 : 1);
+        }
+    }
+}
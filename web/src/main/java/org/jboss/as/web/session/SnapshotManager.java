@@ -63,6 +63,20 @@ public abstract class SnapshotManager {
      */
     public abstract void stop();
 
+    /**
+     * Returns the number of modified sessions waiting to be replicated
+     */
+    public int getQueueSize() {
+        return 0;
+    }
+
+    /**
+     * Returns how long, in milliseconds, the longest waiting modified session has been waiting to be replicated
+     */
+    public long getOldestQueuedAge() {
+        return 0;
+    }
+
     protected String getContextPath() {
         return contextPath;
     }
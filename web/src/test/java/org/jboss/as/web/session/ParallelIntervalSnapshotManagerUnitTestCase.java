@@ -0,0 +1,152 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.web.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
+
+import org.apache.catalina.Container;
+import org.apache.catalina.Loader;
+import org.jboss.as.clustering.web.BatchingManager;
+import org.jboss.as.clustering.web.DistributedCacheManager;
+import org.jboss.as.clustering.web.OutgoingDistributableSessionData;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link ParallelIntervalSnapshotManager}.
+ */
+public class ParallelIntervalSnapshotManagerUnitTestCase {
+
+    @SuppressWarnings("unchecked")
+    private final ClusteredSessionManager<OutgoingDistributableSessionData> manager = mock(ClusteredSessionManager.class);
+    @SuppressWarnings("unchecked")
+    private final DistributedCacheManager<OutgoingDistributableSessionData> cacheManager = mock(DistributedCacheManager.class);
+    private final BatchingManager batchingManager = mock(BatchingManager.class);
+
+    public ParallelIntervalSnapshotManagerUnitTestCase() {
+        Container container = mock(Container.class);
+        Loader loader = mock(Loader.class);
+        when(this.manager.getContainer()).thenReturn(container);
+        when(container.getLoader()).thenReturn(loader);
+        when(loader.getClassLoader()).thenReturn(this.getClass().getClassLoader());
+        when(this.manager.getDistributedCacheManager()).thenReturn(this.cacheManager);
+        when(this.cacheManager.getBatchingManager()).thenReturn(this.batchingManager);
+    }
+
+    @Test
+    public void testCoalescing() throws Exception {
+        ParallelIntervalSnapshotManager snapshotManager = new ParallelIntervalSnapshotManager(this.manager, "/test", 3600000, 2, Integer.MAX_VALUE);
+        snapshotManager.start();
+        try {
+            ClusteredSession<OutgoingDistributableSessionData> session = mockSession("a");
+            snapshotManager.snapshot(session);
+            snapshotManager.snapshot(session);
+            snapshotManager.snapshot(mockSession("b"));
+
+            assertEquals(2, snapshotManager.getQueueSize());
+            verify(this.manager, never()).storeSession(same(session));
+        } finally {
+            snapshotManager.stop();
+        }
+        assertEquals(0, snapshotManager.getQueueSize());
+    }
+
+    @Test
+    public void testBackpressure() throws Exception {
+        ParallelIntervalSnapshotManager snapshotManager = new ParallelIntervalSnapshotManager(this.manager, "/test", 3600000, 2, 1);
+        snapshotManager.start();
+        try {
+            ClusteredSession<OutgoingDistributableSessionData> queued = mockSession("a");
+            ClusteredSession<OutgoingDistributableSessionData> overflow = mockSession("b");
+            snapshotManager.snapshot(queued);
+            snapshotManager.snapshot(overflow);
+
+            assertEquals(1, snapshotManager.getQueueSize());
+            assertEquals(1, snapshotManager.getOverflowCount());
+            verify(this.manager).storeSession(same(overflow));
+            verify(this.manager, never()).storeSession(same(queued));
+        } finally {
+            snapshotManager.stop();
+        }
+    }
+
+    @Test
+    public void testBatchedDistribution() throws Exception {
+        ParallelIntervalSnapshotManager snapshotManager = new ParallelIntervalSnapshotManager(this.manager, "/test", 10, 1, Integer.MAX_VALUE);
+        ClusteredSession<OutgoingDistributableSessionData> first = mockSession("a");
+        ClusteredSession<OutgoingDistributableSessionData> second = mockSession("b");
+        snapshotManager.snapshot(first);
+        snapshotManager.snapshot(second);
+        snapshotManager.start();
+        try {
+            verify(this.manager, timeout(5000)).storeSession(same(first));
+            verify(this.manager, timeout(5000)).storeSession(same(second));
+            verify(this.batchingManager, timeout(5000)).endBatch();
+            verify(this.batchingManager).startBatch();
+            assertEquals(0, snapshotManager.getQueueSize());
+            assertEquals(0, snapshotManager.getOldestQueuedAge());
+        } finally {
+            snapshotManager.stop();
+        }
+    }
+
+    @Test
+    public void testFailedBatchIsRequeued() throws Exception {
+        doThrow(new IllegalStateException()).doNothing().when(this.batchingManager).endBatch();
+        ParallelIntervalSnapshotManager snapshotManager = new ParallelIntervalSnapshotManager(this.manager, "/test", 10, 1, Integer.MAX_VALUE);
+        ClusteredSession<OutgoingDistributableSessionData> session = mockSession("a");
+        snapshotManager.snapshot(session);
+        snapshotManager.start();
+        try {
+            verify(this.batchingManager, timeout(5000).times(2)).endBatch();
+            verify(this.manager, times(2)).storeSession(same(session));
+            assertEquals(0, snapshotManager.getQueueSize());
+        } finally {
+            snapshotManager.stop();
+        }
+    }
+
+    @Test
+    public void testOldestQueuedAge() throws Exception {
+        ParallelIntervalSnapshotManager snapshotManager = new ParallelIntervalSnapshotManager(this.manager, "/test", 3600000, 2, Integer.MAX_VALUE);
+        snapshotManager.start();
+        try {
+            assertEquals(0, snapshotManager.getOldestQueuedAge());
+            snapshotManager.snapshot(mockSession("a"));
+            Thread.sleep(50);
+            snapshotManager.snapshot(mockSession("b"));
+
+            assertTrue(snapshotManager.getOldestQueuedAge() >= 50);
+        } finally {
+            snapshotManager.stop();
+        }
+        assertEquals(0, snapshotManager.getOldestQueuedAge());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ClusteredSession<OutgoingDistributableSessionData> mockSession(String id) {
+        ClusteredSession<OutgoingDistributableSessionData> session = mock(ClusteredSession.class);
+        when(session.getRealId()).thenReturn(id);
+        return session;
+    }
+}
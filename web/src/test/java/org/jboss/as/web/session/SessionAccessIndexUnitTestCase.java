@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.web.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link SessionAccessIndex}.
+ */
+public class SessionAccessIndexUnitTestCase {
+
+    @Test
+    public void testRemoveUntil() {
+        SessionAccessIndex index = new SessionAccessIndex();
+        index.index("c", 30);
+        index.index("a", 10);
+        index.index("b", 20);
+        // Same time as another session
+        index.index("d", 20);
+
+        assertEquals(Arrays.asList("a", "b", "d"), index.removeUntil(20));
+        assertEquals(1, index.size());
+        assertEquals(Collections.<String>emptyList(), index.removeUntil(29));
+        assertEquals(Arrays.asList("c"), index.removeUntil(100));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testReindex() {
+        SessionAccessIndex index = new SessionAccessIndex();
+        index.index("a", 10);
+        index.index("b", 20);
+        index.index("a", 30);
+
+        assertEquals(Arrays.asList("b", "a"), ids(index));
+        assertEquals(2, index.size());
+
+        index.remove("b");
+        assertEquals(Arrays.asList("a"), ids(index));
+        index.remove("b");
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void testIterateWhileReindexing() {
+        SessionAccessIndex index = new SessionAccessIndex();
+        index.index("a", 10);
+        index.index("b", 20);
+        index.index("c", 30);
+
+        List<String> ids = new ArrayList<String>();
+        for (SessionAccessIndex.Entry entry : index) {
+            ids.add(entry.getId());
+            if (entry.getId().equals("a")) {
+                // Moved behind b
+                index.index("a", 25);
+            } else if (entry.getId().equals("c")) {
+                index.remove(entry);
+            }
+        }
+        // Whether the reindexed session is seen again is unspecified
+        assertEquals(Arrays.asList("a", "b"), ids.subList(0, 2));
+        assertEquals("c", ids.get(ids.size() - 1));
+        assertEquals(Arrays.asList("b", "a"), ids(index));
+        assertFalse(index.removeUntil(20).contains("a"));
+    }
+
+    private static List<String> ids(SessionAccessIndex index) {
+        List<String> ids = new ArrayList<String>();
+        for (SessionAccessIndex.Entry entry : index) {
+            ids.add(entry.getId());
+        }
+        return ids;
+    }
+}
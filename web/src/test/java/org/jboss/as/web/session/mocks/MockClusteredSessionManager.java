@@ -217,6 +217,10 @@ public class MockClusteredSessionManager extends MockSessionManager implements
         return -1;
     }
 
+    @Override
+    public void attributesUnmarshalled(long bytes) {
+    }
+
     public ClusteredSessionNotificationPolicy getNotificationPolicy() {
         return new LegacyClusteredSessionNotificationPolicy();
     }
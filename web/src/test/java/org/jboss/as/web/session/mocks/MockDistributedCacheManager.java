@@ -152,6 +152,31 @@ public class MockDistributedCacheManager implements DistributedCacheManager<Outg
         return null;
     }
 
+    @Override
+    public long getLocationCacheHits() {
+        return 0;
+    }
+
+    @Override
+    public long getLocationCacheMisses() {
+        return 0;
+    }
+
+    @Override
+    public int getOffHeapSessionCount() {
+        return 0;
+    }
+
+    @Override
+    public long getOffHeapSessionSize() {
+        return 0;
+    }
+
+    @Override
+    public long getOffHeapSessionEvictions() {
+        return 0;
+    }
+
     @Override
     public String createSessionId() {
         return null;
@@ -26,6 +26,7 @@ import java.util.Collection;
 import java.util.Collections;
 
 import org.jboss.as.clustering.web.ClusteringNotSupportedException;
+import org.jboss.as.clustering.web.DistributableSessionConfiguration;
 import org.jboss.as.clustering.web.DistributedCacheManager;
 import org.jboss.as.clustering.web.DistributedCacheManagerFactory;
 import org.jboss.as.clustering.web.LocalDistributableSessionManager;
@@ -52,7 +53,7 @@ public class MockDistributedCacheManagerFactory implements DistributedCacheManag
     }
 
     @Override
-    public boolean addDeploymentDependencies(ServiceName deploymentServiceName, ServiceRegistry registry, ServiceTarget target, ServiceBuilder<?> builder, JBossWebMetaData metaData) {
+    public boolean addDeploymentDependencies(ServiceName deploymentServiceName, ServiceRegistry registry, ServiceTarget target, ServiceBuilder<?> builder, JBossWebMetaData metaData, DistributableSessionConfiguration sessionConfig) {
         return true;
     }
 